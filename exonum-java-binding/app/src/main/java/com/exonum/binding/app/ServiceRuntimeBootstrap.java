@@ -23,6 +23,7 @@ import static com.google.common.base.StandardSystemProperty.OS_NAME;
 import static com.google.common.base.StandardSystemProperty.OS_VERSION;
 
 import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.core.runtime.AfterCommitConfiguration;
 import com.exonum.binding.core.runtime.FrameworkModule;
 import com.exonum.binding.core.runtime.ServiceRuntimeAdapter;
 import com.exonum.binding.core.service.Service;
@@ -97,7 +98,7 @@ public final class ServiceRuntimeBootstrap {
 
       // Create the framework injector
       Module frameworkModule = new FrameworkModule(Paths.get(serviceArtifactsDir), serverPort,
-          DEPENDENCY_REFERENCE_CLASSES);
+          DEPENDENCY_REFERENCE_CLASSES, AfterCommitConfiguration.fromSystemProperties());
       Injector frameworkInjector = Guice.createInjector(APP_STAGE, frameworkModule);
 
       return frameworkInjector.getInstance(ServiceRuntimeAdapter.class);
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.hash;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the SHA-256 hash functions: the {@linkplain Hashing#sha256() default} one,
+ * reusing the digests; the one using libsodium, if it is available; and the one
+ * creating a JDK digest for each hasher.
+ *
+ * <p>Run with: {@code java -jar benchmarks/target/benchmarks.jar Sha256HashFunctionBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Sha256HashFunctionBenchmark {
+
+  private static final byte NODE_PREFIX = 0x01;
+
+  @Param({"reusing", "native", "jdk"})
+  private String function;
+
+  @Param({"32", "64", "1024"})
+  private int inputSize;
+
+  private HashFunction hashFunction;
+  private byte[] input;
+  private HashCode leftHash;
+  private HashCode rightHash;
+
+  @Setup
+  public void setUp() {
+    switch (function) {
+      case "reusing":
+        hashFunction = new Sha256HashFunction(false, function);
+        break;
+      case "native":
+        Sha256HashFunction nativeFunction = new Sha256HashFunction(true, function);
+        if (!nativeFunction.usesNative()) {
+          throw new IllegalStateException("libsodium is not available");
+        }
+        hashFunction = nativeFunction;
+        break;
+      case "jdk":
+        hashFunction = new MessageDigestHashFunction("SHA-256", function);
+        break;
+      default:
+        throw new AssertionError("Unknown function: " + function);
+    }
+    Random random = new Random(inputSize);
+    input = new byte[inputSize];
+    random.nextBytes(input);
+    leftHash = hashFunction.hashBytes(input);
+    rightHash = hashFunction.hashBytes(leftHash.asBytes());
+  }
+
+  /**
+   * Hashes a byte array at once.
+   */
+  @Benchmark
+  public HashCode hashBytes() {
+    return hashFunction.hashBytes(input);
+  }
+
+  /**
+   * Hashes a byte array with a hasher.
+   */
+  @Benchmark
+  public HashCode hasherPutBytes() {
+    return hashFunction.newHasher()
+        .putBytes(input)
+        .hash();
+  }
+
+  /**
+   * Hashes a branch node of a Merkle tree, as the proof verification does.
+   */
+  @Benchmark
+  public HashCode hashBranchNode() {
+    return hashFunction.newHasher()
+        .putByte(NODE_PREFIX)
+        .putObject(leftHash, Funnels.hashCodeFunnel())
+        .putObject(rightHash, Funnels.hashCodeFunnel())
+        .hash();
+  }
+}
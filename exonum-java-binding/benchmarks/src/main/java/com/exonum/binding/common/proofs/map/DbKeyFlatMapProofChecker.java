@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.map;
+
+import static com.exonum.binding.common.hash.Funnels.hashCodeFunnel;
+import static com.exonum.binding.common.proofs.DbKeyCompressedFunnel.dbKeyCompressedFunnel;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The previous implementation of the {@link UncheckedFlatMapProof#check()} for proofs
+ * of several nodes, operating on {@link DbKey}s. It is kept as a baseline
+ * for {@link MapProofCheckBenchmark}.
+ */
+final class DbKeyFlatMapProofChecker {
+
+  private static final HashFunction HASH_FUNCTION = Hashing.defaultHashFunction();
+
+  private final List<MapProofEntry> proof;
+  private final List<MapEntry<ByteString, ByteString>> entries;
+  private final List<ByteString> missingKeys;
+
+  DbKeyFlatMapProofChecker(List<MapProofEntry> proof,
+      List<MapEntry<ByteString, ByteString>> entries, List<ByteString> missingKeys) {
+    this.proof = proof;
+    this.entries = entries;
+    this.missingKeys = missingKeys;
+  }
+
+  /**
+   * Returns the index hash of the proof; or {@code null} if the proof is not valid.
+   */
+  HashCode check() {
+    if (orderCheck() != MapProofStatus.CORRECT || containsInvalidHashes()
+        || prefixesIncluded()) {
+      return null;
+    }
+    return checkProof();
+  }
+
+  private MapProofStatus orderCheck() {
+    for (int i = 1; i < proof.size(); i++) {
+      DbKey key = proof.get(i - 1).getDbKey();
+      DbKey nextKey = proof.get(i).getDbKey();
+      int comparisonResult = key.compareTo(nextKey);
+      if (comparisonResult < 0) {
+        if (key.isPrefixOf(nextKey)) {
+          return MapProofStatus.EMBEDDED_PATH;
+        }
+      } else if (comparisonResult == 0) {
+        return MapProofStatus.DUPLICATE_PATH;
+      } else {
+        return MapProofStatus.INVALID_ORDER;
+      }
+    }
+    return MapProofStatus.CORRECT;
+  }
+
+  private boolean containsInvalidHashes() {
+    return proof.stream()
+        .map(MapProofEntry::getHash)
+        .map(HashCode::bits)
+        .anyMatch(size -> size != Hashing.DEFAULT_HASH_SIZE_BITS);
+  }
+
+  private boolean prefixesIncluded() {
+    List<ByteString> requestedKeys = new ArrayList<>(missingKeys);
+    entries.forEach(e -> requestedKeys.add(e.getKey()));
+    return requestedKeys.stream()
+        .map(DbKey::newLeafKey)
+        .anyMatch(leafEntryKey -> proof.stream()
+            .map(MapProofEntry::getDbKey)
+            .anyMatch(proofEntryKey -> proofEntryKey.isPrefixOf(leafEntryKey)));
+  }
+
+  private HashCode checkProof() {
+    List<MapProofEntry> proofList = mergeLeavesWithBranches();
+    Deque<MapProofEntry> contour = new ArrayDeque<>();
+    MapProofEntry first = proofList.get(0);
+    MapProofEntry second = proofList.get(1);
+    DbKey lastPrefix = first.getDbKey().commonPrefix(second.getDbKey());
+    contour.push(first);
+    contour.push(second);
+    for (int i = 2; i < proofList.size(); i++) {
+      MapProofEntry currentEntry = proofList.get(i);
+      DbKey newPrefix = contour.peek().getDbKey().commonPrefix(currentEntry.getDbKey());
+      while (contour.size() > 1
+          && newPrefix.getNumSignificantBits() < lastPrefix.getNumSignificantBits()) {
+        lastPrefix = fold(contour, lastPrefix).orElse(lastPrefix);
+      }
+      contour.push(currentEntry);
+      lastPrefix = newPrefix;
+    }
+    while (contour.size() > 1) {
+      lastPrefix = fold(contour, lastPrefix).orElse(lastPrefix);
+    }
+    return HASH_FUNCTION.newHasher()
+        .putByte(UncheckedFlatMapProof.MAP_ROOT_PREFIX)
+        .putObject(contour.peek().getHash(), hashCodeFunnel())
+        .hash();
+  }
+
+  private List<MapProofEntry> mergeLeavesWithBranches() {
+    List<MapProofEntry> proofContour = new ArrayList<>(proof.size() + entries.size());
+    proofContour.addAll(proof);
+    entries.stream()
+        .map(e -> new MapProofEntry(DbKey.newLeafKey(e.getKey()), getLeafEntryHash(e.getValue())))
+        .forEach(proofContour::add);
+    proofContour.sort(Comparator.comparing(MapProofEntry::getDbKey));
+    return proofContour;
+  }
+
+  private static Optional<DbKey> fold(Deque<MapProofEntry> contour, DbKey lastPrefix) {
+    MapProofEntry lastEntry = contour.pop();
+    MapProofEntry penultimateEntry = contour.pop();
+    MapProofEntry newEntry =
+        new MapProofEntry(lastPrefix, computeBranchHash(penultimateEntry, lastEntry));
+    Optional<DbKey> commonPrefix;
+    if (!contour.isEmpty()) {
+      MapProofEntry previousEntry = contour.peek();
+      commonPrefix = Optional.of(previousEntry.getDbKey().commonPrefix(lastPrefix));
+    } else {
+      commonPrefix = Optional.empty();
+    }
+    contour.push(newEntry);
+    return commonPrefix;
+  }
+
+  private static HashCode getLeafEntryHash(ByteString entryValue) {
+    return HASH_FUNCTION.newHasher()
+        .putByte(UncheckedFlatMapProof.BLOB_PREFIX)
+        .putBytes(entryValue.toByteArray())
+        .hash();
+  }
+
+  private static HashCode computeBranchHash(MapProofEntry leftChild, MapProofEntry rightChild) {
+    return HASH_FUNCTION.newHasher()
+        .putByte(UncheckedFlatMapProof.MAP_NODE_PREFIX)
+        .putObject(leftChild.getHash(), hashCodeFunnel())
+        .putObject(rightChild.getHash(), hashCodeFunnel())
+        .putObject(leftChild.getDbKey(), dbKeyCompressedFunnel())
+        .putObject(rightChild.getDbKey(), dbKeyCompressedFunnel())
+        .hash();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.map;
+
+import static java.util.Collections.emptyList;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the verification of flat map proofs with the given number of requested entries
+ * and proof nodes. Compares {@link UncheckedFlatMapProof#check()} with
+ * the {@linkplain DbKeyFlatMapProofChecker previous implementation}, operating on DbKeys.
+ *
+ * <p>Run with: {@code java -jar benchmarks/target/benchmarks.jar MapProofCheckBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapProofCheckBenchmark {
+
+  @Param({"4", "64", "1024"})
+  private int numEntries;
+
+  private List<MapProofEntry> proof;
+  private List<MapEntry<ByteString, ByteString>> entries;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(numEntries);
+    // The proof nodes are leaves with random keys, which are verified to be sorted
+    List<DbKey> proofKeys = new ArrayList<>(numEntries);
+    for (int i = 0; i < numEntries; i++) {
+      proofKeys.add(DbKey.newLeafKey(randomBytes(random, DbKey.KEY_SIZE)));
+    }
+    proofKeys.sort(DbKey::compareTo);
+    proof = new ArrayList<>(numEntries);
+    for (DbKey key : proofKeys) {
+      HashCode hash = HashCode.fromBytes(randomBytes(random, Hashing.DEFAULT_HASH_SIZE_BYTES));
+      proof.add(new MapProofEntry(key, hash));
+    }
+    // The requested entries are in random order
+    entries = new ArrayList<>(numEntries);
+    for (int i = 0; i < numEntries; i++) {
+      ByteString key = ByteString.copyFrom(randomBytes(random, DbKey.KEY_SIZE));
+      ByteString value = ByteString.copyFrom(randomBytes(random, 16));
+      entries.add(MapEntry.valueOf(key, value));
+    }
+  }
+
+  @Benchmark
+  public CheckedMapProof checkProof() {
+    return new UncheckedFlatMapProof(proof, entries, emptyList())
+        .check();
+  }
+
+  @Benchmark
+  public HashCode checkProofWithDbKeys() {
+    return new DbKeyFlatMapProofChecker(proof, entries, emptyList())
+        .check();
+  }
+
+  private static byte[] randomBytes(Random random, int size) {
+    byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.core.runtime;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import com.exonum.binding.core.runtime.invocation.Invocation;
+import com.exonum.binding.core.transaction.TransactionContext;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the overhead of the invocations of the transaction methods: the one
+ * {@linkplain TransactionInvocations#forMethod generated} with the LambdaMetafactory;
+ * and the one {@linkplain TransactionInvocations#forMethodHandle using} the method handle.
+ * The direct call of the transaction method is the baseline.
+ *
+ * <p>Run with: {@code java -jar benchmarks/target/benchmarks.jar TransactionInvocationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionInvocationBenchmark {
+
+  @Param({"generated", "methodHandle"})
+  private String invocationType;
+
+  private final TestService service = new TestService();
+  private final byte[] arguments = new byte[0];
+  private final TransactionContext context = null;
+  private Invocation invocation;
+
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    MethodHandle transactionMethod = MethodHandles.lookup()
+        .findVirtual(TestService.class, "transactionMethod",
+            methodType(void.class, byte[].class, TransactionContext.class));
+    switch (invocationType) {
+      case "generated":
+        try {
+          invocation = TransactionInvocations.generateInvocation(TestService.class,
+              transactionMethod);
+        } catch (Throwable e) {
+          throw new IllegalStateException("Cannot generate the invocation", e);
+        }
+        break;
+      case "methodHandle":
+        invocation = TransactionInvocations.forMethodHandle(transactionMethod);
+        break;
+      default:
+        throw new AssertionError("Unknown invocation type: " + invocationType);
+    }
+  }
+
+  /**
+   * Invokes the transaction method with the invocation.
+   */
+  @Benchmark
+  public long invoke() throws Throwable {
+    invocation.invoke(service, arguments, context);
+    return service.invocations;
+  }
+
+  /**
+   * Invokes the transaction method directly.
+   */
+  @Benchmark
+  public long invokeDirectly() {
+    service.transactionMethod(arguments, context);
+    return service.invocations;
+  }
+
+  static final class TestService {
+
+    long invocations;
+
+    void transactionMethod(byte[] arguments, TransactionContext context) {
+      invocations += arguments.length + 1;
+    }
+  }
+}
@@ -16,6 +16,12 @@
 
 package com.exonum.binding.common.crypto;
 
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
 /**
  * A crypto function that provides several signature system crypto methods.
  * All method arguments can't be null otherwise {@link NullPointerException} will be thrown.
@@ -43,6 +49,25 @@ public interface CryptoFunction {
    */
   byte[] signMessage(byte[] message, PrivateKey privateKey);
 
+  /**
+   * Given a {@code privateKey}, computes and returns a signature for the message contained
+   * in the given range of the {@code buffer}. This method is equivalent to invoking
+   * {@link #signMessage(byte[], PrivateKey)} with a copy of the range, but implementations
+   * may sign the message in place.
+   *
+   * @param buffer a buffer containing the message
+   * @param offset the offset of the message in the buffer
+   * @param length the length of the message
+   * @return signature as a byte array
+   * @throws IndexOutOfBoundsException if the range is not within the buffer
+   * @throws IllegalArgumentException if the private key is not valid for this cryptographic
+   *     function
+   */
+  default byte[] signMessage(byte[] buffer, int offset, int length, PrivateKey privateKey) {
+    checkPositionIndexes(offset, offset + length, buffer.length);
+    return signMessage(Arrays.copyOfRange(buffer, offset, offset + length), privateKey);
+  }
+
   /**
    * Given a {@code publicKey}, verifies that {@code signature} is a valid signature for the
    * supplied {@code message}.
@@ -50,4 +75,28 @@ public interface CryptoFunction {
    * @return true if signature is valid, false otherwise
    */
   boolean verify(byte[] message, byte[] signature, PublicKey publicKey);
+
+  /**
+   * Verifies the signatures of the given items, each against its own public key.
+   * This method is equivalent to invoking {@link #verify(byte[], byte[], PublicKey)}
+   * for each item, but implementations may verify the items more efficiently,
+   * e.g., in parallel.
+   *
+   * @param items the messages with their signatures and public keys
+   * @return a bit set, in which the bit <em>i</em> is set if the signature of the item
+   *     at index <em>i</em> is valid; and clear otherwise
+   * @throws IllegalArgumentException if any of the public keys is not valid for this
+   *     cryptographic function
+   */
+  default BitSet verifyBatch(List<SignedData> items) {
+    BitSet valid = new BitSet(items.size());
+    int i = 0;
+    for (SignedData item : items) {
+      if (verify(item.getMessage(), item.getSignature(), item.getPublicKey())) {
+        valid.set(i);
+      }
+      i++;
+    }
+    return valid;
+  }
 }
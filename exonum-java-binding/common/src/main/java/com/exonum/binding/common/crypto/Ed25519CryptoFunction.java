@@ -22,12 +22,17 @@ import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.SEED_BYTE
 import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.SIGNATURE_BYTES;
 import static com.exonum.binding.common.crypto.CryptoUtils.hasLength;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.goterl.lazycode.lazysodium.LazySodiumJava;
 import com.goterl.lazycode.lazysodium.SodiumJava;
 import com.goterl.lazycode.lazysodium.utils.LibraryLoader;
 import com.goterl.lazycode.lazysodium.utils.LibraryLoader.Mode;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * A ED25519 public-key signature system crypto function.
@@ -36,6 +41,14 @@ final class Ed25519CryptoFunction implements CryptoFunction {
 
   static final Ed25519CryptoFunction INSTANCE = new Ed25519CryptoFunction(Mode.PREFER_SYSTEM);
 
+  /**
+   * The minimum size of a batch that is verified in parallel. Smaller batches are verified
+   * in the calling thread, as the cost of splitting them across threads exceeds
+   * the cost of verification (~50 μs per signature).
+   */
+  @VisibleForTesting
+  static final int PARALLEL_BATCH_THRESHOLD = 64;
+
   private final LazySodiumJava lazySodium;
 
   @VisibleForTesting
@@ -70,9 +83,25 @@ final class Ed25519CryptoFunction implements CryptoFunction {
 
   @Override
   public byte[] signMessage(byte[] message, PrivateKey privateKey) {
+    return signMessage(message, 0, message.length, privateKey);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This implementation signs the message in place if it starts at the beginning
+   * of the buffer.
+   */
+  @Override
+  public byte[] signMessage(byte[] buffer, int offset, int length, PrivateKey privateKey) {
+    checkPositionIndexes(offset, offset + length, buffer.length);
+    if (offset != 0) {
+      return CryptoFunction.super.signMessage(buffer, offset, length, privateKey);
+    }
     checkArgument(hasLength(privateKey.toBytesNoCopy(), PRIVATE_KEY_BYTES));
     byte[] signature = new byte[SIGNATURE_BYTES];
-    boolean signed = lazySodium.cryptoSignDetached(signature, message, message.length,
+    // libsodium reads the first length bytes of the buffer
+    boolean signed = lazySodium.cryptoSignDetached(signature, buffer, length,
         privateKey.toBytesNoCopy());
 
     if (!signed) {
@@ -92,4 +121,36 @@ final class Ed25519CryptoFunction implements CryptoFunction {
         .cryptoSignVerifyDetached(signature, message, message.length, publicKey.toBytesNoCopy());
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>As libsodium does not support batch verification of Ed25519 signatures, this
+   * implementation verifies large batches in parallel in the
+   * {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+   */
+  @Override
+  public BitSet verifyBatch(List<SignedData> items) {
+    if (items.size() < PARALLEL_BATCH_THRESHOLD) {
+      return CryptoFunction.super.verifyBatch(items);
+    }
+    // Copy the items to get a random-access list that is safe to read from many threads
+    List<SignedData> batch = ImmutableList.copyOf(items);
+    int size = batch.size();
+    // Each thread writes its own elements, and the stream completion makes them visible
+    boolean[] results = new boolean[size];
+    IntStream.range(0, size)
+        .parallel()
+        .forEach(i -> {
+          SignedData item = batch.get(i);
+          results[i] = verify(item.getMessage(), item.getSignature(), item.getPublicKey());
+        });
+    BitSet valid = new BitSet(size);
+    for (int i = 0; i < size; i++) {
+      if (results[i]) {
+        valid.set(i);
+      }
+    }
+    return valid;
+  }
+
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.crypto;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A message, its signature and the public key to verify the signature against.
+ * Used for {@linkplain CryptoFunction#verifyBatch(java.util.List) batch verification}
+ * of signatures.
+ *
+ * <p>The arrays are not copied, hence they must not be modified while the signature
+ * is being verified.
+ */
+public final class SignedData {
+
+  private final byte[] message;
+  private final byte[] signature;
+  private final PublicKey publicKey;
+
+  private SignedData(byte[] message, byte[] signature, PublicKey publicKey) {
+    this.message = checkNotNull(message, "message");
+    this.signature = checkNotNull(signature, "signature");
+    this.publicKey = checkNotNull(publicKey, "publicKey");
+  }
+
+  /**
+   * Creates signed data to verify. The arrays are not copied.
+   *
+   * @param message the signed message
+   * @param signature the signature of the message
+   * @param publicKey the public key to verify the signature against
+   */
+  public static SignedData of(byte[] message, byte[] signature, PublicKey publicKey) {
+    return new SignedData(message, signature, publicKey);
+  }
+
+  /**
+   * Returns the signed message.
+   */
+  public byte[] getMessage() {
+    return message;
+  }
+
+  /**
+   * Returns the signature of the message.
+   */
+  public byte[] getSignature() {
+    return signature;
+  }
+
+  /**
+   * Returns the public key to verify the signature against.
+   */
+  public PublicKey getPublicKey() {
+    return publicKey;
+  }
+}
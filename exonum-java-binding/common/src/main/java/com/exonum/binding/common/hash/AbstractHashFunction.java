@@ -32,14 +32,32 @@ package com.exonum.binding.common.hash;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkPositionIndexes;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ByteString;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /** 
  * Skeleton implementation of {@link HashFunction} in terms of {@link #newHasher()}.
  */
 abstract class AbstractHashFunction implements HashFunction {
+
+  /**
+   * The minimum estimated size of a batch of inputs to hash them in parallel.
+   * A smaller batch is hashed faster in the calling thread.
+   */
+  @VisibleForTesting
+  static final int PARALLEL_HASHING_THRESHOLD_BYTES = 64 * 1024;
+
+  /**
+   * The fixed cost of hashing an input, in terms of the input bytes.
+   */
+  private static final int HASH_OVERHEAD_BYTES = 64;
+
   @Override
   public <T> HashCode hashObject(T instance, Funnel<? super T> funnel) {
     return newHasher().putObject(instance, funnel).hash();
@@ -87,6 +105,63 @@ abstract class AbstractHashFunction implements HashFunction {
     return newHasher(input.remaining()).putBytes(input).hash();
   }
 
+  @Override
+  public List<HashCode> hashAll(List<byte[]> inputs) {
+    byte[][] inputArray = inputs.toArray(new byte[0][]);
+    long totalSize = 0;
+    for (byte[] input : inputArray) {
+      totalSize += input.length;
+    }
+    HashCode[] hashes = new HashCode[inputArray.length];
+    forEachInput(inputArray.length, totalSize, i -> hashes[i] = hashBytes(inputArray[i]));
+    return ImmutableList.copyOf(hashes);
+  }
+
+  @Override
+  public List<HashCode> hashAll(ByteBuffer input, int[] sliceLengths) {
+    int numSlices = sliceLengths.length;
+    int[] offsets = new int[numSlices];
+    long totalSize = 0;
+    for (int i = 0; i < numSlices; i++) {
+      int length = sliceLengths[i];
+      checkArgument(length >= 0, "Negative slice length (%s) at %s", length, i);
+      offsets[i] = input.position() + (int) totalSize;
+      totalSize += length;
+      checkArgument(totalSize <= input.remaining(),
+          "The slices (%s bytes) exceed the remaining bytes of the buffer (%s)",
+          totalSize, input.remaining());
+    }
+    // Each slice is a separate view of the buffer, hence they can be hashed concurrently
+    ByteBuffer source = input.duplicate();
+    HashCode[] hashes = new HashCode[numSlices];
+    forEachInput(numSlices, totalSize, i -> {
+      ByteBuffer slice = source.duplicate();
+      slice.limit(offsets[i] + sliceLengths[i]);
+      slice.position(offsets[i]);
+      hashes[i] = hashBytes(slice);
+    });
+    input.position(input.position() + (int) totalSize);
+    return ImmutableList.copyOf(hashes);
+  }
+
+  /**
+   * Performs the operation hashing the input for each index in range {@code [0; numInputs)}.
+   * If the batch is large enough, the inputs are hashed in parallel.
+   */
+  private static void forEachInput(int numInputs, long totalSize, IntConsumer hashOperation) {
+    long batchCost = totalSize + (long) numInputs * HASH_OVERHEAD_BYTES;
+    if (numInputs > 1 && batchCost >= PARALLEL_HASHING_THRESHOLD_BYTES) {
+      // The stream completion makes the results written by the tasks visible to the caller
+      IntStream.range(0, numInputs)
+          .parallel()
+          .forEach(hashOperation);
+    } else {
+      for (int i = 0; i < numInputs; i++) {
+        hashOperation.accept(i);
+      }
+    }
+  }
+
   @Override
   public Hasher newHasher(int expectedInputSize) {
     checkArgument(
@@ -35,6 +35,7 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Preconditions;
 import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.Serializable;
 import javax.annotation.Nullable;
@@ -114,6 +115,13 @@ public abstract class HashCode {
     return asBytes();
   }
 
+  /**
+   * Puts the bytes of this hash code into the given sink.
+   */
+  void putBytesTo(PrimitiveSink sink) {
+    sink.putBytes(getBytesInternal());
+  }
+
   /**
    * Returns whether this {@code HashCode} and that {@code HashCode} have the same value, given that
    * they have the same number of bits.
@@ -256,14 +264,24 @@ public abstract class HashCode {
    */
   public static HashCode fromBytes(byte[] bytes) {
     checkArgument(bytes.length >= 1, "A HashCode must contain at least 1 byte.");
+    if (bytes.length == Bytes32HashCode.BYTES) {
+      // The bytes are read into the fields, hence no defensive copy is needed
+      return new Bytes32HashCode(bytes);
+    }
     return fromBytesNoCopy(bytes.clone());
   }
 
   /**
    * Creates a {@code HashCode} from a byte array. The array is <i>not</i> copied defensively, so it
    * must be handed-off so as to preserve the immutability contract of {@code HashCode}.
+   *
+   * <p>32-byte arrays, e.g., SHA-256 digests, are read into a hash code that does not keep
+   * a reference to the array.
    */
   static HashCode fromBytesNoCopy(byte[] bytes) {
+    if (bytes.length == Bytes32HashCode.BYTES) {
+      return new Bytes32HashCode(bytes);
+    }
     return new BytesHashCode(bytes);
   }
 
@@ -328,13 +346,14 @@ public abstract class HashCode {
     boolean equalsSameBits(HashCode that) {
       // We don't use MessageDigest.isEqual() here because its contract does not guarantee
       // constant-time evaluation (no short-circuiting).
-      if (this.bytes.length != that.getBytesInternal().length) {
+      byte[] thatBytes = that.getBytesInternal();
+      if (this.bytes.length != thatBytes.length) {
         return false;
       }
 
       boolean areEqual = true;
       for (int i = 0; i < this.bytes.length; i++) {
-        areEqual &= (this.bytes[i] == that.getBytesInternal()[i]);
+        areEqual &= (this.bytes[i] == thatBytes[i]);
       }
       return areEqual;
     }
@@ -342,6 +361,114 @@ public abstract class HashCode {
     private static final long serialVersionUID = 0;
   }
 
+  /**
+   * A 256-bit hash code, the size of SHA-256 hashes, which keeps its bytes in four {@code long}
+   * values in little-endian order. Unlike {@link BytesHashCode}, it needs no backing array,
+   * and is compared by longs.
+   */
+  private static final class Bytes32HashCode extends HashCode implements Serializable {
+    static final int BYTES = 32;
+
+    final long l0;
+    final long l1;
+    final long l2;
+    final long l3;
+
+    Bytes32HashCode(byte[] bytes) {
+      checkArgument(bytes.length == BYTES, "Expected %s bytes, but was %s", BYTES, bytes.length);
+      this.l0 = readLong(bytes, 0);
+      this.l1 = readLong(bytes, 8);
+      this.l2 = readLong(bytes, 16);
+      this.l3 = readLong(bytes, 24);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+      return Longs.fromBytes(bytes[offset + 7], bytes[offset + 6], bytes[offset + 5],
+          bytes[offset + 4], bytes[offset + 3], bytes[offset + 2], bytes[offset + 1],
+          bytes[offset]);
+    }
+
+    @Override
+    public int bits() {
+      return BYTES * 8;
+    }
+
+    @Override
+    public byte[] asBytes() {
+      byte[] bytes = new byte[BYTES];
+      writeBytesToImpl(bytes, 0, BYTES);
+      return bytes;
+    }
+
+    @Override
+    public int asInt() {
+      return (int) l0;
+    }
+
+    @Override
+    public long asLong() {
+      return l0;
+    }
+
+    @Override
+    public long padToLong() {
+      return l0;
+    }
+
+    @Override
+    void writeBytesToImpl(byte[] dest, int offset, int maxLength) {
+      for (int i = 0; i < maxLength; i++) {
+        long l = getLong(i / Long.BYTES);
+        dest[offset + i] = (byte) (l >>> ((i % Long.BYTES) * 8));
+      }
+    }
+
+    private long getLong(int index) {
+      switch (index) {
+        case 0:
+          return l0;
+        case 1:
+          return l1;
+        case 2:
+          return l2;
+        case 3:
+          return l3;
+        default:
+          throw new IndexOutOfBoundsException("index=" + index);
+      }
+    }
+
+    @Override
+    void putBytesTo(PrimitiveSink sink) {
+      if (sink instanceof AbstractHasher) {
+        // The hashers put longs in little-endian order, i.e., as the bytes of this hash code
+        sink.putLong(l0)
+            .putLong(l1)
+            .putLong(l2)
+            .putLong(l3);
+      } else {
+        super.putBytesTo(sink);
+      }
+    }
+
+    @Override
+    boolean equalsSameBits(HashCode that) {
+      // Not short-circuiting, as the other implementations
+      if (that instanceof Bytes32HashCode) {
+        Bytes32HashCode other = (Bytes32HashCode) that;
+        return ((l0 ^ other.l0) | (l1 ^ other.l1) | (l2 ^ other.l2) | (l3 ^ other.l3)) == 0;
+      }
+      byte[] thatBytes = that.getBytesInternal();
+      long diff = (l0 ^ readLong(thatBytes, 0))
+          | (l1 ^ readLong(thatBytes, 8))
+          | (l2 ^ readLong(thatBytes, 16))
+          | (l3 ^ readLong(thatBytes, 24));
+      return diff == 0;
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
   /**
    * Creates a {@code HashCode} from a hexadecimal ({@code base 16}) encoded string. The string must
    * be at least 2 characters long, and contain only valid, lower-cased hexadecimal characters.
@@ -29,10 +29,14 @@
 
 package com.exonum.binding.common.hash;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.primitives.Ints;
 import com.google.protobuf.ByteString;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A hash function is a collision-averse pure function that maps an arbitrary block of data to a
@@ -201,6 +205,65 @@ public interface HashFunction {
    */
   HashCode hashBytes(ByteBuffer input);
 
+  /**
+   * Hashes each of the given inputs, as {@link #hashBytes(byte[])} does. The default
+   * implementation hashes the inputs one by one; the implementations might hash
+   * large batches of inputs in parallel, e.g., the functions provided by {@link Hashing}
+   * use the {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+   *
+   * <p>The inputs must not be modified till this method returns.
+   *
+   * @param inputs the inputs to hash
+   * @return the hash codes of the inputs, in the same order
+   */
+  default List<HashCode> hashAll(List<byte[]> inputs) {
+    List<HashCode> hashes = new ArrayList<>(inputs.size());
+    for (byte[] input : inputs) {
+      hashes.add(hashBytes(input));
+    }
+    return hashes;
+  }
+
+  /**
+   * Hashes each of the consecutive slices of the remaining bytes of the buffer, as
+   * {@link #hashBytes(ByteBuffer)} does. For example, the slice lengths
+   * {@code [3, 5]} correspond to the bytes in range {@code [position; position + 3)}
+   * and {@code [position + 3; position + 8)}. The default implementation hashes the slices
+   * one by one; the implementations might hash large batches of inputs in parallel,
+   * as {@link #hashAll(List)} describes.
+   *
+   * <p>The position of the buffer is advanced by the total length of the slices.
+   *
+   * @param input the buffer with the inputs to hash
+   * @param sliceLengths the lengths of the consecutive inputs, starting from the position
+   *     of the buffer
+   * @return the hash codes of the slices, in the same order
+   * @throws IllegalArgumentException if any length is negative, or the slices exceed
+   *     the remaining bytes of the buffer
+   */
+  default List<HashCode> hashAll(ByteBuffer input, int[] sliceLengths) {
+    int totalSize = 0;
+    for (int i = 0; i < sliceLengths.length; i++) {
+      int length = sliceLengths[i];
+      checkArgument(length >= 0, "Negative slice length (%s) at %s", length, i);
+      totalSize += length;
+      checkArgument(totalSize <= input.remaining(),
+          "The slices (%s bytes) exceed the remaining bytes of the buffer (%s)",
+          totalSize, input.remaining());
+    }
+    List<HashCode> hashes = new ArrayList<>(sliceLengths.length);
+    ByteBuffer slice = input.duplicate();
+    int offset = input.position();
+    for (int length : sliceLengths) {
+      slice.limit(offset + length);
+      slice.position(offset);
+      hashes.add(hashBytes(slice));
+      offset += length;
+    }
+    input.position(input.position() + totalSize);
+    return hashes;
+  }
+
   /**
    * Shortcut for {@code newHasher().putUnencodedChars(input).hash()}. The implementation
    * <i>might</i> perform better than its longhand equivalent, but should not perform worse. Note
@@ -29,6 +29,9 @@
 
 package com.exonum.binding.common.hash;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 /**
  * Static methods to obtain {@link HashFunction} instances, and other static hashing-related
  * utilities.
@@ -52,7 +55,14 @@ public final class Hashing {
    */
   public static final int DEFAULT_HASH_SIZE_BITS = DEFAULT_HASH_SIZE_BYTES * Byte.SIZE;
 
-  /** Returns a hash function implementing the SHA-256 algorithm (256 hash bits). */
+  /**
+   * Returns a hash function implementing the SHA-256 algorithm (256 hash bits).
+   *
+   * <p>The function reuses the message digests in each thread. If
+   * the {@code exonum.hashing.sha256.native} system property is {@code true},
+   * it uses the native implementation from libsodium, when it is available, to hash
+   * the inputs passed as a whole (e.g., to {@link HashFunction#hashBytes(byte[])}).
+   */
   public static HashFunction sha256() {
     return Sha256Holder.SHA_256;
   }
@@ -66,10 +76,23 @@ public final class Hashing {
     return sha256();
   }
 
+  /**
+   * Returns a new SHA-256 message digest, for the code that updates the digest directly
+   * instead of using a {@link Hasher} (e.g., to reuse it for many small inputs).
+   */
+  public static MessageDigest newSha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is required to be supported by every Java platform
+      throw new AssertionError(e);
+    }
+  }
+
   private static class Sha256Holder {
 
-    static final HashFunction SHA_256 =
-        new MessageDigestHashFunction("SHA-256", "Hashing.sha256()");
+    static final HashFunction SHA_256 = new Sha256HashFunction(
+        Boolean.getBoolean(Sha256HashFunction.USE_NATIVE_PROPERTY), "Hashing.sha256()");
   }
   /**
    * Returns a hash function implementing the SHA-384 algorithm (384 hash bits).
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.hash;
+
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.goterl.lazycode.lazysodium.SodiumJava;
+import com.goterl.lazycode.lazysodium.utils.LibraryLoader.Mode;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import javax.annotation.Nullable;
+
+/**
+ * A SHA-256 hash function that reuses the message digests. Each thread keeps
+ * two digests: one is used by the hashers of this function, and another — by the methods
+ * hashing the whole input at once (e.g., {@link #hashBytes(byte[])}), which do not
+ * create a hasher at all. The latter are the fast path for small fixed-size inputs,
+ * e.g., the hashes of the tree nodes.
+ *
+ * <p>If a hasher is requested while another hasher created in the same thread is not
+ * {@linkplain Hasher#hash() finished} (e.g., it is abandoned, or used along with the new one),
+ * the unfinished hasher is moved to a copy of the reused digest, and the reused digest
+ * is reset for the new hasher. Therefore, an abandoned hasher does not prevent the reuse.
+ * The hashers requested in a funnel of the hasher using the reused digest get a new digest,
+ * to avoid copying the digest on each nested request. A hasher used in another thread
+ * than the one that created it moves to a copy of the reused digest on first use
+ * in that thread.
+ *
+ * <p>The methods hashing the whole input at once can use the native implementation
+ * from libsodium if it is {@linkplain #USE_NATIVE_PROPERTY enabled} and available.
+ * As the native calls have a fixed overhead, it is only beneficial for large inputs
+ * and when the JVM has no intrinsic implementation of SHA-256 on the given platform.
+ * Therefore, the inputs of up to {@value #MAX_SMALL_INPUT_BYTES} bytes (one or two hashes,
+ * as in the branch nodes of the Merkle trees) are always hashed with the reused digest.
+ */
+final class Sha256HashFunction extends AbstractHashFunction implements Serializable {
+
+  /**
+   * The system property enabling the native implementation in {@link Hashing#sha256()}.
+   */
+  static final String USE_NATIVE_PROPERTY = "exonum.hashing.sha256.native";
+
+  private static final int HASH_SIZE_BYTES = 32;
+
+  /**
+   * The maximum size of the inputs that are always hashed with the reused digest
+   * of the current thread, even if the native implementation is used.
+   */
+  @VisibleForTesting
+  static final int MAX_SMALL_INPUT_BYTES = 2 * HASH_SIZE_BYTES;
+
+  private static final ThreadLocal<Digests> DIGESTS = ThreadLocal.withInitial(Digests::new);
+
+  /**
+   * Whether the digests of the hashers can be reused: a reused digest must be copied
+   * when its unfinished hasher is detached from it.
+   */
+  private static final boolean DIGESTS_CLONEABLE = isCloneable(newDigest());
+
+  private final boolean useNative;
+  private final String toString;
+
+  /**
+   * Creates a new SHA-256 hash function.
+   *
+   * @param preferNative whether to use the native implementation, if it is available
+   * @param toString the string representation of the function
+   */
+  Sha256HashFunction(boolean preferNative, String toString) {
+    this.useNative = preferNative && NativeSha256.SODIUM != null;
+    this.toString = toString;
+  }
+
+  /**
+   * Returns true if the native implementation is used.
+   */
+  @VisibleForTesting
+  boolean usesNative() {
+    return useNative;
+  }
+
+  @Override
+  public int bits() {
+    return HASH_SIZE_BYTES * Byte.SIZE;
+  }
+
+  @Override
+  public Hasher newHasher() {
+    if (!DIGESTS_CLONEABLE) {
+      return new Sha256Hasher(newDigest(), null);
+    }
+    Digests digests = DIGESTS.get();
+    Sha256Hasher activeHasher = digests.activeHasher;
+    if (activeHasher != null) {
+      if (digests.funnelDepth > 0) {
+        // Requested in a funnel of the active hasher, which will continue to use the digest
+        return new Sha256Hasher(newDigest(), null);
+      }
+      // The active hasher is not finished: it is either abandoned or still in use.
+      // Move it to a copy of the digest, and reclaim the digest
+      activeHasher.detach();
+      digests.hasherDigest.reset();
+    }
+    Sha256Hasher hasher = new Sha256Hasher(digests.hasherDigest, digests);
+    digests.activeHasher = hasher;
+    return hasher;
+  }
+
+  /**
+   * Returns true if the given hasher uses the reused digest of the current thread.
+   */
+  @VisibleForTesting
+  static boolean usesReusedDigest(Hasher hasher) {
+    Sha256Hasher sha256Hasher = (Sha256Hasher) hasher;
+    return sha256Hasher.owner != null && sha256Hasher.owner.activeHasher == sha256Hasher
+        && sha256Hasher.state == Sha256Hasher.SHARED;
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    if (useNative && len > MAX_SMALL_INPUT_BYTES) {
+      byte[] nativeInput = (off == 0 && len == input.length) ? input
+          : Arrays.copyOfRange(input, off, off + len);
+      return NativeSha256.hash(nativeInput);
+    }
+    MessageDigest digest = DIGESTS.get().oneShotDigest;
+    digest.update(input, off, len);
+    return HashCode.fromBytesNoCopy(digest.digest());
+  }
+
+  @Override
+  public HashCode hashBytes(ByteBuffer input) {
+    if (input.hasArray()) {
+      HashCode hash = hashBytes(input.array(), input.arrayOffset() + input.position(),
+          input.remaining());
+      input.position(input.limit());
+      return hash;
+    }
+    MessageDigest digest = DIGESTS.get().oneShotDigest;
+    digest.update(input);
+    return HashCode.fromBytesNoCopy(digest.digest());
+  }
+
+  @Override
+  public String toString() {
+    return toString;
+  }
+
+  private static MessageDigest newDigest() {
+    return Hashing.newSha256Digest();
+  }
+
+  private static boolean isCloneable(MessageDigest digest) {
+    try {
+      digest.clone();
+      return true;
+    } catch (CloneNotSupportedException e) {
+      return false;
+    }
+  }
+
+  private static MessageDigest copyOf(MessageDigest digest) {
+    try {
+      return (MessageDigest) digest.clone();
+    } catch (CloneNotSupportedException e) {
+      // Checked on initialization
+      throw new AssertionError(e);
+    }
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(useNative, toString);
+  }
+
+  private static final class SerializedForm implements Serializable {
+    private final boolean useNative;
+    private final String toString;
+
+    private SerializedForm(boolean useNative, String toString) {
+      this.useNative = useNative;
+      this.toString = toString;
+    }
+
+    private Object readResolve() {
+      return new Sha256HashFunction(useNative, toString);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  /**
+   * The reusable message digests of a thread. Accessed only by the owning thread.
+   */
+  private static final class Digests {
+    final Thread ownerThread = Thread.currentThread();
+    final MessageDigest hasherDigest = newDigest();
+    final MessageDigest oneShotDigest = newDigest();
+    /**
+     * The hasher using the {@link #hasherDigest}; or {@code null} if it is not used.
+     */
+    @Nullable
+    Sha256Hasher activeHasher;
+    /**
+     * The number of the funnels of the active hasher being executed.
+     */
+    int funnelDepth;
+  }
+
+  /**
+   * Hasher that updates a message digest. If the digest is reused, it is released
+   * when the hash is computed, or when the hasher is detached from it.
+   */
+  private static final class Sha256Hasher extends AbstractByteHasher {
+
+    /** The hasher uses the reused digest of its owner. */
+    static final int SHARED = 0;
+    /** The hasher is being moved to a copy of the reused digest. */
+    static final int DETACHING = 1;
+    /** The hasher uses its own digest. */
+    static final int DETACHED = 2;
+
+    private static final AtomicIntegerFieldUpdater<Sha256Hasher> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(Sha256Hasher.class, "state");
+
+    /**
+     * The digest: the reused digest of the owner till this hasher is detached, and its copy
+     * after that. Published to other threads with the volatile write of the detached state.
+     */
+    private MessageDigest digest;
+    @Nullable
+    private final Digests owner;
+    private boolean done;
+    /**
+     * The state of the digest. Volatile, as this hasher might be detached by the owner thread
+     * while it is used in another thread, or vice versa.
+     */
+    private volatile int state;
+
+    private Sha256Hasher(MessageDigest digest, @Nullable Digests owner) {
+      this.digest = digest;
+      this.owner = owner;
+      this.state = (owner == null) ? DETACHED : SHARED;
+    }
+
+    @Override
+    protected void update(byte b) {
+      digest().update(b);
+    }
+
+    @Override
+    protected void update(byte[] b, int off, int len) {
+      digest().update(b, off, len);
+    }
+
+    @Override
+    protected void update(ByteBuffer bytes) {
+      digest().update(bytes);
+    }
+
+    @Override
+    public <T> Hasher putObject(T instance, Funnel<? super T> funnel) {
+      if (state == SHARED && Thread.currentThread() == owner.ownerThread) {
+        owner.funnelDepth++;
+        try {
+          return super.putObject(instance, funnel);
+        } finally {
+          owner.funnelDepth--;
+        }
+      }
+      return super.putObject(instance, funnel);
+    }
+
+    /**
+     * Returns the digest to update. The reused digest is only updated in the owner thread:
+     * in other threads, the hasher is detached from it first.
+     */
+    private MessageDigest digest() {
+      checkState(!done, "Cannot re-use a Hasher after calling hash() on it");
+      if (state != DETACHED && Thread.currentThread() != owner.ownerThread) {
+        detach();
+      }
+      return digest;
+    }
+
+    /**
+     * Moves this hasher to a copy of the reused digest, if it is not detached yet.
+     * The owner thread and the thread using this hasher might both attempt to detach it;
+     * the one that loses waits for the other to complete.
+     */
+    void detach() {
+      if (STATE.compareAndSet(this, SHARED, DETACHING)) {
+        digest = copyOf(digest);
+        state = DETACHED;
+      } else {
+        while (state != DETACHED) {
+          Thread.yield();
+        }
+      }
+    }
+
+    @Override
+    public HashCode hash() {
+      MessageDigest digest = digest();
+      done = true;
+      // The digest is reset after the hash is computed, hence it can be reused
+      HashCode hash = HashCode.fromBytesNoCopy(digest.digest());
+      if (state == SHARED) {
+        // Finished in the owner thread
+        owner.activeHasher = null;
+      }
+      return hash;
+    }
+  }
+
+  /**
+   * The native SHA-256 implementation from libsodium, loaded on first use.
+   */
+  private static final class NativeSha256 {
+
+    @Nullable
+    static final SodiumJava SODIUM = loadSodium();
+
+    @Nullable
+    private static SodiumJava loadSodium() {
+      try {
+        return new SodiumJava(Mode.PREFER_SYSTEM);
+      } catch (RuntimeException | LinkageError e) {
+        return null;
+      }
+    }
+
+    static HashCode hash(byte[] input) {
+      byte[] hash = new byte[HASH_SIZE_BYTES];
+      int result = SODIUM.crypto_hash_sha256(hash, input, input.length);
+      checkState(result == 0, "crypto_hash_sha256 failed (%s)", result);
+      return HashCode.fromBytesNoCopy(hash);
+    }
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2019 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.message;
+
+import static com.exonum.binding.common.hash.Hashing.sha256;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.common.crypto.PublicKey;
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.messages.core.Messages;
+import com.exonum.messages.core.Messages.CoreMessage;
+import com.exonum.messages.core.runtime.Base.AnyTx;
+import com.google.common.base.MoreObjects;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * A transaction message, which keeps the serialized signed message and decodes its parts
+ * on the first access. The hash of the message is computed on the first request.
+ *
+ * <p>The message may be created without decoding, therefore, the methods accessing
+ * the message fields throw {@link IllegalArgumentException} if the message bytes
+ * are not a valid signed Exonum transaction message.
+ *
+ * <p>This class is thread-safe: the decoded parts are published through volatile fields;
+ * they may be decoded more than once if accessed concurrently.
+ */
+final class LazyTransactionMessage implements TransactionMessage {
+
+  // messageBytes is the source serialized SignedMessage; the other fields are derived from it
+  // and initialized lazily.
+  private final byte[] messageBytes;
+  @Nullable
+  private volatile Messages.SignedMessage signedMessage;
+  @Nullable
+  private volatile AnyTx tx;
+  @Nullable
+  private volatile PublicKey author;
+  @Nullable
+  private volatile HashCode hash;
+
+  private LazyTransactionMessage(byte[] messageBytes,
+      @Nullable Messages.SignedMessage signedMessage, @Nullable AnyTx tx,
+      @Nullable PublicKey author) {
+    this.messageBytes = checkNotNull(messageBytes);
+    this.signedMessage = signedMessage;
+    this.tx = tx;
+    this.author = author;
+  }
+
+  /**
+   * Creates a transaction message from the serialized signed message, decoding it.
+   *
+   * @param messageBytes the serialized signed message; it is not copied, therefore,
+   *     must not be modified after this call
+   * @throws IllegalArgumentException if the bytes are not a serialized signed message;
+   *     or if the signed message does not contain an Exonum transaction message
+   */
+  static LazyTransactionMessage parseFrom(byte[] messageBytes) {
+    LazyTransactionMessage message = fromBytesLazily(messageBytes);
+    // Decode all parts to check the message is valid
+    message.getAuthor();
+    message.tx();
+    return message;
+  }
+
+  /**
+   * Creates a transaction message from the serialized signed message, without decoding it.
+   *
+   * @param messageBytes the serialized signed message; it is not copied, therefore,
+   *     must not be modified after this call
+   */
+  static LazyTransactionMessage fromBytesLazily(byte[] messageBytes) {
+    return new LazyTransactionMessage(messageBytes, null, null, null);
+  }
+
+  /**
+   * Creates a transaction message from its parts.
+   *
+   * @param signedMessage a signed exonum transaction message
+   * @param tx the transaction in the payload of the signed message
+   * @param author the key of the message author
+   */
+  static LazyTransactionMessage fromSignedMessage(Messages.SignedMessage signedMessage,
+      AnyTx tx, PublicKey author) {
+    return new LazyTransactionMessage(signedMessage.toByteArray(), signedMessage,
+        checkNotNull(tx), checkNotNull(author));
+  }
+
+  /**
+   * Creates a transaction message from the serialized signed message and its decoded parts.
+   *
+   * @param messageBytes the serialized signed message; it is not copied, therefore,
+   *     must not be modified after this call
+   * @param tx the transaction in the payload of the signed message
+   * @param author the key of the message author
+   */
+  static LazyTransactionMessage fromBytesAndParts(byte[] messageBytes, AnyTx tx,
+      PublicKey author) {
+    return new LazyTransactionMessage(messageBytes, null, checkNotNull(tx),
+        checkNotNull(author));
+  }
+
+  @Override
+  public PublicKey getAuthor() {
+    PublicKey author = this.author;
+    if (author == null) {
+      author = PublicKey.fromBytes(signedMessage().getAuthor()
+          .getData()
+          .toByteArray());
+      this.author = author;
+    }
+    return author;
+  }
+
+  @Override
+  public int getServiceId() {
+    return tx().getCallInfo().getInstanceId();
+  }
+
+  @Override
+  public int getTransactionId() {
+    return tx().getCallInfo().getMethodId();
+  }
+
+  @Override
+  public ByteString getPayload() {
+    return tx().getArguments();
+  }
+
+  @Override
+  public HashCode hash() {
+    HashCode hash = this.hash;
+    if (hash == null) {
+      hash = sha256().hashBytes(messageBytes);
+      this.hash = hash;
+    }
+    return hash;
+  }
+
+  @Override
+  public byte[] getSignature() {
+    return signedMessage().getSignature()
+        .getData()
+        .toByteArray();
+  }
+
+  /**
+   * Returns the bytes of the signed message payload, over which the signature is made.
+   */
+  byte[] getSignedPayload() {
+    return signedMessage().getPayload().toByteArray();
+  }
+
+  @Override
+  public byte[] toBytes() {
+    return messageBytes.clone();
+  }
+
+  private Messages.SignedMessage signedMessage() {
+    Messages.SignedMessage signedMessage = this.signedMessage;
+    if (signedMessage == null) {
+      try {
+        signedMessage = Messages.SignedMessage.parseFrom(messageBytes);
+      } catch (InvalidProtocolBufferException e) {
+        throw new IllegalArgumentException(e);
+      }
+      this.signedMessage = signedMessage;
+    }
+    return signedMessage;
+  }
+
+  private AnyTx tx() {
+    AnyTx tx = this.tx;
+    if (tx == null) {
+      CoreMessage payload;
+      try {
+        payload = CoreMessage.parseFrom(signedMessage().getPayload());
+      } catch (InvalidProtocolBufferException e) {
+        throw new IllegalArgumentException(e);
+      }
+      checkArgument(payload.hasAnyTx(), "SignedMessage does not contain a transaction "
+          + "in its payload but %s", payload.getKindCase());
+      tx = payload.getAnyTx();
+      this.tx = tx;
+    }
+    return tx;
+  }
+
+  @Override
+  public String toString() {
+    // Include only the fields that identify this message and allow to re-create it.
+    // It is assumed that if someone needs it in its exact, binary, form, they can use #toBytes
+    // instead.
+    try {
+      return MoreObjects.toStringHelper("TransactionMessage")
+          .add("author", getAuthor())
+          .add("serviceId", getServiceId())
+          .add("transactionId", getTransactionId())
+          .add("payload", getPayload())
+          .toString();
+    } catch (IllegalArgumentException e) {
+      // A message created lazily (e.g., read from the database) might be malformed
+      return MoreObjects.toStringHelper("TransactionMessage")
+          .add("malformed", true)
+          .add("size", messageBytes.length)
+          .add("hash", hash())
+          .toString();
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof LazyTransactionMessage)) {
+      return false;
+    }
+    LazyTransactionMessage that = (LazyTransactionMessage) o;
+    // We compare only messageBytes, as all the other fields are derived from it
+    return Arrays.equals(messageBytes, that.messageBytes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(messageBytes);
+  }
+}
@@ -25,6 +25,7 @@ import com.exonum.binding.common.crypto.CryptoFunctions;
 import com.exonum.binding.common.crypto.CryptoFunctions.Ed25519;
 import com.exonum.binding.common.crypto.KeyPair;
 import com.exonum.binding.common.crypto.PublicKey;
+import com.exonum.binding.common.crypto.SignedData;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.messages.core.Messages;
 import com.exonum.messages.core.Messages.CoreMessage;
@@ -32,9 +33,11 @@ import com.exonum.messages.core.runtime.Base.AnyTx;
 import com.exonum.messages.core.runtime.Base.CallInfo;
 import com.exonum.messages.crypto.Types;
 import com.google.protobuf.ByteString;
-import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * An Exonum transaction message.
@@ -97,14 +100,68 @@ public interface TransactionMessage {
 
   /**
    * Creates the transaction message from the given bytes array.
+   *
+   * @throws IllegalArgumentException if the bytes are not a serialized signed
+   *     transaction message
    */
   static TransactionMessage fromBytes(byte[] bytes) {
-    try {
-      Messages.SignedMessage signedMessage = Messages.SignedMessage.parseFrom(bytes);
-      return new ParsedTransactionMessage(signedMessage);
-    } catch (InvalidProtocolBufferException e) {
-      throw new IllegalArgumentException(e);
+    return LazyTransactionMessage.parseFrom(bytes.clone());
+  }
+
+  /**
+   * Creates the transaction message from the given bytes array without decoding it.
+   * The message is decoded on the first access to its fields; and its hash — on the first
+   * {@linkplain #hash() request}.
+   *
+   * <p>This method is intended for the messages from trusted sources, e.g., the blockchain
+   * storage, that are known to be valid. The methods of the returned message accessing
+   * its fields throw {@link IllegalArgumentException} if the bytes are not a serialized
+   * signed transaction message.
+   *
+   * @see #fromBytes(byte[])
+   */
+  static TransactionMessage fromBytesLazily(byte[] bytes) {
+    return LazyTransactionMessage.fromBytesLazily(bytes.clone());
+  }
+
+  /**
+   * Verifies the Ed25519 signatures of the given messages against the keys
+   * of their {@linkplain #getAuthor() authors}.
+   *
+   * @param messages the messages to verify
+   * @return a bit set, in which the bit <em>i</em> is set if the signature of the message
+   *     at index <em>i</em> is valid; and clear otherwise
+   * @see CryptoFunction#verifyBatch(List)
+   */
+  static BitSet verifySignatures(List<? extends TransactionMessage> messages) {
+    return verifySignatures(messages, CryptoFunctions.ed25519());
+  }
+
+  /**
+   * Verifies the signatures of the given messages against the keys
+   * of their {@linkplain #getAuthor() authors}, using the given crypto function.
+   *
+   * @param messages the messages to verify
+   * @param cryptoFunction the crypto function to verify the signatures with
+   * @return a bit set, in which the bit <em>i</em> is set if the signature of the message
+   *     at index <em>i</em> is valid; and clear otherwise
+   * @throws IllegalArgumentException if the key of any author is not valid for the crypto
+   *     function
+   * @see CryptoFunction#verifyBatch(List)
+   */
+  static BitSet verifySignatures(List<? extends TransactionMessage> messages,
+      CryptoFunction cryptoFunction) {
+    checkNotNull(cryptoFunction);
+    List<SignedData> batch = new ArrayList<>(messages.size());
+    for (TransactionMessage message : messages) {
+      // The signature is made over the serialized payload of the signed message
+      LazyTransactionMessage parsed = (message instanceof LazyTransactionMessage)
+          ? (LazyTransactionMessage) message
+          : LazyTransactionMessage.parseFrom(message.toBytes());
+      batch.add(SignedData.of(parsed.getSignedPayload(), parsed.getSignature(),
+          parsed.getAuthor()));
     }
+    return cryptoFunction.verifyBatch(batch);
   }
 
   /**
@@ -215,14 +272,15 @@ public interface TransactionMessage {
           "PublicKey has invalid size (%s), expected: %s. Key: %s",
           authorPublicKey.size(), Ed25519.PUBLIC_KEY_BYTES, authorPublicKey);
 
-      byte[] exonumMessage = CoreMessage.newBuilder()
-          .setAnyTx(AnyTx.newBuilder()
-              .setCallInfo(CallInfo.newBuilder()
-                  .setInstanceId(serviceId)
-                  .setMethodId(transactionId)
-                  .build())
-              .setArguments(payload)
+      AnyTx tx = AnyTx.newBuilder()
+          .setCallInfo(CallInfo.newBuilder()
+              .setInstanceId(serviceId)
+              .setMethodId(transactionId)
               .build())
+          .setArguments(payload)
+          .build();
+      byte[] exonumMessage = CoreMessage.newBuilder()
+          .setAnyTx(tx)
           .build()
           .toByteArray();
 
@@ -238,18 +296,8 @@ public interface TransactionMessage {
               .build())
           .build();
 
-      // todo [ECR-3575]: What isn't quite good in using ParsedTransactionMessage here is that
-      //    we create a transaction to send it, but still unnecessarily parse it in Parsed...
-      //    constructor to implement most get operations (getPayload, etc.)!
-      //    Shall we do that lazily? Have a separate implementation
-      //    (e.g., abstract BaseTransactionMessage depending on Consensus.SignedMessage +
-      //    ParsedTransactionMessage and a transaction message that gets all the initial parts,
-      //    or a transaction message that does parsing lazily)?
-      //    -
-      //    Alternatively, we may have two separate *types*: one for a freshly-signed transaction
-      //    ready to be serialized and submitted to the blockchain; and another one for
-      //    a parsed/signed-by-someone-else transaction read from the blockchain.
-      return new ParsedTransactionMessage(signedMessage);
+      // The message is created from its parts, so that it is not decoded again
+      return LazyTransactionMessage.fromSignedMessage(signedMessage, tx, authorPublicKey);
     }
 
     private void checkRequiredFieldsSet() {
@@ -19,9 +19,7 @@ package com.exonum.binding.common.proofs.list;
 import static com.exonum.binding.common.hash.Funnels.hashCodeFunnel;
 import static com.exonum.binding.common.hash.Hashing.sha256;
 import static com.exonum.binding.common.proofs.ProofHashes.checkSha256Hash;
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.google.common.math.BigIntegerMath.log2;
 import static java.util.stream.Collectors.toMap;
 
@@ -30,18 +28,14 @@ import com.exonum.binding.common.hash.Hasher;
 import com.exonum.binding.common.hash.Hashing;
 import com.exonum.binding.common.proofs.InvalidProofException;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Functions;
 import java.math.BigInteger;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.NavigableMap;
-import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.function.BinaryOperator;
-import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A flat list proof. It proves that certain elements are present in a proof list
@@ -81,11 +75,14 @@ class FlatListProof {
     See also: https://wiki.bf.local/display/EXN/Flat+list+proofs
   */
 
-  private static final long MAX_SIZE = ListProofEntry.MAX_INDEX + 1;
+  static final long MAX_SIZE = ListProofEntry.MAX_INDEX + 1;
 
-  private static final HashCode EMPTY_LIST_INDEX_HASH = hashListIndex(0L,
+  static final HashCode EMPTY_LIST_INDEX_HASH = hashListIndex(0L,
       HashCode.fromBytes(new byte[Hashing.DEFAULT_HASH_SIZE_BYTES]));
 
+  private static final Comparator<ListProofEntry> BY_INDEX =
+      Comparator.comparingLong(ListProofEntry::getIndex);
+
   @VisibleForTesting
   static final byte BLOB_PREFIX = 0x00;
   @VisibleForTesting
@@ -177,18 +174,19 @@ class FlatListProof {
   }
 
   private CheckedListProof<byte[]> verifyNonEmptyListProof() {
-    // Calculate the expected tree height
+    // Calculate the expected tree height and the sizes of its levels
     int treeHeight = calcTreeHeight(size);
+    long[] levelSizes = calcLevelSizes(treeHeight);
 
     // Index proof entries by height and verify their local correctness: no out-of-range nodes;
     // no duplicates.
-    List<Map<Long, ListProofHashedEntry>> proofByHeight = indexHashedEntriesByHeight(treeHeight);
+    ListProofHashedEntry[][] proofByHeight = indexHashedEntriesByHeight(treeHeight, levelSizes);
 
     // Check element entries: have unique indexes that are in range [0; size)
-    checkElementEntries();
+    ListProofElementEntry[] sortedElements = checkElementEntries();
 
     // Compute the Merkle root hash
-    HashCode rootHash = computeRootHash(proofByHeight, treeHeight);
+    HashCode rootHash = computeRootHash(sortedElements, proofByHeight, levelSizes);
 
     // Compute the list object hash
     HashCode indexHash = hashListIndex(rootHash);
@@ -201,26 +199,31 @@ class FlatListProof {
         : log2(BigInteger.valueOf(size), RoundingMode.CEILING);
   }
 
+  /**
+   * Returns the number of nodes at each height from 0 to treeHeight.
+   */
+  private long[] calcLevelSizes(int treeHeight) {
+    long[] levelSizes = new long[treeHeight + 1];
+    long levelSize = size;
+    for (int height = 0; height <= treeHeight; height++) {
+      levelSizes[height] = levelSize;
+      levelSize = (levelSize + 1) / 2;
+    }
+    return levelSizes;
+  }
+
   /**
    * Indexes proof entries by their height, also verifying their local correctness:
    * no out-of-range nodes; no duplicates.
    *
    * @param treeHeight the height of the proof list tree
-   * @return a list of proof entries at each height from 0 to treeHeight;
-   *     entries at each level are indexed by their index
+   * @param levelSizes the number of nodes at each height
+   * @return proof entries at each height from 0 to treeHeight;
+   *     entries at each level are sorted by their index
    */
-  private List<Map<Long, ListProofHashedEntry>> indexHashedEntriesByHeight(int treeHeight) {
-    List<Map<Long, ListProofHashedEntry>> proofByHeight = new ArrayList<>(treeHeight);
-    for (int i = 0; i < treeHeight; i++) {
-      // For single-element proofs, only a single proof node is expected on each level.
-      // For contiguous range proofs, up to two proof nodes are expected on any level.
-      // Multiple-range proofs might have up to 'elements.size' proof nodes on the lowest level,
-      // but Exonum does not currently produce such.
-      int initialCapacity = (elements.size() <= 1) ? 1 : 2;
-      Map<Long, ListProofHashedEntry> proofAtHeight = newHashMapWithExpectedSize(initialCapacity);
-      proofByHeight.add(proofAtHeight);
-    }
-
+  private ListProofHashedEntry[][] indexHashedEntriesByHeight(int treeHeight,
+      long[] levelSizes) {
+    int[] numEntriesByHeight = new int[treeHeight];
     for (ListProofHashedEntry hashedEntry : proof) {
       // Check height
       int height = hashedEntry.getHeight();
@@ -230,7 +233,7 @@ class FlatListProof {
                 height, treeHeight, hashedEntry));
       }
       // Check index
-      long levelSize = levelSizeAt(height);
+      long levelSize = levelSizes[height];
       long index = hashedEntry.getIndex();
       if (index < 0L || levelSize <= index) {
         throw new InvalidProofException(String
@@ -238,13 +241,31 @@ class FlatListProof {
                 "Proof entry at invalid index (%d); it must be in range [0; %d) at height %d: %s",
                 index, levelSize, height, hashedEntry));
       }
-      // Add the entry at the height, checking for duplicates
-      Map<Long, ListProofHashedEntry> proofsAtHeight = proofByHeight.get(height);
-      ListProofHashedEntry present = proofsAtHeight.putIfAbsent(index, hashedEntry);
-      if (present != null) {
-        throw new InvalidProofException(
-            String.format("Multiple proof entries at the same position: %s and %s",
-                present, hashedEntry));
+      numEntriesByHeight[height]++;
+    }
+
+    ListProofHashedEntry[][] proofByHeight = new ListProofHashedEntry[treeHeight][];
+    for (int height = 0; height < treeHeight; height++) {
+      proofByHeight[height] = new ListProofHashedEntry[numEntriesByHeight[height]];
+    }
+    int[] numAddedByHeight = new int[treeHeight];
+    for (ListProofHashedEntry hashedEntry : proof) {
+      int height = hashedEntry.getHeight();
+      proofByHeight[height][numAddedByHeight[height]++] = hashedEntry;
+    }
+
+    // Sort the entries at each height, checking for duplicates. The sort is stable,
+    // hence the duplicates are reported in the order they appear in the proof.
+    for (ListProofHashedEntry[] proofAtHeight : proofByHeight) {
+      Arrays.sort(proofAtHeight, BY_INDEX);
+      for (int i = 1; i < proofAtHeight.length; i++) {
+        ListProofHashedEntry present = proofAtHeight[i - 1];
+        ListProofHashedEntry hashedEntry = proofAtHeight[i];
+        if (present.getIndex() == hashedEntry.getIndex()) {
+          throw new InvalidProofException(
+              String.format("Multiple proof entries at the same position: %s and %s",
+                  present, hashedEntry));
+        }
       }
     }
     return proofByHeight;
@@ -252,9 +273,10 @@ class FlatListProof {
 
   /**
    * Checks the element entries: no out-of-range elements; no duplicate indexes.
+   *
+   * @return the element entries sorted by their index
    */
-  private void checkElementEntries() {
-    Map<Long, ListProofElementEntry> elementsByIndex = newHashMapWithExpectedSize(elements.size());
+  private ListProofElementEntry[] checkElementEntries() {
     for (ListProofElementEntry e : elements) {
       long index = e.getIndex();
       if (index < 0L || size <= index) {
@@ -262,122 +284,163 @@ class FlatListProof {
             String.format("Entry at invalid index (%d), must be in range [0; %d): %s",
                 index, size, e));
       }
-      ListProofElementEntry present = elementsByIndex.putIfAbsent(index, e);
-      if (present != null) {
+    }
+    ListProofElementEntry[] sortedElements = elements.toArray(new ListProofElementEntry[0]);
+    Arrays.sort(sortedElements, BY_INDEX);
+    for (int i = 1; i < sortedElements.length; i++) {
+      ListProofElementEntry present = sortedElements[i - 1];
+      ListProofElementEntry e = sortedElements[i];
+      long index = e.getIndex();
+      if (present.getIndex() == index) {
         throw new InvalidProofException(
             String.format("Multiple element entries at the same index (%d): %s and %s", index,
                 present, e));
       }
     }
+    return sortedElements;
   }
 
   /**
    * Computes the root hash of the proof list tree, also verifying the correctness of
    * proof entries with regard to the calculated ones.
    *
-   * @param proofByHeight proof entries indexed by their height
-   * @param treeHeight the height of the tree
+   * <p>The nodes at each level are kept in arrays of their indexes and hashes, sorted by index.
+   *
+   * @param sortedElements the element entries sorted by their index
+   * @param proofByHeight proof entries at each height, sorted by their index
+   * @param levelSizes the number of nodes at each height
    */
-  private HashCode computeRootHash(List<Map<Long, ListProofHashedEntry>> proofByHeight,
-      int treeHeight) {
+  private static HashCode computeRootHash(ListProofElementEntry[] sortedElements,
+      ListProofHashedEntry[][] proofByHeight, long[] levelSizes) {
     // Hash the element entries, and obtain the first level of calculated hashes
-    Map<Long, ListProofHashedEntry> calculated = hashElements();
+    int numCalculated = sortedElements.length;
+    long[] indexes = new long[numCalculated];
+    for (int i = 0; i < numCalculated; i++) {
+      indexes[i] = sortedElements[i].getIndex();
+    }
+    byte[][] hashes = ListTreeHasher.hashLeaves(sortedElements);
 
     // For each tree level, starting at the bottom
-    for (int height = 0; height < treeHeight; height++) {
+    for (int height = 0; height < proofByHeight.length; height++) {
       // Take the proof (hashed) entries at this height
-      Map<Long, ListProofHashedEntry> proofAtLevel = proofByHeight.get(height);
-      // Merge the calculated entries with the proof entries at this height
-      calculated = reduce(calculated, proofAtLevel);
-    }
+      ListProofHashedEntry[] proofAtLevel = proofByHeight[height];
+      checkLevel(height, levelSizes[height], indexes, hashes, proofAtLevel);
+
+      // Merge the calculated nodes with the proof entries at this height,
+      // ordered by indexes. The sibling nodes will go in adjacent pairs.
+      if (proofAtLevel.length != 0) {
+        int numMerged = numCalculated + proofAtLevel.length;
+        long[] mergedIndexes = new long[numMerged];
+        byte[][] mergedHashes = new byte[numMerged][];
+        int c = 0;
+        int p = 0;
+        for (int m = 0; m < numMerged; m++) {
+          if (p == proofAtLevel.length
+              || (c < numCalculated && indexes[c] < proofAtLevel[p].getIndex())) {
+            mergedIndexes[m] = indexes[c];
+            mergedHashes[m] = hashes[c];
+            c++;
+          } else {
+            mergedIndexes[m] = proofAtLevel[p].getIndex();
+            mergedHashes[m] = proofAtLevel[p].getHash().asBytes();
+            p++;
+          }
+        }
+        indexes = mergedIndexes;
+        hashes = mergedHashes;
+      }
 
-    // Take the root hash and calculate the index hash.
-    return calculated.get(0L).getHash();
-  }
+      // Reduce the adjacent nodes to produce the calculated nodes on the upper level
+      hashes = ListTreeHasher.hashBranches(hashes);
+      numCalculated = hashes.length;
+      // The parent of the nodes at positions (2i, 2i+1) is at position i. Its index is stored
+      // in place, as the parent position never exceeds the position of its left child;
+      // the array may therefore be longer than the level.
+      for (int i = 0; i < numCalculated; i++) {
+        indexes[i] = indexes[2 * i] / 2;
+      }
+    }
 
-  private Map<Long, ListProofHashedEntry> hashElements() {
-    return elements.stream()
-        .map(FlatListProof::hashLeafNode)
-        .collect(toMap(ListProofEntry::getIndex, Functions.identity()));
+    // Take the root hash
+    return HashCode.fromBytes(hashes[0]);
   }
 
   /**
-   * Combines the nodes at height h to produce their parent nodes at height h + 1.
+   * Verifies the nodes at height h.
    *
-   * @param calculated the nodes inferred from the elements and the proof nodes from levels [0, h-1]
-   * @param proofAtLevel the proof nodes at height h
-   * @return the calculated nodes at height h + 1
+   * @param height the height of the level
+   * @param levelSize the number of nodes at this level of the tree
+   * @param indexes the indexes of the nodes inferred from the elements and the proof nodes
+   *     from levels [0, h-1], in ascending order
+   * @param hashes the hashes of the inferred nodes
+   * @param proofAtLevel the proof nodes at height h, sorted by their index
    */
-  private Map<Long, ListProofHashedEntry> reduce(Map<Long, ListProofHashedEntry> calculated,
-      Map<Long, ListProofHashedEntry> proofAtLevel) {
+  private static void checkLevel(int height, long levelSize, long[] indexes, byte[][] hashes,
+      ListProofHashedEntry[] proofAtLevel) {
+    int numCalculated = hashes.length;
     // Verify nodes:
     //  - For an inferred node n there is a sibling either in the inferred
     //  nodes or in hash nodes; or it is the last node in an odd-sized level.
-    for (ListProofHashedEntry inferredNode : calculated.values()) {
-      if (isLastOnOddLevel(inferredNode)) {
+    for (int i = 0; i < numCalculated; i++) {
+      long index = indexes[i];
+      if (isOdd(levelSize) && (index == levelSize - 1)) {
         // The last node on an odd-sized level does not have a sibling.
         continue;
       }
-      long index = inferredNode.getIndex();
       long siblingIndex = getSiblingIndex(index);
-      if (!(calculated.containsKey(siblingIndex) || proofAtLevel.containsKey(siblingIndex))) {
+      // As the nodes are sorted, an inferred sibling can only be adjacent
+      boolean hasCalculatedSibling = isEven(index)
+          ? (i + 1 < numCalculated && indexes[i + 1] == siblingIndex)
+          : (i > 0 && indexes[i - 1] == siblingIndex);
+      if (!(hasCalculatedSibling || findProofEntry(proofAtLevel, siblingIndex) >= 0)) {
         throw new InvalidProofException(
             String.format("Missing proof entry at index (%d) for the calculated one: %s",
-                siblingIndex, inferredNode));
+                siblingIndex, calculatedEntry(index, height, hashes[i])));
       }
     }
     // Verify proof nodes:
-    for (ListProofHashedEntry proofNode : proofAtLevel.values()) {
+    for (ListProofHashedEntry proofNode : proofAtLevel) {
       long index = proofNode.getIndex();
       // No hash nodes overriding the inferred nodes (i.e., have same index)
-      if (calculated.containsKey(index)) {
+      int calculatedPosition = Arrays.binarySearch(indexes, 0, numCalculated, index);
+      if (calculatedPosition >= 0) {
         throw new InvalidProofException(
             String.format("Redundant proof entry (%s) with the same index (%d) as "
-                + "the calculated node (%s)", proofNode, index, calculated.get(index)));
+                + "the calculated node (%s)", proofNode, index,
+                calculatedEntry(index, height, hashes[calculatedPosition])));
       }
       // No redundant hash nodes that have no siblings in the inferred nodes.
       long siblingIndex = getSiblingIndex(index);
-      if (!calculated.containsKey(siblingIndex)) {
+      if (Arrays.binarySearch(indexes, 0, numCalculated, siblingIndex) < 0) {
         throw new InvalidProofException(
             String.format("Redundant proof entry (%s) not needed for verification", proofNode));
       }
     }
-
-    // Merge calculated on the previous level hashes with the proof entries of the current
-    // level, ordered by indexes. The sibling nodes will go in adjacent pairs.
-    SortedMap<Long, ListProofHashedEntry> merged = new TreeMap<>();
-    merged.putAll(calculated);
-    merged.putAll(proofAtLevel);
-
-    // Reduce the adjacent nodes to produce the calculated nodes on the upper level
-    Iterator<ListProofHashedEntry> mergedIter = merged.values().iterator();
-    Map<Long, ListProofHashedEntry> nextLevel = newHashMapWithExpectedSize((merged.size() + 1) / 2);
-    while (mergedIter.hasNext()) {
-      ListProofHashedEntry left = mergedIter.next();
-      ListProofHashedEntry right = null;
-      if (mergedIter.hasNext()) {
-        right = mergedIter.next();
-      }
-      ListProofHashedEntry parent = hashBranchNode(left, right);
-      nextLevel.put(parent.getIndex(), parent);
-    }
-    return nextLevel;
   }
 
-  private long levelSizeAt(int height) {
-    // Consider memoizing the level sizes to avoid re-calculation
-    checkArgument(height >= 0);
-    long levelSize = size;
-    while (height-- != 0) {
-      levelSize = (levelSize + 1) / 2;
+  /**
+   * Returns the position of the proof entry with the given index; or a negative value
+   * if there is no such entry.
+   */
+  private static int findProofEntry(ListProofHashedEntry[] sortedEntries, long index) {
+    int low = 0;
+    int high = sortedEntries.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long midIndex = sortedEntries[mid].getIndex();
+      if (midIndex < index) {
+        low = mid + 1;
+      } else if (midIndex > index) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
     }
-    return levelSize;
+    return -1;
   }
 
-  private boolean isLastOnOddLevel(ListProofHashedEntry inferredNode) {
-    long levelSize = levelSizeAt(inferredNode.getHeight());
-    long index = inferredNode.getIndex();
-    return isOdd(levelSize) && (index == levelSize - 1);
+  private static ListProofHashedEntry calculatedEntry(long index, int height, byte[] hash) {
+    return ListProofHashedEntry.newInstance(index, height, HashCode.fromBytes(hash));
   }
 
   private static long getSiblingIndex(long index) {
@@ -396,33 +459,11 @@ class FlatListProof {
     return (v & 1L) == 0L;
   }
 
-  private static ListProofHashedEntry hashLeafNode(ListProofElementEntry elementEntry) {
-    long index = elementEntry.getIndex();
-    HashCode hash = newHasher()
-        .putByte(BLOB_PREFIX)
-        .putBytes(elementEntry.getElement())
-        .hash();
-    return ListProofHashedEntry.newInstance(index, 0, hash);
-  }
-
-  private static ListProofHashedEntry hashBranchNode(ListProofHashedEntry leftChild,
-      @Nullable ListProofHashedEntry rightChild) {
-    long index = leftChild.getIndex() / 2;
-    int height = leftChild.getHeight() + 1;
-    Hasher hasher = newHasher()
-        .putByte(LIST_BRANCH_PREFIX)
-        .putObject(leftChild.getHash(), hashCodeFunnel());
-    if (rightChild != null) {
-      hasher.putObject(rightChild.getHash(), hashCodeFunnel());
-    }
-    return ListProofHashedEntry.newInstance(index, height, hasher.hash());
-  }
-
   private HashCode hashListIndex(HashCode rootHash) {
     return hashListIndex(size, rootHash);
   }
 
-  private static HashCode hashListIndex(long size, HashCode rootHash) {
+  static HashCode hashListIndex(long size, HashCode rootHash) {
     return newHasher()
         .putByte(LIST_ROOT_PREFIX)
         .putLong(size)
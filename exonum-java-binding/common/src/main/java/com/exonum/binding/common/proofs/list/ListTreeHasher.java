@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.hash.Hashing.sha256;
+import static com.exonum.binding.common.proofs.list.FlatListProof.BLOB_PREFIX;
+import static com.exonum.binding.common.proofs.list.FlatListProof.LIST_BRANCH_PREFIX;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hashing;
+import com.google.common.annotations.VisibleForTesting;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the hashes of the proof list tree nodes with SHA-256. The leaves are hashed
+ * with {@link HashFunction#hashAll(ByteBuffer, int[])}; the branches — with a single
+ * message digest per thread. Large tree levels are hashed in parallel
+ * in the {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+ */
+final class ListTreeHasher {
+
+  /**
+   * The minimum number of nodes at a tree level to hash them in parallel.
+   */
+  @VisibleForTesting
+  static final int PARALLEL_THRESHOLD = 4096;
+
+  /**
+   * The number of nodes hashed in a single parallel task.
+   */
+  private static final int CHUNK_SIZE = 1024;
+
+  private ListTreeHasher() {}
+
+  /**
+   * Computes the hashes of the leaf nodes containing the given elements.
+   *
+   * @param elements the element entries
+   * @return the hashes of the leaf nodes, in the order of the elements
+   */
+  static byte[][] hashLeaves(ListProofElementEntry[] elements) {
+    // Put the leaves (the prefixed elements) in a single buffer to hash them in one call
+    int numLeaves = elements.length;
+    int[] leafSizes = new int[numLeaves];
+    int totalSize = 0;
+    for (int i = 0; i < numLeaves; i++) {
+      leafSizes[i] = 1 + elements[i].getElement().length;
+      totalSize = Math.addExact(totalSize, leafSizes[i]);
+    }
+    ByteBuffer leaves = ByteBuffer.allocate(totalSize);
+    for (ListProofElementEntry element : elements) {
+      leaves.put(BLOB_PREFIX)
+          .put(element.getElement());
+    }
+    leaves.flip();
+
+    List<HashCode> leafHashes = sha256().hashAll(leaves, leafSizes);
+    byte[][] hashes = new byte[numLeaves][];
+    for (int i = 0; i < numLeaves; i++) {
+      hashes[i] = leafHashes.get(i).asBytes();
+    }
+    return hashes;
+  }
+
+  /**
+   * Computes the hashes of the parent nodes of the given nodes. The nodes are combined
+   * in adjacent pairs; the last node has no right sibling if their number is odd.
+   *
+   * @param nodes the hashes of the nodes at some level, ordered by their indexes;
+   *     the adjacent nodes must be siblings
+   * @return the hashes of the parent nodes, ordered by their indexes
+   */
+  static byte[][] hashBranches(byte[][] nodes) {
+    int numNodes = nodes.length;
+    byte[][] parents = new byte[(numNodes + 1) / 2][];
+    hashNodes(parents.length, (digest, i) -> {
+      int left = 2 * i;
+      int right = left + 1;
+      digest.update(LIST_BRANCH_PREFIX);
+      digest.update(nodes[left]);
+      if (right < numNodes) {
+        digest.update(nodes[right]);
+      }
+      parents[i] = digest.digest();
+    });
+    return parents;
+  }
+
+  private static void hashNodes(int numNodes, NodeHashing hashing) {
+    if (numNodes < PARALLEL_THRESHOLD) {
+      hashRange(0, numNodes, hashing);
+      return;
+    }
+    int numChunks = (numNodes + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    // Each task writes its own range of the output arrays, and the stream completion makes
+    // the results visible to the caller
+    IntStream.range(0, numChunks)
+        .parallel()
+        .forEach(chunk -> {
+          int from = chunk * CHUNK_SIZE;
+          int to = Math.min(from + CHUNK_SIZE, numNodes);
+          hashRange(from, to, hashing);
+        });
+  }
+
+  private static void hashRange(int from, int to, NodeHashing hashing) {
+    // The digest is reset after each hash, hence it is reused for all nodes in the range
+    MessageDigest digest = Hashing.newSha256Digest();
+    for (int i = from; i < to; i++) {
+      hashing.hashNode(digest, i);
+    }
+  }
+
+  @FunctionalInterface
+  private interface NodeHashing {
+    /**
+     * Computes the hash of the node at the given position with the digest, which is reset.
+     */
+    void hashNode(MessageDigest digest, int position);
+  }
+}
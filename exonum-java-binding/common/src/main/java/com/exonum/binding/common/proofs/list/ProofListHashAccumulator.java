@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.proofs.list.FlatListProof.BLOB_PREFIX;
+import static com.exonum.binding.common.proofs.list.FlatListProof.EMPTY_LIST_INDEX_HASH;
+import static com.exonum.binding.common.proofs.list.FlatListProof.LIST_BRANCH_PREFIX;
+import static com.exonum.binding.common.proofs.list.FlatListProof.MAX_SIZE;
+import static com.exonum.binding.common.proofs.list.FlatListProof.calcTreeHeight;
+import static com.exonum.binding.common.proofs.list.FlatListProof.hashListIndex;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An accumulator of the index hash of a proof list, which is advanced by the elements
+ * appended to the list. It allows to follow a growing proof list, e.g., a list of block
+ * hashes or an append-only log, without re-verifying the proofs of its whole contents:
+ * once the index hash of a list of a certain size is known, the index hashes after
+ * the subsequent appends are computed from the appended elements only.
+ *
+ * <p>The accumulator keeps the <em>frontier</em> of the proof list tree: the hashes
+ * of the perfect sub-trees the list consists of, at most one per tree level.
+ * Appending an element takes <em>O(log n)</em> hashing operations, where <em>n</em> is the list
+ * size. The index hash is the same as the one of the proof list and
+ * its {@linkplain com.exonum.binding.common.proofs.CheckedProof#getIndexHash() proofs}.
+ *
+ * <p>A follower of a list, e.g., a light client, may check the appends as follows:
+ * <pre>{@code
+ * // Restore the accumulator for the list state that is already verified
+ * ProofListHashAccumulator accumulator = ProofListHashAccumulator.fromFrontier(size, frontier);
+ * // Append the new elements
+ * newElements.forEach(accumulator::append);
+ * // Check the resulting index hash against the one from a trusted source,
+ * // e.g., a service state hash from a verified block
+ * if (!accumulator.getIndexHash().equals(trustedIndexHash)) {
+ *   // The elements are not the ones that were appended to the list
+ * }
+ * // Keep the frontier for the subsequent appends
+ * frontier = accumulator.getFrontier();
+ * }</pre>
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class ProofListHashAccumulator {
+
+  /**
+   * The roots of the perfect sub-trees of the list tree, by their height. The sub-tree
+   * at height h is present if, and only if, the h-th bit of the list size is set.
+   */
+  private final byte[][] frontier = new byte[ListProofEntry.MAX_HEIGHT + 1][];
+  private final MessageDigest digest = Hashing.newSha256Digest();
+  private long size;
+
+  private ProofListHashAccumulator() {}
+
+  /**
+   * Creates an accumulator of an empty list.
+   */
+  public static ProofListHashAccumulator empty() {
+    return new ProofListHashAccumulator();
+  }
+
+  /**
+   * Creates an accumulator of a list with the given frontier.
+   *
+   * @param size the size of the list
+   * @param frontier the frontier of the list, as returned by {@link #getFrontier()}
+   * @throws IllegalArgumentException if the size is not valid; or if the number of the frontier
+   *     hashes does not correspond to the size, or they are not SHA-256 hashes
+   */
+  public static ProofListHashAccumulator fromFrontier(long size, List<HashCode> frontier) {
+    checkArgument(0 <= size && size <= MAX_SIZE, "Invalid size (%s), must be in range [0; 2^56]",
+        size);
+    int expectedFrontierSize = Long.bitCount(size);
+    checkArgument(frontier.size() == expectedFrontierSize,
+        "The frontier of a list of size %s must have %s hashes, but has %s", size,
+        expectedFrontierSize, frontier.size());
+    ProofListHashAccumulator accumulator = new ProofListHashAccumulator();
+    int i = 0;
+    for (int height = ListProofEntry.MAX_HEIGHT; height >= 0; height--) {
+      if (hasSubTreeAt(size, height)) {
+        HashCode hash = checkNotNull(frontier.get(i++));
+        checkArgument(hash.bits() == Hashing.DEFAULT_HASH_SIZE_BITS,
+            "Invalid hash size (%s), must be 256 bits: %s", hash.bits(), hash);
+        accumulator.frontier[height] = hash.asBytes();
+      }
+    }
+    accumulator.size = size;
+    return accumulator;
+  }
+
+  /**
+   * Appends an element to the list.
+   *
+   * @param element the serialized element
+   * @throws IllegalStateException if the list has the maximum size
+   */
+  public void append(byte[] element) {
+    checkNotNull(element);
+    checkState(size < MAX_SIZE, "The list has the maximum size (%s)", size);
+    digest.update(BLOB_PREFIX);
+    digest.update(element);
+    byte[] node = digest.digest();
+    // Merge the new node with the sub-trees of the same height on its left, as in a binary
+    // increment of the size
+    int height = 0;
+    while (hasSubTreeAt(size, height)) {
+      node = hashBranch(frontier[height], node);
+      frontier[height] = null;
+      height++;
+    }
+    frontier[height] = node;
+    size++;
+  }
+
+  /**
+   * Appends the elements to the list.
+   *
+   * @param elements the serialized elements, in the order of their addition
+   * @throws IllegalStateException if the list reaches the maximum size
+   */
+  public void appendAll(Iterable<byte[]> elements) {
+    for (byte[] element : elements) {
+      append(element);
+    }
+  }
+
+  /**
+   * Returns the size of the list.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Returns the frontier of the list: the hashes of the perfect sub-trees the list tree
+   * consists of, from the highest (i.e., the leftmost) to the lowest.
+   */
+  public List<HashCode> getFrontier() {
+    List<HashCode> hashes = new ArrayList<>(Long.bitCount(size));
+    for (int height = ListProofEntry.MAX_HEIGHT; height >= 0; height--) {
+      if (hasSubTreeAt(size, height)) {
+        hashes.add(HashCode.fromBytes(frontier[height]));
+      }
+    }
+    return hashes;
+  }
+
+  /**
+   * Returns the index hash of the list.
+   */
+  public HashCode getIndexHash() {
+    if (size == 0L) {
+      return EMPTY_LIST_INDEX_HASH;
+    }
+    int treeHeight = calcTreeHeight(size);
+    // Compute the hash of the rightmost node at each level, from the bottom to the top.
+    // At each level, the rightmost node is either the root of a perfect sub-tree,
+    // or the parent of the nodes below; or they are siblings.
+    byte[] node = null;
+    for (int height = 0; height < treeHeight; height++) {
+      byte[] subTree = frontier[height];
+      if (subTree != null) {
+        node = (node == null) ? hashBranch(subTree) : hashBranch(subTree, node);
+      } else if (node != null) {
+        node = hashBranch(node);
+      }
+    }
+    byte[] rootHash = (node == null) ? frontier[treeHeight] : node;
+    return hashListIndex(size, HashCode.fromBytes(rootHash));
+  }
+
+  private byte[] hashBranch(byte[] leftChild) {
+    digest.update(LIST_BRANCH_PREFIX);
+    digest.update(leftChild);
+    return digest.digest();
+  }
+
+  private byte[] hashBranch(byte[] leftChild, byte[] rightChild) {
+    digest.update(LIST_BRANCH_PREFIX);
+    digest.update(leftChild);
+    digest.update(rightChild);
+    return digest.digest();
+  }
+
+  private static boolean hasSubTreeAt(long size, int height) {
+    return (size & (1L << height)) != 0;
+  }
+}
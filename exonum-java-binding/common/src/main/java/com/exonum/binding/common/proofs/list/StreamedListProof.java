@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.CheckedProof;
+
+/**
+ * A list proof verified by the {@link StreamingListProofVerifier}. It proves that
+ * the elements in a contiguous range of indexes, which were passed to the consumer during
+ * verification, are present in a proof list of a certain size.
+ *
+ * <p>Only valid proofs are represented by this class, as the verifier rejects invalid proofs
+ * with an exception.
+ */
+public final class StreamedListProof implements CheckedProof {
+
+  private final long size;
+  private final long firstIndex;
+  private final long numElements;
+  private final HashCode indexHash;
+
+  StreamedListProof(long size, long firstIndex, long numElements, HashCode indexHash) {
+    this.size = size;
+    this.firstIndex = firstIndex;
+    this.numElements = numElements;
+    this.indexHash = checkNotNull(indexHash);
+  }
+
+  /**
+   * Returns the size of the list: the total number of elements in it.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Returns the index of the first element in the proof; or zero if the proof
+   * has no elements.
+   */
+  public long getFirstIndex() {
+    return firstIndex;
+  }
+
+  /**
+   * Returns the number of elements in the proof. The indexes of the elements are
+   * in range [{@linkplain #getFirstIndex() firstIndex}; firstIndex + numElements).
+   */
+  public long getNumElements() {
+    return numElements;
+  }
+
+  @Override
+  public ListProofStatus getProofStatus() {
+    return ListProofStatus.VALID;
+  }
+
+  @Override
+  public HashCode getIndexHash() {
+    return indexHash;
+  }
+
+  @Override
+  public boolean isValid() {
+    return true;
+  }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.proofs.list.FlatListProof.BLOB_PREFIX;
+import static com.exonum.binding.common.proofs.list.FlatListProof.EMPTY_LIST_INDEX_HASH;
+import static com.exonum.binding.common.proofs.list.FlatListProof.LIST_BRANCH_PREFIX;
+import static com.exonum.binding.common.proofs.list.FlatListProof.MAX_SIZE;
+import static com.exonum.binding.common.proofs.list.FlatListProof.calcTreeHeight;
+import static com.exonum.binding.common.proofs.list.FlatListProof.hashListIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.common.proofs.InvalidProofException;
+import com.exonum.binding.common.proofs.ProofHashes;
+import com.exonum.messages.proof.ListProofOuterClass;
+import com.exonum.messages.proof.ListProofOuterClass.HashedEntry;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A verifier of list proofs that reads the proof from a stream, without materializing
+ * all its elements in memory. It is intended for proofs of large ranges of elements that
+ * are obtained with {@code ProofListIndexProxy#getRangeProof}.
+ *
+ * <p>The verifier reads a serialized {@code exonum.proof.ListProof} protobuf message.
+ * The elements of the proof are passed to the consumer as they are read; and the hashes
+ * of the proof tree nodes are computed on the fly, keeping only the nodes on the right
+ * boundary of the already hashed sub-trees: at most one per tree level.
+ *
+ * <p>As the proof can only be verified when the whole stream is read, the elements passed
+ * to the consumer must not be used until the verification succeeds: if it fails,
+ * the elements must be discarded. The {@linkplain StreamedListProof#getIndexHash() index hash}
+ * of the verified proof must be checked against the index hash of the proof list
+ * from a trusted source.
+ *
+ * <p>The verifier has the following requirements to the proof message, which are satisfied
+ * by the proofs produced by Exonum:
+ * <ul>
+ *   <li>The elements form a single contiguous range and go in the order of their indexes
+ *   <li>The proof entries precede the elements
+ * </ul>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @see FlatListProof
+ */
+public final class StreamingListProofVerifier {
+
+  /**
+   * The maximum number of proof entries in a proof of a contiguous range: two on each level,
+   * for the sub-trees adjacent to the range on the left and on the right.
+   */
+  private static final int MAX_PROOF_ENTRIES = 2 * ListProofEntry.MAX_HEIGHT;
+
+  private static final int PROOF_TAG = tag(ListProofOuterClass.ListProof.PROOF_FIELD_NUMBER,
+      WireFormat.WIRETYPE_LENGTH_DELIMITED);
+  private static final int ENTRIES_TAG = tag(ListProofOuterClass.ListProof.ENTRIES_FIELD_NUMBER,
+      WireFormat.WIRETYPE_LENGTH_DELIMITED);
+  private static final int LENGTH_TAG = tag(ListProofOuterClass.ListProof.LENGTH_FIELD_NUMBER,
+      WireFormat.WIRETYPE_VARINT);
+  private static final int ENTRY_INDEX_TAG = tag(
+      ListProofOuterClass.ListProofEntry.INDEX_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+  private static final int ENTRY_VALUE_TAG = tag(
+      ListProofOuterClass.ListProofEntry.VALUE_FIELD_NUMBER,
+      WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+  private final ElementConsumer consumer;
+  private final MessageDigest digest;
+  /** The proof entries, in the order they appear in the proof. */
+  private final List<ListProofHashedEntry> proof = new ArrayList<>();
+  /** The proof entries that are not yet merged with the calculated nodes. */
+  private final List<ListProofHashedEntry> unusedProof = new ArrayList<>();
+  /**
+   * The roots of the sub-trees that are hashed so far, which are not yet merged
+   * with their siblings, in the order of their indexes.
+   */
+  private final List<ListProofHashedEntry> frontier = new ArrayList<>();
+  private long firstIndex;
+  private long numElements;
+  private long size;
+
+  private StreamingListProofVerifier(ElementConsumer consumer) {
+    this.consumer = consumer;
+    this.digest = Hashing.newSha256Digest();
+  }
+
+  /**
+   * Reads the serialized list proof from the given stream and verifies it. The elements
+   * of the proof are passed to the consumer as they are read.
+   *
+   * <p>The stream is read till the end, and is not closed.
+   *
+   * @param proofStream the stream of the serialized {@code exonum.proof.ListProof} message
+   * @param consumer a consumer of the proof elements; it must discard the elements if this
+   *     method throws an exception
+   * @return the verified proof
+   * @throws InvalidProofException if the proof is not valid
+   * @throws IOException if the stream cannot be read or contains a malformed message
+   */
+  public static StreamedListProof verify(InputStream proofStream, ElementConsumer consumer)
+      throws IOException {
+    checkNotNull(proofStream);
+    checkNotNull(consumer);
+    StreamingListProofVerifier verifier = new StreamingListProofVerifier(consumer);
+    verifier.readProof(CodedInputStream.newInstance(proofStream));
+    return verifier.finish();
+  }
+
+  private void readProof(CodedInputStream input) throws IOException {
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      if (tag == PROOF_TAG) {
+        HashedEntry hashedEntry = input.readMessage(HashedEntry.parser(),
+            ExtensionRegistryLite.getEmptyRegistry());
+        addProofEntry(hashedEntry);
+      } else if (tag == ENTRIES_TAG) {
+        readElement(input);
+      } else if (tag == LENGTH_TAG) {
+        size = input.readUInt64();
+      } else {
+        input.skipField(tag);
+      }
+      // Limit the size of a single field rather than of the whole proof
+      input.resetSizeCounter();
+    }
+  }
+
+  private void addProofEntry(HashedEntry hashedEntry) {
+    if (numElements != 0) {
+      throw new InvalidProofException(
+          "Proof entries must precede the elements in a streamed proof, but got: "
+              + hashedEntry);
+    }
+    if (proof.size() == MAX_PROOF_ENTRIES) {
+      throw new InvalidProofException(String.format(
+          "Too many proof entries (over %d) for a proof of a contiguous range",
+          MAX_PROOF_ENTRIES));
+    }
+    long index = hashedEntry.getKey().getIndex();
+    int height = hashedEntry.getKey().getHeight();
+    if (index < 0L || ListProofEntry.MAX_INDEX < index
+        || height < 0 || ListProofEntry.MAX_HEIGHT < height) {
+      throw new InvalidProofException(String.format(
+          "Proof entry at invalid position: index (%d), height (%d)", index, height));
+    }
+    HashCode hash = HashCode.fromBytes(hashedEntry.getHash().getData().toByteArray());
+    ProofHashes.checkSha256Hash(hash);
+    ListProofHashedEntry entry = ListProofHashedEntry.newInstance(index, height, hash);
+    // Check for duplicates
+    for (ListProofHashedEntry present : proof) {
+      if (present.getIndex() == index && present.getHeight() == height) {
+        throw new InvalidProofException(
+            String.format("Multiple proof entries at the same position: %s and %s",
+                present, entry));
+      }
+    }
+    proof.add(entry);
+    unusedProof.add(entry);
+  }
+
+  private void readElement(CodedInputStream input) throws IOException {
+    int length = input.readRawVarint32();
+    int oldLimit = input.pushLimit(length);
+    long index = 0L;
+    byte[] value = new byte[0];
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      if (tag == ENTRY_INDEX_TAG) {
+        index = input.readUInt64();
+      } else if (tag == ENTRY_VALUE_TAG) {
+        value = input.readByteArray();
+      } else {
+        input.skipField(tag);
+      }
+    }
+    input.popLimit(oldLimit);
+    addElement(index, value);
+  }
+
+  private void addElement(long index, byte[] value) {
+    if (index < 0L || ListProofEntry.MAX_INDEX < index) {
+      throw new InvalidProofException(
+          String.format("Entry at invalid index (%d), must be in range [0; 2^56)", index));
+    }
+    if (numElements == 0) {
+      firstIndex = index;
+    } else {
+      long expectedIndex = firstIndex + numElements;
+      if (index != expectedIndex) {
+        throw new InvalidProofException(String.format("Elements of a streamed proof must have "
+            + "consecutive indexes, but the element at index (%d) follows the one at (%d)",
+            index, expectedIndex - 1));
+      }
+    }
+    numElements++;
+    consumer.accept(index, value);
+
+    // Hash the element and merge the new node with its left sibling, repeatedly
+    digest.update(BLOB_PREFIX);
+    digest.update(value);
+    ListProofHashedEntry node = newEntry(index, 0, digest.digest());
+    while (!isEven(node.getIndex())) {
+      ListProofHashedEntry leftSibling = removeLeftSibling(node);
+      if (leftSibling == null) {
+        // The sibling must be on the left of the range, but there is no such proof entry.
+        // Keep the node: the missing entry is reported when the proof is finished.
+        break;
+      }
+      node = hashBranchNode(leftSibling, node);
+    }
+    frontier.add(node);
+  }
+
+  /**
+   * Removes the left sibling of the given node from the frontier or the proof entries,
+   * and returns it; or returns {@code null} if there is no sibling.
+   */
+  private ListProofHashedEntry removeLeftSibling(ListProofHashedEntry node) {
+    long siblingIndex = node.getIndex() - 1;
+    int height = node.getHeight();
+    int last = frontier.size() - 1;
+    if (last >= 0) {
+      ListProofHashedEntry candidate = frontier.get(last);
+      if (candidate.getHeight() == height && candidate.getIndex() == siblingIndex) {
+        return frontier.remove(last);
+      }
+    }
+    for (int i = 0; i < unusedProof.size(); i++) {
+      ListProofHashedEntry candidate = unusedProof.get(i);
+      if (candidate.getHeight() == height && candidate.getIndex() == siblingIndex) {
+        return unusedProof.remove(i);
+      }
+    }
+    return null;
+  }
+
+  private StreamedListProof finish() {
+    // Check the size
+    if (size < 0 || MAX_SIZE < size) {
+      throw new InvalidProofException(String.format("Invalid size (%s), must be in range [0; 2^56]",
+          size));
+    }
+
+    // Handle special cases
+    if (size == 0) {
+      // Empty list
+      if (numElements != 0) {
+        throw new InvalidProofException("Proof for empty list must not have elements, but has "
+            + numElements);
+      }
+      if (!proof.isEmpty()) {
+        throw new InvalidProofException(
+            "Proof for empty list must not have proof entries, but has: " + proof);
+      }
+      return newProof(EMPTY_LIST_INDEX_HASH);
+    }
+    int treeHeight = calcTreeHeight(size);
+    if (numElements == 0) {
+      // Empty range: must have a single root hash node
+      return verifyEmptyRangeProof(treeHeight);
+    }
+
+    // 1+ element proof. Check that the elements are in range [0; size)
+    long lastIndex = firstIndex + numElements - 1;
+    if (size <= lastIndex) {
+      throw new InvalidProofException(
+          String.format("Entry at invalid index (%d), must be in range [0; %d)",
+              lastIndex, size));
+    }
+    // Check the proof entries
+    for (ListProofHashedEntry hashedEntry : proof) {
+      int height = hashedEntry.getHeight();
+      if (treeHeight <= height) {
+        throw new InvalidProofException(
+            String.format("Proof entry at invalid height (%d), must be in range [0; %d): %s",
+                height, treeHeight, hashedEntry));
+      }
+      long levelSize = levelSizeAt(height);
+      long index = hashedEntry.getIndex();
+      if (levelSize <= index) {
+        throw new InvalidProofException(String
+            .format(
+                "Proof entry at invalid index (%d); it must be in range [0; %d) at height %d: %s",
+                index, levelSize, height, hashedEntry));
+      }
+    }
+
+    // Merge the frontier nodes with the remaining proof entries, from the bottom to the top
+    Map<Long, ListProofHashedEntry> calculated = new TreeMap<>();
+    for (int height = 0; height < treeHeight; height++) {
+      addNodesAt(height, frontier, calculated);
+      Map<Long, ListProofHashedEntry> proofAtLevel = new TreeMap<>();
+      addNodesAt(height, unusedProof, proofAtLevel);
+      calculated = reduce(calculated, proofAtLevel, levelSizeAt(height));
+    }
+    addNodesAt(treeHeight, frontier, calculated);
+
+    // Take the root hash and calculate the index hash.
+    HashCode rootHash = calculated.get(0L).getHash();
+    return newProof(hashListIndex(size, rootHash));
+  }
+
+  private StreamedListProof verifyEmptyRangeProof(int treeHeight) {
+    if (proof.size() != 1) {
+      throw new InvalidProofException(String.format(
+          "Proof for an empty range must have a single proof node, but has %d: %s",
+          proof.size(), proof));
+    }
+    ListProofHashedEntry rootHashEntry = proof.get(0);
+    if (rootHashEntry.getHeight() != treeHeight || rootHashEntry.getIndex() != 0L) {
+      throw new InvalidProofException(
+          String.format("Proof node for an empty range at invalid position, "
+              + "must be at index 0 at height (%d) for a list of size %d: %s",
+              treeHeight, size, rootHashEntry));
+    }
+    return newProof(hashListIndex(size, rootHashEntry.getHash()));
+  }
+
+  private static void addNodesAt(int height, List<ListProofHashedEntry> nodes,
+      Map<Long, ListProofHashedEntry> nodesAtHeight) {
+    for (ListProofHashedEntry node : nodes) {
+      if (node.getHeight() == height) {
+        nodesAtHeight.put(node.getIndex(), node);
+      }
+    }
+  }
+
+  /**
+   * Combines the nodes at height h to produce their parent nodes at height h + 1.
+   * The nodes must satisfy the same requirements as in {@link FlatListProof}.
+   *
+   * @param calculated the inferred nodes at height h, sorted by index
+   * @param proofAtLevel the remaining proof nodes at height h, sorted by index
+   * @param levelSize the number of nodes at height h
+   * @return the calculated nodes at height h + 1, sorted by index
+   */
+  private Map<Long, ListProofHashedEntry> reduce(Map<Long, ListProofHashedEntry> calculated,
+      Map<Long, ListProofHashedEntry> proofAtLevel, long levelSize) {
+    for (ListProofHashedEntry inferredNode : calculated.values()) {
+      long index = inferredNode.getIndex();
+      if (isOdd(levelSize) && index == levelSize - 1) {
+        // The last node on an odd-sized level does not have a sibling.
+        continue;
+      }
+      long siblingIndex = getSiblingIndex(index);
+      if (!(calculated.containsKey(siblingIndex) || proofAtLevel.containsKey(siblingIndex))) {
+        throw new InvalidProofException(
+            String.format("Missing proof entry at index (%d) for the calculated one: %s",
+                siblingIndex, inferredNode));
+      }
+    }
+    for (ListProofHashedEntry proofNode : proofAtLevel.values()) {
+      long index = proofNode.getIndex();
+      if (calculated.containsKey(index)) {
+        throw new InvalidProofException(
+            String.format("Redundant proof entry (%s) with the same index (%d) as "
+                + "the calculated node (%s)", proofNode, index, calculated.get(index)));
+      }
+      if (!calculated.containsKey(getSiblingIndex(index))) {
+        throw new InvalidProofException(
+            String.format("Redundant proof entry (%s) not needed for verification", proofNode));
+      }
+    }
+
+    // Merge the nodes, and reduce the adjacent ones (which are siblings)
+    TreeMap<Long, ListProofHashedEntry> merged = new TreeMap<>(calculated);
+    merged.putAll(proofAtLevel);
+    Map<Long, ListProofHashedEntry> nextLevel = new TreeMap<>();
+    while (!merged.isEmpty()) {
+      ListProofHashedEntry left = merged.pollFirstEntry().getValue();
+      ListProofHashedEntry right = merged.isEmpty() ? null : merged.pollFirstEntry().getValue();
+      ListProofHashedEntry parent = (right == null) ? hashBranchNode(left)
+          : hashBranchNode(left, right);
+      nextLevel.put(parent.getIndex(), parent);
+    }
+    return nextLevel;
+  }
+
+  private long levelSizeAt(int height) {
+    long levelSize = size;
+    for (int h = 0; h < height; h++) {
+      levelSize = (levelSize + 1) / 2;
+    }
+    return levelSize;
+  }
+
+  private ListProofHashedEntry hashBranchNode(ListProofHashedEntry leftChild) {
+    digest.update(LIST_BRANCH_PREFIX);
+    digest.update(leftChild.getHash().asBytes());
+    return newEntry(leftChild.getIndex() / 2, leftChild.getHeight() + 1, digest.digest());
+  }
+
+  private ListProofHashedEntry hashBranchNode(ListProofHashedEntry leftChild,
+      ListProofHashedEntry rightChild) {
+    digest.update(LIST_BRANCH_PREFIX);
+    digest.update(leftChild.getHash().asBytes());
+    digest.update(rightChild.getHash().asBytes());
+    return newEntry(leftChild.getIndex() / 2, leftChild.getHeight() + 1, digest.digest());
+  }
+
+  private StreamedListProof newProof(HashCode indexHash) {
+    long first = (numElements == 0) ? 0L : firstIndex;
+    return new StreamedListProof(size, first, numElements, indexHash);
+  }
+
+  private static ListProofHashedEntry newEntry(long index, int height, byte[] hash) {
+    return ListProofHashedEntry.newInstance(index, height, HashCode.fromBytes(hash));
+  }
+
+  private static long getSiblingIndex(long index) {
+    return isEven(index) ? index + 1 : index - 1;
+  }
+
+  private static boolean isOdd(long v) {
+    return !isEven(v);
+  }
+
+  private static boolean isEven(long v) {
+    return (v & 1L) == 0L;
+  }
+
+  private static int tag(int fieldNumber, int wireType) {
+    return (fieldNumber << 3) | wireType;
+  }
+
+  /**
+   * A consumer of the elements of a streamed list proof.
+   */
+  @FunctionalInterface
+  public interface ElementConsumer {
+
+    /**
+     * Accepts the element of the proof. The elements are passed in the order of their indexes.
+     *
+     * @param index the index of the element in the list
+     * @param element the element value
+     */
+    void accept(long index, byte[] element);
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.map;
+
+import static com.exonum.binding.common.proofs.map.DbKey.DB_KEY_SIZE;
+import static com.exonum.binding.common.proofs.map.DbKey.KEY_SIZE;
+import static com.exonum.binding.common.proofs.map.DbKey.KEY_SIZE_BITS;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.exonum.binding.common.hash.PrimitiveSink;
+import com.exonum.binding.common.proofs.map.DbKey.Type;
+import com.google.protobuf.ByteString;
+
+/**
+ * Operations on database keys in their {@linkplain DbKey#getRawDbKey() raw} 34-byte format.
+ * They produce the same results as the corresponding operations of {@link DbKey},
+ * but work directly on the key bytes, without creating intermediate key objects
+ * and bit sets. The arguments are assumed to be valid raw database keys.
+ *
+ * <p>The bits of a key are numbered from the least significant bit of the first byte
+ * of the key slice, as in {@link DbKey#keyBits()}.
+ */
+final class RawDbKeys {
+
+  private static final int KEY_START_POSITION = 1;
+
+  /**
+   * Creates a raw leaf key.
+   *
+   * @param key a 32-byte key of a map entry
+   * @throws IllegalArgumentException if the key has invalid size
+   */
+  static byte[] newLeafKey(ByteString key) {
+    checkArgument(key.size() == KEY_SIZE, "Key size (%s) must be %s", key.size(), KEY_SIZE);
+    byte[] rawKey = new byte[DB_KEY_SIZE];
+    rawKey[0] = Type.LEAF.code;
+    key.copyTo(rawKey, KEY_START_POSITION);
+    return rawKey;
+  }
+
+  /**
+   * Returns the number of significant bits in the key.
+   */
+  static int numSignificantBits(byte[] rawKey) {
+    return (rawKey[0] == Type.LEAF.code) ? KEY_SIZE_BITS
+        : Byte.toUnsignedInt(rawKey[DB_KEY_SIZE - 1]);
+  }
+
+  /**
+   * Compares two keys as {@link DbKey#compareTo(DbKey)}.
+   */
+  static int compare(byte[] rawKey, byte[] otherRawKey) {
+    int numBits = numSignificantBits(rawKey);
+    int otherNumBits = numSignificantBits(otherRawKey);
+    int firstDifferentBit = firstDifferentBit(rawKey, otherRawKey);
+    if (firstDifferentBit < Math.min(numBits, otherNumBits)) {
+      return getBit(rawKey, firstDifferentBit) ? 1 : -1;
+    }
+    return Integer.compare(numBits, otherNumBits);
+  }
+
+  /**
+   * Returns true if the first key is a prefix of the other key, as {@link DbKey#isPrefixOf(DbKey)}.
+   */
+  static boolean isPrefixOf(byte[] rawKey, byte[] otherRawKey) {
+    int numBits = numSignificantBits(rawKey);
+    return numBits <= numSignificantBits(otherRawKey)
+        && numBits <= firstDifferentBit(rawKey, otherRawKey);
+  }
+
+  /**
+   * Returns the length of the common prefix of two keys in bits.
+   */
+  static int commonPrefixLength(byte[] rawKey, byte[] otherRawKey) {
+    int minNumBits = Math.min(numSignificantBits(rawKey), numSignificantBits(otherRawKey));
+    return Math.min(firstDifferentBit(rawKey, otherRawKey), minNumBits);
+  }
+
+  /**
+   * Returns the common prefix of two keys as a raw branch key, as
+   * {@link DbKey#commonPrefix(DbKey)}. If the keys are equal, the first key itself
+   * is returned.
+   */
+  static byte[] commonPrefix(byte[] rawKey, byte[] otherRawKey) {
+    int numBits = numSignificantBits(rawKey);
+    int otherNumBits = numSignificantBits(otherRawKey);
+    int firstDifferentBit = firstDifferentBit(rawKey, otherRawKey);
+    if (firstDifferentBit == KEY_SIZE_BITS && numBits == otherNumBits) {
+      return rawKey;
+    }
+    int prefixLength = Math.min(firstDifferentBit, Math.min(numBits, otherNumBits));
+    byte[] prefix = new byte[DB_KEY_SIZE];
+    prefix[0] = Type.BRANCH.code;
+    int wholeBytes = prefixLength / Byte.SIZE;
+    System.arraycopy(rawKey, KEY_START_POSITION, prefix, KEY_START_POSITION, wholeBytes);
+    int remainingBits = prefixLength % Byte.SIZE;
+    if (remainingBits != 0) {
+      int lastByte = KEY_START_POSITION + wholeBytes;
+      prefix[lastByte] = (byte) (rawKey[lastByte] & ((1 << remainingBits) - 1));
+    }
+    prefix[DB_KEY_SIZE - 1] = (byte) prefixLength;
+    return prefix;
+  }
+
+  /**
+   * Writes the key to the sink in the format of
+   * {@link com.exonum.binding.common.proofs.DbKeyCompressedFunnel}.
+   */
+  static void putCompressed(byte[] rawKey, PrimitiveSink into) {
+    int numBits = numSignificantBits(rawKey);
+    // The number of bits is always below 2^14, hence takes at most two LEB128 bytes
+    if (numBits < 0x80) {
+      into.putByte((byte) numBits);
+    } else {
+      into.putByte((byte) ((numBits & 0x7f) | 0x80));
+      into.putByte((byte) (numBits >>> 7));
+    }
+    int wholeBytesLength = (numBits + Byte.SIZE - 1) / Byte.SIZE;
+    into.putBytes(rawKey, KEY_START_POSITION, wholeBytesLength);
+  }
+
+  /**
+   * Returns the index of the first bit in which the key slices differ;
+   * or {@link DbKey#KEY_SIZE_BITS} if they are equal.
+   */
+  private static int firstDifferentBit(byte[] rawKey, byte[] otherRawKey) {
+    for (int i = KEY_START_POSITION; i < KEY_START_POSITION + KEY_SIZE; i++) {
+      int diff = (rawKey[i] ^ otherRawKey[i]) & 0xFF;
+      if (diff != 0) {
+        return (i - KEY_START_POSITION) * Byte.SIZE + Integer.numberOfTrailingZeros(diff);
+      }
+    }
+    return KEY_SIZE_BITS;
+  }
+
+  private static boolean getBit(byte[] rawKey, int bitIndex) {
+    int keyByte = rawKey[KEY_START_POSITION + bitIndex / Byte.SIZE];
+    return (keyByte & (1 << (bitIndex % Byte.SIZE))) != 0;
+  }
+
+  private RawDbKeys() {}
+}
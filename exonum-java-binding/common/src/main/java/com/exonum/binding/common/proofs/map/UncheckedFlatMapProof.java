@@ -17,7 +17,6 @@
 package com.exonum.binding.common.proofs.map;
 
 import static com.exonum.binding.common.hash.Funnels.hashCodeFunnel;
-import static com.exonum.binding.common.proofs.DbKeyCompressedFunnel.dbKeyCompressedFunnel;
 import static com.exonum.binding.common.proofs.DbKeyFunnel.dbKeyFunnel;
 import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.toList;
@@ -25,19 +24,15 @@ import static java.util.stream.Collectors.toList;
 import com.exonum.binding.common.collect.MapEntry;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hasher;
 import com.exonum.binding.common.hash.Hashing;
 import com.exonum.binding.common.proofs.map.DbKey.Type;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.ByteString;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
 
 /**
  * An unchecked flat map proof, which does not include any intermediate nodes.
@@ -72,14 +67,18 @@ public class UncheckedFlatMapProof implements UncheckedMapProof {
 
   @Override
   public CheckedMapProof check() {
-    MapProofStatus orderCheckResult = orderCheck();
+    byte[][] proofKeys = new byte[proof.size()][];
+    for (int i = 0; i < proofKeys.length; i++) {
+      proofKeys[i] = proof.get(i).getDbKey().getRawDbKey();
+    }
+    MapProofStatus orderCheckResult = orderCheck(proofKeys);
     if (orderCheckResult != MapProofStatus.CORRECT) {
       return CheckedFlatMapProof.invalid(orderCheckResult);
     }
     if (containsInvalidHashes()) {
       return CheckedFlatMapProof.invalid(MapProofStatus.INVALID_HASH_SIZE);
     }
-    if (prefixesIncluded()) {
+    if (prefixesIncluded(proofKeys)) {
       return CheckedFlatMapProof.invalid(MapProofStatus.EMBEDDED_PATH);
     }
     if (isEmptyProof()) {
@@ -87,7 +86,7 @@ public class UncheckedFlatMapProof implements UncheckedMapProof {
     } else if (isSingletonProof()) {
       return checkSingletonProof();
     } else {
-      return checkProof();
+      return checkProof(proofKeys);
     }
   }
 
@@ -104,13 +103,13 @@ public class UncheckedFlatMapProof implements UncheckedMapProof {
    *         {@code MapProofStatus.EMBEDDED_PATH} if one key is a prefix of another
    * @see DbKey#compareTo(DbKey)
    */
-  private MapProofStatus orderCheck() {
-    for (int i = 1; i < proof.size(); i++) {
-      DbKey key = proof.get(i - 1).getDbKey();
-      DbKey nextKey = proof.get(i).getDbKey();
-      int comparisonResult = key.compareTo(nextKey);
+  private static MapProofStatus orderCheck(byte[][] proofKeys) {
+    for (int i = 1; i < proofKeys.length; i++) {
+      byte[] key = proofKeys[i - 1];
+      byte[] nextKey = proofKeys[i];
+      int comparisonResult = RawDbKeys.compare(key, nextKey);
       if (comparisonResult < 0) {
-        if (key.isPrefixOf(nextKey)) {
+        if (RawDbKeys.isPrefixOf(key, nextKey)) {
           return MapProofStatus.EMBEDDED_PATH;
         }
       } else if (comparisonResult == 0) {
@@ -136,23 +135,41 @@ public class UncheckedFlatMapProof implements UncheckedMapProof {
   /**
    * Check if any entry has a prefix among the paths in the proof entries. Both found and absent
    * keys are checked.
+   *
+   * <p>The proof keys must be sorted. As the proof keys are not prefixes of each other,
+   * the only proof key that might be a prefix of a requested key is the greatest proof key
+   * that is less than or equal to it.
    */
-  private boolean prefixesIncluded() {
-    Stream<DbKey> requestedKeys =
-        Stream.concat(
-            entries.stream()
-                .map(MapEntry::getKey),
-            missingKeys.stream())
-        .map(DbKey::newLeafKey);
-
-    // TODO: proof entries are checked to be sorted at this stage, so it's possible
-    //   to use binary search here
-    return requestedKeys
-        .anyMatch(leafEntryKey -> proof.stream()
-            .map(MapProofEntry::getDbKey)
-            .anyMatch(proofEntryKey ->
-                proofEntryKey.isPrefixOf(leafEntryKey))
-        );
+  private boolean prefixesIncluded(byte[][] proofKeys) {
+    if (proofKeys.length == 0) {
+      return false;
+    }
+    for (MapEntry<ByteString, ByteString> entry : entries) {
+      if (hasPrefixIn(proofKeys, RawDbKeys.newLeafKey(entry.getKey()))) {
+        return true;
+      }
+    }
+    for (ByteString missingKey : missingKeys) {
+      if (hasPrefixIn(proofKeys, RawDbKeys.newLeafKey(missingKey))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasPrefixIn(byte[][] sortedProofKeys, byte[] leafKey) {
+    int low = 0;
+    int high = sortedProofKeys.length - 1;
+    // Find the greatest proof key that is less than or equal to the leaf key
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (RawDbKeys.compare(sortedProofKeys[mid], leafKey) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high >= 0 && RawDbKeys.isPrefixOf(sortedProofKeys[high], leafKey);
   }
 
   private boolean isEmptyProof() {
@@ -186,71 +203,102 @@ public class UncheckedFlatMapProof implements UncheckedMapProof {
     }
   }
 
-  private CheckedMapProof checkProof() {
-    List<MapProofEntry> proofList = mergeLeavesWithBranches();
-    Deque<MapProofEntry> contour = new ArrayDeque<>();
-    MapProofEntry first = proofList.get(0);
-    MapProofEntry second = proofList.get(1);
-    DbKey lastPrefix = first.getDbKey().commonPrefix(second.getDbKey());
-    contour.push(first);
-    contour.push(second);
-    for (int i = 2; i < proofList.size(); i++) {
-      MapProofEntry currentEntry = proofList.get(i);
-      DbKey newPrefix = contour.peek().getDbKey().commonPrefix(currentEntry.getDbKey());
-      while (contour.size() > 1
-          && newPrefix.getNumSignificantBits() < lastPrefix.getNumSignificantBits()) {
-        lastPrefix = fold(contour, lastPrefix).orElse(lastPrefix);
+  /**
+   * Computes the index hash of the proof with multiple nodes by folding the tree contour,
+   * which initially consists of all the proof nodes and leaf entries in the key order.
+   * The contour is kept in a pair of arrays used as a stack.
+   */
+  private CheckedMapProof checkProof(byte[][] proofKeys) {
+    int contourSize = proofKeys.length + entries.size();
+    assert contourSize > 1 :
+        "This method computes the hashes correctly for trees with multiple nodes only";
+
+    byte[][] keys = new byte[contourSize][];
+    HashCode[] hashes = new HashCode[contourSize];
+    mergeLeavesWithBranches(proofKeys, keys, hashes);
+
+    byte[][] contourKeys = new byte[contourSize][];
+    HashCode[] contourHashes = new HashCode[contourSize];
+    contourKeys[0] = keys[0];
+    contourHashes[0] = hashes[0];
+    contourKeys[1] = keys[1];
+    contourHashes[1] = hashes[1];
+    int top = 2;
+    byte[] lastPrefix = RawDbKeys.commonPrefix(keys[0], keys[1]);
+    for (int i = 2; i < contourSize; i++) {
+      byte[] currentKey = keys[i];
+      byte[] newPrefix = RawDbKeys.commonPrefix(contourKeys[top - 1], currentKey);
+      int newPrefixLength = RawDbKeys.numSignificantBits(newPrefix);
+      while (top > 1 && newPrefixLength < RawDbKeys.numSignificantBits(lastPrefix)) {
+        lastPrefix = fold(contourKeys, contourHashes, top, lastPrefix);
+        top--;
       }
-      contour.push(currentEntry);
+      contourKeys[top] = currentKey;
+      contourHashes[top] = hashes[i];
+      top++;
       lastPrefix = newPrefix;
     }
-    while (contour.size() > 1) {
-      lastPrefix = fold(contour, lastPrefix).orElse(lastPrefix);
+    while (top > 1) {
+      lastPrefix = fold(contourKeys, contourHashes, top, lastPrefix);
+      top--;
     }
-    HashCode indexHash = getIndexHash(contour.peek().getHash());
+    HashCode indexHash = getIndexHash(contourHashes[0]);
     return CheckedFlatMapProof.correct(indexHash, toSet(entries), toSet(missingKeys));
   }
 
   /**
    * Creates an initial proof tree contour, by computing hashes of leaf entries and merging them
-   * with the list of proof entries.
+   * with the sorted proof entries into the given arrays. Only the leaf entries are sorted.
    */
-  private List<MapProofEntry> mergeLeavesWithBranches() {
-    int contourSize = proof.size() + entries.size();
-    assert contourSize > 1 :
-        "This method computes the hashes correctly for trees with multiple nodes only";
-
-    List<MapProofEntry> proofContour = new ArrayList<>(contourSize);
-
-    proofContour.addAll(proof);
-    entries
-        .stream()
-        .map(e -> new MapProofEntry(DbKey.newLeafKey(e.getKey()), getLeafEntryHash(e.getValue())))
-        .forEach(proofContour::add);
-
-    proofContour.sort(Comparator.comparing(MapProofEntry::getDbKey));
-
-    return proofContour;
+  private void mergeLeavesWithBranches(byte[][] proofKeys, byte[][] keys, HashCode[] hashes) {
+    int numLeaves = entries.size();
+    byte[][] leafKeys = new byte[numLeaves][];
+    HashCode[] leafHashes = new HashCode[numLeaves];
+    Integer[] leafOrder = new Integer[numLeaves];
+    for (int i = 0; i < numLeaves; i++) {
+      MapEntry<ByteString, ByteString> entry = entries.get(i);
+      leafKeys[i] = RawDbKeys.newLeafKey(entry.getKey());
+      leafHashes[i] = getLeafEntryHash(entry.getValue());
+      leafOrder[i] = i;
+    }
+    Arrays.sort(leafOrder, (l, r) -> RawDbKeys.compare(leafKeys[l], leafKeys[r]));
+
+    int proofIndex = 0;
+    int leafIndex = 0;
+    for (int i = 0; i < keys.length; i++) {
+      boolean takeProof = leafIndex == numLeaves
+          || (proofIndex < proofKeys.length
+              && RawDbKeys.compare(proofKeys[proofIndex], leafKeys[leafOrder[leafIndex]]) <= 0);
+      if (takeProof) {
+        keys[i] = proofKeys[proofIndex];
+        hashes[i] = proof.get(proofIndex).getHash();
+        proofIndex++;
+      } else {
+        int leaf = leafOrder[leafIndex];
+        keys[i] = leafKeys[leaf];
+        hashes[i] = leafHashes[leaf];
+        leafIndex++;
+      }
+    }
   }
 
   /**
-   * Folds two last entries in a contour and replaces them with the folded entry.
+   * Folds two last entries in a contour of the given size and replaces them with the folded entry.
    * Returns an updated common prefix between two last entries in the contour.
    */
-  private Optional<DbKey> fold(Deque<MapProofEntry> contour, DbKey lastPrefix) {
-    MapProofEntry lastEntry = contour.pop();
-    MapProofEntry penultimateEntry = contour.pop();
-    MapProofEntry newEntry =
-        new MapProofEntry(lastPrefix, computeBranchHash(penultimateEntry, lastEntry));
-    Optional<DbKey> commonPrefix;
-    if (!contour.isEmpty()) {
-      MapProofEntry previousEntry = contour.peek();
-      commonPrefix = Optional.of(previousEntry.getDbKey().commonPrefix(lastPrefix));
-    } else {
-      commonPrefix = Optional.empty();
-    }
-
-    contour.push(newEntry);
+  private static byte[] fold(byte[][] contourKeys, HashCode[] contourHashes, int size,
+      byte[] lastPrefix) {
+    int last = size - 1;
+    int penultimate = size - 2;
+    HashCode branchHash = computeBranchHash(contourKeys[penultimate], contourHashes[penultimate],
+        contourKeys[last], contourHashes[last]);
+    byte[] commonPrefix = (penultimate > 0)
+        ? RawDbKeys.commonPrefix(contourKeys[penultimate - 1], lastPrefix)
+        : lastPrefix;
+    contourKeys[penultimate] = lastPrefix;
+    contourHashes[penultimate] = branchHash;
+    contourKeys[last] = null;
+    contourHashes[last] = null;
     return commonPrefix;
   }
 
@@ -295,15 +343,16 @@ public class UncheckedFlatMapProof implements UncheckedMapProof {
         .hash();
   }
 
-  private static HashCode computeBranchHash(MapProofEntry leftChild, MapProofEntry rightChild) {
-    return HASH_FUNCTION
+  private static HashCode computeBranchHash(byte[] leftKey, HashCode leftHash,
+      byte[] rightKey, HashCode rightHash) {
+    Hasher hasher = HASH_FUNCTION
         .newHasher()
         .putByte(MAP_NODE_PREFIX)
-        .putObject(leftChild.getHash(), hashCodeFunnel())
-        .putObject(rightChild.getHash(), hashCodeFunnel())
-        .putObject(leftChild.getDbKey(), dbKeyCompressedFunnel())
-        .putObject(rightChild.getDbKey(), dbKeyCompressedFunnel())
-        .hash();
+        .putObject(leftHash, hashCodeFunnel())
+        .putObject(rightHash, hashCodeFunnel());
+    RawDbKeys.putCompressed(leftKey, hasher);
+    RawDbKeys.putCompressed(rightKey, hasher);
+    return hasher.hash();
   }
 
   private <T> Set<T> toSet(List<T> list) {
@@ -42,4 +42,13 @@ enum DoubleSerializer implements Serializer<Double> {
         .getDouble();
   }
 
+  @Override
+  public Double fromBuffer(ByteBuffer serializedValue) {
+    checkLength(serializedValue, Double.BYTES);
+
+    return serializedValue.duplicate()
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .getDouble();
+  }
+
 }
@@ -42,4 +42,13 @@ enum Fixed32Serializer implements Serializer<Integer> {
         .getInt();
   }
 
+  @Override
+  public Integer fromBuffer(ByteBuffer serializedValue) {
+    checkLength(serializedValue, Integer.BYTES);
+
+    return serializedValue.duplicate()
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .getInt();
+  }
+
 }
@@ -42,4 +42,13 @@ enum Fixed64Serializer implements Serializer<Long> {
         .getLong();
   }
 
+  @Override
+  public Long fromBuffer(ByteBuffer serializedValue) {
+    checkLength(serializedValue, Long.BYTES);
+
+    return serializedValue.duplicate()
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .getLong();
+  }
+
 }
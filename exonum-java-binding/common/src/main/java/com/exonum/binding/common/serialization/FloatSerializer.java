@@ -42,4 +42,13 @@ enum FloatSerializer implements Serializer<Float> {
         .getFloat();
   }
 
+  @Override
+  public Float fromBuffer(ByteBuffer serializedValue) {
+    checkLength(serializedValue, Float.BYTES);
+
+    return serializedValue.duplicate()
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .getFloat();
+  }
+
 }
@@ -19,6 +19,8 @@ package com.exonum.binding.common.serialization;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.nio.ByteBuffer;
+
 final class SerializationUtils {
 
   /**
@@ -33,6 +35,18 @@ final class SerializationUtils {
         "Expected an array of size %s, but was %s", length, array.length);
   }
 
+  /**
+   * Performs check that the buffer has the correct number of remaining bytes.
+   *
+   * @param buffer a buffer
+   * @param length expected number of remaining bytes
+   * @throws IllegalArgumentException thrown if length is incorrect
+   */
+  static void checkLength(ByteBuffer buffer, int length) {
+    checkArgument(buffer.remaining() == length,
+        "Expected a buffer of size %s, but was %s", length, buffer.remaining());
+  }
+
   private SerializationUtils() {
   }
 }
@@ -16,6 +16,8 @@
 
 package com.exonum.binding.common.serialization;
 
+import java.nio.ByteBuffer;
+
 /**
  * Converts Java objects into a binary representation in some format, and vice versa.
  *
@@ -50,4 +52,24 @@ public interface Serializer<T> {
    *     (e.g., contains 2 bytes when 4 are expected)
    */
   T fromBytes(byte[] serializedValue);
+
+  /**
+   * De-serializes a value from the remaining bytes of a given buffer. The position
+   * of the buffer is not modified.
+   *
+   * <p>The default implementation copies the remaining bytes into an array
+   * and passes it to {@link #fromBytes(byte[])}. Implementations may override it
+   * to decode the value directly from the buffer.
+   *
+   * @param serializedValue a buffer containing a serialized value of type T, must not be null
+   * @return a value
+   * @throws NullPointerException if the buffer is null
+   * @throws IllegalArgumentException if the buffer cannot be decoded into a value of type T
+   */
+  default T fromBuffer(ByteBuffer serializedValue) {
+    byte[] valueBytes = new byte[serializedValue.remaining()];
+    serializedValue.duplicate()
+        .get(valueBytes);
+    return fromBytes(valueBytes);
+  }
 }
@@ -141,7 +141,10 @@ public final class StandardSerializers {
   }
 
   /**
-   * Returns a serializer of transaction messages.
+   * Returns a serializer of transaction messages. The serializer does not decode the messages,
+   * which are decoded on the first access to their fields instead.
+   *
+   * @see TransactionMessage#fromBytesLazily(byte[])
    */
   public static Serializer<TransactionMessage> transactionMessage() {
     return TransactionMessageSerializer.INSTANCE;
@@ -28,7 +28,7 @@ enum TransactionMessageSerializer implements Serializer<TransactionMessage> {
 
   @Override
   public TransactionMessage fromBytes(byte[] serializedValue) {
-    return TransactionMessage.fromBytes(serializedValue);
+    return TransactionMessage.fromBytesLazily(serializedValue);
   }
 
 }
@@ -23,6 +23,7 @@ import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.SIGNATURE
 import static com.exonum.binding.test.Bytes.bytes;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -30,8 +31,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.exonum.binding.test.Bytes;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 abstract class Ed25519CryptoFunctionTestable {
 
@@ -81,6 +88,30 @@ abstract class Ed25519CryptoFunctionTestable {
     assertTrue(cryptoFunction.verify(message, signature, publicKey));
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = {0, 3})
+  void signMessageInBufferRange(int offset) {
+    KeyPair keyPair = cryptoFunction.generateKeyPair();
+    PrivateKey privateKey = keyPair.getPrivateKey();
+    byte[] message = bytes("myMessage");
+    byte[] buffer = new byte[offset + message.length + 5];
+    System.arraycopy(message, 0, buffer, offset, message.length);
+
+    byte[] signature = cryptoFunction.signMessage(buffer, offset, message.length, privateKey);
+
+    assertArrayEquals(cryptoFunction.signMessage(message, privateKey), signature);
+  }
+
+  @Test
+  void signMessageInvalidBufferRange() {
+    KeyPair keyPair = cryptoFunction.generateKeyPair();
+    PrivateKey privateKey = keyPair.getPrivateKey();
+    byte[] buffer = new byte[8];
+
+    assertThrows(IndexOutOfBoundsException.class,
+        () -> cryptoFunction.signMessage(buffer, 4, 5, privateKey));
+  }
+
   @Test
   void validSignatureEmptyMessageVerificationTest() {
     KeyPair keyPair = cryptoFunction.generateKeyPair();
@@ -151,4 +182,45 @@ abstract class Ed25519CryptoFunctionTestable {
     byte[] anotherMessage = bytes("anotherMessage");
     assertFalse(cryptoFunction.verify(anotherMessage, signature, publicKey));
   }
+
+  @Test
+  void verifyBatchEmpty() {
+    BitSet valid = cryptoFunction.verifyBatch(Collections.emptyList());
+    assertTrue(valid.isEmpty());
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, Ed25519CryptoFunction.PARALLEL_BATCH_THRESHOLD - 1,
+      Ed25519CryptoFunction.PARALLEL_BATCH_THRESHOLD, 200})
+  void verifyBatch(int batchSize) {
+    KeyPair keyPair = cryptoFunction.generateKeyPair();
+    List<SignedData> items = new ArrayList<>(batchSize);
+    BitSet expected = new BitSet(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      byte[] message = bytes("message " + i);
+      byte[] signature = cryptoFunction.signMessage(message, keyPair.getPrivateKey());
+      // Make every third signature invalid
+      if (i % 3 == 0) {
+        message = bytes("another message " + i);
+      } else {
+        expected.set(i);
+      }
+      items.add(SignedData.of(message, signature, keyPair.getPublicKey()));
+    }
+
+    BitSet valid = cryptoFunction.verifyBatch(items);
+
+    assertThat(valid, equalTo(expected));
+  }
+
+  @Test
+  void verifyBatchInvalidPublicKeyLength() {
+    byte[] message = bytes("myMessage");
+    byte[] signature = new byte[SIGNATURE_BYTES];
+    PublicKey publicKey = PublicKey.fromHexString("abcd");
+    List<SignedData> items = Collections.nCopies(Ed25519CryptoFunction.PARALLEL_BATCH_THRESHOLD,
+        SignedData.of(message, signature, publicKey));
+
+    assertThrows(IllegalArgumentException.class, () -> cryptoFunction.verifyBatch(items));
+  }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.hash;
+
+import static com.exonum.binding.common.hash.AbstractHashFunction.PARALLEL_HASHING_THRESHOLD_BYTES;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HashAllTest {
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 10, PARALLEL_HASHING_THRESHOLD_BYTES / 32})
+  void hashAll(int numInputs) {
+    List<byte[]> inputs = createInputs(numInputs);
+
+    for (HashFunction function : functions()) {
+      List<HashCode> hashes = function.hashAll(inputs);
+
+      List<HashCode> expected = inputs.stream()
+          .map(function::hashBytes)
+          .collect(toList());
+      assertThat(hashes, equalTo(expected));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 10, PARALLEL_HASHING_THRESHOLD_BYTES / 32})
+  void hashAllSlices(int numInputs) {
+    List<byte[]> inputs = createInputs(numInputs);
+    int[] lengths = inputs.stream()
+        .mapToInt(input -> input.length)
+        .toArray();
+    int totalLength = IntStream.of(lengths).sum();
+
+    for (HashFunction function : functions()) {
+      // Put the inputs after some other bytes
+      ByteBuffer buffer = ByteBuffer.allocate(totalLength + 5);
+      buffer.position(3);
+      inputs.forEach(buffer::put);
+      buffer.position(3);
+
+      List<HashCode> hashes = function.hashAll(buffer, lengths);
+
+      List<HashCode> expected = inputs.stream()
+          .map(function::hashBytes)
+          .collect(toList());
+      assertThat(hashes, equalTo(expected));
+      assertThat(buffer.position(), equalTo(3 + totalLength));
+    }
+  }
+
+  @Test
+  void hashAllSlicesOfDirectBuffer() {
+    List<byte[]> inputs = createInputs(100);
+    int[] lengths = inputs.stream()
+        .mapToInt(input -> input.length)
+        .toArray();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(IntStream.of(lengths).sum());
+    inputs.forEach(buffer::put);
+    buffer.flip();
+    HashFunction function = Hashing.sha256();
+
+    List<HashCode> hashes = function.hashAll(buffer, lengths);
+
+    List<HashCode> expected = inputs.stream()
+        .map(function::hashBytes)
+        .collect(toList());
+    assertThat(hashes, equalTo(expected));
+    assertThat(buffer.remaining(), equalTo(0));
+  }
+
+  @Test
+  void hashAllSlicesRejectsNegativeLength() {
+    ByteBuffer buffer = ByteBuffer.allocate(10);
+    int[] lengths = {2, -1};
+
+    for (HashFunction function : functions()) {
+      assertThrows(IllegalArgumentException.class,
+          () -> function.hashAll(buffer, lengths));
+    }
+  }
+
+  @Test
+  void hashAllSlicesRejectsTooLongSlices() {
+    ByteBuffer buffer = ByteBuffer.allocate(10);
+    buffer.position(2);
+    int[] lengths = {4, 5};
+
+    for (HashFunction function : functions()) {
+      assertThrows(IllegalArgumentException.class,
+          () -> function.hashAll(buffer, lengths));
+      assertThat(buffer.position(), equalTo(2));
+    }
+  }
+
+  private static List<HashFunction> functions() {
+    return Arrays.asList(Hashing.sha256(), Hashing.sha512(),
+        withDefaultMethods(Hashing.sha256()));
+  }
+
+  /**
+   * Returns a hash function that uses the default implementations of the interface methods,
+   * and delegates the other methods to the given function.
+   */
+  private static HashFunction withDefaultMethods(HashFunction delegate) {
+    return mock(HashFunction.class, invocation -> invocation.getMethod().isDefault()
+        ? invocation.callRealMethod()
+        : invocation.getMethod().invoke(delegate, invocation.getArguments()));
+  }
+
+  private static List<byte[]> createInputs(int numInputs) {
+    Random random = new Random(numInputs);
+    return IntStream.range(0, numInputs)
+        .mapToObj(i -> {
+          byte[] input = new byte[random.nextInt(64)];
+          random.nextBytes(input);
+          return input;
+        })
+        .collect(toList());
+  }
+}
@@ -93,7 +93,21 @@ class HashCodeTest {
               },
               0x00abcdef,
               0x0000000000abcdefL,
-              "efcdab0000000000"));
+              "efcdab0000000000"),
+          new ExpectedHashCode(
+              new byte[]{
+                  (byte) 0x00, (byte) 0x01, (byte) 0x02, (byte) 0x03,
+                  (byte) 0x04, (byte) 0x05, (byte) 0x06, (byte) 0x07,
+                  (byte) 0x08, (byte) 0x09, (byte) 0x0a, (byte) 0x0b,
+                  (byte) 0x0c, (byte) 0x0d, (byte) 0x0e, (byte) 0x0f,
+                  (byte) 0x10, (byte) 0x11, (byte) 0x12, (byte) 0x13,
+                  (byte) 0x14, (byte) 0x15, (byte) 0x16, (byte) 0x17,
+                  (byte) 0x18, (byte) 0x19, (byte) 0x1a, (byte) 0x1b,
+                  (byte) 0x1c, (byte) 0x1d, (byte) 0x1e, (byte) 0xff
+              },
+              0x03020100,
+              0x0706050403020100L,
+              "000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1eff"));
 
   // expectedHashCodes must contain at least one hash code with 4 bytes
   @Test
@@ -291,6 +305,31 @@ class HashCodeTest {
     assertThrows(IllegalArgumentException.class, () -> HashCode.fromString("7f8"));
   }
 
+  @Test
+  void test32ByteHashCodesEquality() {
+    byte[] bytes = Hashing.sha256().hashString("foo", Charsets.US_ASCII).asBytes();
+    HashCode hash = HashCode.fromBytes(bytes);
+
+    for (int i = 0; i < bytes.length; i++) {
+      byte[] otherBytes = bytes.clone();
+      otherBytes[i] ^= 1;
+      HashCode other = HashCode.fromBytes(otherBytes);
+      assertNotEquals(hash, other);
+    }
+    HashCode sameHash = HashCode.fromString(hash.toString());
+    assertEquals(hash, sameHash);
+    assertEquals(hash.hashCode(), sameHash.hashCode());
+  }
+
+  @Test
+  void test32ByteHashCodeFunnel() {
+    HashCode hash = Hashing.sha256().hashString("foo", Charsets.US_ASCII);
+
+    HashCode expected = Hashing.sha256().hashBytes(hash.asBytes());
+    HashCode actual = Hashing.sha256().hashObject(hash, Funnels.hashCodeFunnel());
+    assertEquals(expected, actual);
+  }
+
   @Test
   void testIntWriteBytesTo() {
     byte[] dest = new byte[4];
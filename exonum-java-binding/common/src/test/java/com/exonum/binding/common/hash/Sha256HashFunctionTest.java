@@ -0,0 +1,258 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.hash;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.testing.SerializableTester;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Sha256HashFunctionTest {
+
+  private static final HashFunction JDK_SHA_256 =
+      new MessageDigestHashFunction("SHA-256", "JDK SHA-256");
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 32, 64, 65, 1000})
+  void hashBytes(int size) {
+    byte[] input = randomBytes(size);
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+
+    assertThat(sha256.hashBytes(input)).isEqualTo(sha256(input));
+    assertThat(sha256.hashBytes(ByteBuffer.wrap(input))).isEqualTo(sha256(input));
+    assertThat(sha256.newHasher().putBytes(input).hash()).isEqualTo(sha256(input));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 32, 64, 65, 1000})
+  void hashBytesPreferNative(int size) {
+    byte[] input = randomBytes(size);
+    // Uses the native implementation if libsodium is available
+    HashFunction sha256 = new Sha256HashFunction(true, "sha256");
+
+    assertThat(sha256.hashBytes(input)).isEqualTo(sha256(input));
+    int offset = size / 2;
+    assertThat(sha256.hashBytes(input, offset, size - offset))
+        .isEqualTo(JDK_SHA_256.hashBytes(input, offset, size - offset));
+  }
+
+  @Test
+  void hashBytesWithOffset() {
+    byte[] input = randomBytes(100);
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+
+    assertThat(sha256.hashBytes(input, 10, 64)).isEqualTo(JDK_SHA_256.hashBytes(input, 10, 64));
+  }
+
+  @Test
+  void hashBytesWithDirectBuffer() {
+    byte[] input = randomBytes(64);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(input.length);
+    buffer.put(input);
+    buffer.flip();
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+
+    assertThat(sha256.hashBytes(buffer)).isEqualTo(sha256(input));
+    assertThat(buffer.remaining()).isZero();
+  }
+
+  @Test
+  void subsequentHashers() {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+    byte[] first = randomBytes(10);
+    byte[] second = randomBytes(20);
+
+    assertThat(sha256.newHasher().putBytes(first).hash()).isEqualTo(sha256(first));
+    assertThat(sha256.newHasher().putBytes(second).hash()).isEqualTo(sha256(second));
+  }
+
+  @Test
+  void nestedHashers() {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+    byte[] first = randomBytes(10);
+    byte[] second = randomBytes(20);
+
+    Hasher outer = sha256.newHasher()
+        .putBytes(first);
+    HashCode innerHash = sha256.newHasher()
+        .putBytes(second)
+        .hash();
+    HashCode oneShotHash = sha256.hashBytes(second);
+    HashCode outerHash = outer.putBytes(second)
+        .hash();
+
+    assertThat(innerHash).isEqualTo(sha256(second));
+    assertThat(oneShotHash).isEqualTo(sha256(second));
+    assertThat(outerHash).isEqualTo(JDK_SHA_256.newHasher()
+        .putBytes(first)
+        .putBytes(second)
+        .hash());
+  }
+
+  @Test
+  void abandonedHasherDoesNotDisableReuse() {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+    byte[] first = randomBytes(10);
+    byte[] second = randomBytes(20);
+
+    Hasher abandoned = sha256.newHasher()
+        .putBytes(first);
+    Hasher next = sha256.newHasher();
+
+    assertThat(Sha256HashFunction.usesReusedDigest(next)).isTrue();
+    assertThat(Sha256HashFunction.usesReusedDigest(abandoned)).isFalse();
+    assertThat(next.putBytes(second).hash()).isEqualTo(sha256(second));
+    // Check the abandoned hasher still produces the correct hash
+    assertThat(abandoned.putBytes(second).hash()).isEqualTo(JDK_SHA_256.newHasher()
+        .putBytes(first)
+        .putBytes(second)
+        .hash());
+  }
+
+  @Test
+  void hasherInFunnel() {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+    byte[] first = randomBytes(10);
+    byte[] second = randomBytes(20);
+    Hasher outer = sha256.newHasher()
+        .putBytes(first);
+    Funnel<byte[]> hashingFunnel = (from, into) -> {
+      Hasher inner = sha256.newHasher();
+      // The hasher executing the funnel keeps the reused digest
+      assertThat(Sha256HashFunction.usesReusedDigest(inner)).isFalse();
+      assertThat(Sha256HashFunction.usesReusedDigest(outer)).isTrue();
+      into.putBytes(inner.putBytes(from).hash().asBytes());
+    };
+
+    HashCode outerHash = outer.putObject(second, hashingFunnel)
+        .hash();
+
+    assertThat(outerHash).isEqualTo(JDK_SHA_256.newHasher()
+        .putBytes(first)
+        .putBytes(sha256(second).asBytes())
+        .hash());
+    assertThat(Sha256HashFunction.usesReusedDigest(sha256.newHasher())).isTrue();
+  }
+
+  @Test
+  void hasherUsedInAnotherThread() throws Exception {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+    byte[] first = randomBytes(10);
+    byte[] second = randomBytes(20);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Hasher hasher = sha256.newHasher()
+          .putBytes(first);
+      executor.submit(() -> hasher.putBytes(second)).get();
+      // The digest of this thread can be used while the hasher is not finished
+      assertThat(sha256.newHasher().putBytes(first).hash()).isEqualTo(sha256(first));
+
+      HashCode hash = executor.submit(hasher::hash).get();
+
+      assertThat(hash).isEqualTo(JDK_SHA_256.newHasher()
+          .putBytes(first)
+          .putBytes(second)
+          .hash());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void hasherFinishedInAnotherThread() throws Exception {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+    byte[] first = randomBytes(10);
+    byte[] second = randomBytes(20);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Hasher hasher = sha256.newHasher()
+          .putBytes(first);
+      HashCode hash = executor.submit(hasher::hash).get();
+
+      assertThat(hash).isEqualTo(sha256(first));
+      // Check the next hashers in this thread produce correct hashes
+      assertThat(sha256.newHasher().putBytes(second).hash()).isEqualTo(sha256(second));
+      assertThat(sha256.newHasher().putBytes(first).hash()).isEqualTo(sha256(first));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void hashInSeveralThreads() throws Exception {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] results = new Future<?>[16];
+      for (int i = 0; i < results.length; i++) {
+        int size = i * 10;
+        results[i] = executor.submit(() -> {
+          for (int j = 0; j < 100; j++) {
+            byte[] input = randomBytes(size);
+            assertThat(sha256.hashBytes(input)).isEqualTo(sha256(input));
+            assertThat(sha256.newHasher().putBytes(input).hash()).isEqualTo(sha256(input));
+          }
+        });
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void serialization() {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+
+    HashFunction deserialized = SerializableTester.reserialize(sha256);
+
+    assertThat(deserialized.toString()).isEqualTo("sha256");
+    assertThat(deserialized.hashBytes(new byte[1])).isEqualTo(sha256(new byte[1]));
+  }
+
+  @Test
+  void invariants() {
+    HashFunction sha256 = new Sha256HashFunction(false, "sha256");
+
+    HashTestUtils.assertInvariants(sha256);
+  }
+
+  private static HashCode sha256(byte[] input) {
+    try {
+      return HashCode.fromBytes(MessageDigest.getInstance("SHA-256").digest(input));
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -16,12 +16,15 @@
 
 package com.exonum.binding.common.message;
 
+import static com.exonum.binding.common.hash.Hashing.sha256;
 import static com.exonum.binding.test.Bytes.bytes;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.exonum.binding.common.crypto.CryptoFunctions.Ed25519;
 import com.exonum.binding.common.crypto.PublicKey;
+import com.exonum.binding.common.hash.HashCode;
 import com.exonum.messages.core.Messages;
 import com.exonum.messages.core.Messages.CoreMessage;
 import com.exonum.messages.core.runtime.Base.AnyTx;
@@ -36,7 +39,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
-class ParsedTransactionMessageTest {
+class LazyTransactionMessageTest {
 
   @Nested
   class WithSignedMessage {
@@ -75,7 +78,8 @@ class ParsedTransactionMessageTest {
     @Test
     void parseSignedMessage() {
       // Parse the signed message
-      ParsedTransactionMessage message = new ParsedTransactionMessage(signedMessage);
+      LazyTransactionMessage message =
+          LazyTransactionMessage.parseFrom(signedMessage.toByteArray());
 
       // Verify all the properties are correct
       assertThat(message.getServiceId()).isEqualTo(serviceId);
@@ -85,9 +89,31 @@ class ParsedTransactionMessageTest {
       assertThat(message.getSignature()).isEqualTo(signature.toByteArray());
     }
 
+    @Test
+    void decodeLazily() {
+      LazyTransactionMessage message =
+          LazyTransactionMessage.fromBytesLazily(signedMessage.toByteArray());
+
+      // Verify all the properties are correct
+      assertThat(message.getServiceId()).isEqualTo(serviceId);
+      assertThat(message.getTransactionId()).isEqualTo(transactionId);
+      assertThat(message.getPayload()).isEqualTo(txArguments);
+      assertThat(message.getAuthor()).isEqualTo(authorPublicKey);
+      assertThat(message.getSignature()).isEqualTo(signature.toByteArray());
+    }
+
+    @Test
+    void hashOfMessageBytes() {
+      byte[] messageBytes = signedMessage.toByteArray();
+      LazyTransactionMessage message = LazyTransactionMessage.fromBytesLazily(messageBytes);
+
+      assertThat(message.hash()).isEqualTo(sha256().hashBytes(messageBytes));
+    }
+
     @Test
     void toBytesRoundtrip() throws InvalidProtocolBufferException {
-      ParsedTransactionMessage message = new ParsedTransactionMessage(signedMessage);
+      LazyTransactionMessage message =
+          LazyTransactionMessage.parseFrom(signedMessage.toByteArray());
 
       // Serialize the message
       byte[] serializedMessage = message.toBytes();
@@ -100,11 +126,35 @@ class ParsedTransactionMessageTest {
       assertThat(signedProtoFromBytes).isEqualTo(signedMessage);
 
       // Check the parsed message will also be equal
-      ParsedTransactionMessage parsedFromBytes = new ParsedTransactionMessage(signedProtoFromBytes);
+      LazyTransactionMessage parsedFromBytes = LazyTransactionMessage.fromBytesLazily(
+          signedProtoFromBytes.toByteArray());
       assertThat(parsedFromBytes).isEqualTo(message);
     }
   }
 
+  @Test
+  void createMessageNotSignedMessage() {
+    byte[] messageBytes = bytes(-1, -1, -1);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> LazyTransactionMessage.parseFrom(messageBytes));
+
+    // The message is not decoded till its fields are accessed
+    LazyTransactionMessage message = LazyTransactionMessage.fromBytesLazily(messageBytes);
+    assertThrows(IllegalArgumentException.class, message::getServiceId);
+  }
+
+  @Test
+  void toStringMalformedMessage() {
+    byte[] messageBytes = bytes(-1, -1, -1);
+    LazyTransactionMessage message = LazyTransactionMessage.fromBytesLazily(messageBytes);
+
+    assertThat(message.toString())
+        .contains("malformed")
+        .contains("size=3")
+        .contains(sha256().hashBytes(messageBytes).toString());
+  }
+
   @Test
   void createMessageNotTx() {
     // Use Precommit message instead of AnyTx
@@ -118,7 +168,7 @@ class ParsedTransactionMessageTest {
         .build();
 
     Exception e = assertThrows(IllegalArgumentException.class,
-        () -> new ParsedTransactionMessage(signedMessage));
+        () -> LazyTransactionMessage.parseFrom(signedMessage.toByteArray()));
 
     assertThat(e.getMessage())
         .containsIgnoringCase("does not contain a transaction")
@@ -126,30 +176,26 @@ class ParsedTransactionMessageTest {
   }
 
   @Test
-  void testEquals() throws InvalidProtocolBufferException {
+  void testEquals() {
     String red = "Red";
     String black = "Black";
-    EqualsVerifier.forClass(ParsedTransactionMessage.class)
-        // Fields are non-null
+    EqualsVerifier.forClass(LazyTransactionMessage.class)
+        // The source messageBytes are non-null; the derived fields are initialized lazily
         .suppress(Warning.NULL_FIELDS)
-        // Only the source signedMessage is compared
-        .withOnlyTheseFields("signedMessage")
+        // Only the source messageBytes are compared
+        .withOnlyTheseFields("messageBytes")
         .withPrefabValues(Messages.SignedMessage.class,
             signedConsensusMessage(red),
             signedConsensusMessage(black))
-        .withPrefabValues(SignedMessage.class,
-            signedMessage(red),
-            signedMessage(black))
+        .withPrefabValues(HashCode.class,
+            sha256().hashString(red, UTF_8),
+            sha256().hashString(black, UTF_8))
         .withPrefabValues(AnyTx.class,
             anyTx(red),
             anyTx(black))
         .verify();
   }
 
-  private static SignedMessage signedMessage(String payload) throws InvalidProtocolBufferException {
-    return SignedMessage.fromProto(signedConsensusMessage(payload));
-  }
-
   private static Messages.SignedMessage signedConsensusMessage(String payload) {
     return aSignedMessageProto()
         .setPayload(CoreMessage.newBuilder()
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.common.crypto.CryptoFunction;
+import com.exonum.binding.common.crypto.CryptoFunctions;
+import com.exonum.binding.common.crypto.KeyPair;
+import com.exonum.binding.test.Bytes;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TransactionMessageSignerTest {
+
+  private static final CryptoFunction CRYPTO = CryptoFunctions.ed25519();
+  private static final int SERVICE_ID = 10;
+
+  private final KeyPair keys = CRYPTO.generateKeyPair();
+  private final TransactionMessageSigner signer =
+      TransactionMessageSigner.newInstance(SERVICE_ID, keys);
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 100, 2000, 100_000})
+  void signSameAsBuilder(int payloadSize) {
+    int transactionId = 2;
+    ByteString payload = ByteString.copyFrom(Bytes.randomBytes(payloadSize));
+
+    TransactionMessage message = signer.sign(transactionId, payload);
+
+    // Ed25519 signatures are deterministic, hence the messages must be equal
+    TransactionMessage expected = TransactionMessage.builder()
+        .serviceId(SERVICE_ID)
+        .transactionId(transactionId)
+        .payload(payload)
+        .sign(keys);
+    assertThat(message).isEqualTo(expected);
+    assertThat(message.toBytes()).isEqualTo(expected.toBytes());
+    assertThat(message.hash()).isEqualTo(expected.hash());
+    assertThat(message.getServiceId()).isEqualTo(SERVICE_ID);
+    assertThat(message.getTransactionId()).isEqualTo(transactionId);
+    assertThat(message.getPayload()).isEqualTo(payload);
+    assertThat(message.getAuthor()).isEqualTo(keys.getPublicKey());
+  }
+
+  @Test
+  void signReusesBuffer() {
+    // Sign a larger payload, then a smaller one: the latter must not include the rest
+    // of the former in the buffer
+    TransactionMessage first = signer.sign(1, ByteString.copyFrom(Bytes.randomBytes(200)));
+    TransactionMessage second = signer.sign(1, ByteString.copyFrom(Bytes.bytes(1, 2)));
+
+    TransactionMessage parsedFirst = TransactionMessage.fromBytes(first.toBytes());
+    TransactionMessage parsedSecond = TransactionMessage.fromBytes(second.toBytes());
+    assertThat(parsedFirst.getPayload()).isEqualTo(first.getPayload());
+    assertThat(parsedSecond.getPayload()).isEqualTo(ByteString.copyFrom(Bytes.bytes(1, 2)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {
+      0,
+      1,
+      TransactionMessageSigner.PARALLEL_BATCH_THRESHOLD - 1,
+      TransactionMessageSigner.PARALLEL_BATCH_THRESHOLD,
+      TransactionMessageSigner.PARALLEL_BATCH_THRESHOLD * 4 + 1,
+  })
+  void signAll(int batchSize) {
+    int transactionId = 3;
+    List<ByteString> payloads = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      payloads.add(ByteString.copyFrom(Bytes.randomBytes(i % 50)));
+    }
+
+    List<TransactionMessage> messages = signer.signAll(transactionId, payloads);
+
+    assertThat(messages).hasSize(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      assertThat(messages.get(i)).isEqualTo(signer.sign(transactionId, payloads.get(i)));
+    }
+    BitSet validSignatures = TransactionMessage.verifySignatures(messages);
+    assertThat(validSignatures.cardinality()).isEqualTo(batchSize);
+  }
+
+  @Test
+  void newInstanceRejectsInvalidPublicKey() {
+    KeyPair invalidKeys = KeyPair.createKeyPair(Bytes.bytes(0x00), Bytes.bytes(0x01, 0x02));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> TransactionMessageSigner.newInstance(SERVICE_ID, invalidKeys));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.exonum.binding.common.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.exonum.binding.common.crypto.CryptoFunction;
+import com.exonum.binding.common.crypto.CryptoFunctions;
+import com.exonum.binding.common.crypto.KeyPair;
+import com.exonum.binding.test.Bytes;
+import com.exonum.messages.core.Messages;
+import com.exonum.messages.crypto.Types.Signature;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TransactionMessageTest {
+
+  private static final CryptoFunction CRYPTO = CryptoFunctions.ed25519();
+
+  @Test
+  void verifySignatures() throws InvalidProtocolBufferException {
+    KeyPair authorKeys = CRYPTO.generateKeyPair();
+    KeyPair otherKeys = CRYPTO.generateKeyPair();
+    TransactionMessage first = aMessage(1)
+        .sign(authorKeys);
+    // A message with the signature of another message
+    TransactionMessage tampered = withSignature(aMessage(2).sign(authorKeys),
+        first.getSignature());
+    TransactionMessage third = aMessage(3)
+        .sign(otherKeys);
+    List<TransactionMessage> messages = ImmutableList.of(first, tampered, third);
+
+    BitSet validSignatures = TransactionMessage.verifySignatures(messages);
+
+    BitSet expected = new BitSet();
+    expected.set(0);
+    expected.set(2);
+    assertThat(validSignatures).isEqualTo(expected);
+  }
+
+  @Test
+  void builtMessageEqualsParsed() {
+    KeyPair keys = CRYPTO.generateKeyPair();
+    TransactionMessage message = aMessage(1)
+        .sign(keys);
+
+    TransactionMessage parsed = TransactionMessage.fromBytes(message.toBytes());
+
+    assertThat(parsed).isEqualTo(message);
+    assertThat(parsed.hash()).isEqualTo(message.hash());
+    assertThat(parsed.getAuthor()).isEqualTo(keys.getPublicKey());
+  }
+
+  @Test
+  void verifySignaturesEmpty() {
+    BitSet validSignatures = TransactionMessage.verifySignatures(ImmutableList.of());
+
+    assertThat(validSignatures.isEmpty()).isTrue();
+  }
+
+  private static TransactionMessage.Builder aMessage(int transactionId) {
+    return TransactionMessage.builder()
+        .serviceId(1)
+        .transactionId(transactionId)
+        .payload(Bytes.randomBytes(16));
+  }
+
+  private static TransactionMessage withSignature(TransactionMessage message, byte[] signature)
+      throws InvalidProtocolBufferException {
+    Messages.SignedMessage signedMessage = Messages.SignedMessage.parseFrom(message.toBytes())
+        .toBuilder()
+        .setSignature(Signature.newBuilder()
+            .setData(ByteString.copyFrom(signature)))
+        .build();
+    return TransactionMessage.fromBytes(signedMessage.toByteArray());
+  }
+}
@@ -19,9 +19,11 @@ package com.exonum.binding.common.proofs.list;
 import static com.exonum.binding.common.proofs.list.FlatListProof.calcTreeHeight;
 import static com.exonum.binding.common.proofs.list.ListProofEntry.MAX_HEIGHT;
 import static com.exonum.binding.common.proofs.list.ListProofEntry.MAX_INDEX;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.createTree;
 import static com.exonum.binding.common.proofs.list.ListProofUtils.getBranchHashCode;
 import static com.exonum.binding.common.proofs.list.ListProofUtils.getLeafHashCode;
 import static com.exonum.binding.common.proofs.list.ListProofUtils.getProofListHash;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.rangeProofEntries;
 import static com.exonum.binding.test.Bytes.bytes;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -37,6 +39,7 @@ import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.hash.Hashing;
 import com.exonum.binding.common.proofs.InvalidProofException;
 import com.exonum.binding.test.Bytes;
+import com.google.common.primitives.Ints;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -917,6 +920,39 @@ class FlatListProofTest {
     );
   }
 
+  @ParameterizedTest
+  @CsvSource({
+      "10000, 0, 10000",
+      "10001, 1234, 9876",
+      "8193, 1, 8193",
+      "5000, 4999, 5000",
+  })
+  void largeListValidRangeProof(int size, int from, int to) {
+    // Build the tree of the list
+    List<byte[]> elements = IntStream.range(0, size)
+        .mapToObj(Ints::toByteArray)
+        .collect(toList());
+    List<List<HashCode>> tree = createTree(elements);
+    FlatListProofBuilder builder = new FlatListProofBuilder()
+        .size(size);
+    // Add the element entries in reverse order, as the verification must not depend on it
+    for (int i = to - 1; i >= from; i--) {
+      builder.addElement(elementEntry(i, elements.get(i)));
+    }
+    // Add the hashes of the sub-trees adjacent to the range
+    builder.addProofEntries(rangeProofEntries(tree, from, to));
+
+    CheckedListProof<byte[]> checked = builder.build().verify();
+
+    assertTrue(checked.isValid());
+    assertThat(checked.size()).isEqualTo(size);
+    assertThat(checked.getElements()).hasSize(to - from);
+    assertThat(checked.getElements().firstKey()).isEqualTo((long) from);
+    HashCode rootHash = tree.get(tree.size() - 1).get(0);
+    HashCode expectedListHash = getProofListHash(rootHash, size);
+    assertThat(checked.getIndexHash()).isEqualTo(expectedListHash);
+  }
+
   /**
    * Creates a given number of single-byte elements, with their first and only byte
    * equal to the index they are stored at.
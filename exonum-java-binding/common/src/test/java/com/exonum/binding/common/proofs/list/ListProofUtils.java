@@ -20,12 +20,16 @@ import static com.exonum.binding.common.hash.Funnels.hashCodeFunnel;
 import static com.exonum.binding.common.proofs.list.FlatListProof.BLOB_PREFIX;
 import static com.exonum.binding.common.proofs.list.FlatListProof.LIST_BRANCH_PREFIX;
 import static com.exonum.binding.common.proofs.list.FlatListProof.LIST_ROOT_PREFIX;
+import static java.util.stream.Collectors.toList;
 
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.hash.Hashing;
 import com.exonum.binding.common.hash.PrimitiveSink;
 import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 
 /**
@@ -64,4 +68,53 @@ final class ListProofUtils {
         .putObject(rootHash, hashCodeFunnel())
         .hash();
   }
+
+  /**
+   * Computes the hashes of all nodes of the proof list tree with the given elements.
+   *
+   * @return the hashes of the nodes at each height, from the leaves to the root
+   */
+  static List<List<HashCode>> createTree(List<byte[]> elements) {
+    List<List<HashCode>> tree = new ArrayList<>();
+    List<HashCode> level = elements.stream()
+        .map(ListProofUtils::getLeafHashCode)
+        .collect(toList());
+    tree.add(level);
+    while (level.size() > 1) {
+      List<HashCode> children = level;
+      level = IntStream.range(0, (children.size() + 1) / 2)
+          .mapToObj(i -> getBranchHashCode(children.get(2 * i),
+              (2 * i + 1 < children.size()) ? children.get(2 * i + 1) : null))
+          .collect(toList());
+      tree.add(level);
+    }
+    return tree;
+  }
+
+  /**
+   * Returns the proof entries for a range proof of elements in range [from; to):
+   * the hashes of the sub-trees adjacent to the range.
+   *
+   * @param tree the hashes of the tree nodes, as returned by {@link #createTree(List)}
+   */
+  static List<ListProofHashedEntry> rangeProofEntries(List<List<HashCode>> tree,
+      long from, long to) {
+    List<ListProofHashedEntry> proofEntries = new ArrayList<>();
+    long left = from;
+    long right = to - 1;
+    for (int height = 0; height < tree.size() - 1; height++) {
+      List<HashCode> level = tree.get(height);
+      if (left % 2 == 1) {
+        proofEntries.add(
+            ListProofHashedEntry.newInstance(left - 1, height, level.get((int) left - 1)));
+      }
+      if (right % 2 == 0 && right + 1 < level.size()) {
+        proofEntries.add(
+            ListProofHashedEntry.newInstance(right + 1, height, level.get((int) right + 1)));
+      }
+      left /= 2;
+      right /= 2;
+    }
+    return proofEntries;
+  }
 }
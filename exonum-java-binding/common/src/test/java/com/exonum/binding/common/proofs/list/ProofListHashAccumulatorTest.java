@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.proofs.list.ListProofUtils.createTree;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.getProofListHash;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.google.common.collect.Iterables;
+import com.google.common.primitives.Ints;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ProofListHashAccumulatorTest {
+
+  @Test
+  void emptyList() {
+    ProofListHashAccumulator accumulator = ProofListHashAccumulator.empty();
+
+    assertThat(accumulator.size()).isZero();
+    assertThat(accumulator.getFrontier()).isEmpty();
+    assertThat(accumulator.getIndexHash()).isEqualTo(FlatListProof.EMPTY_LIST_INDEX_HASH);
+  }
+
+  @Test
+  void appendHasSameIndexHashAsList() {
+    ProofListHashAccumulator accumulator = ProofListHashAccumulator.empty();
+    List<byte[]> elements = createElements(70);
+
+    for (int size = 1; size <= elements.size(); size++) {
+      accumulator.append(elements.get(size - 1));
+
+      HashCode expectedIndexHash = getIndexHash(elements.subList(0, size));
+      assertThat(accumulator.size()).isEqualTo(size);
+      assertThat(accumulator.getFrontier()).hasSize(Long.bitCount(size));
+      assertThat(accumulator.getIndexHash()).isEqualTo(expectedIndexHash);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 3, 8, 13, 64, 100})
+  void appendAllToRestoredAccumulator(int initialSize) {
+    List<byte[]> elements = createElements(initialSize + 37);
+    List<byte[]> initialElements = elements.subList(0, initialSize);
+    ProofListHashAccumulator initial = ProofListHashAccumulator.empty();
+    initial.appendAll(initialElements);
+
+    ProofListHashAccumulator restored = ProofListHashAccumulator
+        .fromFrontier(initial.size(), initial.getFrontier());
+
+    assertThat(restored.getIndexHash()).isEqualTo(initial.getIndexHash());
+
+    restored.appendAll(elements.subList(initialSize, elements.size()));
+
+    assertThat(restored.size()).isEqualTo(elements.size());
+    assertThat(restored.getIndexHash()).isEqualTo(getIndexHash(elements));
+  }
+
+  @Test
+  void fromFrontierRejectsInvalidNumberOfHashes() {
+    List<HashCode> frontier = singletonList(HashCode.fromBytes(new byte[32]));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> ProofListHashAccumulator.fromFrontier(3, frontier));
+  }
+
+  @Test
+  void fromFrontierRejectsInvalidHashes() {
+    List<HashCode> frontier = singletonList(HashCode.fromBytes(new byte[20]));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> ProofListHashAccumulator.fromFrontier(4, frontier));
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {-1, FlatListProof.MAX_SIZE + 1})
+  void fromFrontierRejectsInvalidSize(long size) {
+    assertThrows(IllegalArgumentException.class,
+        () -> ProofListHashAccumulator.fromFrontier(size, emptyList()));
+  }
+
+  private static HashCode getIndexHash(List<byte[]> elements) {
+    List<List<HashCode>> tree = createTree(elements);
+    HashCode rootHash = Iterables.getLast(tree).get(0);
+    return getProofListHash(rootHash, elements.size());
+  }
+
+  private static List<byte[]> createElements(int size) {
+    return IntStream.range(0, size)
+        .mapToObj(Ints::toByteArray)
+        .collect(toList());
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.proofs.list.ListProofUtils.createTree;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.rangeProofEntries;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.InvalidProofException;
+import com.exonum.messages.crypto.Types;
+import com.exonum.messages.proof.ListProofOuterClass;
+import com.exonum.messages.proof.ListProofOuterClass.HashedEntry;
+import com.exonum.messages.proof.ListProofOuterClass.ProofListKey;
+import com.google.common.primitives.Ints;
+import com.google.protobuf.ByteString;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class StreamingListProofVerifierTest {
+
+  @ParameterizedTest
+  @CsvSource({
+      "1, 0, 1",
+      "2, 0, 1",
+      "2, 1, 2",
+      "3, 2, 3",
+      "5, 1, 4",
+      "8, 0, 8",
+      "8, 3, 6",
+      "1000, 0, 1000",
+      "1001, 17, 999",
+      "4097, 4096, 4097",
+  })
+  void validRangeProof(int size, int from, int to) throws IOException {
+    List<byte[]> elements = createElements(size);
+    List<List<HashCode>> tree = createTree(elements);
+    List<ListProofElementEntry> elementEntries = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      elementEntries.add(ListProofElementEntry.newInstance(i, elements.get(i)));
+    }
+    List<ListProofHashedEntry> proofEntries = rangeProofEntries(tree, from, to);
+    byte[] proofMessage = serialize(elementEntries, proofEntries, size);
+
+    List<ListProofElementEntry> consumed = new ArrayList<>();
+    StreamedListProof proof = StreamingListProofVerifier.verify(
+        new ByteArrayInputStream(proofMessage),
+        (index, element) -> consumed.add(ListProofElementEntry.newInstance(index, element)));
+
+    assertThat(proof.isValid()).isTrue();
+    assertThat(proof.size()).isEqualTo(size);
+    assertThat(proof.getFirstIndex()).isEqualTo(from);
+    assertThat(proof.getNumElements()).isEqualTo(to - from);
+    assertThat(consumed).isEqualTo(elementEntries);
+    // Check the index hash is the same as the one of the flat proof
+    CheckedListProof<byte[]> expected = new FlatListProof(elementEntries, proofEntries, size)
+        .verify();
+    assertThat(proof.getIndexHash()).isEqualTo(expected.getIndexHash());
+  }
+
+  @Test
+  void emptyListProof() throws IOException {
+    byte[] proofMessage = serialize(new ArrayList<>(), new ArrayList<>(), 0);
+
+    StreamedListProof proof = verify(proofMessage);
+
+    assertThat(proof.getNumElements()).isZero();
+    assertThat(proof.getIndexHash()).isEqualTo(FlatListProof.EMPTY_LIST_INDEX_HASH);
+  }
+
+  @Test
+  void emptyRangeProof() throws IOException {
+    int size = 5;
+    List<List<HashCode>> tree = createTree(createElements(size));
+    HashCode rootHash = tree.get(tree.size() - 1).get(0);
+    List<ListProofHashedEntry> proofEntries = new ArrayList<>();
+    proofEntries.add(ListProofHashedEntry.newInstance(0, tree.size() - 1, rootHash));
+    byte[] proofMessage = serialize(new ArrayList<>(), proofEntries, size);
+
+    StreamedListProof proof = verify(proofMessage);
+
+    assertThat(proof.getNumElements()).isZero();
+    assertThat(proof.getIndexHash())
+        .isEqualTo(ListProofUtils.getProofListHash(rootHash, size));
+  }
+
+  @Test
+  void invalidProofNonConsecutiveElements() {
+    List<byte[]> elements = createElements(4);
+    List<ListProofElementEntry> elementEntries = new ArrayList<>();
+    elementEntries.add(ListProofElementEntry.newInstance(0, elements.get(0)));
+    elementEntries.add(ListProofElementEntry.newInstance(2, elements.get(2)));
+    byte[] proofMessage = serialize(elementEntries, new ArrayList<>(), 4);
+
+    InvalidProofException e = assertThrows(InvalidProofException.class,
+        () -> verify(proofMessage));
+
+    assertThat(e).hasMessageContaining("consecutive indexes");
+  }
+
+  @Test
+  void invalidProofMissingProofEntry() {
+    int size = 4;
+    List<List<HashCode>> tree = createTree(createElements(size));
+    List<ListProofHashedEntry> proofEntries = rangeProofEntries(tree, 1, 2);
+    // Remove the entry on the left of the element
+    proofEntries.removeIf(e -> e.getHeight() == 0);
+    List<ListProofElementEntry> elementEntries = new ArrayList<>();
+    elementEntries.add(ListProofElementEntry.newInstance(1, createElements(size).get(1)));
+    byte[] proofMessage = serialize(elementEntries, proofEntries, size);
+
+    InvalidProofException e = assertThrows(InvalidProofException.class,
+        () -> verify(proofMessage));
+
+    assertThat(e).hasMessageContaining("Missing proof entry at index (0)");
+  }
+
+  @Test
+  void invalidProofRedundantProofEntry() {
+    int size = 4;
+    List<byte[]> elements = createElements(size);
+    List<List<HashCode>> tree = createTree(elements);
+    List<ListProofHashedEntry> proofEntries = rangeProofEntries(tree, 0, 2);
+    // Add an entry that is not needed for verification
+    proofEntries.add(ListProofHashedEntry.newInstance(3, 0, tree.get(0).get(3)));
+    List<ListProofElementEntry> elementEntries = new ArrayList<>();
+    elementEntries.add(ListProofElementEntry.newInstance(0, elements.get(0)));
+    elementEntries.add(ListProofElementEntry.newInstance(1, elements.get(1)));
+    byte[] proofMessage = serialize(elementEntries, proofEntries, size);
+
+    InvalidProofException e = assertThrows(InvalidProofException.class,
+        () -> verify(proofMessage));
+
+    assertThat(e).hasMessageContaining("not needed for verification");
+  }
+
+  @Test
+  void invalidProofElementOutOfRange() {
+    List<ListProofElementEntry> elementEntries = new ArrayList<>();
+    elementEntries.add(ListProofElementEntry.newInstance(1, createElements(2).get(1)));
+    byte[] proofMessage = serialize(elementEntries, new ArrayList<>(), 1);
+
+    InvalidProofException e = assertThrows(InvalidProofException.class,
+        () -> verify(proofMessage));
+
+    assertThat(e).hasMessageContaining("Entry at invalid index (1)");
+  }
+
+  private static StreamedListProof verify(byte[] proofMessage) throws IOException {
+    return StreamingListProofVerifier.verify(new ByteArrayInputStream(proofMessage),
+        (index, element) -> { });
+  }
+
+  private static byte[] serialize(List<ListProofElementEntry> elementEntries,
+      List<ListProofHashedEntry> proofEntries, long size) {
+    ListProofOuterClass.ListProof.Builder proof = ListProofOuterClass.ListProof.newBuilder()
+        .setLength(size);
+    for (ListProofHashedEntry e : proofEntries) {
+      proof.addProof(HashedEntry.newBuilder()
+          .setKey(ProofListKey.newBuilder()
+              .setIndex(e.getIndex())
+              .setHeight(e.getHeight()))
+          .setHash(Types.Hash.newBuilder()
+              .setData(ByteString.copyFrom(e.getHash().asBytes()))));
+    }
+    for (ListProofElementEntry e : elementEntries) {
+      proof.addEntries(ListProofOuterClass.ListProofEntry.newBuilder()
+          .setIndex(e.getIndex())
+          .setValue(ByteString.copyFrom(e.getElement())));
+    }
+    return proof.build().toByteArray();
+  }
+
+  private static List<byte[]> createElements(int size) {
+    return IntStream.range(0, size)
+        .mapToObj(Ints::toByteArray)
+        .collect(toList());
+  }
+}
@@ -47,6 +47,20 @@ class DbKeyCommonPrefixParameterizedTest {
     assertThat(actualCommonPrefixKey, equalTo(expectedResultKey));
   }
 
+  @ParameterizedTest(name = "{index} => description={3}")
+  @MethodSource("testData")
+  void rawCommonPrefix(DbKey firstKey, DbKey secondKey, DbKey expectedResultKey,
+      String description) {
+    byte[] firstRawKey = firstKey.getRawDbKey();
+    byte[] secondRawKey = secondKey.getRawDbKey();
+
+    byte[] actualCommonPrefixKey = RawDbKeys.commonPrefix(firstRawKey, secondRawKey);
+
+    assertThat(DbKey.fromBytes(actualCommonPrefixKey), equalTo(expectedResultKey));
+    assertThat(RawDbKeys.commonPrefixLength(firstRawKey, secondRawKey),
+        equalTo(expectedResultKey.getNumSignificantBits()));
+  }
+
   @ParameterizedTest
   @MethodSource("uniqueTestKeys")
   void commonPrefixOfSelf(DbKey key) {
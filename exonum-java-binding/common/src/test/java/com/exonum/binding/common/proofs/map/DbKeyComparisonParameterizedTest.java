@@ -52,6 +52,15 @@ class DbKeyComparisonParameterizedTest {
     assertThat(ComparisonResult.fromInt(comparisonResult), equalTo(expectedResult));
   }
 
+  @ParameterizedTest(name = "[{index}] => {3}")
+  @MethodSource("testData")
+  void rawDbKeyCompareTest(DbKey firstKey, DbKey secondKey, ComparisonResult expectedResult,
+      String description) {
+    int comparisonResult = RawDbKeys.compare(firstKey.getRawDbKey(), secondKey.getRawDbKey());
+
+    assertThat(ComparisonResult.fromInt(comparisonResult), equalTo(expectedResult));
+  }
+
   private static List<Arguments> testData() {
     return Arrays.asList(
         // "A > B" reads "Key A is bigger than key B"
@@ -17,6 +17,7 @@
 package com.exonum.binding.common.proofs.map;
 
 import static com.exonum.binding.common.hash.Funnels.hashCodeFunnel;
+import static com.exonum.binding.common.proofs.DbKeyCompressedFunnel.dbKeyCompressedFunnel;
 import static com.exonum.binding.common.proofs.DbKeyFunnel.dbKeyFunnel;
 import static com.exonum.binding.common.proofs.map.UncheckedFlatMapProof.BLOB_PREFIX;
 import static com.exonum.binding.common.proofs.map.UncheckedFlatMapProof.MAP_NODE_PREFIX;
@@ -108,6 +109,51 @@ class UncheckedFlatMapProofTest {
         () -> checkedMapProof.containsKey(ByteString.copyFromUtf8("not required key")));
   }
 
+  @Test
+  void mapProofWithSeveralLeafsHasExpectedIndexHash() {
+    DbKey firstKey = DbKeyTestUtils.leafKeyFromPrefix("0011_0101");
+    DbKey secondKey = DbKeyTestUtils.leafKeyFromPrefix("0011_0110");
+    DbKey thirdKey = DbKeyTestUtils.branchKeyFromPrefix("0100_0000");
+    DbKey fourthKey = DbKeyTestUtils.leafKeyFromPrefix("1000_1101");
+    MapProofEntry thirdEntry = createMapProofEntry(thirdKey);
+
+    // Pass the leaves in non-sorted order
+    List<MapEntry<ByteString, ByteString>> leaves = Arrays.asList(
+        createMapEntry(fourthKey, THIRD_VALUE),
+        createMapEntry(secondKey, SECOND_VALUE),
+        createMapEntry(firstKey, FIRST_VALUE)
+    );
+    UncheckedMapProof uncheckedFlatMapProof =
+        new UncheckedFlatMapProof(singletonList(thirdEntry), leaves, emptyList());
+
+    CheckedMapProof checkedMapProof = uncheckedFlatMapProof.check();
+
+    // The tree:
+    //        root []
+    //       /         \
+    //     [0]          fourth
+    //    /    \
+    // [001101]  third
+    //  /    \
+    // first  second
+    HashCode firstHash = getLeafHash(FIRST_VALUE);
+    HashCode secondHash = getLeafHash(SECOND_VALUE);
+    DbKey firstBranchKey = DbKeyTestUtils.branchKeyFromPrefix("0011_01");
+    HashCode firstBranchHash = getBranchHash(firstKey, firstHash, secondKey, secondHash);
+    DbKey secondBranchKey = DbKeyTestUtils.branchKeyFromPrefix("0");
+    HashCode secondBranchHash = getBranchHash(firstBranchKey, firstBranchHash,
+        thirdKey, thirdEntry.getHash());
+    HashCode rootHash = getBranchHash(secondBranchKey, secondBranchHash,
+        fourthKey, getLeafHash(THIRD_VALUE));
+    HashCode expectedIndexHash = HASH_FUNCTION.newHasher()
+        .putByte(MAP_ROOT_PREFIX)
+        .putObject(rootHash, hashCodeFunnel())
+        .hash();
+
+    assertThat(checkedMapProof.getProofStatus(), equalTo(MapProofStatus.CORRECT));
+    assertThat(checkedMapProof.getIndexHash(), equalTo(expectedIndexHash));
+  }
+
   @Test
   void mapProofWithOneElementShouldBeCorrect() {
     ByteString key = DbKeyTestUtils.keyByteStringFromString("01");
@@ -284,6 +330,26 @@ class UncheckedFlatMapProofTest {
     assertThat(checkedMapProof.getProofStatus(), equalTo(MapProofStatus.EMBEDDED_PATH));
   }
 
+  @Test
+  void mapProofWithIncludedPrefixInTheMiddleShouldBeInvalid() {
+    DbKey firstDbKey = DbKeyTestUtils.branchKeyFromPrefix("00");
+    DbKey secondDbKey = DbKeyTestUtils.branchKeyFromPrefix("01");
+    DbKey thirdDbKey = DbKeyTestUtils.branchKeyFromPrefix("11");
+    byte[] absentKey = DbKeyTestUtils.keyFromString("0111");
+
+    UncheckedMapProof uncheckedFlatMapProof =
+        new UncheckedFlatMapProof(
+            Arrays.asList(
+                createMapProofEntry(firstDbKey),
+                createMapProofEntry(secondDbKey),
+                createMapProofEntry(thirdDbKey)),
+            emptyList(),
+            singletonList(absentKey));
+
+    CheckedMapProof checkedMapProof = uncheckedFlatMapProof.check();
+    assertThat(checkedMapProof.getProofStatus(), equalTo(MapProofStatus.EMBEDDED_PATH));
+  }
+
   private static MapProofEntry createMapProofEntry(DbKey dbKey) {
     HashCode hash = Hashing.sha256()
         .hashObject(dbKey, dbKeyFunnel());
@@ -293,4 +359,26 @@ class UncheckedFlatMapProofTest {
   private static MapEntry<ByteString, ByteString> createMapEntry(ByteString key, ByteString value) {
     return MapEntry.valueOf(key, value);
   }
+
+  private static MapEntry<ByteString, ByteString> createMapEntry(DbKey key, ByteString value) {
+    return createMapEntry(ByteString.copyFrom(key.getKeySlice()), value);
+  }
+
+  private static HashCode getLeafHash(ByteString value) {
+    return HASH_FUNCTION.newHasher()
+        .putByte(BLOB_PREFIX)
+        .putBytes(value.toByteArray())
+        .hash();
+  }
+
+  private static HashCode getBranchHash(DbKey leftKey, HashCode leftHash,
+      DbKey rightKey, HashCode rightHash) {
+    return HASH_FUNCTION.newHasher()
+        .putByte(MAP_NODE_PREFIX)
+        .putObject(leftHash, hashCodeFunnel())
+        .putObject(rightHash, hashCodeFunnel())
+        .putObject(leftKey, dbKeyCompressedFunnel())
+        .putObject(rightKey, dbKeyCompressedFunnel())
+        .hash();
+  }
 }
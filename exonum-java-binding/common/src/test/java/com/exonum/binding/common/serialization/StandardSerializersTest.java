@@ -22,12 +22,15 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.exonum.binding.test.Bytes;
+import java.nio.ByteBuffer;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 class StandardSerializersTest {
 
+  private static final int BUFFER_OFFSET = 1;
+
   /**
    * Performs a round trip tests: ObjectT -> Binary -> ObjectT.
    */
@@ -37,6 +40,13 @@ class StandardSerializersTest {
     ObjectT actual = serializer.fromBytes(bytes);
 
     assertThat(actual, equalTo(expected));
+
+    // Check the value is also decoded from a direct buffer with a non-zero position
+    ByteBuffer buffer = toDirectBuffer(bytes);
+    ObjectT actualFromBuffer = serializer.fromBuffer(buffer);
+
+    assertThat(actualFromBuffer, equalTo(expected));
+    assertThat(buffer.position(), equalTo(BUFFER_OFFSET));
   }
 
   /**
@@ -44,6 +54,16 @@ class StandardSerializersTest {
    */
   static void invalidBytesValueTest(byte[] invalidValue, Serializer serializer) {
     assertThrows(IllegalArgumentException.class, () -> serializer.fromBytes(invalidValue));
+    assertThrows(IllegalArgumentException.class,
+        () -> serializer.fromBuffer(toDirectBuffer(invalidValue)));
+  }
+
+  private static ByteBuffer toDirectBuffer(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_OFFSET + bytes.length);
+    buffer.position(BUFFER_OFFSET);
+    buffer.put(bytes);
+    buffer.position(BUFFER_OFFSET);
+    return buffer;
   }
 
   static IntStream intValues() {
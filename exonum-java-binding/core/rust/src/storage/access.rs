@@ -18,7 +18,7 @@ use exonum::{
     merkledb::{
         access::{Access, AccessError},
         generic::{ErasedAccess, GenericAccess, GenericRawAccess},
-        Fork, IndexAddress,
+        Fork, IndexAddress, Snapshot,
     },
     runtime::SnapshotExt,
 };
@@ -50,6 +50,37 @@ where
     ErasedAccess::from(generic_raw_access)
 }
 
+/// Creates a new access to the snapshot of the given access, borrowing the snapshot.
+///
+/// Java code uses an `ErasedAccess` through a mutable reference (see `handle::cast_handle`),
+/// hence a single access must not be used in several threads concurrently. The returned
+/// access is a separate object, which shares with the given access (and with its other
+/// copies) only a shared reference to the snapshot. As `Snapshot` is `Sync`, the copies
+/// of the snapshot can be used in different threads concurrently.
+///
+/// Panics if the access is not a snapshot.
+///
+/// # Safety
+///
+/// The caller is responsible for destroying the returned access before the given one.
+pub(crate) unsafe fn into_borrowed_snapshot_copy(access: &ErasedAccess) -> ErasedAccess<'static> {
+    let snapshot: &dyn Snapshot = match access {
+        GenericAccess::Raw(GenericRawAccess::Snapshot(snapshot)) => *snapshot,
+        GenericAccess::Raw(GenericRawAccess::OwnedSnapshot(snapshot)) => snapshot.as_ref(),
+        _ => panic!(
+            "Attempt to create a snapshot copy from non-Snapshot access: {:?}",
+            access
+        ),
+    };
+    into_erased_access(snapshot)
+}
+
+// The copies of a snapshot used in different threads share the snapshot.
+const _: fn() = || {
+    fn assert_sync<T: ?Sized + Sync>() {}
+    assert_sync::<dyn Snapshot>();
+};
+
 /// A helper trait for operations that are not supported by `ErasedAccess` directly.
 pub trait EjbAccessExt {
     /// Returns `true` iff `into_fork` conversion is possible.
@@ -215,6 +246,24 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_database_AbstractAcc
     utils::unwrap_exc_or(&env, res, 0 as jlong)
 }
 
+/// Creates a new access to the snapshot of the given access (passed as `snapshot_handle`),
+/// that can be used concurrently with it. See `into_borrowed_snapshot_copy`.
+///
+/// Throws exception and returns null if the access is not a snapshot.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_database_Snapshot_nativeNewBorrowedCopy(
+    env: JNIEnv,
+    _: JClass,
+    snapshot_handle: Handle,
+) -> Handle {
+    let res = panic::catch_unwind(|| {
+        let access = handle::cast_handle::<ErasedAccess>(snapshot_handle);
+        let copy = unsafe { into_borrowed_snapshot_copy(access) };
+        Ok(handle::to_handle(copy))
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Destroys the underlying `ErasedAccess` object and frees memory.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_database_AbstractAccess_nativeFree(
@@ -283,6 +332,32 @@ mod tests {
         assert!(access.can_rollback());
     }
 
+    #[test]
+    fn borrowed_snapshot_copy() {
+        let db = setup_database();
+        let access = unsafe { into_erased_access(db.snapshot()) };
+        let copy = unsafe { into_borrowed_snapshot_copy(&access) };
+        assert!(!copy.is_mutable());
+        assert_value_eq(copy.clone(), FIRST_TEST_VALUE);
+
+        // The copy does not own the snapshot
+        drop(copy);
+        assert_value_eq(access.clone(), FIRST_TEST_VALUE);
+
+        // A copy of a copy shares the snapshot as well
+        let copy = unsafe { into_borrowed_snapshot_copy(&access) };
+        let copy_of_copy = unsafe { into_borrowed_snapshot_copy(&copy) };
+        assert_value_eq(copy_of_copy, FIRST_TEST_VALUE);
+    }
+
+    #[test]
+    #[should_panic(expected = "non-Snapshot access")]
+    fn borrowed_snapshot_copy_of_fork() {
+        let db = setup_database();
+        let access = unsafe { into_erased_access(db.fork()) };
+        let _copy = unsafe { into_borrowed_snapshot_copy(&access) };
+    }
+
     #[test]
     fn rollback() {
         let db = setup_database();
@@ -27,7 +27,7 @@ use std::{panic, ptr};
 
 use crate::{
     handle::{self, Handle},
-    storage::Value,
+    storage::{self, Value},
     utils,
 };
 
@@ -75,6 +75,21 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_EntryIndexPr
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns a handle to the value of the entry, or zero if it is absent.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_EntryIndexProxy_nativeGetValueHandle(
+    env: JNIEnv,
+    _: JObject,
+    entry_handle: Handle,
+) -> Handle {
+    let res = panic::catch_unwind(|| {
+        let entry = handle::cast_handle::<Index>(entry_handle);
+        let value = entry.get();
+        Ok(storage::optional_value_to_handle(value))
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Returns `true` if the entry contains the value.
 #[no_mangle]
 pub extern "C" fn Java_com_exonum_binding_core_storage_indices_EntryIndexProxy_nativeIsPresent(
@@ -22,7 +22,7 @@ use exonum::merkledb::{
 };
 use jni::{
     objects::{JClass, JObject, JString},
-    sys::{jboolean, jbyteArray},
+    sys::{jboolean, jbyteArray, jint},
     JNIEnv,
 };
 
@@ -162,16 +162,19 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_KeySetIndexP
     utils::unwrap_exc_or_default(&env, res)
 }
 
-/// Return next value from the iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next values of the iterator.
+/// A chunk of fewer values is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_KeySetIndexProxy_nativeIteratorNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_KeySetIndexProxy_nativeIteratorNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
+    chunk_size: jint,
 ) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let iter = handle::cast_handle::<KeyIter>(iter_handle);
-        utils::optional_array_to_java(&env, iter.next())
+        let chunk = utils::pack_arrays(iter.by_ref().take(chunk_size as usize));
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -22,13 +22,13 @@ use exonum::merkledb::{
 };
 use jni::{
     objects::{JClass, JObject, JString},
-    sys::{jboolean, jbyteArray, jlong},
+    sys::{jboolean, jbyteArray, jint, jlong},
     JNIEnv,
 };
 
 use crate::{
     handle::{self, Handle},
-    storage::Value,
+    storage::{self, Value},
     utils,
 };
 
@@ -80,6 +80,22 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexPro
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns a handle to the value by index, or zero if it is not found.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexProxy_nativeGetValueHandle(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    index: jlong,
+) -> Handle {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        let value = list.get(index as u64);
+        Ok(storage::optional_value_to_handle(value))
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Returns the last value or null pointer if the list is empty.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexProxy_nativeGetLast(
@@ -125,6 +141,24 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexPro
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Returns the packed values in the range `[from, to)`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexProxy_nativeGetRange(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    from: jlong,
+    to: jlong,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        let range_len = (to - from) as usize;
+        let values = utils::pack_arrays(list.iter_from(from as u64).take(range_len));
+        env.byte_array_from_slice(&values)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Returns pointer to the iterator over list.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexProxy_nativeCreateIter(
@@ -173,6 +207,24 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexPro
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Appends the packed values to the list.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexProxy_nativeExtend(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    packed_values: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        let packed_values = env.convert_byte_array(packed_values)?;
+        let values = utils::unpack_arrays(&packed_values);
+        list.extend(values.into_iter().map(<[u8]>::to_vec));
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Removes the last element from a list and returns it, or null pointer if it is empty.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexProxy_nativeRemoveLast(
@@ -237,16 +289,19 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexPro
     utils::unwrap_exc_or_default(&env, res)
 }
 
-/// Returns next value from the iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next values of the iterator.
+/// A chunk of fewer values is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexProxy_nativeIterNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ListIndexProxy_nativeIterNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
+    chunk_size: jint,
 ) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let iter = handle::cast_handle::<Iter>(iter_handle);
-        utils::optional_array_to_java(&env, iter.next())
+        let chunk = utils::pack_arrays(iter.by_ref().take(chunk_size as usize));
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -0,0 +1,171 @@
+// Copyright 2020 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+use std::panic;
+
+use exonum::merkledb::{
+    access::AccessExt,
+    generic::{ErasedAccess, GenericRawAccess},
+    ListIndex,
+};
+use jni::{
+    objects::{JClass, JObject, JString},
+    sys::{jboolean, jbyteArray, jlong},
+    JNIEnv,
+};
+
+use crate::{
+    handle::{self, Handle},
+    utils,
+};
+
+/// A list of `i64` values, stored in the little-endian format (as Java `fixed64` values).
+type Index = ListIndex<GenericRawAccess<'static>, i64>;
+
+/// Returns pointer to the created `ListIndex` object.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeCreate(
+    env: JNIEnv,
+    _: JClass,
+    name: JString,
+    id_in_group: jbyteArray,
+    access_handle: Handle,
+) -> Handle {
+    let res = panic::catch_unwind(|| {
+        let address = utils::convert_to_index_address(&env, name, id_in_group)?;
+        let access = handle::cast_handle::<ErasedAccess>(access_handle);
+        let index: Index = access.get_list(address);
+        Ok(handle::to_handle(index))
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Destroys the underlying `ListIndex` object and frees memory.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeFree(
+    env: JNIEnv,
+    _: JClass,
+    list_handle: Handle,
+) {
+    handle::drop_handle::<Index>(&env, list_handle);
+}
+
+/// Adds value to the list.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeAdd(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    value: jlong,
+) {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        list.push(value);
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Sets the value at the given index. The index must be checked on the Java side.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeSet(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    index: jlong,
+    value: jlong,
+) {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        list.set(index as u64, value);
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Returns the value by index. The index must be checked on the Java side.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeGet(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    index: jlong,
+) -> jlong {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        let value = list
+            .get(index as u64)
+            .expect("The index must be checked on the Java side");
+        Ok(value)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Returns the last value. The list must be checked to be non-empty on the Java side.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeGetLast(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+) -> jlong {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        let value = list.last().expect("The list must be checked to be non-empty");
+        Ok(value)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Returns `true` if the list is empty.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeIsEmpty(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        Ok(list.is_empty() as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Returns length of the list.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeSize(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+) -> jlong {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        Ok(list.len() as jlong)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Clears the list, removing all values.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongListIndexProxy_nativeClear(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+) {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        list.clear();
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
@@ -0,0 +1,146 @@
+// Copyright 2020 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+use std::panic;
+
+use exonum::merkledb::{
+    access::AccessExt,
+    generic::{ErasedAccess, GenericRawAccess},
+    MapIndex,
+};
+use jni::{
+    objects::{JClass, JObject, JString},
+    sys::{jboolean, jbyteArray, jlong},
+    JNIEnv,
+};
+
+use crate::{
+    handle::{self, Handle},
+    storage::Key,
+    utils,
+};
+
+/// A map of `i64` values, stored in the little-endian format (as Java `fixed64` values).
+type Index = MapIndex<GenericRawAccess<'static>, Key, i64>;
+
+/// Returns a pointer to the created `MapIndex` object.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongMapIndexProxy_nativeCreate(
+    env: JNIEnv,
+    _: JClass,
+    name: JString,
+    id_in_group: jbyteArray,
+    access_handle: Handle,
+) -> Handle {
+    let res = panic::catch_unwind(|| {
+        let address = utils::convert_to_index_address(&env, name, id_in_group)?;
+        let access = handle::cast_handle::<ErasedAccess>(access_handle);
+        let index: Index = access.get_map(address);
+        Ok(handle::to_handle(index))
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Destroys the underlying `MapIndex` object and frees memory.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongMapIndexProxy_nativeFree(
+    env: JNIEnv,
+    _: JClass,
+    map_handle: Handle,
+) {
+    handle::drop_handle::<Index>(&env, map_handle);
+}
+
+/// Returns `true` if the map contains a value for the specified key.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongMapIndexProxy_nativeContainsKey(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        Ok(map.contains(&key) as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Returns the value identified by the `key`, or `default_value` if it is not found.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongMapIndexProxy_nativeGetOrDefault(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+    default_value: jlong,
+) -> jlong {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        Ok(map.get(&key).unwrap_or(default_value))
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Sets `value` identified by the `key` into the index.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongMapIndexProxy_nativePut(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+    value: jlong,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        map.put(&key, value);
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Removes value identified by the `key` from the index.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongMapIndexProxy_nativeRemove(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        map.remove(&key);
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Removes all entries of the map.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_LongMapIndexProxy_nativeClear(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        map.clear();
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
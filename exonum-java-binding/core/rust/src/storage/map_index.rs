@@ -22,24 +22,22 @@ use exonum::merkledb::{
 };
 use jni::{
     objects::{JClass, JObject, JString},
-    sys::{jboolean, jbyteArray, jobject},
+    sys::{jboolean, jbyteArray, jint},
     JNIEnv,
 };
 
 use crate::{
     handle::{self, Handle},
-    storage::{Key, PairIter, Value},
+    storage::{self, Key, Value},
     utils,
 };
 
 type Index = MapIndex<GenericRawAccess<'static>, Key, Value>;
 
-type Iter<'a> = PairIter<Entries<'a, Key, Value>>;
+type Iter<'a> = Entries<'a, Key, Value>;
 type KeysIter<'a> = Keys<'a, Key>;
 type ValuesIter<'a> = Values<'a, Value>;
 
-const JAVA_ENTRY_FQN: &str = "com/exonum/binding/core/storage/indices/MapEntryInternal";
-
 /// Returns a pointer to the created `MapIndex` object.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeCreate(
@@ -85,6 +83,23 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns a handle to the value identified by the `key`, or zero if it is not found.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeGetValueHandle(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+) -> Handle {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        let value = map.get(&key);
+        Ok(storage::optional_value_to_handle(value))
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Returns `true` if the map contains a value for the specified key.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeContainsKey(
@@ -102,6 +117,45 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Returns values identified by the packed `keys`, packed in the same order.
+/// Absent values are packed as absent arrays.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeGetAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    packed_keys: jbyteArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let packed_keys = env.convert_byte_array(packed_keys)?;
+        let values = utils::unpack_arrays(&packed_keys)
+            .into_iter()
+            .map(|key| map.get(&key.to_vec()));
+        env.byte_array_from_slice(&utils::pack_optional_arrays(values))
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Returns `true` if the map contains values for all the packed `keys`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeContainsAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    packed_keys: jbyteArray,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let packed_keys = env.convert_byte_array(packed_keys)?;
+        let contains = utils::unpack_arrays(&packed_keys)
+            .into_iter()
+            .all(|key| map.contains(&key.to_vec()));
+        Ok(contains as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Returns the pointer to the iterator over a map keys and values.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeCreateEntriesIter(
@@ -111,8 +165,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
 ) -> Handle {
     let res = panic::catch_unwind(|| {
         let map = handle::cast_handle::<Index>(map_handle);
-        let iter = map.iter();
-        let iter = Iter::new(&env, iter, JAVA_ENTRY_FQN)?;
+        let iter: Iter = map.iter();
         Ok(handle::to_handle(iter))
     });
     utils::unwrap_exc_or_default(&env, res)
@@ -159,8 +212,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     let res = panic::catch_unwind(|| {
         let map = handle::cast_handle::<Index>(map_handle);
         let key = env.convert_byte_array(key)?;
-        let iter = map.iter_from(&key);
-        let iter = Iter::new(&env, iter, JAVA_ENTRY_FQN)?;
+        let iter: Iter = map.iter_from(&key);
         Ok(handle::to_handle(iter))
     });
     utils::unwrap_exc_or_default(&env, res)
@@ -170,7 +222,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeKeysFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -187,7 +239,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeValuesFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -219,6 +271,28 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Puts the packed entries into the index. The entries are packed as a sequence
+/// of keys, each followed by the corresponding value.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativePutAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    packed_entries: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let packed_entries = env.convert_byte_array(packed_entries)?;
+        let entries = utils::unpack_arrays(&packed_entries);
+        assert_eq!(entries.len() % 2, 0, "Each key must be followed by a value");
+        for entry in entries.chunks(2) {
+            map.put(&entry[0].to_vec(), entry[1].to_vec());
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Removes value identified by the `key` from the index.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeRemove(
@@ -236,6 +310,25 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Removes values identified by the packed `keys` from the index.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeRemoveAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    packed_keys: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let packed_keys = env.convert_byte_array(packed_keys)?;
+        for key in utils::unpack_arrays(&packed_keys) {
+            map.remove(&key.to_vec());
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Clears the index, removing all values.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeClear(
@@ -251,29 +344,23 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
-/// Returns the next value from the iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next entries of the iterator, each key
+/// followed by its value. A chunk of fewer entries is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeEntriesIterNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeEntriesIterNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
-) -> jobject {
+    chunk_size: jint,
+) -> jbyteArray {
     let res = panic::catch_unwind(|| {
-        let iterWrapper = handle::cast_handle::<Iter>(iter_handle);
-        match iterWrapper.iter.next() {
-            Some(val) => {
-                let key: JObject = env.byte_array_from_slice(&val.0)?.into();
-                let value: JObject = env.byte_array_from_slice(&val.1)?.into();
-                Ok(env
-                    .new_object_unchecked(
-                        &iterWrapper.element_class,
-                        iterWrapper.constructor_id,
-                        &[key.into(), value.into()],
-                    )?
-                    .into_inner())
-            }
-            None => Ok(ptr::null_mut()),
+        let iter = handle::cast_handle::<Iter>(iter_handle);
+        let mut chunk = Vec::new();
+        for (key, value) in iter.by_ref().take(chunk_size as usize) {
+            utils::append_packed_array(&mut chunk, &key);
+            utils::append_packed_array(&mut chunk, &value);
         }
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -288,16 +375,19 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     handle::drop_handle::<Iter>(&env, iter_handle);
 }
 
-/// Returns the next value from the keys-iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next keys of the keys-iterator.
+/// A chunk of fewer keys is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeKeysIterNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeKeysIterNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
+    chunk_size: jint,
 ) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let iter = handle::cast_handle::<KeysIter>(iter_handle);
-        utils::optional_array_to_java(&env, iter.next())
+        let chunk = utils::pack_arrays(iter.by_ref().take(chunk_size as usize));
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -312,16 +402,19 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     handle::drop_handle::<KeysIter>(&env, iter_handle);
 }
 
-/// Return next value from the values-iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next values of the values-iterator.
+/// A chunk of fewer values is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeValuesIterNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeValuesIterNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
+    chunk_size: jint,
 ) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let iter = handle::cast_handle::<ValuesIter>(iter_handle);
-        utils::optional_array_to_java(&env, iter.next())
+        let chunk = utils::pack_arrays(iter.by_ref().take(chunk_size as usize));
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
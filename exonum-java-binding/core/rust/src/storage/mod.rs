@@ -17,6 +17,8 @@ pub use self::blockchain::*;
 pub use self::blockchain_data::*;
 pub use self::key_set_index::*;
 pub use self::list_index::*;
+pub use self::long_list_index::*;
+pub use self::long_map_index::*;
 pub use self::map_index::*;
 pub use self::pair_iter::PairIter;
 pub use self::prefixed::*;
@@ -27,6 +29,7 @@ pub use self::proof_map_index_next::*;
 pub use self::raw_proof_map_index::*;
 pub use self::readonly_erased_access::*;
 pub use self::temporarydb::*;
+pub use self::value_buffers::*;
 pub use self::value_set_index::*;
 
 use exonum::merkledb::{Database, RocksDB};
@@ -40,6 +43,8 @@ mod entry;
 mod fork;
 mod key_set_index;
 mod list_index;
+mod long_list_index;
+mod long_map_index;
 mod map_index;
 mod pair_iter;
 mod prefixed;
@@ -50,6 +55,7 @@ mod proof_map_index_next;
 mod raw_proof_map_index;
 mod readonly_erased_access;
 mod temporarydb;
+mod value_buffers;
 mod value_set_index;
 
 pub(crate) type Key = Vec<u8>;
@@ -222,6 +222,24 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListInd
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed values in the range `[from, to)`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListIndexProxy_nativeGetRange(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    from: jlong,
+    to: jlong,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        let range_len = (to - from) as usize;
+        let values = utils::pack_arrays(list.iter_from(from as u64).take(range_len));
+        env.byte_array_from_slice(&values)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Returns pointer to the iterator over list.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListIndexProxy_nativeCreateIter(
@@ -270,6 +288,24 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListInd
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Appends the packed values to the list.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListIndexProxy_nativeExtend(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    packed_values: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        let packed_values = env.convert_byte_array(packed_values)?;
+        let values = utils::unpack_arrays(&packed_values);
+        list.extend(values.into_iter().map(<[u8]>::to_vec));
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Sets value into specified index. Panics if `i` is out of bounds.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListIndexProxy_nativeSet(
@@ -303,16 +339,19 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListInd
     utils::unwrap_exc_or_default(&env, res)
 }
 
-/// Returns next value from the iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next values of the iterator.
+/// A chunk of fewer values is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListIndexProxy_nativeIterNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListIndexProxy_nativeIterNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
+    chunk_size: jint,
 ) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let iter = handle::cast_handle::<Iter>(iter_handle);
-        utils::optional_array_to_java(&env, iter.next())
+        let chunk = utils::pack_arrays(iter.by_ref().take(chunk_size as usize));
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
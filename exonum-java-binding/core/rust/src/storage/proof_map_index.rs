@@ -22,15 +22,15 @@ use exonum::merkledb::{
 };
 use exonum_proto::ProtobufConvert;
 use jni::{
-    objects::{GlobalRef, JClass, JMethodID, JObject, JString},
-    sys::{jboolean, jbyteArray, jobject, jobjectArray, JNI_TRUE},
+    objects::{JClass, JObject, JString},
+    sys::{jboolean, jbyteArray, jint, jobjectArray, JNI_TRUE},
     JNIEnv,
 };
 use protobuf::Message;
 
 use crate::{
     handle::{self, Handle},
-    storage::{Key, PairIter, Value},
+    storage::{Key, Value},
     utils, JniResult,
 };
 
@@ -44,11 +44,9 @@ enum Index {
     Hashed(ProofMapIndex<GenericRawAccess<'static>, Key, Value>),
 }
 
-const MAP_ENTRY_INTERNAL_FQN: &str = "com/exonum/binding/core/storage/indices/MapEntryInternal";
-
 enum Iter<'a> {
-    Raw(PairIter<Entries<'a, RawKey, Value>>),
-    Hashed(PairIter<Entries<'a, Key, Value>>),
+    Raw(Entries<'a, RawKey, Value>),
+    Hashed(Entries<'a, Key, Value>),
 }
 
 enum KeysIter<'a> {
@@ -180,6 +178,55 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Returns values identified by the packed `keys`, packed in the same order.
+/// Absent values are packed as absent arrays.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeGetAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    packed_keys: jbyteArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let packed_keys = env.convert_byte_array(packed_keys)?;
+        let values = utils::unpack_arrays(&packed_keys)
+            .into_iter()
+            .map(|key| {
+                let key = key.to_vec();
+                match *map {
+                    Index::Raw(ref map) => map.get(&key.to_raw()),
+                    Index::Hashed(ref map) => map.get(&key),
+                }
+            });
+        env.byte_array_from_slice(&utils::pack_optional_arrays(values))
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Returns `true` if the map contains values for all the packed `keys`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeContainsAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    packed_keys: jbyteArray,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let packed_keys = env.convert_byte_array(packed_keys)?;
+        let contains = utils::unpack_arrays(&packed_keys).into_iter().all(|key| {
+            let key = key.to_vec();
+            match *map {
+                Index::Raw(ref map) => map.contains(&key.to_raw()),
+                Index::Hashed(ref map) => map.contains(&key),
+            }
+        });
+        Ok(contains as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Returns proof that is serialized in protobuf.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeGetProof(
@@ -232,8 +279,8 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     let res = panic::catch_unwind(|| {
         let map = handle::cast_handle::<Index>(map_handle);
         let iter = match map {
-            Index::Raw(map) => Iter::Raw(create_pair_iter(&env, map.iter())?),
-            Index::Hashed(map) => Iter::Hashed(create_pair_iter(&env, map.iter())?),
+            Index::Raw(map) => Iter::Raw(map.iter()),
+            Index::Hashed(map) => Iter::Hashed(map.iter()),
         };
         Ok(handle::to_handle(iter))
     });
@@ -288,8 +335,8 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
         let map = handle::cast_handle::<Index>(map_handle);
         let key = env.convert_byte_array(key)?;
         let iter = match map {
-            Index::Raw(map) => Iter::Raw(create_pair_iter(&env, map.iter_from(&key.to_raw()))?),
-            Index::Hashed(map) => Iter::Hashed(create_pair_iter(&env, map.iter_from(&key))?),
+            Index::Raw(map) => Iter::Raw(map.iter_from(&key.to_raw())),
+            Index::Hashed(map) => Iter::Hashed(map.iter_from(&key)),
         };
         Ok(handle::to_handle(iter))
     });
@@ -300,7 +347,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeKeysFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -320,7 +367,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeValuesFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -358,6 +405,33 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Puts the packed entries into the index. The entries are packed as a sequence
+/// of keys, each followed by the corresponding value.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativePutAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    packed_entries: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let packed_entries = env.convert_byte_array(packed_entries)?;
+        let entries = utils::unpack_arrays(&packed_entries);
+        assert_eq!(entries.len() % 2, 0, "Each key must be followed by a value");
+        for entry in entries.chunks(2) {
+            let key = entry[0].to_vec();
+            let value = entry[1].to_vec();
+            match *map {
+                Index::Raw(ref mut map) => map.put(&key.to_raw(), value),
+                Index::Hashed(ref mut map) => map.put(&key, value),
+            }
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Removes value identified by the `key` from the index.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeRemove(
@@ -378,6 +452,29 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Removes values identified by the packed `keys` from the index.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeRemoveAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    packed_keys: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let packed_keys = env.convert_byte_array(packed_keys)?;
+        for key in utils::unpack_arrays(&packed_keys) {
+            let key = key.to_vec();
+            match *map {
+                Index::Raw(ref mut map) => map.remove(&key.to_raw()),
+                Index::Hashed(ref mut map) => map.remove(&key),
+            }
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Removes all entries of the map.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeClear(
@@ -396,38 +493,32 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or_default(&env, res)
 }
 
-/// Returns the next value from the iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next entries of the iterator, each key
+/// followed by its value. A chunk of fewer entries is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeEntriesIterNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeEntriesIterNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
-) -> jobject {
+    chunk_size: jint,
+) -> jbyteArray {
     let res = panic::catch_unwind(|| {
-        let iterWrapper = handle::cast_handle::<Iter>(iter_handle);
-
-        let result = match iterWrapper {
-            Iter::Raw(ref mut wrapper) => wrapper.iter.next().map(|(arr, val)| {
-                create_element(
-                    &env,
-                    &arr[..],
-                    &val,
-                    &wrapper.element_class,
-                    wrapper.constructor_id,
-                )
-            }),
-            Iter::Hashed(ref mut wrapper) => wrapper.iter.next().map(|(key, val)| {
-                create_element(
-                    &env,
-                    key.as_slice(),
-                    &val,
-                    &wrapper.element_class,
-                    wrapper.constructor_id,
-                )
-            }),
-        };
-
-        result.or(Some(Ok(ptr::null_mut()))).unwrap()
+        let mut chunk = Vec::new();
+        match *handle::cast_handle::<Iter>(iter_handle) {
+            Iter::Raw(ref mut iter) => {
+                for (key, value) in iter.by_ref().take(chunk_size as usize) {
+                    utils::append_packed_array(&mut chunk, &key);
+                    utils::append_packed_array(&mut chunk, &value);
+                }
+            }
+            Iter::Hashed(ref mut iter) => {
+                for (key, value) in iter.by_ref().take(chunk_size as usize) {
+                    utils::append_packed_array(&mut chunk, &key);
+                    utils::append_packed_array(&mut chunk, &value);
+                }
+            }
+        }
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -442,19 +533,25 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     handle::drop_handle::<Iter>(&env, iter_handle);
 }
 
-/// Returns the next value from the keys-iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next keys of the keys-iterator.
+/// A chunk of fewer keys is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeKeysIterNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeKeysIterNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
+    chunk_size: jint,
 ) -> jbyteArray {
     let res = panic::catch_unwind(|| {
-        let value = match *handle::cast_handle::<KeysIter>(iter_handle) {
-            KeysIter::Raw(ref mut iter) => utils::optional_array_to_java(&env, iter.next())?,
-            KeysIter::Hashed(ref mut iter) => utils::optional_array_to_java(&env, iter.next())?,
+        let chunk = match *handle::cast_handle::<KeysIter>(iter_handle) {
+            KeysIter::Raw(ref mut iter) => {
+                utils::pack_arrays(iter.by_ref().take(chunk_size as usize))
+            }
+            KeysIter::Hashed(ref mut iter) => {
+                utils::pack_arrays(iter.by_ref().take(chunk_size as usize))
+            }
         };
-        Ok(value)
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -469,16 +566,19 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     handle::drop_handle::<KeysIter>(&env, iter_handle);
 }
 
-/// Return next value from the values-iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next values of the values-iterator.
+/// A chunk of fewer values is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeValuesIterNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeValuesIterNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
+    chunk_size: jint,
 ) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let iter = handle::cast_handle::<ValuesIter>(iter_handle);
-        utils::optional_array_to_java(&env, iter.next())
+        let chunk = utils::pack_arrays(iter.by_ref().take(chunk_size as usize));
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -509,23 +609,3 @@ fn convert_to_keys(env: &JNIEnv, array: jobjectArray) -> JniResult<Vec<Key>> {
 fn convert_keys(keys: Vec<Key>) -> Vec<RawKey> {
     keys.into_iter().map(|key| key.to_raw()).collect()
 }
-
-// Creates element for PairIter.
-fn create_element(
-    env: &JNIEnv,
-    key: &[u8],
-    value: &[u8],
-    class: &GlobalRef,
-    constructor: JMethodID,
-) -> JniResult<jobject> {
-    let key: JObject = env.byte_array_from_slice(key)?.into();
-    let value: JObject = env.byte_array_from_slice(value)?.into();
-    Ok(env
-        .new_object_unchecked(class, constructor, &[key.into(), value.into()])?
-        .into_inner())
-}
-
-// Creates PairIter for corresponding iterator and map entry.
-fn create_pair_iter<I: Iterator>(env: &JNIEnv, iter: I) -> JniResult<PairIter<I>> {
-    PairIter::new(&env, iter, MAP_ENTRY_INTERNAL_FQN)
-}
@@ -0,0 +1,58 @@
+// Copyright 2020 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+//! Native values that are passed to Java as direct `ByteBuffer`s, without copying them
+//! into Java arrays.
+
+use jni::{objects::JClass, sys::jobject, JNIEnv};
+
+use std::{panic, ptr};
+
+use crate::{
+    handle::{self, Handle},
+    storage::Value,
+    utils,
+};
+
+/// Returns a handle to the given value, or zero if there is no value.
+pub(crate) fn optional_value_to_handle(value: Option<Value>) -> Handle {
+    value.map_or(0, handle::to_handle)
+}
+
+/// Returns a direct `ByteBuffer` over the value identified by the handle.
+///
+/// The buffer remains valid till the value is destroyed with `nativeFree`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueBuffers_nativeNewDirectBuffer(
+    env: JNIEnv,
+    _: JClass,
+    value_handle: Handle,
+) -> jobject {
+    let res = panic::catch_unwind(|| {
+        let value = handle::cast_handle::<Value>(value_handle);
+        let buffer = env.new_direct_byte_buffer(value.as_mut_slice())?;
+        Ok(buffer.into_inner())
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Destroys the value identified by the handle and frees memory.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueBuffers_nativeFree(
+    env: JNIEnv,
+    _: JClass,
+    value_handle: Handle,
+) {
+    handle::drop_handle::<Value>(&env, value_handle);
+}
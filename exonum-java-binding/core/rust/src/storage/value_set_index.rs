@@ -25,24 +25,21 @@ use exonum::{
 };
 use jni::{
     objects::{JClass, JObject, JString},
-    sys::{jboolean, jbyteArray, jobject},
+    sys::{jboolean, jbyteArray, jint},
     JNIEnv,
 };
 
 use crate::{
     handle::{self, Handle},
-    storage::{PairIter, Value},
+    storage::Value,
     utils,
 };
 
 type Index = ValueSetIndex<GenericRawAccess<'static>, Value>;
 
-type Iter<'a> = PairIter<Entries<'a, Hash, Value>>;
+type Iter<'a> = Entries<'a, Hash, Value>;
 type HashIter<'a> = Keys<'a, Hash>;
 
-const JAVA_ENTRY_FQN: &str =
-    "com/exonum/binding/core/storage/indices/ValueSetIndexProxy$EntryInternal";
-
 /// Returns pointer to the created `ValueSetIndex` object.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetIndexProxy_nativeCreate(
@@ -114,8 +111,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetInde
 ) -> Handle {
     let res = panic::catch_unwind(|| {
         let set = handle::cast_handle::<Index>(set_handle);
-        let iter = set.iter();
-        let iter = Iter::new(&env, iter, JAVA_ENTRY_FQN)?;
+        let iter: Iter = set.iter();
         Ok(handle::to_handle(iter))
     });
     utils::unwrap_exc_or_default(&env, res)
@@ -132,8 +128,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetInde
     let res = panic::catch_unwind(|| {
         let set = handle::cast_handle::<Index>(set_handle);
         let from = utils::convert_to_hash(&env, from)?;
-        let iter = set.iter_from(&from);
-        let iter = Iter::new(&env, iter, JAVA_ENTRY_FQN)?;
+        let iter: Iter = set.iter_from(&from);
         Ok(handle::to_handle(iter))
     });
     utils::unwrap_exc_or_default(&env, res)
@@ -237,29 +232,23 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetInde
     utils::unwrap_exc_or_default(&env, res)
 }
 
-/// Returns next value from the iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next entries of the iterator, each hash
+/// followed by its value. A chunk of fewer entries is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetIndexProxy_nativeIteratorNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetIndexProxy_nativeIteratorNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
-) -> jobject {
+    chunk_size: jint,
+) -> jbyteArray {
     let res = panic::catch_unwind(|| {
-        let iterWrapper = handle::cast_handle::<Iter>(iter_handle);
-        match iterWrapper.iter.next() {
-            Some(val) => {
-                let hash: JObject = utils::convert_hash(&env, &val.0)?.into();
-                let value: JObject = env.byte_array_from_slice(&val.1)?.into();
-                Ok(env
-                    .new_object_unchecked(
-                        &iterWrapper.element_class,
-                        iterWrapper.constructor_id,
-                        &[hash.into(), value.into()],
-                    )?
-                    .into_inner())
-            }
-            None => Ok(ptr::null_mut()),
+        let iter = handle::cast_handle::<Iter>(iter_handle);
+        let mut chunk = Vec::new();
+        for (hash, value) in iter.by_ref().take(chunk_size as usize) {
+            utils::append_packed_array(&mut chunk, hash.as_ref());
+            utils::append_packed_array(&mut chunk, &value);
         }
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -274,19 +263,19 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetInde
     handle::drop_handle::<Iter>(&env, iter_handle);
 }
 
-/// Returns next value from the hash-iterator. Returns null pointer when iteration is finished.
+/// Returns the packed chunk of at most `chunk_size` next hashes of the hash-iterator.
+/// A chunk of fewer hashes is returned when iteration is finished.
 #[no_mangle]
-pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetIndexProxy_nativeHashIteratorNext(
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ValueSetIndexProxy_nativeHashIteratorNextChunk(
     env: JNIEnv,
     _: JObject,
     iter_handle: Handle,
+    chunk_size: jint,
 ) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let iter = handle::cast_handle::<HashIter>(iter_handle);
-        match iter.next() {
-            Some(val) => utils::convert_hash(&env, &val),
-            None => Ok(ptr::null_mut()),
-        }
+        let chunk = utils::pack_arrays(iter.by_ref().take(chunk_size as usize));
+        env.byte_array_from_slice(&chunk)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
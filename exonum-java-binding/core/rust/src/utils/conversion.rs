@@ -19,10 +19,13 @@ use jni::sys::{jbyteArray, jobjectArray};
 use jni::JNIEnv;
 use protobuf::Message;
 
-use std::ptr;
+use std::{convert::TryInto, mem, ptr};
 
 use crate::JniResult;
 
+/// The length prefix of an absent array in a packed buffer.
+const ABSENT_ARRAY_LEN: i32 = -1;
+
 /// Converts Java byte array to `Hash`. Panics if array has the wrong length.
 pub fn convert_to_hash(env: &JNIEnv, array: jbyteArray) -> JniResult<Hash> {
     let bytes = env.convert_byte_array(array)?;
@@ -103,3 +106,96 @@ pub fn optional_array_to_java<B: AsRef<[u8]>>(
         env.byte_array_from_slice(slice.as_ref())
     })
 }
+
+/// Unpacks a buffer of length-prefixed byte arrays, packed by the Java `PackedArrays`.
+///
+/// Each array is encoded as its length (`i32`, little-endian) followed by the array bytes.
+/// Panics if the buffer is malformed or contains absent arrays.
+pub fn unpack_arrays(packed: &[u8]) -> Vec<&[u8]> {
+    let mut arrays = Vec::new();
+    let mut rest = packed;
+    while !rest.is_empty() {
+        assert!(
+            rest.len() >= mem::size_of::<i32>(),
+            "Malformed packed buffer: incomplete length prefix"
+        );
+        let (len, tail) = rest.split_at(mem::size_of::<i32>());
+        let len = i32::from_le_bytes(len.try_into().unwrap());
+        assert!(
+            len >= 0 && len as usize <= tail.len(),
+            "Malformed packed buffer: invalid array length ({})",
+            len
+        );
+        let (array, tail) = tail.split_at(len as usize);
+        arrays.push(array);
+        rest = tail;
+    }
+    arrays
+}
+
+/// Packs byte arrays into a buffer that can be unpacked by the Java `PackedArrays`.
+pub fn pack_arrays<I, B>(arrays: I) -> Vec<u8>
+where
+    I: IntoIterator<Item = B>,
+    B: AsRef<[u8]>,
+{
+    let mut packed = Vec::new();
+    for array in arrays {
+        append_packed_array(&mut packed, array.as_ref());
+    }
+    packed
+}
+
+/// Packs optional byte arrays into a buffer that can be unpacked by the Java `PackedArrays`.
+///
+/// An absent array is encoded as a length prefix equal to `-1`.
+pub fn pack_optional_arrays<I, B>(arrays: I) -> Vec<u8>
+where
+    I: IntoIterator<Item = Option<B>>,
+    B: AsRef<[u8]>,
+{
+    let mut packed = Vec::new();
+    for array in arrays {
+        match array {
+            Some(array) => append_packed_array(&mut packed, array.as_ref()),
+            None => packed.extend_from_slice(&ABSENT_ARRAY_LEN.to_le_bytes()),
+        }
+    }
+    packed
+}
+
+/// Appends a length-prefixed byte array to the packed buffer.
+pub fn append_packed_array(packed: &mut Vec<u8>, array: &[u8]) {
+    packed.extend_from_slice(&(array.len() as i32).to_le_bytes());
+    packed.extend_from_slice(array);
+}
+
+#[cfg(test)]
+mod tests {
+    use super::*;
+
+    #[test]
+    fn unpack_empty() {
+        assert!(unpack_arrays(&[]).is_empty());
+    }
+
+    #[test]
+    fn pack_unpack_arrays() {
+        let arrays: Vec<&[u8]> = vec![&[][..], &[1][..], &[2, 3, 4][..]];
+        let packed = pack_arrays(&arrays);
+        assert_eq!(unpack_arrays(&packed), arrays);
+        assert_eq!(pack_optional_arrays(arrays.iter().map(Some)), packed);
+    }
+
+    #[test]
+    fn pack_absent_array() {
+        let packed = pack_optional_arrays(vec![None, Some(vec![1_u8])]);
+        assert_eq!(packed, vec![0xFF, 0xFF, 0xFF, 0xFF, 1, 0, 0, 0, 1]);
+    }
+
+    #[test]
+    #[should_panic(expected = "invalid array length")]
+    fn unpack_truncated_array() {
+        unpack_arrays(&[2, 0, 0, 0, 1]);
+    }
+}
@@ -58,11 +58,18 @@ public final class BlockchainData extends AbstractNativeProxy {
   }
 
   private final Cleaner cleaner;
+  /**
+   * The base access of this BlockchainData, if it is known, i.e., the BlockchainData is
+   * created {@linkplain #fromRawAccess(AbstractAccess, Cleaner, String) from a raw access}.
+   */
+  @Nullable private final AbstractAccess baseAccess;
   @Nullable private Prefixed executingServiceAccess;
 
-  private BlockchainData(NativeHandle handle, Cleaner cleaner) {
+  private BlockchainData(NativeHandle handle, Cleaner cleaner,
+      @Nullable AbstractAccess baseAccess) {
     super(handle);
     this.cleaner = cleaner;
+    this.baseAccess = baseAccess;
   }
 
   /**
@@ -74,7 +81,7 @@ public final class BlockchainData extends AbstractNativeProxy {
    */
   public static BlockchainData fromHandle(long bdNativeHandle, Cleaner cleaner) {
     checkNotNull(cleaner);
-    return fromHandleInternal(bdNativeHandle, cleaner);
+    return fromHandleInternal(bdNativeHandle, cleaner, null);
   }
 
   /**
@@ -85,9 +92,25 @@ public final class BlockchainData extends AbstractNativeProxy {
    */
   @VisibleForTesting
   public static BlockchainData fromRawAccess(AbstractAccess baseAccess, String serviceName) {
-    Cleaner cleaner = baseAccess.getCleaner();
+    return fromRawAccess(baseAccess, baseAccess.getCleaner(), serviceName);
+  }
+
+  /**
+   * Creates a BlockchainData for the service with the given name in the given scope.
+   * The scope is usually {@linkplain Cleaner#newNested() nested} in the cleaner
+   * of the base access, so that the BlockchainData and any indexes created with it
+   * are destroyed when the scope is closed, while the base access remains open.
+   *
+   * @param baseAccess the base database access, must be a "RawAccess"
+   * @param cleaner a cleaner to destroy the BlockchainData and any dependent objects;
+   *     must not outlive the base access
+   * @param serviceName a service instance name
+   */
+  public static BlockchainData fromRawAccess(AbstractAccess baseAccess, Cleaner cleaner,
+      String serviceName) {
+    checkNotNull(cleaner);
     long bdNativeHandle = nativeCreate(baseAccess.getAccessNativeHandle(), serviceName);
-    return fromHandleInternal(bdNativeHandle, cleaner);
+    return fromHandleInternal(bdNativeHandle, cleaner, baseAccess);
   }
 
   private static native long nativeCreate(long baseAccessNativeHandle, String instanceName);
@@ -96,11 +119,12 @@ public final class BlockchainData extends AbstractNativeProxy {
    * Expects validated parameters so that it does not throw and registers the destructor
    * properly, which is *required* to prevent leaks.
    */
-  private static BlockchainData fromHandleInternal(long bdNativeHandle, Cleaner cleaner) {
+  private static BlockchainData fromHandleInternal(long bdNativeHandle, Cleaner cleaner,
+      @Nullable AbstractAccess baseAccess) {
     NativeHandle handle = new NativeHandle(bdNativeHandle);
     ProxyDestructor.newRegistered(cleaner, handle, BlockchainData.class,
         BlockchainData::nativeFree);
-    return new BlockchainData(handle, cleaner);
+    return new BlockchainData(handle, cleaner, baseAccess);
   }
 
   private static native void nativeFree(long bdNativeHandle);
@@ -118,11 +142,14 @@ public final class BlockchainData extends AbstractNativeProxy {
   public Prefixed getExecutingServiceData() {
     // Since the base access (Fork) is unknown in the main use-case (BlockchainData
     // received from core), we must create the Prefixed access at most once so that index
-    // pooling works for read-write-based Accesses.
+    // pooling works for read-write-based Accesses. If the base access is known,
+    // the Prefixed access shares its pool, which also keeps the scopes of the indexes.
     if (executingServiceAccess == null) {
       long nativeHandle = getNativeHandle();
       long prefixedHandle = nativeGetExecutingServiceAccess(nativeHandle);
-      executingServiceAccess = Prefixed.fromHandle(prefixedHandle, cleaner);
+      executingServiceAccess = (baseAccess == null)
+          ? Prefixed.fromHandle(prefixedHandle, cleaner)
+          : Prefixed.fromHandle(prefixedHandle, cleaner, baseAccess);
     }
     return executingServiceAccess;
   }
@@ -17,6 +17,7 @@
 package com.exonum.binding.core.proxy;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.MoreObjects;
 import java.util.ArrayDeque;
@@ -24,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -59,6 +61,14 @@ public final class Cleaner implements AutoCloseable {
 
   private final Deque<CleanAction<?>> registeredCleanActions;
   private final String description;
+  /**
+   * The parent of this cleaner, if it is {@linkplain #newNested(String) nested}.
+   */
+  @Nullable private final Cleaner parent;
+  /**
+   * The action closing this cleaner, registered in the parent, if this cleaner is nested.
+   */
+  @Nullable private CleanAction<?> closeInParent;
   private boolean closed;
 
   /**
@@ -75,11 +85,45 @@ public final class Cleaner implements AutoCloseable {
    *                    and is included in {@link #toString()}
    */
   public Cleaner(String description) {
+    this(description, null);
+  }
+
+  private Cleaner(String description, @Nullable Cleaner parent) {
     registeredCleanActions = new ArrayDeque<>();
     this.description = checkNotNull(description);
+    this.parent = parent;
     closed = false;
   }
 
+  /**
+   * Creates a new nested cleaner with no (an empty) description.
+   *
+   * @see #newNested(String)
+   */
+  public Cleaner newNested() {
+    return newNested("");
+  }
+
+  /**
+   * Creates a new nested cleaner — a child scope of this cleaner. The nested cleaner allows
+   * to destroy the native proxies created in it early, when it is closed, while this
+   * cleaner, and the proxies registered in it (e.g., a Snapshot), remain open.
+   *
+   * <p>The nested cleaner is registered in this cleaner, so that it is closed with this cleaner
+   * if it has not been closed before. When the nested cleaner is closed, it is removed
+   * from this cleaner.
+   *
+   * @param description a description of the nested context
+   * @throws IllegalStateException if this cleaner is closed
+   */
+  public Cleaner newNested(String description) {
+    checkState(!closed, "Cannot create a nested context in a closed context (%s)", this);
+    Cleaner nested = new Cleaner(description, this);
+    nested.closeInParent = nested::close;
+    add(nested.closeInParent);
+    return nested;
+  }
+
   /** Returns true if this cleaner is closed. */
   public boolean isClosed() {
     return closed;
@@ -163,6 +207,11 @@ public final class Cleaner implements AutoCloseable {
 
     closed = true;
 
+    // Remove this nested cleaner from the parent, unless it is the parent that closes it
+    if (parent != null && !parent.isClosed()) {
+      parent.registeredCleanActions.removeFirstOccurrence(closeInParent);
+    }
+
     // Currently only the number of failures is recorded. If extra context is needed,
     // the clean actions might be included as well.
     List<Throwable> suppressedExceptions = new ArrayList<>();
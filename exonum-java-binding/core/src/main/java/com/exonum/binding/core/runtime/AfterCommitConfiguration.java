@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.core.runtime;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.exonum.binding.core.service.BlockCommittedEvent;
+import com.exonum.binding.core.service.Service;
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+
+/**
+ * A configuration of the dispatch of the {@linkplain Service#afterCommit(BlockCommittedEvent)
+ * after commit} events to the services.
+ *
+ * <p>By default, the runtime notifies the services {@linkplain #sequential() sequentially},
+ * in the thread of the native caller. A configuration with the parallelism above one
+ * enables the concurrent dispatch: the services are notified on a dedicated bounded
+ * pool of threads. In both modes, the runtime returns to the native caller only when
+ * all services have processed the event, because the snapshot passed to the services
+ * remains valid only till then.
+ *
+ * <p>The configuration of the application can be specified with the system properties,
+ * see {@link #fromSystemProperties()}.
+ */
+@AutoValue
+public abstract class AfterCommitConfiguration {
+
+  /**
+   * The system property with the maximum number of services notified concurrently.
+   */
+  public static final String PARALLELISM_PROPERTY = "exonum.runtime.afterCommit.parallelism";
+  /**
+   * The system property with the service timeout, in milliseconds. The timeout is reported,
+   * but not enforced, see {@link #getServiceTimeout()}.
+   */
+  public static final String SERVICE_TIMEOUT_PROPERTY =
+      "exonum.runtime.afterCommit.serviceTimeoutMillis";
+
+  private static final Duration DEFAULT_SERVICE_TIMEOUT = Duration.ofSeconds(30);
+
+  /**
+   * Returns the maximum number of services that are notified concurrently.
+   * If equal to one, the services are notified sequentially in the caller thread.
+   */
+  public abstract int getParallelism();
+
+  /**
+   * Returns the time in which each service is expected to process the event, counted
+   * from the dispatch of the event. If a service does not complete in time, the runtime
+   * logs a warning and records a {@linkplain AfterCommitMetrics#getTimedOut() timeout},
+   * but keeps waiting for the service. The timeout does not bound the wait: a service that
+   * does not return from its handler blocks the block commit indefinitely, because
+   * the snapshot passed to it must not be used after the runtime returns to the native caller.
+   * Applies to the parallel mode only.
+   */
+  public abstract Duration getServiceTimeout();
+
+  /**
+   * Returns true if the services are notified concurrently.
+   */
+  public final boolean isParallel() {
+    return getParallelism() > 1;
+  }
+
+  /**
+   * Creates a new configuration.
+   *
+   * @param parallelism the maximum number of services notified concurrently; must be positive
+   * @param serviceTimeout the service timeout; must be positive
+   * @throws IllegalArgumentException if the parallelism or the timeout are not positive
+   */
+  public static AfterCommitConfiguration newInstance(int parallelism, Duration serviceTimeout) {
+    checkArgument(parallelism > 0, "parallelism must be positive, but was %s", parallelism);
+    checkArgument(!serviceTimeout.isNegative() && !serviceTimeout.isZero(),
+        "serviceTimeout must be positive, but was %s", serviceTimeout);
+    return new AutoValue_AfterCommitConfiguration(parallelism, serviceTimeout);
+  }
+
+  /**
+   * Returns the default configuration, in which the services are notified sequentially
+   * in the caller thread.
+   */
+  public static AfterCommitConfiguration sequential() {
+    return newInstance(1, DEFAULT_SERVICE_TIMEOUT);
+  }
+
+  /**
+   * Creates a configuration from the system properties: {@value #PARALLELISM_PROPERTY}
+   * and {@value #SERVICE_TIMEOUT_PROPERTY}.
+   * The absent properties take the values of the {@linkplain #sequential() default
+   * configuration}.
+   *
+   * @throws IllegalArgumentException if any property has an invalid value
+   */
+  public static AfterCommitConfiguration fromSystemProperties() {
+    AfterCommitConfiguration defaults = sequential();
+    int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, defaults.getParallelism());
+    long timeoutMillis = Long.getLong(SERVICE_TIMEOUT_PROPERTY,
+        defaults.getServiceTimeout().toMillis());
+    return newInstance(parallelism, Duration.ofMillis(timeoutMillis));
+  }
+}
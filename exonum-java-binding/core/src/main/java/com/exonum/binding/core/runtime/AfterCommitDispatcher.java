@@ -0,0 +1,267 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Dispatches the after commit events to the services according to
+ * the {@linkplain AfterCommitConfiguration configuration}.
+ *
+ * <p>In the sequential mode, the services are notified one by one in the caller thread,
+ * using the snapshot passed by the caller. Each service gets a scope {@linkplain
+ * Cleaner#newNested() nested} in the snapshot cleaner, which is closed once the service
+ * has processed the event. In the parallel mode, the services are notified
+ * on a bounded pool of threads. As neither the proxies nor the native access objects
+ * may be used in several threads concurrently, each service gets its own
+ * {@linkplain Snapshot#newBorrowedCopy(Cleaner) copy} of the snapshot, backed by
+ * its own native access object, which shares with the others only the immutable native
+ * snapshot. The copies are created in the caller thread, each registered in its own cleaner,
+ * which is closed once the service has processed the event.
+ *
+ * <p>In both modes, the dispatch returns only when all services have processed the event:
+ * the native snapshot is lent to the runtime for the duration of the native call only.
+ * Consequently, the calls of the handler of a service never overlap, and a service
+ * that does not return from its handler blocks the block commit indefinitely: the
+ * {@linkplain AfterCommitConfiguration#getServiceTimeout() service timeout} is only
+ * reported, but not enforced.
+ *
+ * <p>The dispatcher records the {@linkplain AfterCommitMetrics metrics} of the event processing
+ * for each service.
+ *
+ * <p>This class is thread-safe.
+ */
+final class AfterCommitDispatcher {
+
+  private static final Logger logger = LogManager.getLogger(AfterCommitDispatcher.class);
+
+  /**
+   * The maximum number of events queued for processing per thread. If the queue is full,
+   * the caller thread processes the event itself.
+   */
+  @VisibleForTesting
+  static final int MAX_QUEUED_EVENTS_PER_THREAD = 64;
+
+  private final AfterCommitConfiguration configuration;
+  @Nullable
+  private final ThreadPoolExecutor executor;
+  @Nullable
+  private final ScheduledThreadPoolExecutor timeoutScheduler;
+  private final ConcurrentMap<String, AfterCommitMetrics> metrics = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a dispatcher with the given configuration. In the parallel mode, it starts
+   * the threads processing the events, which must be stopped with {@link #shutdown()}.
+   */
+  @Inject
+  AfterCommitDispatcher(AfterCommitConfiguration configuration) {
+    this.configuration = checkNotNull(configuration);
+    if (configuration.isParallel()) {
+      int parallelism = configuration.getParallelism();
+      executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(parallelism * MAX_QUEUED_EVENTS_PER_THREAD),
+          new ThreadFactoryBuilder()
+              .setNameFormat("exonum-after-commit-%d")
+              .setDaemon(true)
+              .build(),
+          runInCallerThread());
+      timeoutScheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+          .setNameFormat("exonum-after-commit-timeouts")
+          .setDaemon(true)
+          .build());
+      // Do not keep the timers of the services that completed in time
+      timeoutScheduler.setRemoveOnCancelPolicy(true);
+    } else {
+      executor = null;
+      timeoutScheduler = null;
+    }
+  }
+
+  /**
+   * Returns the policy of the rejected events: the caller thread processes them. Unlike
+   * {@link ThreadPoolExecutor.CallerRunsPolicy}, it does not discard the events after
+   * the shutdown, as the caller waits for each event to be processed.
+   */
+  private static RejectedExecutionHandler runInCallerThread() {
+    return (event, executor) -> event.run();
+  }
+
+  /**
+   * Notifies the given services of the block commit, and waits until all services have
+   * processed the event. Any exceptions of the services are logged and are not propagated.
+   *
+   * <p>In the parallel mode, if a service has not processed the event in
+   * the {@linkplain AfterCommitConfiguration#getServiceTimeout() service timeout},
+   * a warning is logged and the timeout is recorded; but the dispatcher keeps waiting
+   * without a bound, as the snapshot may not be used after this method returns.
+   *
+   * @param services the services to notify
+   * @param snapshot the snapshot of the database state after the commit
+   * @param height the height of the committed block
+   * @param handler the handler notifying a service with the given snapshot
+   */
+  void dispatch(Collection<ServiceWrapper> services, Snapshot snapshot, long height,
+      Handler handler) {
+    if (!configuration.isParallel()) {
+      for (ServiceWrapper service : services) {
+        notifyServiceInNestedScope(service, snapshot, height, handler);
+      }
+      return;
+    }
+
+    List<CompletableFuture<Void>> completions = new ArrayList<>(services.size());
+    try {
+      for (ServiceWrapper service : services) {
+        // Create the copy in the caller thread, as the snapshot is used in this thread only
+        Cleaner scope = new Cleaner("afterCommit of " + service.getName());
+        Snapshot serviceSnapshot = snapshot.newBorrowedCopy(scope);
+        CompletableFuture<Void> completion = CompletableFuture.runAsync(
+            () -> notifyServiceInOwnScope(service, serviceSnapshot, scope, height, handler),
+            executor);
+        recordTimeout(service, completion, height);
+        completions.add(completion);
+      }
+    } finally {
+      // Wait for all services, as the snapshot (and its copies) are valid only
+      // till this method returns
+      CompletableFuture.allOf(completions.toArray(new CompletableFuture<?>[0]))
+          .join();
+    }
+  }
+
+  /**
+   * Records the timeout of the service if the given event processing does not complete
+   * in the service timeout.
+   */
+  private void recordTimeout(ServiceWrapper service, CompletableFuture<Void> completion,
+      long height) {
+    Duration timeout = configuration.getServiceTimeout();
+    ScheduledFuture<?> timer = timeoutScheduler.schedule(() -> {
+      getMetrics(service.getName()).recordTimedOut();
+      logger.warn("Service {} has not processed the afterCommit event in {}, "
+          + "the block commit waits for it. Height={}", service.getName(), timeout, height);
+    }, timeout.toNanos(), NANOSECONDS);
+    completion.whenComplete((r, t) -> timer.cancel(false));
+  }
+
+  private static void logCloseFailure(ServiceWrapper service, long height,
+      CloseFailuresException e) {
+    logger.error("Failed to close some resources of the service {} after its afterCommit "
+        + "handler. Height={}", service.getName(), height, e);
+  }
+
+  private void notifyServiceInNestedScope(ServiceWrapper service, Snapshot snapshot,
+      long height, Handler handler) {
+    // Destroy the proxies created by the service once it has processed the event,
+    // so that they do not pile up in the snapshot cleaner
+    try (Cleaner scope = snapshot.getCleaner().newNested("afterCommit of " + service.getName())) {
+      notifyService(service, snapshot, scope, height, handler);
+    } catch (CloseFailuresException e) {
+      logCloseFailure(service, height, e);
+    }
+  }
+
+  private void notifyServiceInOwnScope(ServiceWrapper service, Snapshot serviceSnapshot,
+      Cleaner serviceScope, long height, Handler handler) {
+    try (Cleaner scope = serviceScope) {
+      notifyService(service, serviceSnapshot, scope, height, handler);
+    } catch (CloseFailuresException e) {
+      logCloseFailure(service, height, e);
+    }
+  }
+
+  private void notifyService(ServiceWrapper service, Snapshot snapshot, Cleaner scope,
+      long height, Handler handler) {
+    AfterCommitMetrics serviceMetrics = getMetrics(service.getName());
+    long start = System.nanoTime();
+    try {
+      handler.afterCommit(service, snapshot, scope);
+      serviceMetrics.recordCompleted(System.nanoTime() - start);
+    } catch (Exception e) {
+      serviceMetrics.recordFailed(System.nanoTime() - start);
+      // Log, but do not re-throw either immediately or later
+      logger.error("Service {} threw an exception in its afterCommit handler. Height={}",
+          service.getName(), height, e);
+    }
+  }
+
+  /**
+   * Returns the metrics of the service with the given name.
+   */
+  AfterCommitMetrics getMetrics(String serviceName) {
+    return metrics.computeIfAbsent(serviceName, name -> new AfterCommitMetrics());
+  }
+
+  /**
+   * Stops the threads processing the events, waiting for the events that are being processed
+   * for at most the service timeout. Has no effect in the sequential mode.
+   *
+   * @throws InterruptedException if an interrupt was requested
+   */
+  void shutdown() throws InterruptedException {
+    if (executor == null) {
+      return;
+    }
+    executor.shutdown();
+    timeoutScheduler.shutdownNow();
+    Duration timeout = configuration.getServiceTimeout();
+    if (!executor.awaitTermination(timeout.toNanos(), NANOSECONDS)) {
+      logger.warn("Some services have not processed the afterCommit events in {}", timeout);
+    }
+  }
+
+  /**
+   * Notifies a service of the block commit.
+   */
+  @FunctionalInterface
+  interface Handler {
+
+    /**
+     * Notifies the service of the block commit.
+     *
+     * @param service the service to notify
+     * @param snapshot the snapshot to use in the given service
+     * @param scope the cleaner in which the objects created for the service must be registered;
+     *     it is closed once the service has processed the event
+     */
+    void afterCommit(ServiceWrapper service, Snapshot snapshot, Cleaner scope);
+  }
+}
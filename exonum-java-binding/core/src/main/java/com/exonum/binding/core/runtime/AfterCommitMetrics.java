@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import com.exonum.binding.core.service.BlockCommittedEvent;
+import com.exonum.binding.core.service.Service;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the {@linkplain Service#afterCommit(BlockCommittedEvent) after commit} event
+ * processing by a service.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @see ServiceRuntime#getAfterCommitMetrics(String)
+ */
+public final class AfterCommitMetrics {
+
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+  private final LongAdder totalTimeNanos = new LongAdder();
+
+  AfterCommitMetrics() {}
+
+  void recordCompleted(long durationNanos) {
+    completed.increment();
+    totalTimeNanos.add(durationNanos);
+  }
+
+  void recordFailed(long durationNanos) {
+    failed.increment();
+    totalTimeNanos.add(durationNanos);
+  }
+
+  void recordTimedOut() {
+    timedOut.increment();
+  }
+
+  /**
+   * Returns the number of events processed successfully.
+   */
+  public long getCompleted() {
+    return completed.sum();
+  }
+
+  /**
+   * Returns the number of events in which processing the service threw an exception.
+   */
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  /**
+   * Returns the number of events the service has not processed in
+   * the {@linkplain AfterCommitConfiguration#getServiceTimeout() service timeout}.
+   * Such events are also counted as completed or failed once processed.
+   */
+  public long getTimedOut() {
+    return timedOut.sum();
+  }
+
+  /**
+   * Returns the total time the service spent processing the events.
+   */
+  public Duration getTotalTime() {
+    return Duration.ofNanos(totalTimeNanos.sum());
+  }
+}
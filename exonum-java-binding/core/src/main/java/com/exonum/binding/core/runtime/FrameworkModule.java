@@ -16,6 +16,7 @@
 
 package com.exonum.binding.core.runtime;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.inject.name.Names.named;
 
 import com.exonum.binding.core.transport.Server;
@@ -36,9 +37,11 @@ public final class FrameworkModule extends AbstractModule {
   private final Path serviceArtifactsDir;
   private final int serviceWebServerPort;
   private final ImmutableMap<String, Class<?>> dependencyReferenceClasses;
+  private final AfterCommitConfiguration afterCommitConfiguration;
 
   /**
-   * Creates a framework module with the given configuration.
+   * Creates a framework module with the given configuration, in which the services are notified
+   * of the block commit {@linkplain AfterCommitConfiguration#sequential() sequentially}.
    *
    * @param serviceArtifactsDir the directory in which administrators place and from which
    *     the service runtime loads service artifacts
@@ -48,9 +51,28 @@ public final class FrameworkModule extends AbstractModule {
    */
   public FrameworkModule(Path serviceArtifactsDir, int serviceWebServerPort,
       Map<String, Class<?>> dependencyReferenceClasses) {
+    this(serviceArtifactsDir, serviceWebServerPort, dependencyReferenceClasses,
+        AfterCommitConfiguration.sequential());
+  }
+
+  /**
+   * Creates a framework module with the given configuration.
+   *
+   * @param serviceArtifactsDir the directory in which administrators place and from which
+   *     the service runtime loads service artifacts
+   * @param serviceWebServerPort the port for the web server on which endpoints of Exonum services
+   *     will be mounted
+   * @param dependencyReferenceClasses the reference classes from framework-provided dependencies
+   * @param afterCommitConfiguration the configuration of the dispatch of the after commit events
+   *     to the services
+   */
+  public FrameworkModule(Path serviceArtifactsDir, int serviceWebServerPort,
+      Map<String, Class<?>> dependencyReferenceClasses,
+      AfterCommitConfiguration afterCommitConfiguration) {
     this.serviceArtifactsDir = serviceArtifactsDir;
     this.serviceWebServerPort = serviceWebServerPort;
     this.dependencyReferenceClasses = ImmutableMap.copyOf(dependencyReferenceClasses);
+    this.afterCommitConfiguration = checkNotNull(afterCommitConfiguration);
   }
 
   @Override
@@ -65,6 +87,7 @@ public final class FrameworkModule extends AbstractModule {
         .toInstance(serviceArtifactsDir);
     bind(Integer.class).annotatedWith(named(SERVICE_WEB_SERVER_PORT))
         .toInstance(serviceWebServerPort);
+    bind(AfterCommitConfiguration.class).toInstance(afterCommitConfiguration);
 
     bind(AccessFactory.class).toInstance(AccessProxyFactory.getInstance());
     // todo: Consider providing an implementation of a Node —
@@ -33,6 +33,8 @@ import com.exonum.messages.core.runtime.Errors.ErrorKind;
 import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus;
 import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus.Simple;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -54,10 +56,12 @@ import org.apache.logging.log4j.Logger;
  *
  * <p>This class is thread-safe and does not support client-side locking.
  * The thread-safety is provided because the class is a singleton and may be provided to
- * other objects. Currently, however, there is a single injection point where ServiceRuntime
- * is instantiated (during bootstrap) and it is used by the native runtime only in a single-threaded
- * context, hence thread-safety isn't <em>strictly</em> required, but rather provided to avoid
- * possible errors if it is ever accessed by other objects.
+ * other objects. The lifecycle operations (artifact deployment, adding, resuming and stopping
+ * services, shutdown) are serialized. The operations with the active services (transaction
+ * execution, before and after transactions handlers, after commit notifications) do not
+ * acquire any locks: they use an immutable snapshot of the active services, which
+ * the lifecycle operations replace. Therefore, a long lifecycle operation (e.g.,
+ * an artifact deployment) does not block the execution of the active services.
  */
 @Singleton
 public final class ServiceRuntime implements AutoCloseable {
@@ -71,21 +75,37 @@ public final class ServiceRuntime implements AutoCloseable {
   private final RuntimeTransport runtimeTransport;
   private final BlockchainDataFactory blockchainDataFactory;
   private final Path artifactsDir;
+  private final AfterCommitDispatcher afterCommitDispatcher;
   /**
-   * The active services indexed by their name. It is stored in a sorted map that offers
-   * the same iteration order on all nodes with the same services, which is useful
-   * for logging purposes.
+   * The active services. The registry is immutable and is replaced on each change,
+   * so that it can be read without locking.
    */
-  private final SortedMap<String, ServiceWrapper> services = new TreeMap<>();
+  private volatile ActiveServices services = ActiveServices.EMPTY;
   /**
-   * Same active services, indexed by their numeric identifier.
-   * @see ServiceInstanceSpec#getId()
+   * The lock serializing the lifecycle operations: the changes of the active services,
+   * and the operations with the service loader.
    */
-  private final Map<Integer, ServiceWrapper> servicesById = new HashMap<>();
-  private final Object lock = new Object();
+  private final Object lifecycleLock = new Object();
 
   private NodeProxy nodeProxy;
 
+  /**
+   * Creates a new Java service runtime, which notifies the services of the block commit
+   * {@linkplain AfterCommitConfiguration#sequential() sequentially}.
+   *
+   * @param serviceLoader a loader of service artifacts
+   * @param servicesFactory the factory of services
+   * @param runtimeTransport a web server providing transport to Java services
+   * @param artifactsDir the directory in which administrators place and from which
+   *     the service runtime loads service artifacts; may not exist at instantiation time
+   */
+  public ServiceRuntime(ServiceLoader serviceLoader, ServicesFactory servicesFactory,
+      RuntimeTransport runtimeTransport, BlockchainDataFactory blockchainDataFactory,
+      Path artifactsDir) {
+    this(serviceLoader, servicesFactory, runtimeTransport, blockchainDataFactory, artifactsDir,
+        new AfterCommitDispatcher(AfterCommitConfiguration.sequential()));
+  }
+
   /**
    * Creates a new Java service runtime.
    *
@@ -94,23 +114,26 @@ public final class ServiceRuntime implements AutoCloseable {
    * @param runtimeTransport a web server providing transport to Java services
    * @param artifactsDir the directory in which administrators place and from which
    *     the service runtime loads service artifacts; may not exist at instantiation time
+   * @param afterCommitDispatcher the dispatcher of the after commit events to the services
    */
   @Inject
-  public ServiceRuntime(ServiceLoader serviceLoader, ServicesFactory servicesFactory,
+  ServiceRuntime(ServiceLoader serviceLoader, ServicesFactory servicesFactory,
       RuntimeTransport runtimeTransport, BlockchainDataFactory blockchainDataFactory,
-      @Named(FrameworkModule.SERVICE_RUNTIME_ARTIFACTS_DIRECTORY) Path artifactsDir) {
+      @Named(FrameworkModule.SERVICE_RUNTIME_ARTIFACTS_DIRECTORY) Path artifactsDir,
+      AfterCommitDispatcher afterCommitDispatcher) {
     this.serviceLoader = checkNotNull(serviceLoader);
     this.servicesFactory = checkNotNull(servicesFactory);
     this.runtimeTransport = checkNotNull(runtimeTransport);
     this.blockchainDataFactory = blockchainDataFactory;
     this.artifactsDir = checkNotNull(artifactsDir);
+    this.afterCommitDispatcher = checkNotNull(afterCommitDispatcher);
   }
 
   /**
    * Initializes the runtime with the given node. Starts the transport for Java services.
    */
   public void initialize(NodeProxy node) {
-    synchronized (lock) {
+    synchronized (lifecycleLock) {
       checkState(this.nodeProxy == null, "Invalid attempt to replace already set node (%s) with %s",
           this.nodeProxy, node);
       this.nodeProxy = checkNotNull(node);
@@ -132,7 +155,7 @@ public final class ServiceRuntime implements AutoCloseable {
   public void deployArtifact(ServiceArtifactId id, String filename)
       throws ServiceLoadingException {
     try {
-      synchronized (lock) {
+      synchronized (lifecycleLock) {
         // Check the artifacts dir exists
         checkState(Files.isDirectory(artifactsDir), "Artifacts dir (%s) does not exist or is not "
             + "a directory: check the runtime configuration", artifactsDir);
@@ -165,7 +188,7 @@ public final class ServiceRuntime implements AutoCloseable {
    * @param id a service artifact identifier
    */
   public boolean isArtifactDeployed(ServiceArtifactId id) {
-    synchronized (lock) {
+    synchronized (lifecycleLock) {
       return serviceLoader.findService(id)
           .isPresent();
     }
@@ -194,7 +217,7 @@ public final class ServiceRuntime implements AutoCloseable {
   public void initiateAddingService(BlockchainData blockchainData, ServiceInstanceSpec instanceSpec,
       byte[] configuration) {
     try {
-      synchronized (lock) {
+      synchronized (lifecycleLock) {
         // Create a new service
         ServiceWrapper service = createServiceInstance(instanceSpec);
 
@@ -230,7 +253,7 @@ public final class ServiceRuntime implements AutoCloseable {
   public void initiateResumingService(BlockchainData blockchainData,
       ServiceInstanceSpec instanceSpec, byte[] arguments) {
     try {
-      synchronized (lock) {
+      synchronized (lifecycleLock) {
         checkStoppedService(instanceSpec.getId());
         ServiceWrapper service = createServiceInstance(instanceSpec);
         service.resume(blockchainData, arguments);
@@ -259,7 +282,7 @@ public final class ServiceRuntime implements AutoCloseable {
    */
   public void updateInstanceStatus(ServiceInstanceSpec instanceSpec,
       InstanceStatus instanceStatus) {
-    synchronized (lock) {
+    synchronized (lifecycleLock) {
       Simple status = instanceStatus.getSimple();
       switch (status) {
         case ACTIVE:
@@ -310,8 +333,9 @@ public final class ServiceRuntime implements AutoCloseable {
   private ServiceWrapper createServiceInstance(ServiceInstanceSpec instanceSpec) {
     // Check no such service in the runtime
     String name = instanceSpec.getName();
-    checkArgument(!findService(name).isPresent(),
-        "Service with name '%s' already created: %s", name, services.get(name));
+    Optional<ServiceWrapper> existingService = findService(name);
+    checkArgument(!existingService.isPresent(),
+        "Service with name '%s' already created: %s", name, existingService.orElse(null));
 
     // Find the service definition
     ServiceArtifactId artifactId = instanceSpec.getArtifactId();
@@ -324,19 +348,11 @@ public final class ServiceRuntime implements AutoCloseable {
   }
 
   private void registerService(ServiceWrapper service) {
-    String name = service.getName();
-    services.put(name, service);
-
-    int id = service.getId();
-    servicesById.put(id, service);
+    services = services.with(service);
   }
 
   private void unRegisterService(ServiceWrapper service) {
-    String name = service.getName();
-    services.remove(name);
-
-    int id = service.getId();
-    servicesById.remove(id);
+    services = services.without(service);
   }
 
   /**
@@ -380,23 +396,21 @@ public final class ServiceRuntime implements AutoCloseable {
   public void executeTransaction(int serviceId, String interfaceName, int txId,
       byte[] arguments, BlockchainData blockchainData, int callerServiceId, HashCode txMessageHash,
       PublicKey authorPublicKey) {
-    synchronized (lock) {
-      ServiceWrapper service = getServiceById(serviceId);
-      String serviceName = service.getName();
-      TransactionContext context = TransactionContext.builder()
-          .blockchainData(blockchainData)
-          .txMessageHash(txMessageHash)
-          .authorPk(authorPublicKey)
-          .serviceName(serviceName)
-          .serviceId(serviceId)
-          .build();
-      try {
-        service.executeTransaction(interfaceName, txId, arguments, callerServiceId, context);
-      } catch (Exception e) {
-        logger.info("Transaction execution failed (service={}, txId={}, txMessageHash={})",
-            service.getName(), txId, context.getTransactionMessageHash(), e);
-        throw e;
-      }
+    ServiceWrapper service = getServiceById(serviceId);
+    String serviceName = service.getName();
+    TransactionContext context = TransactionContext.builder()
+        .blockchainData(blockchainData)
+        .txMessageHash(txMessageHash)
+        .authorPk(authorPublicKey)
+        .serviceName(serviceName)
+        .serviceId(serviceId)
+        .build();
+    try {
+      service.executeTransaction(interfaceName, txId, arguments, callerServiceId, context);
+    } catch (Exception e) {
+      logger.info("Transaction execution failed (service={}, txId={}, txMessageHash={})",
+          service.getName(), txId, context.getTransactionMessageHash(), e);
+      throw e;
     }
   }
 
@@ -406,14 +420,12 @@ public final class ServiceRuntime implements AutoCloseable {
    * @see #afterTransactions(int, BlockchainData)
    */
   public void beforeTransactions(int serviceId, BlockchainData blockchainData) {
-    synchronized (lock) {
-      ServiceWrapper service = getServiceById(serviceId);
-      try {
-        service.beforeTransactions(blockchainData);
-      } catch (Exception e) {
-        logger.error("Service {} threw exception in beforeTransactions.", service.getName(), e);
-        throw e;
-      }
+    ServiceWrapper service = getServiceById(serviceId);
+    try {
+      service.beforeTransactions(blockchainData);
+    } catch (Exception e) {
+      logger.error("Service {} threw exception in beforeTransactions.", service.getName(), e);
+      throw e;
     }
   }
 
@@ -431,58 +443,49 @@ public final class ServiceRuntime implements AutoCloseable {
    * @throws IllegalArgumentException if any argument is not valid (e.g., unknown service)
    */
   public void afterTransactions(int serviceId, BlockchainData blockchainData) {
-    synchronized (lock) {
-      ServiceWrapper service = getServiceById(serviceId);
-      try {
-        service.afterTransactions(blockchainData);
-      } catch (Exception e) {
-        logger.error("Service {} threw exception in afterTransactions."
-            + " Any changes will be rolled-back", service.getName(), e);
-        throw e;
-      }
+    ServiceWrapper service = getServiceById(serviceId);
+    try {
+      service.afterTransactions(blockchainData);
+    } catch (Exception e) {
+      logger.error("Service {} threw exception in afterTransactions."
+          + " Any changes will be rolled-back", service.getName(), e);
+      throw e;
     }
   }
 
   /**
-   * Notifies the services in the runtime of the block commit event.
+   * Notifies the services in the runtime of the block commit event. The services are notified
+   * sequentially or concurrently, according to the {@link AfterCommitConfiguration}.
+   * Any exceptions of the services are logged and are not propagated.
+   *
+   * <p>The native proxies created for and by each service are destroyed once it has processed
+   * the event, so that they do not accumulate in the snapshot cleaner.
+   *
+   * <p>Returns when all services have processed the event.
+   *
    * @param snapshot a snapshot of the current database state
    * @param validatorId an optional id of the validator node, or none for an auditor
    * @param height the current blockchain height
    */
   public void afterCommit(Snapshot snapshot, OptionalInt validatorId, long height) {
-    synchronized (lock) {
-      for (ServiceWrapper service : services.values()) {
-        try {
-          BlockchainData blockchainData = blockchainDataFactory.fromRawAccess(snapshot,
-              service.getName());
+    afterCommitDispatcher.dispatch(services.byName.values(), snapshot, height,
+        (service, serviceSnapshot, scope) -> {
+          BlockchainData blockchainData = blockchainDataFactory.fromRawAccess(serviceSnapshot,
+              scope, service.getName());
           BlockCommittedEvent event =
               BlockCommittedEventImpl.valueOf(blockchainData, validatorId, height);
-          // todo: [ECR-3436] BCE carries a Snapshot which is based on a cleaner, which gets
-          //   re-used by all services. If the total number of native proxies they create is large,
-          //   that may result in excessive memory usage. Some ways to solve this:
-          //   1. Take a handle, create a fresh snapshot for each service — but will need hacks
-          //   to destroy the native peer once.
-          //   2. Support Snapshot copying with new cleaners — but that breaks index de-duplication
-          //   (though for snapshots that mustn't be an issue).
-          //   3. Support some kind of "nested" or "sub"-scopes:
-          //     try (Cleaner cleaner = snapshot.getCleaner().newNested()) {
-          //       BlockchainData bdData = BlockchainData.fromRawAccess(snapshot, cleaner, name);
-          //     } // bdData gets destroyed here; snapshot remains.
-          //     However, there is a possible issue to study — index pool sharing,
-          //     and possible cache poisoning.
-          //   -
-          //   As a side note, 'excessive memory usage' may occur in any *single* transaction/
-          //   read request/service life-cycle method, it just has higher probability when
-          //   we invoke a number of such 'foreign' (to framework) methods with no intermediate
-          //   clean-up.
           service.afterCommit(event);
-        } catch (Exception e) {
-          // Log, but do not re-throw either immediately or later
-          logger.error("Service {} threw an exception in its afterCommit handler. Height={}",
-              service.getName(), height, e);
-        }
-      }
-    }
+        });
+  }
+
+  /**
+   * Returns the metrics of the after commit event processing by the service
+   * with the given name.
+   *
+   * @param serviceName the name of the service instance
+   */
+  public AfterCommitMetrics getAfterCommitMetrics(String serviceName) {
+    return afterCommitDispatcher.getMetrics(serviceName);
   }
 
   /**
@@ -493,13 +496,16 @@ public final class ServiceRuntime implements AutoCloseable {
    * @throws InterruptedException if an interrupt was requested
    */
   public void shutdown() throws InterruptedException {
-    synchronized (lock) {
+    synchronized (lifecycleLock) {
       try {
         logger.info("Shutting down the runtime");
 
         // Stop the server
         stopServer();
 
+        // Stop the dispatch of the after commit events
+        afterCommitDispatcher.shutdown();
+
         // Clear the services
         clearServices();
 
@@ -534,8 +540,7 @@ public final class ServiceRuntime implements AutoCloseable {
   }
 
   private void clearServices() {
-    services.clear();
-    servicesById.clear();
+    services = ActiveServices.EMPTY;
   }
 
   private void unloadArtifacts() {
@@ -554,20 +559,16 @@ public final class ServiceRuntime implements AutoCloseable {
     shutdown();
   }
 
+  /** Returns the service with the given id; checks that it is started in this runtime. */
   private ServiceWrapper getServiceById(Integer serviceId) {
-    checkActiveService(serviceId);
-    return servicesById.get(serviceId);
-  }
-
-  /** Checks that the service with the given id is started in this runtime. */
-  private void checkActiveService(Integer serviceId) {
-    checkArgument(servicesById.containsKey(serviceId),
-        "No service with id=%s in the Java runtime", serviceId);
+    ServiceWrapper service = services.byId.get(serviceId);
+    checkArgument(service != null, "No service with id=%s in the Java runtime", serviceId);
+    return service;
   }
 
   /** Checks that the service with the given id is not active in this runtime. */
   private void checkStoppedService(Integer serviceId) {
-    ServiceWrapper activeService = servicesById.get(serviceId);
+    ServiceWrapper activeService = services.byId.get(serviceId);
     checkArgument(activeService == null,
         "Service with id=%s should be stopped, but actually active. "
             + "Found active service instance: %s", serviceId, activeService);
@@ -575,6 +576,53 @@ public final class ServiceRuntime implements AutoCloseable {
 
   @VisibleForTesting
   Optional<ServiceWrapper> findService(String name) {
-    return Optional.ofNullable(services.get(name));
+    return Optional.ofNullable(services.byName.get(name));
+  }
+
+  /**
+   * An immutable registry of the active services.
+   */
+  private static final class ActiveServices {
+
+    static final ActiveServices EMPTY = new ActiveServices(ImmutableSortedMap.of(),
+        ImmutableMap.of());
+
+    /**
+     * The active services indexed by their name. It is stored in a sorted map that offers
+     * the same iteration order on all nodes with the same services, which is useful
+     * for logging purposes.
+     */
+    final ImmutableSortedMap<String, ServiceWrapper> byName;
+    /**
+     * Same active services, indexed by their numeric identifier.
+     * @see ServiceInstanceSpec#getId()
+     */
+    final ImmutableMap<Integer, ServiceWrapper> byId;
+
+    private ActiveServices(ImmutableSortedMap<String, ServiceWrapper> byName,
+        ImmutableMap<Integer, ServiceWrapper> byId) {
+      this.byName = byName;
+      this.byId = byId;
+    }
+
+    /** Returns a registry that also includes the given service. */
+    ActiveServices with(ServiceWrapper service) {
+      SortedMap<String, ServiceWrapper> newByName = new TreeMap<>(byName);
+      newByName.put(service.getName(), service);
+      Map<Integer, ServiceWrapper> newById = new HashMap<>(byId);
+      newById.put(service.getId(), service);
+      return new ActiveServices(ImmutableSortedMap.copyOfSorted(newByName),
+          ImmutableMap.copyOf(newById));
+    }
+
+    /** Returns a registry that does not include the given service. */
+    ActiveServices without(ServiceWrapper service) {
+      SortedMap<String, ServiceWrapper> newByName = new TreeMap<>(byName);
+      newByName.remove(service.getName());
+      Map<Integer, ServiceWrapper> newById = new HashMap<>(byId);
+      newById.remove(service.getId());
+      return new ActiveServices(ImmutableSortedMap.copyOfSorted(newByName),
+          ImmutableMap.copyOf(newById));
+    }
   }
 }
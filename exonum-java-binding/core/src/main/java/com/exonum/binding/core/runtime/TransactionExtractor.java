@@ -21,6 +21,7 @@ import static java.util.stream.Collectors.toMap;
 
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
+import com.exonum.binding.core.runtime.invocation.Invocation;
 import com.exonum.binding.core.transaction.Transaction;
 import com.exonum.binding.core.transaction.TransactionContext;
 import com.google.common.annotations.VisibleForTesting;
@@ -114,7 +115,8 @@ final class TransactionExtractor {
       throw new IllegalArgumentException(
           String.format("Couldn't access method %s", method.getName()), e);
     }
-    return new TransactionMethod(methodHandle, argumentsSerializer);
+    Invocation invocation = TransactionInvocations.forMethod(lookup.lookupClass(), methodHandle);
+    return new TransactionMethod(invocation, argumentsSerializer);
   }
 
   /**
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.core.runtime;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import com.exonum.binding.core.runtime.invocation.Invocation;
+import com.exonum.binding.core.transaction.TransactionContext;
+import com.google.common.annotations.VisibleForTesting;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Creates the {@linkplain Invocation invocations} of transaction methods.
+ *
+ * <p>The invocations are generated with {@link LambdaMetafactory}: each is an instance
+ * of a class that calls the transaction method directly, so that the JIT compiler can inline
+ * the method into the invocation. An invocation of a non-constant method handle,
+ * in contrast, cannot be inlined.
+ *
+ * <p>The generation requires a lookup with private access in the service class, which
+ * is only available on Java 9+; and, on the latest Java versions, a service class defined
+ * by the same class loader as the framework. If it is not possible, the invocation
+ * uses the method handle.
+ */
+final class TransactionInvocations {
+
+  private static final Logger logger = LogManager.getLogger(TransactionInvocations.class);
+
+  private static final String INVOCATION_METHOD_NAME = "invoke";
+  private static final MethodType INVOCATION_FACTORY_TYPE = methodType(Invocation.class);
+  private static final MethodType INVOCATION_TYPE = methodType(void.class, Object.class,
+      Object.class, TransactionContext.class);
+
+  /**
+   * {@code MethodHandles#privateLookupIn}, available since Java 9.
+   */
+  @Nullable
+  private static final Method PRIVATE_LOOKUP_IN = findPrivateLookupIn();
+
+  /**
+   * Creates an invocation of the given transaction method.
+   *
+   * @param serviceClass the service class declaring or inheriting the transaction method
+   * @param transactionMethod a direct method handle of the transaction method
+   */
+  static Invocation forMethod(Class<?> serviceClass, MethodHandle transactionMethod) {
+    try {
+      return generateInvocation(serviceClass, transactionMethod);
+    } catch (Throwable e) {
+      logger.warn("Cannot generate the invocation of {} in {}, will use the method handle: {}",
+          transactionMethod, serviceClass, e);
+      return forMethodHandle(transactionMethod);
+    }
+  }
+
+  @VisibleForTesting
+  static Invocation generateInvocation(Class<?> serviceClass, MethodHandle transactionMethod)
+      throws Throwable {
+    Lookup caller = lookupIn(serviceClass);
+    // The transaction methods may return a value, which is ignored
+    MethodType instantiatedType = transactionMethod.type()
+        .changeReturnType(void.class);
+    CallSite callSite = LambdaMetafactory.metafactory(caller, INVOCATION_METHOD_NAME,
+        INVOCATION_FACTORY_TYPE, INVOCATION_TYPE, transactionMethod, instantiatedType);
+    return (Invocation) callSite.getTarget().invokeExact();
+  }
+
+  /**
+   * Creates an invocation of the given method handle.
+   */
+  @VisibleForTesting
+  static Invocation forMethodHandle(MethodHandle transactionMethod) {
+    return (service, arguments, context) ->
+        transactionMethod.invoke(service, arguments, context);
+  }
+
+  private static Lookup lookupIn(Class<?> serviceClass) throws ReflectiveOperationException {
+    if (PRIVATE_LOOKUP_IN == null) {
+      return MethodHandles.lookup().in(serviceClass);
+    }
+    return (Lookup) PRIVATE_LOOKUP_IN.invoke(null, serviceClass, MethodHandles.lookup());
+  }
+
+  @Nullable
+  private static Method findPrivateLookupIn() {
+    try {
+      return MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+    } catch (NoSuchMethodException e) {
+      // Java 8
+      return null;
+    }
+  }
+
+  private TransactionInvocations() {}
+}
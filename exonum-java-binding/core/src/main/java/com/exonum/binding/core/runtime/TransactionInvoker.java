@@ -21,21 +21,52 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.exonum.binding.core.service.Service;
 import com.exonum.binding.core.transaction.ExecutionException;
 import com.exonum.binding.core.transaction.TransactionContext;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 /**
- * Stores ids of transaction methods and their method handles of a corresponding service.
+ * Stores ids of transaction methods and their invocations of a corresponding service.
+ *
+ * <p>The methods with small non-negative ids, which are typical, are stored in an array
+ * indexed by the transaction id, so that the dispatch does not need to box the id
+ * and look it up in a map.
  */
 final class TransactionInvoker {
+
+  /**
+   * The maximum size of the array of transaction methods indexed by their ids.
+   * The methods with larger ids are looked up in a map.
+   */
+  @VisibleForTesting
+  static final int MAX_DENSE_METHODS = 1024;
+
   private final Service service;
-  private final Map<Integer, TransactionMethod> transactionMethods;
+  private final TransactionMethod[] methodsById;
+  private final Map<Integer, TransactionMethod> sparseMethods;
 
   @Inject
   TransactionInvoker(Service service) {
     this.service = service;
-    this.transactionMethods =
+    Map<Integer, TransactionMethod> transactionMethods =
         TransactionExtractor.extractTransactionMethods(service.getClass());
+    int denseSize = transactionMethods.keySet().stream()
+        .filter(id -> 0 <= id && id < MAX_DENSE_METHODS)
+        .mapToInt(id -> id + 1)
+        .max()
+        .orElse(0);
+    this.methodsById = new TransactionMethod[denseSize];
+    ImmutableMap.Builder<Integer, TransactionMethod> sparseMethods = ImmutableMap.builder();
+    transactionMethods.forEach((id, method) -> {
+      if (0 <= id && id < denseSize) {
+        methodsById[id] = method;
+      } else {
+        sparseMethods.put(id, method);
+      }
+    });
+    this.sparseMethods = sparseMethods.build();
   }
 
   /**
@@ -53,9 +84,17 @@ final class TransactionInvoker {
    *     the transaction method, it is wrapped as cause
    */
   void invokeTransaction(int transactionId, byte[] arguments, TransactionContext context) {
-    checkArgument(transactionMethods.containsKey(transactionId),
+    TransactionMethod transactionMethod = findMethod(transactionId);
+    checkArgument(transactionMethod != null,
         "No method with transaction id (%s)", transactionId);
-    TransactionMethod transactionMethod = transactionMethods.get(transactionId);
     transactionMethod.invoke(service, arguments, context);
   }
+
+  @Nullable
+  private TransactionMethod findMethod(int transactionId) {
+    if (0 <= transactionId && transactionId < methodsById.length) {
+      return methodsById[transactionId];
+    }
+    return sparseMethods.get(transactionId);
+  }
 }
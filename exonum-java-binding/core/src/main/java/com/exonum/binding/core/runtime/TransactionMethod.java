@@ -17,10 +17,10 @@
 package com.exonum.binding.core.runtime;
 
 import com.exonum.binding.common.serialization.Serializer;
+import com.exonum.binding.core.runtime.invocation.Invocation;
 import com.exonum.binding.core.service.Service;
 import com.exonum.binding.core.transaction.ExecutionException;
 import com.exonum.binding.core.transaction.TransactionContext;
-import java.lang.invoke.MethodHandle;
 import java.lang.invoke.WrongMethodTypeException;
 
 /**
@@ -28,21 +28,22 @@ import java.lang.invoke.WrongMethodTypeException;
  * conversion, and invocation of a transaction method.
  */
 class TransactionMethod {
-  private final MethodHandle methodHandle;
+  private final Invocation invocation;
   private final Serializer<?> argumentsSerializer;
 
-  TransactionMethod(MethodHandle methodHandle, Serializer<?> argumentsSerializer) {
-    this.methodHandle = methodHandle;
+  TransactionMethod(Invocation invocation, Serializer<?> argumentsSerializer) {
+    this.invocation = invocation;
     this.argumentsSerializer = argumentsSerializer;
   }
 
   void invoke(Service targetService, byte[] arguments, TransactionContext context) {
     Object argumentsObject = serializeArguments(arguments);
     try {
-      methodHandle.invoke(targetService, argumentsObject, context);
+      invocation.invoke(targetService, argumentsObject, context);
     } catch (WrongMethodTypeException | ClassCastException invocationException) {
       // Invocation-specific exceptions are thrown as is — they are not thrown
-      // from the _transaction method_, but from framework code (see mh#invoke spec).
+      // from the _transaction method_, but from framework code (see mh#invoke spec
+      // and LambdaMetafactory).
       throw invocationException;
     } catch (ExecutionException serviceException) {
       // 'Service-defined' transaction exceptions
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime.invocation;
+
+import com.exonum.binding.core.transaction.TransactionContext;
+
+/**
+ * An invocation of a transaction method with the given service, arguments and context.
+ *
+ * <p>The framework generates the implementations of this interface in the packages
+ * of the services, which are defined by the service class loaders. Hence the interface
+ * must be public. The service class loaders resolve it through the application class loader,
+ * as the service artifacts must not include the copies of the framework classes
+ * (see {@code ClassLoadingScopeChecker}).
+ *
+ * <p>It is not supposed to be used by the services.
+ */
+@FunctionalInterface
+public interface Invocation {
+
+  /**
+   * Invokes the transaction method.
+   *
+   * @param service the service declaring the transaction method
+   * @param arguments the deserialized arguments of the transaction
+   * @param context the transaction execution context
+   * @throws Throwable any exception thrown by the transaction method
+   */
+  void invoke(Object service, Object arguments, TransactionContext context) throws Throwable;
+}
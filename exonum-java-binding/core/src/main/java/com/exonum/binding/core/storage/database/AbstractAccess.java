@@ -17,24 +17,30 @@
 package com.exonum.binding.core.storage.database;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.core.proxy.AbstractNativeProxy;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.storage.database.OpenIndexRegistry.OpenIndex;
 import com.exonum.binding.core.storage.indices.EntryIndex;
 import com.exonum.binding.core.storage.indices.EntryIndexProxy;
 import com.exonum.binding.core.storage.indices.IndexAddress;
 import com.exonum.binding.core.storage.indices.KeySetIndexProxy;
 import com.exonum.binding.core.storage.indices.ListIndexProxy;
+import com.exonum.binding.core.storage.indices.LongListIndexProxy;
+import com.exonum.binding.core.storage.indices.LongMapIndexProxy;
 import com.exonum.binding.core.storage.indices.MapIndexProxy;
 import com.exonum.binding.core.storage.indices.ProofEntryIndex;
 import com.exonum.binding.core.storage.indices.ProofEntryIndexProxy;
 import com.exonum.binding.core.storage.indices.ProofListIndexProxy;
 import com.exonum.binding.core.storage.indices.ProofMapIndexProxy;
 import com.exonum.binding.core.storage.indices.StorageIndex;
+import com.exonum.binding.core.storage.indices.ValueCache;
 import com.exonum.binding.core.storage.indices.ValueSetIndexProxy;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.OptionalLong;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
@@ -55,7 +61,21 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
 
   private static final long UNKNOWN_INDEX_ID = 0L;
   private final OpenIndexRegistry indexRegistry;
+  /**
+   * The indexes open in this access by their addresses. Allows to find an open index without
+   * resolving its address in the native code. Unlike the registry, which may be shared
+   * with accesses resolving the addresses differently, it is local to this access.
+   * As the registry, it keeps the scope of each index, which might be closed before
+   * this access (e.g., if the index is created with an access in a nested scope).
+   */
+  private final Map<IndexAddress, OpenIndex> indexesByAddress = new HashMap<>();
+  /**
+   * The {@linkplain OpenIndexRegistry#getGeneration() generation} of the registry
+   * the indexes by address correspond to.
+   */
+  private int indexesByAddressGeneration;
   private final boolean canModify;
+  @Nullable private ValueCache valueCache;
 
   /**
    * Create a new access proxy.
@@ -94,6 +114,12 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
         () -> ListIndexProxy.newInstance(address, this, serializer));
   }
 
+  @Override
+  public LongListIndexProxy getLongList(IndexAddress address) {
+    return findOrCreate(address, LongListIndexProxy.class,
+        () -> LongListIndexProxy.newInstance(address, this));
+  }
+
   @SuppressWarnings("unchecked") // The compiler is correct: the cache is not type-safe: ECR-3387
   @Override
   public <K, V> ProofMapIndexProxy<K, V> getProofMap(IndexAddress address,
@@ -120,6 +146,14 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
         () -> MapIndexProxy.newInstance(address, this, keySerializer, valueSerializer));
   }
 
+  @SuppressWarnings("unchecked") // The compiler is correct: the cache is not type-safe: ECR-3387
+  @Override
+  public <K> LongMapIndexProxy<K> getLongMap(IndexAddress address,
+      Serializer<K> keySerializer) {
+    return findOrCreate(address, LongMapIndexProxy.class,
+        () -> LongMapIndexProxy.newInstance(address, this, keySerializer));
+  }
+
   @SuppressWarnings("unchecked") // The compiler is correct: the cache is not type-safe: ECR-3387
   @Override
   public <E> KeySetIndexProxy<E> getKeySet(IndexAddress address, Serializer<E> serializer) {
@@ -150,29 +184,63 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
 
   private <T extends StorageIndex> T findOrCreate(IndexAddress address, Class<T> indexType,
       Supplier<T> indexSupplier) {
-    return findOpenIndex(address, indexType)
-        .orElseGet(() -> createIndex(indexSupplier));
+    // Look up the index by its address first, which does not require any native calls
+    StorageIndex indexWithAddress = findIndexByAddress(address);
+    if (indexWithAddress != null) {
+      return checkedCast(indexWithAddress, indexType);
+    }
+    OpenIndex openIndex = findOpenIndex(address);
+    if (openIndex != null) {
+      T index = checkedCast(openIndex.getIndex(), indexType);
+      indexesByAddress.put(address, openIndex);
+      return index;
+    }
+    return createIndex(address, indexSupplier);
   }
 
   /**
-   * Finds an open index by the given address and checks it has matching type.
+   * Finds an index open in this access by its address. The indexes from closed scopes
+   * are never returned.
+   *
+   * @return an index with the given address; or {@code null} if it is not found
+   */
+  @Nullable
+  private StorageIndex findIndexByAddress(IndexAddress address) {
+    int registryGeneration = indexRegistry.getGeneration();
+    if (registryGeneration != indexesByAddressGeneration) {
+      // The registry was cleared, possibly, through another access sharing it,
+      // hence the indexes found by address are no longer valid
+      indexesByAddress.clear();
+      indexesByAddressGeneration = registryGeneration;
+    }
+    OpenIndex openIndex = indexesByAddress.get(address);
+    if (openIndex == null) {
+      return null;
+    }
+    if (openIndex.isClosed()) {
+      // The scope of the index is closed: forget it
+      indexesByAddress.remove(address);
+      return null;
+    }
+    return openIndex.getIndex();
+  }
+
+  /**
+   * Finds an open index by the given address in the registry.
    *
    * @param address the index address
-   * @param indexType the requested index type
-   * @return an index with the given address; or {@code Optional.empty()} if no index
+   * @return an index with the given address; or {@code null} if no index
    *     with such address was open in this access
-   * @throws IllegalArgumentException if the open index has a different type from the requested
    */
-  private <T extends StorageIndex> Optional<T> findOpenIndex(IndexAddress address,
-      Class<T> indexType) {
+  @Nullable
+  private OpenIndex findOpenIndex(IndexAddress address) {
     OptionalLong indexId = findIndexId(address);
     if (indexId.isPresent()) {
       // An index with the given address exists in the storage
-      return indexRegistry.findIndex(indexId.getAsLong())
-          .map(index -> checkedCast(index, indexType));
+      return indexRegistry.findOpenIndex(indexId.getAsLong());
     } else {
       // The index does not exist; hence cannot be in the cache
-      return Optional.empty();
+      return null;
     }
   }
 
@@ -192,17 +260,24 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
     return requestedIndexType.cast(cachedIndex);
   }
 
-  private <T extends StorageIndex> T createIndex(Supplier<T> indexSupplier) {
+  private <T extends StorageIndex> T createIndex(IndexAddress address,
+      Supplier<T> indexSupplier) {
     // Create an index
     T newIndex = indexSupplier.get();
     // Find the id of the index (possibly, newly created)
-    OptionalLong indexId = findIndexId(newIndex.getAddress());
+    OptionalLong indexId = findIndexId(address);
     // Register the open index in the pool, if it exists.
     // It does not "exist" until it is created with a Fork-based Access,
     // i.e., an empty index created with the Snapshot will not have an id.
-    // We can, of course, cache them by address then, but that is not
-    // required for correctness and may be done later as an optimization.
-    indexId.ifPresent(id -> registerIndex(id, newIndex));
+    // Such indexes are only cached by address, which is safe as long
+    // as this access cannot create them.
+    if (indexId.isPresent()) {
+      OpenIndex openIndex = indexRegistry.registerIndex(indexId.getAsLong(), newIndex,
+          getCleaner());
+      indexesByAddress.put(address, openIndex);
+    } else if (!canModify) {
+      indexesByAddress.put(address, new OpenIndex(newIndex, getCleaner()));
+    }
     return newIndex;
   }
 
@@ -224,13 +299,6 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
     return nativeFindIndexId(getNativeHandle(), name, idInGroup);
   }
 
-  /**
-   * Registers a new index created with this access.
-   */
-  private void registerIndex(Long id, StorageIndex index) {
-    indexRegistry.registerIndex(id, index);
-  }
-
   /**
    * Clears the registry of open indexes.
    *
@@ -241,6 +309,52 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
     indexRegistry.clear();
   }
 
+  /**
+   * Enables the cache of the values read by map and entry indexes created with this access.
+   * The cache keeps the deserialized values, so that repeated reads of the same keys
+   * do not access the database.
+   *
+   * <p>The cache must only be enabled if the indexes of this access are modified
+   * exclusively through this access, and their values are immutable. The cache is not
+   * shared with other accesses, including the prefixed accesses based on this one.
+   * See {@link ValueCache} for details.
+   *
+   * <p><strong>Limitation:</strong> the services access their data through {@link Prefixed}
+   * accesses (e.g., {@code BlockchainData#getExecutingServiceData}),
+   * which do not use the cache enabled in the fork they are based on. The cache must not
+   * be enabled in such a prefixed access itself, because it is not invalidated
+   * on the {@linkplain Fork#rollback() rollback} of the base fork. Hence, the cache
+   * is only useful to the code working with a fork directly.
+   *
+   * @param maxSize the maximum number of values to keep in the cache
+   * @return the enabled cache, which allows to obtain its statistics
+   * @throws IllegalStateException if the cache is already enabled
+   * @throws IllegalArgumentException if maxSize is not positive
+   */
+  public ValueCache enableValueCache(int maxSize) {
+    checkState(valueCache == null, "The value cache is already enabled in %s", this);
+    valueCache = ValueCache.newInstance(maxSize);
+    return valueCache;
+  }
+
+  /**
+   * Returns the cache of the values read by indexes, if it is
+   * {@linkplain #enableValueCache(int) enabled} in this access; or {@code null} otherwise.
+   */
+  @Nullable
+  public ValueCache getValueCache() {
+    return valueCache;
+  }
+
+  /**
+   * Removes all values from the value cache, if it is enabled.
+   */
+  void invalidateValueCache() {
+    if (valueCache != null) {
+      valueCache.invalidateAll();
+    }
+  }
+
   @Override
   public boolean canModify() {
     return canModify;
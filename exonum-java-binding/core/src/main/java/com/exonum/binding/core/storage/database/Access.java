@@ -23,6 +23,8 @@ import com.exonum.binding.core.storage.indices.EntryIndex;
 import com.exonum.binding.core.storage.indices.IndexAddress;
 import com.exonum.binding.core.storage.indices.KeySetIndexProxy;
 import com.exonum.binding.core.storage.indices.ListIndexProxy;
+import com.exonum.binding.core.storage.indices.LongListIndexProxy;
+import com.exonum.binding.core.storage.indices.LongMapIndexProxy;
 import com.exonum.binding.core.storage.indices.MapIndexProxy;
 import com.exonum.binding.core.storage.indices.ProofEntryIndex;
 import com.exonum.binding.core.storage.indices.ProofListIndexProxy;
@@ -87,6 +89,16 @@ public interface Access {
    */
   <E> ListIndexProxy<E> getList(IndexAddress address, Serializer<E> serializer);
 
+  /**
+   * Creates a new list of {@code long} values. It is stored as a ListIndex
+   * of {@linkplain StandardSerializers#fixed64() fixed64} values.
+   *
+   * @param address an index address in the MerkleDB
+   * @throws IllegalStateException if this access is not valid
+   * @see #getList(IndexAddress, Serializer)
+   */
+  LongListIndexProxy getLongList(IndexAddress address);
+
   /**
    * Creates a new ProofMapIndex.
    *
@@ -133,6 +145,19 @@ public interface Access {
   <K, V> MapIndexProxy<K, V> getMap(IndexAddress address, Serializer<K> keySerializer,
       Serializer<V> valueSerializer);
 
+  /**
+   * Creates a new map of keys to {@code long} values. It is stored as a MapIndex
+   * with {@linkplain StandardSerializers#fixed64() fixed64} values.
+   *
+   * @param address an index address in the MerkleDB
+   * @param keySerializer a serializer of keys
+   * @param <K> the type of keys in the map
+   * @throws IllegalStateException if this access is not valid
+   * @see #getMap(IndexAddress, Serializer, Serializer)
+   * @see StandardSerializers
+   */
+  <K> LongMapIndexProxy<K> getLongMap(IndexAddress address, Serializer<K> keySerializer);
+
   /**
    * Creates a new KeySet.
    *
@@ -23,6 +23,8 @@ import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.exonum.binding.core.proxy.ProxyDestructor;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A fork is a database access object, allowing both read and write operations.
@@ -35,6 +37,10 @@ import com.exonum.binding.core.proxy.ProxyDestructor;
  * the database state.
  *
  * <p>The Fork does not modify the index name upon <em>address resolution</em>.
+ *
+ * <p>The fork supports an optional {@linkplain #enableWriteBuffering() write buffering} mode,
+ * in which the writes to map and list indexes are collected in Java and passed
+ * to the native fork in batches.
  */
 public final class Fork extends AbstractAccess {
 
@@ -56,6 +62,11 @@ public final class Fork extends AbstractAccess {
    * through this cleaner, any dependent objects.
    */
   private Cleaner indexCleaner;
+  /**
+   * The operations writing the buffered changes of the indexes to this fork.
+   */
+  private final List<Runnable> pendingWrites = new ArrayList<>();
+  private boolean writeBuffering;
 
   /**
    * Creates a new owning Fork proxy.
@@ -108,12 +119,69 @@ public final class Fork extends AbstractAccess {
     return indexCleaner;
   }
 
+  /**
+   * Enables the write buffering mode, in which the writes to map and list indexes created
+   * with this fork are collected in Java-side buffers instead of being performed immediately.
+   * Repeated writes of the same map key are coalesced into a single write.
+   *
+   * <p>The reads of the map keys that have buffered writes are served from the buffer.
+   * The buffered writes to an index are passed to the native fork in a single batch
+   * before the operations that need the whole index, e.g., iteration, proofs or the list size;
+   * and for all indexes — on {@link #flushWrites()},
+   * {@link #createCheckpoint()} and {@link #intoPatch()}. The owner of the fork that
+   * enables this mode must flush the writes before the native fork is used by other
+   * code, e.g., before returning it to the native code.
+   *
+   * <p>The reads from the indexes created with other accesses based on the same
+   * native fork do not observe the buffered writes. The indexes created with such accesses
+   * do not buffer their writes.
+   *
+   * <p><strong>Limitation:</strong> the services access their data through {@link Prefixed}
+   * accesses (e.g., {@code BlockchainData#getExecutingServiceData}),
+   * which do not buffer the writes. Hence, the write buffering is only useful
+   * to the code working with a fork directly.
+   */
+  public void enableWriteBuffering() {
+    writeBuffering = true;
+  }
+
+  /**
+   * Returns true if the {@linkplain #enableWriteBuffering() write buffering} is enabled
+   * in this fork.
+   */
+  public boolean isWriteBufferingEnabled() {
+    return writeBuffering;
+  }
+
+  /**
+   * Registers an operation writing the buffered changes of some index to this fork.
+   * The operation is performed on each {@linkplain #flushWrites() flush} till
+   * the index is closed, and must have no effect if there are no buffered changes.
+   *
+   * <p>This method is supposed to be used by the indexes supporting
+   * the {@linkplain #enableWriteBuffering() write buffering}.
+   */
+  public void registerPendingWrites(Runnable flushOperation) {
+    checkNotNull(flushOperation);
+    pendingWrites.add(flushOperation);
+  }
+
+  /**
+   * Writes the buffered changes of all indexes created with this fork to the native fork.
+   * Has no effect if the write buffering is not enabled.
+   */
+  public void flushWrites() {
+    for (Runnable flushOperation : pendingWrites) {
+      flushOperation.run();
+    }
+  }
+
   /**
    * Converts this fork into a patch that can be merged into the database.
-   * This method will close any resources registered with {@linkplain #getCleaner() its cleaner}
-   * (typically, indexes, iterators), convert this fork into a patch, invalidate this fork,
-   * and return a handle to the patch. The caller is responsible for properly destroying
-   * the returned patch.
+   * This method will write any buffered changes of the indexes, close any resources registered
+   * with {@linkplain #getCleaner() its cleaner} (typically, indexes, iterators), convert this
+   * fork into a patch, invalidate this fork, and return a handle to the patch. The caller
+   * is responsible for properly destroying the returned patch.
    *
    * <p>Subsequent operations with the fork are prohibited.
    *
@@ -125,6 +193,10 @@ public final class Fork extends AbstractAccess {
     checkState(nativeCanConvertIntoPatch(getNativeHandle()),
         "This fork cannot be converted into patch");
 
+    // Write the buffered changes before the indexes are closed
+    flushWrites();
+    pendingWrites.clear();
+
     // Close all resources depending on this fork
     try {
       indexCleaner.close();
@@ -170,6 +242,7 @@ public final class Fork extends AbstractAccess {
     checkState(nativeCanRollback(getNativeHandle()),
         "This fork does not support checkpoints");
 
+    flushWrites();
     closeDependentObjects();
 
     nativeCreateCheckpoint(getNativeHandle());
@@ -180,7 +253,9 @@ public final class Fork extends AbstractAccess {
    * changes made by this fork. Rollback affects only changes made with this particular
    * Fork instance.
    *
-   * <p>Rollback will invalidate all collections that were created with this fork.
+   * <p>Rollback will invalidate all collections that were created with this fork, discard
+   * their buffered writes, and clear the {@linkplain #enableValueCache(int) value cache},
+   * if it is enabled.
    *
    * <p>This operation is not intended to be used by services.
    */
@@ -189,6 +264,7 @@ public final class Fork extends AbstractAccess {
         "This fork does not support rollbacks");
 
     closeDependentObjects();
+    invalidateValueCache();
 
     nativeRollback(getNativeHandle());
   }
@@ -196,6 +272,8 @@ public final class Fork extends AbstractAccess {
   private void closeDependentObjects() {
     // Clear the registry of opened indexes as they will be closed
     clearOpenIndexes();
+    // Forget the buffered writes of the indexes, which are either flushed or discarded
+    pendingWrites.clear();
 
     // Close the active collections (and any other dependent objects),
     // as rollback requires their invalidation
@@ -216,10 +294,8 @@ public final class Fork extends AbstractAccess {
   }
 
   private void replaceIndexCleaner() {
-    // Create a new cleaner for collections
-    indexCleaner = new Cleaner();
-    // Register in the parent cleaner
-    forkCleaner.add(indexCleaner::close);
+    // Create a new cleaner for collections, nested in the parent cleaner
+    indexCleaner = forkCleaner.newNested();
   }
 
   /**
@@ -18,10 +18,12 @@ package com.exonum.binding.core.storage.database;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.storage.indices.StorageIndex;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import javax.annotation.Nullable;
 
 /**
  * A registry of open {@linkplain com.exonum.binding.core.storage.indices indexes}. Allows
@@ -29,23 +31,102 @@ import java.util.Optional;
  * required to overcome the MerkleDB limitation which prevents creating several indexes
  * with the same address (name + prefix) using the same Fork.
  *
+ * <p>The registry keeps the scope (cleaner) of each index, so that the indexes
+ * registered in a {@linkplain Cleaner#newNested() nested} scope are not returned
+ * once it is closed.
+ *
  * <p>See {@code IndexMetadata} and {@code Access.get_index_metadata} in Rust.
  */
 class OpenIndexRegistry {
 
-  private final Map<Long, StorageIndex> indexes = new HashMap<>();
+  private final Map<Long, OpenIndex> indexes = new HashMap<>();
+  private int generation;
 
-  void registerIndex(Long id, StorageIndex index) {
-    Object present = indexes.putIfAbsent(id, index);
+  /**
+   * Registers an open index.
+   *
+   * @param id the id of the index
+   * @param index the index
+   * @param scope the cleaner in which the index is registered; the index is forgotten
+   *     once it is closed
+   * @return the registered open index
+   * @throws IllegalArgumentException if an index with the same id is already registered
+   *     in an open scope
+   */
+  OpenIndex registerIndex(Long id, StorageIndex index, Cleaner scope) {
+    OpenIndex present = findOpenIndex(id);
     checkArgument(present == null, "Cannot register index (%s): the id (%s) is already "
         + "associated with index (%s): ", index, id, present);
+    OpenIndex openIndex = new OpenIndex(index, scope);
+    indexes.put(id, openIndex);
+    return openIndex;
   }
 
+  /**
+   * Finds an open index by its id. The indexes registered in closed scopes
+   * (e.g., {@linkplain Cleaner#newNested() nested} cleaners) are never returned.
+   */
   Optional<StorageIndex> findIndex(Long id) {
-    return Optional.ofNullable(indexes.get(id));
+    return Optional.ofNullable(findOpenIndex(id))
+        .map(OpenIndex::getIndex);
+  }
+
+  /**
+   * Finds an open index by its id, with its scope. The indexes registered in closed scopes
+   * are never returned.
+   *
+   * @return the open index; or {@code null} if there is none
+   */
+  @Nullable
+  OpenIndex findOpenIndex(Long id) {
+    OpenIndex openIndex = indexes.get(id);
+    if (openIndex != null && openIndex.isClosed()) {
+      // The index is closed: forget it
+      indexes.remove(id);
+      return null;
+    }
+    return openIndex;
+  }
+
+  /**
+   * Returns the number of times this registry was cleared. Allows the accesses sharing
+   * this registry to detect when the indexes cached elsewhere became invalid.
+   */
+  int getGeneration() {
+    return generation;
   }
 
   void clear() {
     indexes.clear();
+    generation++;
+  }
+
+  /**
+   * An open index and the scope in which it is registered.
+   */
+  static final class OpenIndex {
+    private final StorageIndex index;
+    private final Cleaner scope;
+
+    OpenIndex(StorageIndex index, Cleaner scope) {
+      this.index = index;
+      this.scope = scope;
+    }
+
+    StorageIndex getIndex() {
+      return index;
+    }
+
+    /**
+     * Returns true if the scope of the index is closed, i.e., the index is destroyed.
+     */
+    boolean isClosed() {
+      return scope.isClosed();
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(index);
+    }
   }
 }
@@ -58,9 +58,21 @@ public final class Prefixed extends AbstractAccess {
    * @param baseAccess the base database access
    */
   @VisibleForTesting static Prefixed fromAccess(String namespace, AbstractAccess baseAccess) {
-    // todo: If it is not used beyond tests, consider removing the _registry sharing_,
-    //   since that's the only method that uses (and needs) shared index registry.
-    Cleaner cleaner = baseAccess.getCleaner();
+    return fromAccess(namespace, baseAccess, baseAccess.getCleaner());
+  }
+
+  /**
+   * Creates a new Prefixed access given the base database access and the namespace,
+   * in the given scope. The access uses the registry of open indexes of the base access.
+   *
+   * @param namespace the namespace to use
+   * @param baseAccess the base database access
+   * @param cleaner a cleaner to destroy the access and any dependent objects;
+   *     must not outlive the base access
+   */
+  @VisibleForTesting static Prefixed fromAccess(String namespace, AbstractAccess baseAccess,
+      Cleaner cleaner) {
+    checkNotNull(cleaner);
     OpenIndexRegistry registry = baseAccess.getOpenIndexes();
     long handle = nativeCreate(namespace, baseAccess.getAccessNativeHandle());
     return fromHandleInternal(handle, cleaner, registry);
@@ -86,6 +98,26 @@ public final class Prefixed extends AbstractAccess {
     return fromHandleInternal(prefixedNativeHandle, cleaner, registry);
   }
 
+  /**
+   * Creates a new Prefixed access from the native handle of an access based on the given
+   * base access. The new access uses the registry of open indexes of the base access,
+   * so that the same index is not open twice with both accesses, and the indexes
+   * created in a closed scope (e.g., a {@linkplain Cleaner#newNested() nested} cleaner)
+   * are not returned by either. The destructor will be registered in the given cleaner.
+   *
+   * @param prefixedNativeHandle a handle to the native Prefixed Access, based on
+   *     the native access of the base access
+   * @param cleaner a cleaner to destroy the native peer and any dependent objects;
+   *     must not outlive the base access
+   * @param baseAccess the base access of the Prefixed Access
+   */
+  public static Prefixed fromHandle(long prefixedNativeHandle, Cleaner cleaner,
+      AbstractAccess baseAccess) {
+    checkNotNull(cleaner);
+    OpenIndexRegistry registry = baseAccess.getOpenIndexes();
+    return fromHandleInternal(prefixedNativeHandle, cleaner, registry);
+  }
+
   /**
    * Expects validated parameters so that it does not throw and registers the destructor
    * properly, which is *required* to prevent leaks.
@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.exonum.binding.core.proxy.ProxyDestructor;
+import com.exonum.binding.core.util.LibraryLoader;
 
 /**
  * A snapshot is a read-only, immutable database access.
@@ -39,6 +40,10 @@ import com.exonum.binding.core.proxy.ProxyDestructor;
  */
 public final class Snapshot extends AbstractAccess {
 
+  static {
+    LibraryLoader.load();
+  }
+
   private final Cleaner cleaner;
 
   /**
@@ -81,8 +86,29 @@ public final class Snapshot extends AbstractAccess {
     this.cleaner = cleaner;
   }
 
+  /**
+   * Creates a new snapshot proxy of the same database state, backed by a new native
+   * access object. The native access objects of a snapshot and its copies share only
+   * the immutable native snapshot, which is thread-safe. Therefore, unlike several proxies
+   * of the same native access object, the copies can be used in different threads concurrently.
+   * This method must be invoked in the thread using this snapshot.
+   *
+   * <p>The copy borrows the native snapshot of this proxy; hence, the cleaner of the copy
+   * must be closed before this snapshot is destroyed.
+   *
+   * @param cleaner a cleaner to destroy the copy and any dependent objects
+   * @throws IllegalStateException if this snapshot is not valid
+   */
+  public Snapshot newBorrowedCopy(Cleaner cleaner) {
+    checkNotNull(cleaner, "cleaner");
+    long copyHandle = nativeNewBorrowedCopy(getAccessNativeHandle());
+    return newInstance(copyHandle, true, cleaner);
+  }
+
   @Override
   public Cleaner getCleaner() {
     return cleaner;
   }
+
+  private static native long nativeNewBorrowedCopy(long snapshotHandle);
 }
@@ -48,15 +48,28 @@ abstract class AbstractEntryIndexProxy<T> extends AbstractIndexProxy implements
     notifyModified();
     byte[] valueBytes = serializer.toBytes(value);
     nativeSet(getNativeHandle(), valueBytes);
+    invalidateCached();
   }
 
   @Override
   public boolean isPresent() {
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      return getCached(cache).isPresent();
+    }
     return nativeIsPresent(getNativeHandle());
   }
 
   @Override
   public T get() {
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      T value = getCached(cache).getValue(serializer);
+      if (value == null) {
+        throw new NoSuchElementException("No value in this entry");
+      }
+      return value;
+    }
     byte[] value = nativeGet(getNativeHandle());
     if (value == null) {
       throw new NoSuchElementException("No value in this entry");
@@ -68,6 +81,18 @@ abstract class AbstractEntryIndexProxy<T> extends AbstractIndexProxy implements
   public void remove() {
     notifyModified();
     nativeRemove(getNativeHandle());
+    invalidateCached();
+  }
+
+  private ValueCache.CachedValue getCached(ValueCache cache) {
+    return cache.get(getAddress(), k -> nativeGet(getNativeHandle()));
+  }
+
+  private void invalidateCached() {
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      cache.invalidate(getAddress());
+    }
   }
 
   @Override
@@ -40,6 +40,8 @@ abstract class AbstractIndexProxy extends AbstractNativeProxy implements Storage
 
   private final IndexAddress address;
 
+  private boolean pendingWritesRegistered;
+
   /**
    * Creates a new index.
    *
@@ -62,6 +64,58 @@ abstract class AbstractIndexProxy extends AbstractNativeProxy implements Storage
     return address;
   }
 
+  /**
+   * Returns a handle to the native index, writing the buffered changes, if any, to it first.
+   * Therefore, any native operation observes the changes made to this index.
+   */
+  @Override
+  protected long getNativeHandle() {
+    flushPendingWrites();
+    return super.getNativeHandle();
+  }
+
+  /**
+   * Returns a handle to the native index <em>without</em> writing the buffered changes to it.
+   * May only be used by the operations that do not observe the buffered changes, e.g.,
+   * reads of the keys that have no buffered writes; or when the buffered changes are known
+   * to be already written.
+   */
+  final long getNativeHandleNoFlush() {
+    return super.getNativeHandle();
+  }
+
+  /**
+   * Returns true if the writes to this index shall be buffered, i.e., it is created
+   * with a fork in the {@linkplain Fork#enableWriteBuffering() write buffering} mode.
+   *
+   * <p>The indexes created with other accesses based on such a fork, e.g.,
+   * with a {@link com.exonum.binding.core.storage.database.Prefixed} access
+   * to the service data, do not buffer their writes: such an access does not know
+   * the fork it is based on, so it cannot register the buffered writes to be flushed
+   * with the fork.
+   */
+  final boolean isWriteBuffered() {
+    return (dbAccess instanceof Fork) && ((Fork) dbAccess).isWriteBufferingEnabled();
+  }
+
+  /**
+   * Registers the {@linkplain #flushPendingWrites() flush operation} of this index
+   * with the fork, if it is not registered yet. Must be invoked when a write is buffered.
+   */
+  final void registerPendingWrites() {
+    if (!pendingWritesRegistered) {
+      ((Fork) dbAccess).registerPendingWrites(this::flushPendingWrites);
+      pendingWritesRegistered = true;
+    }
+  }
+
+  /**
+   * Writes the buffered changes of this index to the native index. Implementations
+   * must use the {@link #nativeHandle} directly. The default implementation has no effect,
+   * as the indexes do not buffer writes unless they support the write buffering.
+   */
+  void flushPendingWrites() {}
+
   /**
    * Checks that this index <em>can</em> be modified and changes the modification counter.
    *
@@ -18,14 +18,20 @@ package com.exonum.binding.core.storage.indices;
 
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkElementIndex;
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkNoNulls;
+import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkPositionIndex;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.exonum.binding.core.storage.database.AbstractAccess;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -36,8 +42,19 @@ import java.util.stream.StreamSupport;
  */
 abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements ListIndex<T> {
 
+  /**
+   * The maximum number of elements read in a single native call by range operations.
+   */
+  private static final int RANGE_CHUNK_SIZE = StorageIterators.DEFAULT_CHUNK_SIZE;
+
   final CheckingSerializerDecorator<T> serializer;
 
+  /**
+   * The elements appended to this list in the write buffering mode, which are not yet
+   * written to the native list.
+   */
+  private final List<byte[]> pendingElements = new ArrayList<>();
+
   AbstractListIndexProxy(NativeHandle nativeHandle, IndexAddress address, AbstractAccess access,
                          CheckingSerializerDecorator<T> userSerializer) {
     super(nativeHandle, address, access);
@@ -48,23 +65,45 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
   public final void add(T e) {
     notifyModified();
     byte[] dbElement = serializer.toBytes(e);
-    nativeAdd(getNativeHandle(), dbElement);
+    if (isWriteBuffered()) {
+      pendingElements.add(dbElement);
+      registerPendingWrites();
+    } else {
+      nativeAdd(getNativeHandle(), dbElement);
+    }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The elements are passed to the native code in a single call.
+   */
   @Override
   public void addAll(Collection<? extends T> elements) {
     notifyModified();
     checkNoNulls(elements);
-    addAllUnchecked(elements);
+    List<byte[]> dbElements = new ArrayList<>(elements.size());
+    for (T e : elements) {
+      dbElements.add(serializer.toBytes(e));
+    }
+    if (isWriteBuffered()) {
+      pendingElements.addAll(dbElements);
+      registerPendingWrites();
+    } else {
+      nativeExtend(getNativeHandle(), PackedArrays.pack(dbElements));
+    }
   }
 
-  private void addAllUnchecked(Collection<? extends T> elements) {
-    // Cache the nativeHandle to avoid repeated 'isValid' checks.
-    // It's OK to do that during this call, as this class is not thread-safe.
-    long nativeHandle = getNativeHandle();
-    elements.stream()
-        .map(serializer::toBytes)
-        .forEach((e) -> nativeAdd(nativeHandle, e));
+  /**
+   * Appends the buffered elements to the native list in a single call.
+   */
+  @Override
+  final void flushPendingWrites() {
+    if (!pendingElements.isEmpty()) {
+      byte[] packedElements = PackedArrays.pack(pendingElements);
+      pendingElements.clear();
+      nativeExtend(nativeHandle.get(), packedElements);
+    }
   }
 
   @Override
@@ -82,6 +121,24 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
     return serializer.fromBytes(e);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The elements are read in a single native call.
+   */
+  @Override
+  public final List<T> getRange(long from, long to) {
+    checkPositionIndex(to, size());
+    checkPositionIndex(from, to);
+    byte[] packedElements = nativeGetRange(getNativeHandle(), from, to);
+    List<byte[]> dbElements = PackedArrays.unpack(packedElements);
+    List<T> elements = new ArrayList<>(dbElements.size());
+    for (byte[] dbElement : dbElements) {
+      elements.add(serializer.fromBytes(dbElement));
+    }
+    return elements;
+  }
+
   @Override
   public final T getLast() {
     byte[] e = nativeGetLast(getNativeHandle());
@@ -112,6 +169,8 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
   @Override
   public final void clear() {
     notifyModified();
+    // Discard the buffered elements as they are removed anyway
+    pendingElements.clear();
     nativeClear(getNativeHandle());
   }
 
@@ -125,11 +184,45 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
     return nativeSize(getNativeHandle());
   }
 
+  /**
+   * Performs the given action for each element in the range [from, to) of this list,
+   * in order. The elements are read in chunks, using a single native call per chunk.
+   *
+   * @param from the index of the first element
+   * @param to the index after the last element
+   * @param action the action to perform for each element
+   * @throws IndexOutOfBoundsException if the range is not valid, i.e., not within
+   *     [0, size()], or if from is greater than to
+   * @throws ConcurrentModificationException if this list is modified by the action
+   * @throws IllegalStateException if this list is not valid
+   */
+  final void forEachInRange(long from, long to, Consumer<? super T> action) {
+    checkNotNull(action);
+    // Does not write the buffered elements: they are written once, when the stream is created,
+    // as this method may be called by several threads of a parallel stream
+    long nativeHandle = getNativeHandleNoFlush();
+    checkPositionIndex(to, nativeSize(nativeHandle));
+    checkPositionIndex(from, to);
+    int initialModCount = modCounter.getCurrentValue();
+    for (long chunkFrom = from; chunkFrom < to; chunkFrom += RANGE_CHUNK_SIZE) {
+      long chunkTo = Math.min(to, chunkFrom + RANGE_CHUNK_SIZE);
+      byte[] packedElements = nativeGetRange(nativeHandle, chunkFrom, chunkTo);
+      for (byte[] dbElement : PackedArrays.unpack(packedElements)) {
+        action.accept(serializer.fromBytes(dbElement));
+      }
+      if (modCounter.isModifiedSince(initialModCount)) {
+        throw new ConcurrentModificationException("The list (" + this + ") has been modified "
+            + "by the action");
+      }
+    }
+  }
+
   @Override
   public final Iterator<T> iterator() {
-    return StorageIterators.createIterator(
+    return StorageIterators.createChunkedIterator(
         nativeCreateIter(getNativeHandle()),
-        this::nativeIterNext,
+        this::nativeIterNextChunk,
+        PackedArrays::unpack,
         this::nativeIterFree,
         dbAccess,
         modCounter,
@@ -138,13 +231,18 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
 
   @Override
   public Stream<T> stream() {
+    // Write the buffered elements once, before the (possibly, parallel) traversal
+    flushPendingWrites();
     boolean immutable = !dbAccess.canModify();
-    ListSpliterator<T> spliterator = new ListSpliterator<>(this, modCounter, immutable);
+    ListSpliterator<T> spliterator = new ListSpliterator<T>(this, this::forEachInRange,
+        modCounter, immutable);
     return StreamSupport.stream(spliterator, false);
   }
 
   abstract void nativeAdd(long nativeHandle, byte[] e);
 
+  abstract void nativeExtend(long nativeHandle, byte[] packedElements);
+
   abstract void nativeSet(long nativeHandle, long index, byte[] e);
 
   abstract byte[] nativeGet(long nativeHandle, long index);
@@ -161,9 +259,11 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
 
   abstract long nativeSize(long nativeHandle);
 
+  abstract byte[] nativeGetRange(long nativeHandle, long from, long to);
+
   abstract long nativeCreateIter(long nativeHandle);
 
-  abstract byte[] nativeIterNext(long iterNativeHandle);
+  abstract byte[] nativeIterNextChunk(long iterNativeHandle, int chunkSize);
 
   abstract void nativeIterFree(long iterNativeHandle);
 }
@@ -0,0 +1,516 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.core.storage.indices;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
+import com.exonum.binding.common.serialization.Serializer;
+import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.storage.database.AbstractAccess;
+import com.google.common.collect.Iterators;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * An abstract class for map indices implementing {@link MapIndex} interface.
+ *
+ * <p>Implements all methods from MapIndex, using the native methods of the subclass.
+ *
+ * @param <K> the type of keys in this map
+ * @param <V> the type of values in this map
+ */
+abstract class AbstractMapIndexProxy<K, V> extends AbstractIndexProxy implements MapIndex<K, V> {
+
+  final Serializer<K> keySerializer;
+  final CheckingSerializerDecorator<V> valueSerializer;
+  @Nullable private MapWriteBuffer writeBuffer;
+
+  AbstractMapIndexProxy(NativeHandle nativeHandle, IndexAddress address, AbstractAccess access,
+      Serializer<K> keySerializer, CheckingSerializerDecorator<V> valueSerializer) {
+    super(nativeHandle, address, access);
+    this.keySerializer = keySerializer;
+    this.valueSerializer = valueSerializer;
+  }
+
+  @Override
+  public final boolean containsKey(K key) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    byte[] bufferedWrite = findBufferedWrite(dbKey);
+    if (bufferedWrite != null) {
+      return !MapWriteBuffer.isRemoval(bufferedWrite);
+    }
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      return getCached(cache, dbKey).isPresent();
+    }
+    return nativeContainsKey(getNativeHandleNoFlush(), dbKey);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The keys are passed to the native code in a single call. The keys that have
+   * buffered writes are served from the write buffer; and, if the value cache is enabled,
+   * the cached keys — from the cache. Only the rest are passed to the native code.
+   */
+  @Override
+  public final boolean containsAll(Collection<? extends K> keys) {
+    List<byte[]> dbKeys = serializeKeys(keys);
+    List<byte[]> unbufferedKeys = new ArrayList<>(dbKeys.size());
+    for (byte[] dbKey : dbKeys) {
+      byte[] bufferedWrite = findBufferedWrite(dbKey);
+      if (bufferedWrite == null) {
+        unbufferedKeys.add(dbKey);
+      } else if (MapWriteBuffer.isRemoval(bufferedWrite)) {
+        return false;
+      }
+    }
+    if (unbufferedKeys.isEmpty()) {
+      return true;
+    }
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      for (ValueCache.CachedValue value : getAllCached(cache, unbufferedKeys)) {
+        if (!value.isPresent()) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return nativeContainsAll(getNativeHandleNoFlush(), PackedArrays.pack(unbufferedKeys));
+  }
+
+  @Override
+  public final void put(K key, V value) {
+    notifyModified();
+    byte[] dbKey = keySerializer.toBytes(key);
+    byte[] dbValue = valueSerializer.toBytes(value);
+    if (isWriteBuffered()) {
+      getWriteBuffer().put(dbKey, dbValue);
+    } else {
+      nativePut(getNativeHandle(), dbKey, dbValue);
+    }
+    invalidateCached(dbKey);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The entries are passed to the native code in a single call.
+   */
+  @Override
+  public final void putAll(Map<? extends K, ? extends V> sourceMap) {
+    notifyModified();
+    List<byte[]> dbEntries = new ArrayList<>(2 * sourceMap.size());
+    for (Map.Entry<? extends K, ? extends V> entry : sourceMap.entrySet()) {
+      dbEntries.add(keySerializer.toBytes(entry.getKey()));
+      dbEntries.add(valueSerializer.toBytes(entry.getValue()));
+    }
+    if (isWriteBuffered()) {
+      MapWriteBuffer buffer = getWriteBuffer();
+      for (int i = 0; i < dbEntries.size(); i += 2) {
+        buffer.put(dbEntries.get(i), dbEntries.get(i + 1));
+      }
+    } else {
+      nativePutAll(getNativeHandle(), PackedArrays.pack(dbEntries));
+    }
+    for (int i = 0; i < dbEntries.size(); i += 2) {
+      byte[] dbKey = dbEntries.get(i);
+      invalidateCached(dbKey);
+    }
+  }
+
+  @Override
+  public final V get(K key) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    byte[] bufferedWrite = findBufferedWrite(dbKey);
+    if (bufferedWrite != null) {
+      return decodeBufferedWrite(bufferedWrite);
+    }
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      return getCached(cache, dbKey).getValue(valueSerializer);
+    }
+    byte[] dbValue = nativeGet(getNativeHandleNoFlush(), dbKey);
+    return (dbValue == null) ? null : valueSerializer.fromBytes(dbValue);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The keys are passed to the native code, and the values — back, in a single call.
+   * The keys that have buffered writes are served from the write buffer; and, if the value
+   * cache is enabled, the cached keys — from the cache. Only the rest are read
+   * from the native code (and put in the cache).
+   */
+  @Override
+  public final Map<K, V> getAll(Collection<? extends K> keys) {
+    List<byte[]> dbKeys = serializeKeys(keys);
+    Iterator<V> valuesIter = readValues(dbKeys).iterator();
+    Map<K, V> values = new LinkedHashMap<>();
+    for (K key : keys) {
+      V value = valuesIter.next();
+      if (value != null) {
+        values.put(key, value);
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public final void remove(K key) {
+    notifyModified();
+    byte[] dbKey = keySerializer.toBytes(key);
+    if (isWriteBuffered()) {
+      getWriteBuffer().remove(dbKey);
+    } else {
+      nativeRemove(getNativeHandle(), dbKey);
+    }
+    invalidateCached(dbKey);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The keys are passed to the native code in a single call.
+   */
+  @Override
+  public final void removeAll(Collection<? extends K> keys) {
+    notifyModified();
+    List<byte[]> dbKeys = serializeKeys(keys);
+    if (isWriteBuffered()) {
+      MapWriteBuffer buffer = getWriteBuffer();
+      for (byte[] dbKey : dbKeys) {
+        buffer.remove(dbKey);
+      }
+    } else {
+      nativeRemoveAll(getNativeHandle(), PackedArrays.pack(dbKeys));
+    }
+    for (byte[] dbKey : dbKeys) {
+      invalidateCached(dbKey);
+    }
+  }
+
+  @Override
+  public final Iterator<K> keys() {
+    return createKeysIter(nativeCreateKeysIter(getNativeHandle()));
+  }
+
+  @Override
+  public final Iterator<V> values() {
+    return createValuesIter(nativeCreateValuesIter(getNativeHandle()));
+  }
+
+  @Override
+  public final Iterator<MapEntry<K, V>> entries() {
+    return Iterators.transform(createEntriesIter(nativeCreateEntriesIter(getNativeHandle())),
+        this::toMapEntry);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The underlying iterator is positioned at the start key directly,
+   * without scanning the preceding keys.
+   */
+  @Override
+  public Iterator<K> keys(K from) {
+    byte[] dbFrom = keySerializer.toBytes(from);
+    return createKeysIter(nativeKeysFrom(getNativeHandle(), dbFrom));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The underlying iterator is positioned at the start key directly, see {@link #keys(Object)}.
+   */
+  @Override
+  public Iterator<V> values(K from) {
+    byte[] dbFrom = keySerializer.toBytes(from);
+    return createValuesIter(nativeValuesFrom(getNativeHandle(), dbFrom));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The underlying iterator is positioned at the start key directly, see {@link #keys(Object)}.
+   */
+  @Override
+  public Iterator<MapEntry<K, V>> entries(K from) {
+    byte[] dbFrom = keySerializer.toBytes(from);
+    return Iterators.transform(createEntriesIterFrom(dbFrom), this::toMapEntry);
+  }
+
+  /**
+   * Creates an iterator over the internal entries, starting at the given database key.
+   */
+  final Iterator<MapEntryInternal> createEntriesIterFrom(byte[] dbFrom) {
+    return createEntriesIter(nativeCreateIterFrom(getNativeHandle(), dbFrom));
+  }
+
+  private Iterator<K> createKeysIter(long iterNativeHandle) {
+    return StorageIterators.createChunkedIterator(
+        iterNativeHandle,
+        this::nativeKeysIterNextChunk,
+        PackedArrays::unpack,
+        this::nativeKeysIterFree,
+        dbAccess,
+        modCounter,
+        keySerializer::fromBytes
+    );
+  }
+
+  private Iterator<V> createValuesIter(long iterNativeHandle) {
+    return StorageIterators.createChunkedIterator(
+        iterNativeHandle,
+        this::nativeValuesIterNextChunk,
+        PackedArrays::unpack,
+        this::nativeValuesIterFree,
+        dbAccess,
+        modCounter,
+        valueSerializer::fromBytes
+    );
+  }
+
+  private Iterator<MapEntryInternal> createEntriesIter(long iterNativeHandle) {
+    return StorageIterators.createChunkedIterator(
+        iterNativeHandle,
+        this::nativeEntriesIterNextChunk,
+        MapEntryInternal::unpackAll,
+        this::nativeEntriesIterFree,
+        dbAccess,
+        modCounter,
+        (entry) -> entry
+    );
+  }
+
+  final MapEntry<K, V> toMapEntry(MapEntryInternal entry) {
+    return entry.toMapEntry(entry, keySerializer, valueSerializer);
+  }
+
+  @Override
+  public final void clear() {
+    notifyModified();
+    // Discard the buffered writes as they are overwritten anyway
+    if (writeBuffer != null) {
+      writeBuffer.clear();
+    }
+    nativeClear(getNativeHandle());
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      cache.invalidateIndex(getAddress());
+    }
+  }
+
+  private List<byte[]> serializeKeys(Collection<? extends K> keys) {
+    List<byte[]> dbKeys = new ArrayList<>(keys.size());
+    for (K key : keys) {
+      dbKeys.add(keySerializer.toBytes(key));
+    }
+    return dbKeys;
+  }
+
+  /**
+   * Reads the values of the given keys. The keys that have buffered writes are served
+   * from the write buffer; and, if the value cache is enabled, the cached keys — from the cache.
+   * The rest are read in a single native call.
+   *
+   * @return the values in the order of the keys; {@code null} if there is no value
+   */
+  private List<V> readValues(List<byte[]> dbKeys) {
+    List<V> values = new ArrayList<>(dbKeys.size());
+    boolean[] buffered = new boolean[dbKeys.size()];
+    List<byte[]> unbufferedKeys = new ArrayList<>(dbKeys.size());
+    for (int i = 0; i < dbKeys.size(); i++) {
+      byte[] dbKey = dbKeys.get(i);
+      byte[] bufferedWrite = findBufferedWrite(dbKey);
+      if (bufferedWrite != null) {
+        buffered[i] = true;
+        values.add(decodeBufferedWrite(bufferedWrite));
+      } else {
+        unbufferedKeys.add(dbKey);
+        // The value is read below
+        values.add(null);
+      }
+    }
+    if (unbufferedKeys.isEmpty()) {
+      return values;
+    }
+    Iterator<V> unbufferedValues = readUnbufferedValues(unbufferedKeys).iterator();
+    for (int i = 0; i < values.size(); i++) {
+      if (!buffered[i]) {
+        values.set(i, unbufferedValues.next());
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Reads the values of the given keys that have no buffered writes, from the value cache,
+   * if it is enabled, and the native index.
+   */
+  private List<V> readUnbufferedValues(List<byte[]> dbKeys) {
+    List<V> values = new ArrayList<>(dbKeys.size());
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      for (ValueCache.CachedValue cachedValue : getAllCached(cache, dbKeys)) {
+        values.add(cachedValue.getValue(valueSerializer));
+      }
+    } else {
+      for (byte[] dbValue : readAll(dbKeys)) {
+        values.add((dbValue == null) ? null : valueSerializer.fromBytes(dbValue));
+      }
+    }
+    return values;
+  }
+
+  private ValueCache.CachedValue getCached(ValueCache cache, byte[] dbKey) {
+    return cache.get(getAddress(), dbKey, k -> nativeGet(getNativeHandleNoFlush(), k));
+  }
+
+  /**
+   * Returns the cached values of the given keys, in the same order. The values missing
+   * in the cache are read in a single native call and put in the cache.
+   */
+  private List<ValueCache.CachedValue> getAllCached(ValueCache cache, List<byte[]> dbKeys) {
+    IndexAddress address = getAddress();
+    List<ValueCache.CachedValue> values = new ArrayList<>(dbKeys.size());
+    List<byte[]> missedKeys = new ArrayList<>();
+    for (byte[] dbKey : dbKeys) {
+      ValueCache.CachedValue value = cache.getIfPresent(address, dbKey);
+      if (value == null) {
+        missedKeys.add(dbKey);
+      }
+      values.add(value);
+    }
+    if (!missedKeys.isEmpty()) {
+      Iterator<byte[]> missedValues = readAll(missedKeys).iterator();
+      for (int i = 0; i < values.size(); i++) {
+        if (values.get(i) == null) {
+          values.set(i, cache.put(address, dbKeys.get(i), missedValues.next()));
+        }
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Reads the database values of the given keys in a single native call.
+   *
+   * @return the values in the order of the keys; {@code null} if there is no value
+   */
+  private List<byte[]> readAll(List<byte[]> dbKeys) {
+    byte[] packedValues = nativeGetAll(getNativeHandleNoFlush(), PackedArrays.pack(dbKeys));
+    return PackedArrays.unpack(packedValues);
+  }
+
+  private void invalidateCached(byte[] dbKey) {
+    ValueCache cache = dbAccess.getValueCache();
+    if (cache != null) {
+      cache.invalidate(getAddress(), dbKey);
+    }
+  }
+
+  /**
+   * Returns the buffered write of the given key; or {@code null} if there is none.
+   *
+   * @see MapWriteBuffer#findWrite(byte[])
+   */
+  @Nullable
+  private byte[] findBufferedWrite(byte[] dbKey) {
+    return (writeBuffer == null) ? null : writeBuffer.findWrite(dbKey);
+  }
+
+  @Nullable
+  private V decodeBufferedWrite(byte[] bufferedWrite) {
+    return MapWriteBuffer.isRemoval(bufferedWrite) ? null
+        : valueSerializer.fromBytes(bufferedWrite);
+  }
+
+  /**
+   * Returns a handle to the native index that observes the writes of the given key.
+   * The buffered writes are written to the native index only if the key has a buffered write.
+   */
+  final long getNativeHandleFor(byte[] dbKey) {
+    return (findBufferedWrite(dbKey) == null) ? getNativeHandleNoFlush() : getNativeHandle();
+  }
+
+  private MapWriteBuffer getWriteBuffer() {
+    if (writeBuffer == null) {
+      writeBuffer = new MapWriteBuffer();
+    }
+    registerPendingWrites();
+    return writeBuffer;
+  }
+
+  @Override
+  final void flushPendingWrites() {
+    if (writeBuffer != null) {
+      writeBuffer.flush(
+          packedEntries -> nativePutAll(nativeHandle.get(), packedEntries),
+          packedKeys -> nativeRemoveAll(nativeHandle.get(), packedKeys));
+    }
+  }
+
+  abstract boolean nativeContainsKey(long nativeHandle, byte[] key);
+
+  abstract boolean nativeContainsAll(long nativeHandle, byte[] packedKeys);
+
+  abstract void nativePut(long nativeHandle, byte[] key, byte[] value);
+
+  abstract void nativePutAll(long nativeHandle, byte[] packedEntries);
+
+  abstract byte[] nativeGet(long nativeHandle, byte[] key);
+
+  abstract byte[] nativeGetAll(long nativeHandle, byte[] packedKeys);
+
+  abstract void nativeRemove(long nativeHandle, byte[] key);
+
+  abstract void nativeRemoveAll(long nativeHandle, byte[] packedKeys);
+
+  abstract long nativeCreateKeysIter(long nativeHandle);
+
+  abstract long nativeKeysFrom(long nativeHandle, byte[] fromKey);
+
+  abstract byte[] nativeKeysIterNextChunk(long iterNativeHandle, int chunkSize);
+
+  abstract void nativeKeysIterFree(long iterNativeHandle);
+
+  abstract long nativeCreateValuesIter(long nativeHandle);
+
+  abstract long nativeValuesFrom(long nativeHandle, byte[] fromKey);
+
+  abstract byte[] nativeValuesIterNextChunk(long iterNativeHandle, int chunkSize);
+
+  abstract void nativeValuesIterFree(long iterNativeHandle);
+
+  abstract long nativeCreateEntriesIter(long nativeHandle);
+
+  abstract long nativeCreateIterFrom(long nativeHandle, byte[] fromKey);
+
+  abstract byte[] nativeEntriesIterNextChunk(long iterNativeHandle, int chunkSize);
+
+  abstract void nativeEntriesIterFree(long iterNativeHandle);
+
+  abstract void nativeClear(long nativeHandle);
+}
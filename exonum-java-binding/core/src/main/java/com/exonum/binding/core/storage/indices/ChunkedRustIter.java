@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.exonum.binding.core.proxy.AbstractNativeProxy;
+import com.exonum.binding.core.proxy.NativeHandle;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A fail-fast iterator that fetches the elements from the native iterator in chunks,
+ * using a single native call per chunk.
+ *
+ * <p>The modification counter is checked before each chunk is fetched. If the collection
+ * may be modified (i.e., its counter is not the {@linkplain ImmutableModificationCounter
+ * immutable one}), it is also checked on each element, so that the iterator fails
+ * on the first element requested after a modification.
+ *
+ * @param <E> type of elements returned by the iterator.
+ */
+final class ChunkedRustIter<E> extends AbstractNativeProxy implements RustIter<E> {
+
+  private final NextChunkFunction nextChunkFunction;
+  private final Function<byte[], List<E>> unpackFunction;
+  private final int chunkSize;
+  private final ModificationCounter modificationCounter;
+  private final int initialModCount;
+  private final boolean checkEachElement;
+
+  private List<E> chunk;
+  private int nextInChunk;
+  private boolean lastChunk;
+
+  /**
+   * Creates a new iterator over a collection (index).
+   *
+   * @param nativeHandle nativeHandle of this iterator
+   * @param nextChunkFunction a function to call to get the next chunk of items
+   * @param unpackFunction a function to unpack the items from the chunk
+   * @param chunkSize the maximum number of items to request in a single chunk
+   * @param modificationCounter a collection modification counter
+   */
+  ChunkedRustIter(NativeHandle nativeHandle,
+                  NextChunkFunction nextChunkFunction,
+                  Function<byte[], List<E>> unpackFunction,
+                  int chunkSize,
+                  ModificationCounter modificationCounter) {
+    super(nativeHandle);
+    checkArgument(chunkSize > 0, "chunkSize (%s) must be positive", chunkSize);
+    this.nextChunkFunction = nextChunkFunction;
+    this.unpackFunction = unpackFunction;
+    this.chunkSize = chunkSize;
+    this.modificationCounter = modificationCounter;
+    this.initialModCount = modificationCounter.getCurrentValue();
+    this.checkEachElement = modificationCounter != ImmutableModificationCounter.INSTANCE;
+    this.chunk = Collections.emptyList();
+    this.nextInChunk = 0;
+    this.lastChunk = false;
+  }
+
+  @Override
+  public Optional<E> next() {
+    if (checkEachElement) {
+      checkNotModified();
+    }
+    if (nextInChunk == chunk.size()) {
+      if (lastChunk) {
+        return Optional.empty();
+      }
+      checkNotModified();
+      fetchNextChunk();
+      if (chunk.isEmpty()) {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(chunk.get(nextInChunk++));
+  }
+
+  private void checkNotModified() {
+    if (modificationCounter.isModifiedSince(initialModCount)) {
+      throw new ConcurrentModificationException("The source collection "
+          + "has been modified during iteration");
+    }
+  }
+
+  private void fetchNextChunk() {
+    byte[] packedChunk = nextChunkFunction.nextChunk(getNativeHandle(), chunkSize);
+    chunk = unpackFunction.apply(packedChunk);
+    nextInChunk = 0;
+    // The native iterator returns fewer elements than requested only when it is exhausted,
+    // hence no need to request the next chunk.
+    lastChunk = chunk.size() < chunkSize;
+  }
+
+  /**
+   * A function returning the next chunk of items from the native iterator.
+   */
+  @FunctionalInterface
+  interface NextChunkFunction {
+
+    /**
+     * Returns the packed chunk of at most {@code chunkSize} next items. If the returned
+     * chunk has fewer items, the iterator is exhausted.
+     *
+     * @param iterNativeHandle a native handle of the iterator
+     * @param chunkSize the maximum number of items to return
+     */
+    byte[] nextChunk(long iterNativeHandle, int chunkSize);
+  }
+}
@@ -27,6 +27,8 @@ import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
 
 /**
  * A proxy of a native MerkleDB Entry.
@@ -84,6 +86,50 @@ public final class EntryIndexProxy<T> extends AbstractEntryIndexProxy<T> {
     super(nativeHandle, address, access, serializer);
   }
 
+  /**
+   * Returns the value of this entry as a read-only direct buffer,
+   * without copying it into a Java heap array. The value can be decoded from the buffer
+   * with {@link Serializer#fromBuffer(ByteBuffer)}.
+   *
+   * <p>The buffer is backed by native memory, which is kept alive till the access
+   * from which this entry was created goes out of scope. The buffer <strong>must not</strong>
+   * be used after that. To release the value early, use {@link #getAsBuffer(Cleaner)}.
+   *
+   * <p>The entries returned by {@link Access#getEntry(IndexAddress, Serializer)}
+   * are instances of this class.
+   *
+   * @return the value of this entry
+   * @throws NoSuchElementException if a value is not present in the Entry
+   * @throws IllegalStateException if this entry is not valid
+   */
+  public ByteBuffer getAsBuffer() {
+    return getAsBuffer(dbAccess.getCleaner());
+  }
+
+  /**
+   * Returns the value of this entry as a read-only direct buffer,
+   * without copying it into a Java heap array. The native memory backing the buffer
+   * is kept alive till the given cleaner is closed, which allows to release it before
+   * the access goes out of scope. The buffer <strong>must not</strong> be used
+   * after the cleaner is closed.
+   *
+   * @param cleaner a cleaner to destroy the value when it is closed
+   * @return the value of this entry
+   * @throws NoSuchElementException if a value is not present in the Entry
+   * @throws IllegalStateException if this entry is not valid, or the cleaner is closed
+   * @see MapIndexProxy#getAsBuffer(Object, Cleaner)
+   */
+  public ByteBuffer getAsBuffer(Cleaner cleaner) {
+    long valueHandle = nativeGetValueHandle(getNativeHandle());
+    ByteBuffer value = ValueBuffers.fromNativeValue(valueHandle, cleaner);
+    if (value == null) {
+      throw new NoSuchElementException("No value in this entry");
+    }
+    return value;
+  }
+
+  private native long nativeGetValueHandle(long nativeHandle);
+
   private static native long nativeCreate(String name, long accessNativeHandle);
 
   @Override
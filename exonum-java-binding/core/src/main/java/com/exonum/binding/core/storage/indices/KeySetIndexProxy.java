@@ -156,9 +156,10 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
    */
   @Override
   public Iterator<E> iterator() {
-    return StorageIterators.createIterator(
+    return StorageIterators.createChunkedIterator(
         nativeCreateIterator(getNativeHandle()),
-        this::nativeIteratorNext,
+        this::nativeIteratorNextChunk,
+        PackedArrays::unpack,
         this::nativeIteratorFree,
         dbAccess,
         modCounter,
@@ -208,7 +209,7 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
 
   private native long nativeCreateIterator(long nativeHandle);
 
-  private native byte[] nativeIteratorNext(long iterNativeHandle);
+  private native byte[] nativeIteratorNextChunk(long iterNativeHandle, int chunkSize);
 
   private native void nativeIteratorFree(long iterNativeHandle);
 
@@ -16,8 +16,13 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkPositionIndex;
+
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 
@@ -80,6 +85,28 @@ public interface ListIndex<T> extends StorageIndex, Iterable<T> {
    */
   T get(long index);
 
+  /**
+   * Returns the elements in the given range of this list.
+   *
+   * <p>The default implementation reads the elements one by one with {@link #get(long)}.
+   *
+   * @param from the index of the first element (inclusive)
+   * @param to the index after the last element (exclusive)
+   * @return a list of elements in the range [from, to); empty if {@code from == to}
+   * @throws IndexOutOfBoundsException if the range is not valid, i.e., not within
+   *     [0, size()], or if from is greater than to
+   * @throws IllegalStateException if this list is not valid
+   */
+  default List<T> getRange(long from, long to) {
+    checkPositionIndex(to, size());
+    checkPositionIndex(from, to);
+    List<T> elements = new ArrayList<>(Ints.checkedCast(to - from));
+    for (long i = from; i < to; i++) {
+      elements.add(get(i));
+    }
+    return elements;
+  }
+
   /**
    * Returns the last element of the list.
    *
@@ -16,6 +16,8 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkElementIndex;
+
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
@@ -25,6 +27,7 @@ import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
+import java.nio.ByteBuffer;
 import javax.annotation.Nullable;
 
 /**
@@ -94,6 +97,47 @@ public final class ListIndexProxy<E> extends AbstractListIndexProxy<E> implement
     super(nativeHandle, address, access, serializer);
   }
 
+  /**
+   * Returns the element at the given index as a read-only direct buffer,
+   * without copying it into a Java heap array. The element can be decoded from the buffer
+   * with {@link Serializer#fromBuffer(ByteBuffer)}.
+   *
+   * <p>The buffer is backed by native memory, which is kept alive till the access
+   * from which this list was created goes out of scope. The buffer <strong>must not</strong>
+   * be used after that. To release the elements early, e.g., when reading them in a loop,
+   * use {@link #getAsBuffer(long, Cleaner)}.
+   *
+   * @param index an index of the element to return
+   * @return an element at the given index
+   * @throws IndexOutOfBoundsException if index is invalid
+   * @throws IllegalStateException if this list is not valid
+   */
+  public ByteBuffer getAsBuffer(long index) {
+    return getAsBuffer(index, dbAccess.getCleaner());
+  }
+
+  /**
+   * Returns the element at the given index as a read-only direct buffer,
+   * without copying it into a Java heap array. The native memory backing the buffer
+   * is kept alive till the given cleaner is closed, which allows to release it before
+   * the access goes out of scope. The buffer <strong>must not</strong> be used
+   * after the cleaner is closed.
+   *
+   * @param index an index of the element to return
+   * @param cleaner a cleaner to destroy the element when it is closed
+   * @return an element at the given index
+   * @throws IndexOutOfBoundsException if index is invalid
+   * @throws IllegalStateException if this list is not valid, or the cleaner is closed
+   * @see MapIndexProxy#getAsBuffer(Object, Cleaner)
+   */
+  public ByteBuffer getAsBuffer(long index, Cleaner cleaner) {
+    checkElementIndex(index, size());
+    long valueHandle = nativeGetValueHandle(getNativeHandle(), index);
+    return ValueBuffers.fromNativeValue(valueHandle, cleaner);
+  }
+
+  private native long nativeGetValueHandle(long nativeHandle, long index);
+
   private static native long nativeCreate(String name, @Nullable byte[] idInGroup,
       long accessNativeHandle);
 
@@ -102,6 +146,9 @@ public final class ListIndexProxy<E> extends AbstractListIndexProxy<E> implement
   @Override
   native void nativeAdd(long nativeHandle, byte[] e);
 
+  @Override
+  native void nativeExtend(long nativeHandle, byte[] packedElements);
+
   @Override
   native void nativeSet(long nativeHandle, long index, byte[] e);
 
@@ -126,11 +173,14 @@ public final class ListIndexProxy<E> extends AbstractListIndexProxy<E> implement
   @Override
   native long nativeSize(long nativeHandle);
 
+  @Override
+  native byte[] nativeGetRange(long nativeHandle, long from, long to);
+
   @Override
   native long nativeCreateIter(long nativeHandle);
 
   @Override
-  native byte[] nativeIterNext(long iterNativeHandle);
+  native byte[] nativeIterNextChunk(long iterNativeHandle, int chunkSize);
 
   @Override
   native void nativeIterFree(long iterNativeHandle);
@@ -18,6 +18,7 @@ package com.exonum.binding.core.storage.indices;
 
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkPositionIndex;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.util.ConcurrentModificationException;
@@ -44,6 +45,8 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
 
   private final ListIndex<ElementT> list;
 
+  private final RangeReader<ElementT> rangeReader;
+
   /** An index of the next element to read. */
   private long nextIndex;
 
@@ -59,13 +62,26 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
    */
   private Integer initialCounterValue;
 
+  /**
+   * Creates a spliterator that reads the remaining elements one by one.
+   */
   ListSpliterator(ListIndex<ElementT> list, ModificationCounter counter, boolean immutable) {
-    this(list, counter, immutable, 0, 0, null);
+    this(list, elementwiseReader(list), counter, immutable);
   }
 
-  private ListSpliterator(ListIndex<ElementT> list, ModificationCounter counter, boolean immutable,
-      long nextIndex, long fence, Integer initialCounterValue) {
+  /**
+   * Creates a spliterator that reads the remaining elements with the given range reader.
+   */
+  ListSpliterator(ListIndex<ElementT> list, RangeReader<ElementT> rangeReader,
+      ModificationCounter counter, boolean immutable) {
+    this(list, rangeReader, counter, immutable, 0, 0, null);
+  }
+
+  private ListSpliterator(ListIndex<ElementT> list, RangeReader<ElementT> rangeReader,
+      ModificationCounter counter, boolean immutable, long nextIndex, long fence,
+      Integer initialCounterValue) {
     this.list = list;
+    this.rangeReader = rangeReader;
     checkArgument(0 <= fence, "fence (%s) must be non-negative");
     checkPositionIndex(nextIndex, fence);
     this.nextIndex = nextIndex;
@@ -76,12 +92,6 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
     this.initialCounterValue = initialCounterValue;
   }
 
-  //  todo: can add forEachRemaining and AbstractListIndexProxy#forEachInRange to list that
-  //    can avoid performing repetitive operation per each get:
-  //    - a check for modifications of the source list
-  //    - getNativeHandle
-  //    - size checks (a native call to size): [ECR-2817]
-
   @Override
   public boolean tryAdvance(Consumer<? super ElementT> action) {
     bindOrCheckModifications();
@@ -95,6 +105,23 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Reads the remaining elements with the range reader, which avoids performing
+   * the modification and size checks per each element.
+   */
+  @Override
+  public void forEachRemaining(Consumer<? super ElementT> action) {
+    checkNotNull(action);
+    bindOrCheckModifications();
+    long from = nextIndex;
+    nextIndex = fence;
+    rangeReader.forEachInRange(from, fence, action);
+    // Check the source was not modified by the action
+    bindOrCheckModifications();
+  }
+
   @Override
   public Spliterator<ElementT> trySplit() {
     bindOrCheckModifications();
@@ -103,7 +130,7 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
     }
     // Create a spliterator covering the prefix of the original subsequence of the list.
     long mid = nextIndex + (fence - nextIndex) / 2;
-    Spliterator<ElementT> prefix = new ListSpliterator<>(list, counter,
+    Spliterator<ElementT> prefix = new ListSpliterator<>(list, rangeReader, counter,
         hasCharacteristics(IMMUTABLE), nextIndex, mid, initialCounterValue);
     // Make this spliterator cover the suffix of the original subsequence of the list.
     this.nextIndex = mid;
@@ -141,4 +168,28 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
           "The source (" + list + ") has been modified since the bind-time");
     }
   }
+
+  private static <ElementT> RangeReader<ElementT> elementwiseReader(ListIndex<ElementT> list) {
+    return (from, to, action) -> {
+      for (long i = from; i < to; i++) {
+        action.accept(list.get(i));
+      }
+    };
+  }
+
+  /**
+   * Reads a range of elements from the list.
+   */
+  @FunctionalInterface
+  interface RangeReader<ElementT> {
+
+    /**
+     * Performs the given action for each element in the range [from, to) of the list, in order.
+     *
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @param action the action to perform for each element
+     */
+    void forEachInRange(long from, long to, Consumer<? super ElementT> action);
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A list of {@code long} values. Unlike a {@link ListIndex} of {@code Long}s, it passes
+ * the values to and from the native code as primitives, without boxing and
+ * serialization into arrays.
+ *
+ * <p>The values are stored in the 8-byte little-endian format, i.e., in the same format
+ * as {@link com.exonum.binding.common.serialization.StandardSerializers#fixed64()} uses.
+ * Therefore, a list created with it may be accessed as a {@code LongListIndex} and vice versa.
+ *
+ * <p>The "destructive" methods of the list, i.e., those that change its contents,
+ * are specified to throw {@link UnsupportedOperationException} if
+ * this list has been created with a read-only database access.
+ *
+ * <p>When the corresponding access goes out of scope, this list is destroyed. Subsequent use
+ * of the closed list is prohibited and will result in {@link IllegalStateException}.
+ *
+ * @see ListIndex
+ */
+public interface LongListIndex extends StorageIndex {
+
+  /**
+   * Adds a new value to the end of the list.
+   *
+   * @param value a value to append to the list
+   * @throws IllegalStateException if this list is not valid
+   * @throws UnsupportedOperationException if this list is read-only
+   */
+  void addLong(long value);
+
+  /**
+   * Replaces the value at the given index of the list with the specified value.
+   *
+   * @param index an index of the value to replace
+   * @param value a value to set
+   * @throws IndexOutOfBoundsException if the index is invalid
+   * @throws IllegalStateException if this list is not valid
+   * @throws UnsupportedOperationException if this list is read-only
+   */
+  void setLong(long index, long value);
+
+  /**
+   * Returns the value at the given index.
+   *
+   * @param index an index of the value to return
+   * @throws IndexOutOfBoundsException if index is invalid
+   * @throws IllegalStateException if this list is not valid
+   */
+  long getLong(long index);
+
+  /**
+   * Returns the last value of the list.
+   *
+   * @throws NoSuchElementException if the list is empty
+   * @throws IllegalStateException if this list is not valid
+   */
+  long getLastLong();
+
+  /**
+   * Returns true if the list is empty, false — otherwise.
+   *
+   * @throws IllegalStateException if this list is not valid
+   */
+  boolean isEmpty();
+
+  /**
+   * Returns the number of values in the list.
+   *
+   * @throws IllegalStateException if this list is not valid
+   */
+  long size();
+
+  /**
+   * Clears the list.
+   *
+   * @throws IllegalStateException if this list is not valid
+   * @throws UnsupportedOperationException if this list is read-only
+   */
+  void clear();
+}
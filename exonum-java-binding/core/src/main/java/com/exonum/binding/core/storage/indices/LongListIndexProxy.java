@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkElementIndex;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.proxy.ProxyDestructor;
+import com.exonum.binding.core.storage.database.AbstractAccess;
+import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.util.LibraryLoader;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+
+/**
+ * A list index proxy of {@code long} values.
+ *
+ * <p>This class is not thread-safe and its instances shall not be shared between threads.
+ *
+ * <p>When the access goes out of scope, this list is destroyed. Subsequent use of the closed list
+ * is prohibited and will result in {@link IllegalStateException}.
+ *
+ * @see Access
+ */
+public final class LongListIndexProxy extends AbstractIndexProxy implements LongListIndex {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  /**
+   * Creates a new LongListIndexProxy.
+   *
+   * <p><strong>Warning:</strong> do not invoke this method from service code, use
+   * {@link Access#getLongList(IndexAddress)}.
+   *
+   * @param address an index address
+   * @param access a database access. Must be valid.
+   *             If an access is read-only, "destructive" operations are not permitted.
+   * @throws IllegalStateException if the access is not valid
+   * @throws IllegalArgumentException if the name is empty
+   */
+  public static LongListIndexProxy newInstance(IndexAddress address, AbstractAccess access) {
+    long accessNativeHandle = access.getAccessNativeHandle();
+    long handle = nativeCreate(address.getName(), address.getIdInGroup().orElse(null),
+        accessNativeHandle);
+    NativeHandle listNativeHandle = new NativeHandle(handle);
+
+    Cleaner cleaner = access.getCleaner();
+    ProxyDestructor.newRegistered(cleaner, listNativeHandle, LongListIndexProxy.class,
+        LongListIndexProxy::nativeFree);
+
+    return new LongListIndexProxy(listNativeHandle, address, access);
+  }
+
+  private LongListIndexProxy(NativeHandle nativeHandle, IndexAddress address,
+      AbstractAccess access) {
+    super(nativeHandle, address, access);
+  }
+
+  @Override
+  public void addLong(long value) {
+    notifyModified();
+    nativeAdd(getNativeHandle(), value);
+  }
+
+  @Override
+  public void setLong(long index, long value) {
+    checkElementIndex(index, size());
+    notifyModified();
+    nativeSet(getNativeHandle(), index, value);
+  }
+
+  @Override
+  public long getLong(long index) {
+    checkElementIndex(index, size());
+    return nativeGet(getNativeHandle(), index);
+  }
+
+  @Override
+  public long getLastLong() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("List is empty");
+    }
+    return nativeGetLast(getNativeHandle());
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return nativeIsEmpty(getNativeHandle());
+  }
+
+  @Override
+  public long size() {
+    return nativeSize(getNativeHandle());
+  }
+
+  @Override
+  public void clear() {
+    notifyModified();
+    nativeClear(getNativeHandle());
+  }
+
+  private static native long nativeCreate(String name, @Nullable byte[] idInGroup,
+      long accessNativeHandle);
+
+  private static native void nativeFree(long nativeHandle);
+
+  private native void nativeAdd(long nativeHandle, long value);
+
+  private native void nativeSet(long nativeHandle, long index, long value);
+
+  private native long nativeGet(long nativeHandle, long index);
+
+  private native long nativeGetLast(long nativeHandle);
+
+  private native boolean nativeIsEmpty(long nativeHandle);
+
+  private native long nativeSize(long nativeHandle);
+
+  private native void nativeClear(long nativeHandle);
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+/**
+ * A map of keys to {@code long} values. Unlike a {@link MapIndex} with {@code Long} values,
+ * it passes the values to and from the native code as primitives, without boxing and
+ * serialization into arrays. It is suitable for counters, balances and similar values.
+ *
+ * <p>The values are stored in the 8-byte little-endian format, i.e., in the same format
+ * as {@link com.exonum.binding.common.serialization.StandardSerializers#fixed64()} uses.
+ * Therefore, a map created with it may be accessed as a {@code LongMapIndex} and vice versa.
+ *
+ * <p>The "destructive" methods of the map, i.e., the one that change the map contents,
+ * are specified to throw {@link UnsupportedOperationException} if
+ * the map has been created with a read-only database access.
+ *
+ * <p>This interface prohibits null keys.
+ *
+ * @param <K> the type of keys in this map
+ * @see MapIndex
+ */
+public interface LongMapIndex<K> extends StorageIndex {
+
+  /**
+   * Returns true if this map contains a mapping for the specified key.
+   *
+   * @throws IllegalStateException if this map is not valid
+   */
+  boolean containsKey(K key);
+
+  /**
+   * Returns the value associated with the specified key,
+   * or the default value if there is no mapping for the key.
+   *
+   * @param key a storage key
+   * @param defaultValue a value to return if there is no mapping for the key
+   * @throws IllegalStateException if this map is not valid
+   */
+  long getOrDefault(K key, long defaultValue);
+
+  /**
+   * Puts a new key-value pair into the map. If this map already contains
+   * a mapping for the specified key, overwrites the old value with the specified value.
+   *
+   * @param key a storage key
+   * @param value a value to associate with the key
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map is read-only
+   */
+  void putLong(K key, long value);
+
+  /**
+   * Adds the given number to the value associated with the specified key,
+   * treating a missing value as zero.
+   *
+   * @param key a storage key
+   * @param delta a number to add to the value; may be negative
+   * @return the updated value
+   * @throws ArithmeticException if the result overflows a long; the map is not modified
+   *     in this case
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map is read-only
+   */
+  long addTo(K key, long delta);
+
+  /**
+   * Removes the value mapped to the specified key from the map.
+   * If there is no such mapping, has no effect.
+   *
+   * @param key a storage key
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map is read-only
+   */
+  void remove(K key);
+
+  /**
+   * Removes all of the key-value pairs from the map.
+   *
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map is read-only
+   */
+  void clear();
+}
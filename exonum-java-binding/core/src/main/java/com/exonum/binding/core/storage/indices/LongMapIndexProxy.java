@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
+import com.exonum.binding.common.serialization.Serializer;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.proxy.ProxyDestructor;
+import com.exonum.binding.core.storage.database.AbstractAccess;
+import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.util.LibraryLoader;
+import javax.annotation.Nullable;
+
+/**
+ * A map index proxy of keys to {@code long} values.
+ *
+ * <p>This class is not thread-safe and its instances shall not be shared between threads.
+ *
+ * <p>When the access goes out of scope, this map is destroyed. Subsequent use of the closed map
+ * is prohibited and will result in {@link IllegalStateException}.
+ *
+ * @param <K> the type of keys in this map
+ * @see Access
+ */
+public final class LongMapIndexProxy<K> extends AbstractIndexProxy implements LongMapIndex<K> {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  private final CheckingSerializerDecorator<K> keySerializer;
+
+  /**
+   * Creates a new LongMapIndexProxy.
+   *
+   * <p><strong>Warning:</strong> do not invoke this method from service code, use
+   * {@link Access#getLongMap(IndexAddress, Serializer)}.
+   *
+   * @param address an index address
+   * @param access a database access. Must be valid.
+   *             If an access is read-only, "destructive" operations are not permitted.
+   * @param keySerializer a serializer of keys
+   * @param <K> the type of keys in the map
+   * @throws IllegalStateException if the access is not valid
+   * @throws IllegalArgumentException if the name is empty
+   * @see StandardSerializers
+   */
+  public static <K> LongMapIndexProxy<K> newInstance(IndexAddress address, AbstractAccess access,
+      Serializer<K> keySerializer) {
+    CheckingSerializerDecorator<K> ks = CheckingSerializerDecorator.from(keySerializer);
+
+    long accessNativeHandle = access.getAccessNativeHandle();
+    long handle = nativeCreate(address.getName(), address.getIdInGroup().orElse(null),
+        accessNativeHandle);
+    NativeHandle mapNativeHandle = new NativeHandle(handle);
+
+    Cleaner cleaner = access.getCleaner();
+    ProxyDestructor.newRegistered(cleaner, mapNativeHandle, LongMapIndexProxy.class,
+        LongMapIndexProxy::nativeFree);
+
+    return new LongMapIndexProxy<>(mapNativeHandle, address, access, ks);
+  }
+
+  private LongMapIndexProxy(NativeHandle nativeHandle, IndexAddress address,
+      AbstractAccess access, CheckingSerializerDecorator<K> keySerializer) {
+    super(nativeHandle, address, access);
+    this.keySerializer = keySerializer;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    return nativeContainsKey(getNativeHandle(), dbKey);
+  }
+
+  @Override
+  public long getOrDefault(K key, long defaultValue) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    return nativeGetOrDefault(getNativeHandle(), dbKey, defaultValue);
+  }
+
+  @Override
+  public void putLong(K key, long value) {
+    notifyModified();
+    byte[] dbKey = keySerializer.toBytes(key);
+    nativePut(getNativeHandle(), dbKey, value);
+  }
+
+  @Override
+  public long addTo(K key, long delta) {
+    notifyModified();
+    byte[] dbKey = keySerializer.toBytes(key);
+    long value = nativeGetOrDefault(getNativeHandle(), dbKey, 0L);
+    long updatedValue = Math.addExact(value, delta);
+    nativePut(getNativeHandle(), dbKey, updatedValue);
+    return updatedValue;
+  }
+
+  @Override
+  public void remove(K key) {
+    notifyModified();
+    byte[] dbKey = keySerializer.toBytes(key);
+    nativeRemove(getNativeHandle(), dbKey);
+  }
+
+  @Override
+  public void clear() {
+    notifyModified();
+    nativeClear(getNativeHandle());
+  }
+
+  private static native long nativeCreate(String name, @Nullable byte[] idInGroup,
+      long accessNativeHandle);
+
+  private static native void nativeFree(long nativeHandle);
+
+  private native boolean nativeContainsKey(long nativeHandle, byte[] key);
+
+  private native long nativeGetOrDefault(long nativeHandle, byte[] key, long defaultValue);
+
+  private native void nativePut(long nativeHandle, byte[] key, long value);
+
+  private native void nativeRemove(long nativeHandle, byte[] key);
+
+  private native void nativeClear(long nativeHandle);
+}
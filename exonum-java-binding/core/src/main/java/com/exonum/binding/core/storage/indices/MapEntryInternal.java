@@ -19,20 +19,38 @@ package com.exonum.binding.core.storage.indices;
 import static com.exonum.binding.common.collect.MapEntry.valueOf;
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkStorageKey;
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkStorageValue;
+import static com.google.common.base.Preconditions.checkArgument;
 
 import com.exonum.binding.common.collect.MapEntry;
 import com.exonum.binding.common.serialization.Serializer;
+import java.util.ArrayList;
+import java.util.List;
 
 final class MapEntryInternal {
   final byte[] key;
   final byte[] value;
 
-  @SuppressWarnings("unused")  // native API
   MapEntryInternal(byte[] key, byte[] value) {
     this.key = checkStorageKey(key);
     this.value = checkStorageValue(value);
   }
 
+  /**
+   * Unpacks the entries from the packed chunk, where each key is followed by its value.
+   *
+   * @see PackedArrays
+   */
+  static List<MapEntryInternal> unpackAll(byte[] packedEntries) {
+    List<byte[]> arrays = PackedArrays.unpack(packedEntries);
+    checkArgument(arrays.size() % 2 == 0, "Each key must be followed by a value, but got %s "
+        + "arrays", arrays.size());
+    List<MapEntryInternal> entries = new ArrayList<>(arrays.size() / 2);
+    for (int i = 0; i < arrays.size(); i += 2) {
+      entries.add(new MapEntryInternal(arrays.get(i), arrays.get(i + 1)));
+    }
+    return entries;
+  }
+
   <V, K> MapEntry<K, V> toMapEntry(MapEntryInternal entry,
       Serializer<K> keySerializer,
       Serializer<V> valueSerializer) {
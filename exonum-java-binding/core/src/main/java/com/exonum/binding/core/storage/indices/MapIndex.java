@@ -17,7 +17,9 @@
 package com.exonum.binding.core.storage.indices;
 
 import com.exonum.binding.common.collect.MapEntry;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -42,6 +44,23 @@ public interface MapIndex<K, V> extends StorageIndex {
    */
   boolean containsKey(K key);
 
+  /**
+   * Returns true if this map contains a mapping for each of the specified keys.
+   * Equivalent to a sequence of individual {@link #containsKey} operations.
+   *
+   * @param keys storage keys
+   * @throws NullPointerException if the passed collection is null or contains a null key
+   * @throws IllegalStateException if this map is not valid
+   */
+  default boolean containsAll(Collection<? extends K> keys) {
+    for (K key : keys) {
+      if (!containsKey(key)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Puts a new key-value pair into the map. If this map already contains
    * a mapping for the specified key, overwrites the old value with the specified value.
@@ -83,6 +102,27 @@ public interface MapIndex<K, V> extends StorageIndex {
    */
   V get(K key);
 
+  /**
+   * Returns the values associated with the specified keys. Equivalent to a sequence
+   * of individual {@link #get} operations.
+   *
+   * @param keys storage keys
+   * @return a map of the keys that have a mapping in this map to the corresponding values,
+   *         in the iteration order of the passed keys. The keys with no mapping are omitted
+   * @throws NullPointerException if the passed collection is null or contains a null key
+   * @throws IllegalStateException if this map is not valid
+   */
+  default Map<K, V> getAll(Collection<? extends K> keys) {
+    Map<K, V> values = new LinkedHashMap<>();
+    for (K key : keys) {
+      V value = get(key);
+      if (value != null) {
+        values.put(key, value);
+      }
+    }
+    return values;
+  }
+
   /**
    * Removes the value mapped to the specified key from the map.
    * If there is no such mapping, has no effect.
@@ -92,7 +132,22 @@ public interface MapIndex<K, V> extends StorageIndex {
    * @throws UnsupportedOperationException if this map is read-only
    */
   void remove(K key);
-  
+
+  /**
+   * Removes the values mapped to the specified keys from the map. Equivalent to a sequence
+   * of individual {@link #remove} operations.
+   *
+   * @param keys storage keys
+   * @throws NullPointerException if the passed collection is null or contains a null key
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map is read-only
+   */
+  default void removeAll(Collection<? extends K> keys) {
+    for (K key : keys) {
+      remove(key);
+    }
+  }
+
   /**
    * Returns an iterator over the map keys. The keys are ordered in lexicographical order.
    *
@@ -116,6 +171,57 @@ public interface MapIndex<K, V> extends StorageIndex {
    */
   Iterator<MapEntry<K, V>> entries();
 
+  /**
+   * Returns an iterator over the map keys, starting at the given key (inclusive).
+   * The keys are ordered as in {@link #keys()}. The start key is not required
+   * to be present in the map: the iteration starts at the first key that is equal to it
+   * or follows it in the iteration order.
+   *
+   * <p>The default implementation throws {@link UnsupportedOperationException};
+   * the implementations supporting the iteration from a key must override it.
+   *
+   * @param from the key to start the iteration at
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map does not support the iteration from a key
+   */
+  default Iterator<K> keys(K from) {
+    throw new UnsupportedOperationException("Iteration from a key is not supported by " + this);
+  }
+
+  /**
+   * Returns an iterator over the map values, starting at the value of the given key (inclusive).
+   * The values are ordered as in {@link #values()}. The start key is not required
+   * to be present in the map: the iteration starts at the first key that is equal to it
+   * or follows it in the iteration order.
+   *
+   * <p>The default implementation throws {@link UnsupportedOperationException};
+   * the implementations supporting the iteration from a key must override it.
+   *
+   * @param from the key to start the iteration at
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map does not support the iteration from a key
+   */
+  default Iterator<V> values(K from) {
+    throw new UnsupportedOperationException("Iteration from a key is not supported by " + this);
+  }
+
+  /**
+   * Returns an iterator over the map entries, starting at the given key (inclusive).
+   * The entries are ordered as in {@link #entries()}. The start key is not required
+   * to be present in the map: the iteration starts at the first key that is equal to it
+   * or follows it in the iteration order.
+   *
+   * <p>The default implementation throws {@link UnsupportedOperationException};
+   * the implementations supporting the iteration from a key must override it.
+   *
+   * @param from the key to start the iteration at
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map does not support the iteration from a key
+   */
+  default Iterator<MapEntry<K, V>> entries(K from) {
+    throw new UnsupportedOperationException("Iteration from a key is not supported by " + this);
+  }
+
   /**
    * Removes all of the key-value pairs from the map.
    * The map will be empty after this method returns.
@@ -26,8 +26,11 @@ import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
+import com.google.common.collect.Iterators;
+import com.google.common.primitives.UnsignedBytes;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
 import java.util.Iterator;
-import java.util.Map;
 import javax.annotation.Nullable;
 
 /**
@@ -51,14 +54,17 @@ import javax.annotation.Nullable;
  * @param <V> the type of values in this map
  * @see Access
  */
-public final class MapIndexProxy<K, V> extends AbstractIndexProxy implements MapIndex<K, V> {
+public final class MapIndexProxy<K, V> extends AbstractMapIndexProxy<K, V> {
 
   static {
     LibraryLoader.load();
   }
 
-  private final CheckingSerializerDecorator<K> keySerializer;
-  private final CheckingSerializerDecorator<V> valueSerializer;
+  /**
+   * The order of the keys in the map: lexicographical order of their binary representation,
+   * treating the bytes as unsigned.
+   */
+  private static final Comparator<byte[]> DB_KEY_ORDER = UnsignedBytes.lexicographicalComparator();
 
   /**
    * Creates a new MapIndexProxy.
@@ -103,125 +109,176 @@ public final class MapIndexProxy<K, V> extends AbstractIndexProxy implements Map
   private MapIndexProxy(NativeHandle nativeHandle, IndexAddress address, AbstractAccess access,
                         CheckingSerializerDecorator<K> keySerializer,
                         CheckingSerializerDecorator<V> valueSerializer) {
-    super(nativeHandle, address, access);
-    this.keySerializer = keySerializer;
-    this.valueSerializer = valueSerializer;
+    super(nativeHandle, address, access, keySerializer, valueSerializer);
   }
 
-  @Override
-  public boolean containsKey(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    return nativeContainsKey(getNativeHandle(), dbKey);
+  /**
+   * Returns the value associated with the specified key as a read-only direct buffer,
+   * without copying it into a Java heap array. The value can be decoded from the buffer
+   * with {@link Serializer#fromBuffer(ByteBuffer)}.
+   *
+   * <p>The buffer is backed by native memory, which is kept alive till the access
+   * from which this map was created goes out of scope. The buffer <strong>must not</strong>
+   * be used after that. To release the values early, e.g., when reading them in a loop,
+   * use {@link #getAsBuffer(Object, Cleaner)}.
+   *
+   * @param key a storage key
+   * @return the value mapped to the specified key,
+   *         or {@code null} if this map contains no mapping for the key.
+   * @throws IllegalStateException if this map is not valid
+   */
+  @Nullable
+  public ByteBuffer getAsBuffer(K key) {
+    return getAsBuffer(key, dbAccess.getCleaner());
   }
 
-  @Override
-  public void put(K key, V value) {
-    notifyModified();
-    putInternal(getNativeHandle(), key, value);
+  /**
+   * Returns the value associated with the specified key as a read-only direct buffer,
+   * without copying it into a Java heap array. The native memory backing the buffer
+   * is kept alive till the given cleaner is closed, which allows to release it before
+   * the access goes out of scope:
+   *
+   * <pre><code>
+   * try (Cleaner valueCleaner = fork.getCleaner().newNested()) {
+   *   ByteBuffer value = map.getAsBuffer(key, valueCleaner);
+   *   // Use the value
+   * }
+   * </code></pre>
+   *
+   * <p>The buffer <strong>must not</strong> be used after the cleaner is closed.
+   *
+   * @param key a storage key
+   * @param cleaner a cleaner to destroy the value when it is closed
+   * @return the value mapped to the specified key,
+   *         or {@code null} if this map contains no mapping for the key.
+   * @throws IllegalStateException if this map is not valid, or the cleaner is closed
+   */
+  @Nullable
+  public ByteBuffer getAsBuffer(K key, Cleaner cleaner) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    long valueHandle = nativeGetValueHandle(getNativeHandleFor(dbKey), dbKey);
+    return ValueBuffers.fromNativeValue(valueHandle, cleaner);
   }
 
-  @Override
-  public void putAll(Map<? extends K, ? extends V> sourceMap) {
-    notifyModified();
-    long nativeHandle = getNativeHandle();
-    for (Map.Entry<? extends K, ? extends V> entry : sourceMap.entrySet()) {
-      putInternal(nativeHandle, entry.getKey(), entry.getValue());
-    }
-  }
+  private native long nativeGetValueHandle(long nativeHandle, byte[] key);
 
-  private void putInternal(long thisNativeHandle, K key, V value) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    byte[] dbValue = valueSerializer.toBytes(value);
-    nativePut(thisNativeHandle, dbKey, dbValue);
+  /**
+   * Returns an iterator over the map entries with keys in the given range: from
+   * the {@code from} key (inclusive) to the {@code to} key (exclusive).
+   * The entries are ordered by keys in lexicographical order of their binary representation.
+   *
+   * <p>The underlying iterator is positioned at the start key directly,
+   * and the iteration stops at the first key that is not less than the end key.
+   *
+   * @param from the lower bound of the keys (inclusive)
+   * @param to the upper bound of the keys (exclusive)
+   * @throws IllegalStateException if this map is not valid
+   */
+  public Iterator<MapEntry<K, V>> entries(K from, K to) {
+    byte[] dbFrom = keySerializer.toBytes(from);
+    byte[] dbTo = keySerializer.toBytes(to);
+    Iterator<MapEntryInternal> entriesInRange = StorageIterators.takeWhile(
+        createEntriesIterFrom(dbFrom),
+        (entry) -> DB_KEY_ORDER.compare(entry.key, dbTo) < 0);
+    return Iterators.transform(entriesInRange, this::toMapEntry);
   }
 
-  @Override
-  public V get(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    byte[] dbValue = nativeGet(getNativeHandle(), dbKey);
-    return (dbValue == null) ? null : valueSerializer.fromBytes(dbValue);
+  /**
+   * Returns an iterator over the map entries which keys start with the given prefix,
+   * i.e., which binary representation starts with the binary representation of the prefix.
+   * The entries are ordered by keys in lexicographical order of their binary representation.
+   *
+   * <p>Such scans are meaningful for keys of variable length, e.g., strings:
+   * {@code entriesWithPrefix("abc")} returns the entries with keys "abc", "abcd", but not "abd".
+   *
+   * @param prefix the prefix of the keys
+   * @throws IllegalStateException if this map is not valid
+   */
+  public Iterator<MapEntry<K, V>> entriesWithPrefix(K prefix) {
+    byte[] dbPrefix = keySerializer.toBytes(prefix);
+    Iterator<MapEntryInternal> entriesWithPrefix = StorageIterators.takeWhile(
+        createEntriesIterFrom(dbPrefix),
+        (entry) -> startsWith(entry.key, dbPrefix));
+    return Iterators.transform(entriesWithPrefix, this::toMapEntry);
   }
 
-  @Override
-  public void remove(K key) {
-    notifyModified();
-    byte[] dbKey = keySerializer.toBytes(key);
-    nativeRemove(getNativeHandle(), dbKey);
+  private static boolean startsWith(byte[] dbKey, byte[] dbPrefix) {
+    if (dbKey.length < dbPrefix.length) {
+      return false;
+    }
+    for (int i = 0; i < dbPrefix.length; i++) {
+      if (dbKey[i] != dbPrefix[i]) {
+        return false;
+      }
+    }
+    return true;
   }
 
+  private static native long nativeCreate(String name, @Nullable byte[] idInGroup,
+      long accessNativeHandle);
+
+  private static native void nativeFree(long nativeHandle);
+
   @Override
-  public Iterator<K> keys() {
-    return StorageIterators.createIterator(
-        nativeCreateKeysIter(getNativeHandle()),
-        this::nativeKeysIterNext,
-        this::nativeKeysIterFree,
-        dbAccess,
-        modCounter,
-        keySerializer::fromBytes
-    );
-  }
+  native boolean nativeContainsKey(long nativeHandle, byte[] key);
 
   @Override
-  public Iterator<V> values() {
-    return StorageIterators.createIterator(
-        nativeCreateValuesIter(getNativeHandle()),
-        this::nativeValuesIterNext,
-        this::nativeValuesIterFree,
-        dbAccess,
-        modCounter,
-        valueSerializer::fromBytes
-    );
-  }
+  native boolean nativeContainsAll(long nativeHandle, byte[] packedKeys);
 
   @Override
-  public Iterator<MapEntry<K, V>> entries() {
-    return StorageIterators.createIterator(
-        nativeCreateEntriesIter(getNativeHandle()),
-        this::nativeEntriesIterNext,
-        this::nativeEntriesIterFree,
-        dbAccess,
-        modCounter,
-        (entry) -> entry.toMapEntry(entry, keySerializer, valueSerializer)
-    );
-  }
+  native void nativePut(long nativeHandle, byte[] key, byte[] value);
 
-  private native long nativeCreateEntriesIter(long nativeHandle);
+  @Override
+  native void nativePutAll(long nativeHandle, byte[] packedEntries);
 
-  private native MapEntryInternal nativeEntriesIterNext(long iterNativeHandle);
+  @Override
+  native byte[] nativeGet(long nativeHandle, byte[] key);
 
-  private native void nativeEntriesIterFree(long iterNativeHandle);
+  @Override
+  native byte[] nativeGetAll(long nativeHandle, byte[] packedKeys);
 
   @Override
-  public void clear() {
-    notifyModified();
-    nativeClear(getNativeHandle());
-  }
+  native void nativeRemove(long nativeHandle, byte[] key);
 
-  private static native long nativeCreate(String name, @Nullable byte[] idInGroup,
-      long accessNativeHandle);
+  @Override
+  native void nativeRemoveAll(long nativeHandle, byte[] packedKeys);
 
-  private native boolean nativeContainsKey(long nativeHandle, byte[] key);
+  @Override
+  native long nativeCreateKeysIter(long nativeHandle);
 
-  private native void nativePut(long nativeHandle, byte[] key, byte[] value);
+  @Override
+  native long nativeKeysFrom(long nativeHandle, byte[] fromKey);
 
-  private native byte[] nativeGet(long nativeHandle, byte[] key);
+  @Override
+  native byte[] nativeKeysIterNextChunk(long iterNativeHandle, int chunkSize);
 
-  private native void nativeRemove(long nativeHandle, byte[] key);
+  @Override
+  native void nativeKeysIterFree(long iterNativeHandle);
 
-  private native long nativeCreateKeysIter(long nativeHandle);
+  @Override
+  native long nativeCreateValuesIter(long nativeHandle);
 
-  private native byte[] nativeKeysIterNext(long iterNativeHandle);
+  @Override
+  native long nativeValuesFrom(long nativeHandle, byte[] fromKey);
 
-  private native void nativeKeysIterFree(long iterNativeHandle);
+  @Override
+  native byte[] nativeValuesIterNextChunk(long iterNativeHandle, int chunkSize);
 
-  private native long nativeCreateValuesIter(long nativeHandle);
+  @Override
+  native void nativeValuesIterFree(long iterNativeHandle);
 
-  private native byte[] nativeValuesIterNext(long iterNativeHandle);
+  @Override
+  native long nativeCreateEntriesIter(long nativeHandle);
 
-  private native void nativeValuesIterFree(long iterNativeHandle);
+  @Override
+  native long nativeCreateIterFrom(long nativeHandle, byte[] fromKey);
 
-  private native void nativeClear(long nativeHandle);
+  @Override
+  native byte[] nativeEntriesIterNextChunk(long iterNativeHandle, int chunkSize);
 
-  private static native void nativeFree(long nativeHandle);
+  @Override
+  native void nativeEntriesIterFree(long iterNativeHandle);
 
+  @Override
+  native void nativeClear(long nativeHandle);
 }
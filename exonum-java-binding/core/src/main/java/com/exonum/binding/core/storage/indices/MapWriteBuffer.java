@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+/**
+ * A buffer of the writes to a map index. Keeps only the latest write of each key,
+ * and passes the writes to the index in (at most) two batches: puts and removals.
+ */
+final class MapWriteBuffer {
+
+  /**
+   * A marker of a removed key. Compared by reference, as an empty value is a valid value.
+   */
+  private static final byte[] REMOVED = new byte[0];
+
+  private final Map<ByteBuffer, byte[]> writes = new LinkedHashMap<>();
+
+  /**
+   * Buffers a put of the given key-value pair, overwriting any previous write of the key.
+   */
+  void put(byte[] key, byte[] value) {
+    writes.put(ByteBuffer.wrap(key), value);
+  }
+
+  /**
+   * Buffers a removal of the given key, overwriting any previous write of the key.
+   */
+  void remove(byte[] key) {
+    writes.put(ByteBuffer.wrap(key), REMOVED);
+  }
+
+  /**
+   * Returns the buffered write of the given key: the value, or a {@linkplain #isRemoval(byte[])
+   * removal} marker; or {@code null} if there is no buffered write of the key.
+   */
+  @Nullable
+  byte[] findWrite(byte[] key) {
+    return writes.get(ByteBuffer.wrap(key));
+  }
+
+  /**
+   * Returns true if the given buffered write is a removal of the key.
+   */
+  static boolean isRemoval(byte[] write) {
+    return write == REMOVED;
+  }
+
+  /**
+   * Discards all the buffered writes.
+   */
+  void clear() {
+    writes.clear();
+  }
+
+  boolean isEmpty() {
+    return writes.isEmpty();
+  }
+
+  /**
+   * Passes the buffered writes to the given operations, and clears this buffer.
+   *
+   * @param putAll an operation putting the {@linkplain PackedArrays packed} key-value pairs
+   * @param removeAll an operation removing the packed keys
+   */
+  void flush(Consumer<byte[]> putAll, Consumer<byte[]> removeAll) {
+    if (writes.isEmpty()) {
+      return;
+    }
+    List<byte[]> entries = new ArrayList<>(2 * writes.size());
+    List<byte[]> removedKeys = new ArrayList<>();
+    for (Map.Entry<ByteBuffer, byte[]> write : writes.entrySet()) {
+      byte[] key = write.getKey().array();
+      byte[] value = write.getValue();
+      if (value == REMOVED) {
+        removedKeys.add(key);
+      } else {
+        entries.add(key);
+        entries.add(value);
+      }
+    }
+    writes.clear();
+    // The writes of a key are coalesced, therefore, the order of the batches does not matter
+    if (!entries.isEmpty()) {
+      putAll.accept(PackedArrays.pack(entries));
+    }
+    if (!removedKeys.isEmpty()) {
+      removeAll.accept(PackedArrays.pack(removedKeys));
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Packs a sequence of byte arrays into a single buffer, and unpacks it back. Used to pass
+ * multiple keys, values or entries to the native code (and receive them back)
+ * in a single JNI call.
+ *
+ * <p>Each array is encoded as its length (a 32-bit little-endian signed integer)
+ * followed by the array bytes. A {@code null} array is encoded as
+ * length {@value #ABSENT} without any bytes following it.
+ *
+ * <p>The format must be kept in sync with the native code (see {@code utils::conversion}).
+ */
+final class PackedArrays {
+
+  /**
+   * The length prefix of an absent ({@code null}) array.
+   */
+  static final int ABSENT = -1;
+
+  private static final int LENGTH_BYTES = Integer.BYTES;
+
+  /**
+   * Packs the given arrays into a single buffer.
+   *
+   * @param arrays the arrays to pack; must not contain nulls
+   * @throws NullPointerException if any array is null
+   */
+  static byte[] pack(List<byte[]> arrays) {
+    int size = 0;
+    for (byte[] array : arrays) {
+      checkNotNull(array, "Array to pack is null");
+      size += LENGTH_BYTES + array.length;
+    }
+    ByteBuffer packed = allocate(size);
+    for (byte[] array : arrays) {
+      packed.putInt(array.length)
+          .put(array);
+    }
+    return packed.array();
+  }
+
+  /**
+   * Unpacks the arrays from the given buffer.
+   *
+   * @param packed a packed buffer
+   * @return the list of unpacked arrays; absent arrays are represented as {@code null}s
+   * @throws IllegalArgumentException if the buffer is malformed
+   */
+  static List<byte[]> unpack(byte[] packed) {
+    ByteBuffer buffer = ByteBuffer.wrap(packed)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    List<byte[]> arrays = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      arrays.add(readArray(buffer));
+    }
+    return arrays;
+  }
+
+  @Nullable
+  private static byte[] readArray(ByteBuffer buffer) {
+    checkArgument(buffer.remaining() >= LENGTH_BYTES,
+        "Malformed buffer: incomplete length prefix at %s", buffer.position());
+    int length = buffer.getInt();
+    if (length == ABSENT) {
+      return null;
+    }
+    checkArgument(0 <= length && length <= buffer.remaining(),
+        "Malformed buffer: invalid array length (%s) at %s", length, buffer.position());
+    byte[] array = new byte[length];
+    buffer.get(array);
+    return array;
+  }
+
+  private static ByteBuffer allocate(int size) {
+    return ByteBuffer.allocate(size)
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private PackedArrays() {}
+}
@@ -159,6 +159,9 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
   @Override
   native void nativeAdd(long nativeHandle, byte[] e);
 
+  @Override
+  native void nativeExtend(long nativeHandle, byte[] packedElements);
+
   @Override
   native void nativeSet(long nativeHandle, long index, byte[] e);
 
@@ -183,11 +186,14 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
   @Override
   native long nativeSize(long nativeHandle);
 
+  @Override
+  native byte[] nativeGetRange(long nativeHandle, long from, long to);
+
   @Override
   native long nativeCreateIter(long nativeHandle);
 
   @Override
-  native byte[] nativeIterNext(long iterNativeHandle);
+  native byte[] nativeIterNextChunk(long iterNativeHandle, int chunkSize);
 
   @Override
   native void nativeIterFree(long iterNativeHandle);
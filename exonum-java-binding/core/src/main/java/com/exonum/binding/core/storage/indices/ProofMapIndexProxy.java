@@ -18,7 +18,6 @@ package com.exonum.binding.core.storage.indices;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import com.exonum.binding.common.collect.MapEntry;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
@@ -31,9 +30,7 @@ import com.exonum.binding.core.storage.database.Access;
 import com.google.common.collect.Lists;
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import javax.annotation.Nullable;
 
 /**
@@ -66,6 +63,15 @@ import javax.annotation.Nullable;
  *       the tree balance.</li>
  * </ul>
  *
+ * <p>In a map that uses non-hashed keys, the methods accepting keys throw
+ * {@link IllegalArgumentException} if the size of any of the keys is not 32 bytes.
+ *
+ * <p>The iterators return the entries ordered by the internal keys of the map, i.e.,
+ * by the hashes of the user keys in a map with key hashing. Therefore, the start key
+ * of {@link #keys(Object)}, {@link #values(Object)} and {@link #entries(Object)} is mostly useful
+ * to resume the iteration at the last key returned by a previous iterator (e.g., to paginate
+ * the map contents).
+ *
  * <hr>
  *
  * <p>The "destructive" methods of the map, i.e., the one that change the map contents,
@@ -83,11 +89,8 @@ import javax.annotation.Nullable;
  * @param <V> the type of values in this map
  * @see Access
  */
-public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implements MapIndex<K, V>,
-    HashableIndex {
-
-  private final Serializer<K> keySerializer;
-  private final CheckingSerializerDecorator<V> valueSerializer;
+public final class ProofMapIndexProxy<K, V> extends AbstractMapIndexProxy<K, V>
+    implements HashableIndex {
 
   /**
    * Creates a ProofMapIndexProxy.
@@ -176,62 +179,9 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
   private ProofMapIndexProxy(NativeHandle nativeHandle, IndexAddress address, AbstractAccess access,
                              Serializer<K> keySerializer,
                              CheckingSerializerDecorator<V> valueSerializer) {
-    super(nativeHandle, address, access);
-    this.keySerializer = keySerializer;
-    this.valueSerializer = valueSerializer;
-  }
-
-  @Override
-  public boolean containsKey(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    return nativeContainsKey(getNativeHandle(), dbKey);
+    super(nativeHandle, address, access, keySerializer, valueSerializer);
   }
 
-  private native boolean nativeContainsKey(long nativeHandle, byte[] key);
-
-  /**
-   * {@inheritDoc}
-   *
-   * @param key a proof map key
-   * @param value a storage value to associate with the key
-   * @throws IllegalStateException if this map is not valid
-   * @throws IllegalArgumentException if the size of the key is not 32 bytes (in case of a
-   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
-   * @throws UnsupportedOperationException if this map is read-only
-   */
-  @Override
-  public void put(K key, V value) {
-    notifyModified();
-    long nativeHandle = getNativeHandle();
-    putInternal(nativeHandle, key, value);
-  }
-
-  @Override
-  public void putAll(Map<? extends K, ? extends V> sourceMap) {
-    notifyModified();
-    long nativeHandle = getNativeHandle();
-    for (Map.Entry<? extends K, ? extends V> entry : sourceMap.entrySet()) {
-      putInternal(nativeHandle, entry.getKey(), entry.getValue());
-    }
-  }
-
-  private void putInternal(long nativeHandle, K key, V value) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    byte[] dbValue = valueSerializer.toBytes(value);
-    nativePut(nativeHandle, dbKey, dbValue);
-  }
-
-  private native void nativePut(long nativeHandle, byte[] key, byte[] value);
-
-  @Override
-  public V get(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    byte[] dbValue = nativeGet(getNativeHandle(), dbKey);
-    return (dbValue == null) ? null : valueSerializer.fromBytes(dbValue);
-  }
-
-  private native byte[] nativeGet(long nativeHandle, byte[] key);
-
   /**
    * Returns a proof that there are values mapped to the specified keys or that there are no such
    * mappings.
@@ -312,76 +262,68 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   private native byte[] nativeGetIndexHash(long nativeHandle);
 
+  private static native void nativeFree(long nativeHandle);
+
   @Override
-  public void remove(K key) {
-    notifyModified();
-    byte[] dbKey = keySerializer.toBytes(key);
-    nativeRemove(getNativeHandle(), dbKey);
-  }
+  native boolean nativeContainsKey(long nativeHandle, byte[] key);
 
-  private native void nativeRemove(long nativeHandle, byte[] key);
+  @Override
+  native boolean nativeContainsAll(long nativeHandle, byte[] packedKeys);
 
   @Override
-  public Iterator<K> keys() {
-    return StorageIterators.createIterator(
-        nativeCreateKeysIter(getNativeHandle()),
-        this::nativeKeysIterNext,
-        this::nativeKeysIterFree,
-        dbAccess,
-        modCounter,
-        keySerializer::fromBytes
-    );
-  }
+  native void nativePut(long nativeHandle, byte[] key, byte[] value);
 
-  private native long nativeCreateKeysIter(long nativeHandle);
+  @Override
+  native void nativePutAll(long nativeHandle, byte[] packedEntries);
 
-  private native byte[] nativeKeysIterNext(long iterNativeHandle);
+  @Override
+  native byte[] nativeGet(long nativeHandle, byte[] key);
 
-  private native void nativeKeysIterFree(long iterNativeHandle);
+  @Override
+  native byte[] nativeGetAll(long nativeHandle, byte[] packedKeys);
 
   @Override
-  public Iterator<V> values() {
-    return StorageIterators.createIterator(
-        nativeCreateValuesIter(getNativeHandle()),
-        this::nativeValuesIterNext,
-        this::nativeValuesIterFree,
-        dbAccess,
-        modCounter,
-        valueSerializer::fromBytes
-    );
-  }
+  native void nativeRemove(long nativeHandle, byte[] key);
 
-  private native long nativeCreateValuesIter(long nativeHandle);
+  @Override
+  native void nativeRemoveAll(long nativeHandle, byte[] packedKeys);
 
-  private native byte[] nativeValuesIterNext(long iterNativeHandle);
+  @Override
+  native long nativeCreateKeysIter(long nativeHandle);
 
-  private native void nativeValuesIterFree(long iterNativeHandle);
+  @Override
+  native long nativeKeysFrom(long nativeHandle, byte[] fromKey);
 
   @Override
-  public Iterator<MapEntry<K, V>> entries() {
-    return StorageIterators.createIterator(
-        nativeCreateEntriesIter(getNativeHandle()),
-        this::nativeEntriesIterNext,
-        this::nativeEntriesIterFree,
-        dbAccess,
-        modCounter,
-        (entry) -> entry.toMapEntry(entry, keySerializer, valueSerializer)
-    );
-  }
+  native byte[] nativeKeysIterNextChunk(long iterNativeHandle, int chunkSize);
 
-  private native long nativeCreateEntriesIter(long nativeHandle);
+  @Override
+  native void nativeKeysIterFree(long iterNativeHandle);
 
-  private native MapEntryInternal nativeEntriesIterNext(long iterNativeHandle);
+  @Override
+  native long nativeCreateValuesIter(long nativeHandle);
 
-  private native void nativeEntriesIterFree(long iterNativeHandle);
+  @Override
+  native long nativeValuesFrom(long nativeHandle, byte[] fromKey);
 
   @Override
-  public void clear() {
-    notifyModified();
-    nativeClear(getNativeHandle());
-  }
+  native byte[] nativeValuesIterNextChunk(long iterNativeHandle, int chunkSize);
 
-  private native void nativeClear(long nativeHandle);
+  @Override
+  native void nativeValuesIterFree(long iterNativeHandle);
 
-  private static native void nativeFree(long nativeHandle);
+  @Override
+  native long nativeCreateEntriesIter(long nativeHandle);
+
+  @Override
+  native long nativeCreateIterFrom(long nativeHandle, byte[] fromKey);
+
+  @Override
+  native byte[] nativeEntriesIterNextChunk(long iterNativeHandle, int chunkSize);
+
+  @Override
+  native void nativeEntriesIterFree(long iterNativeHandle);
+
+  @Override
+  native void nativeClear(long nativeHandle);
 }
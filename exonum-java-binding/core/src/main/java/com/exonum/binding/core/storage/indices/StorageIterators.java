@@ -20,31 +20,65 @@ import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
+import com.exonum.binding.core.storage.indices.ChunkedRustIter.NextChunkFunction;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterators;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Function;
 import java.util.function.LongConsumer;
-import java.util.function.LongFunction;
+import java.util.function.Predicate;
 
 final class StorageIterators {
 
   /**
-   * Creates a new iterator over an index.
+   * The default number of elements fetched from the native iterator in a single call
+   * by chunked iterators.
+   */
+  static final int DEFAULT_CHUNK_SIZE = 256;
+
+  /**
+   * Creates a new iterator over an index that fetches the elements from the native iterator
+   * in chunks of {@linkplain #DEFAULT_CHUNK_SIZE default size}.
+   *
+   * @see #createChunkedIterator(long, NextChunkFunction, Function, int, LongConsumer,
+   *     AbstractAccess, ModificationCounter, Function)
+   */
+  static <ElementT, NativeT> Iterator<ElementT> createChunkedIterator(
+      long nativeHandle,
+      NextChunkFunction nextChunkFunction,
+      Function<byte[], List<NativeT>> unpackFunction,
+      LongConsumer disposeOperation,
+      AbstractAccess collectionAccess,
+      ModificationCounter modificationCounter,
+      Function<? super NativeT, ? extends ElementT> transformingFunction) {
+    return createChunkedIterator(nativeHandle, nextChunkFunction, unpackFunction,
+        DEFAULT_CHUNK_SIZE, disposeOperation, collectionAccess, modificationCounter,
+        transformingFunction);
+  }
+
+  /**
+   * Creates a new iterator over an index that fetches the elements from the native iterator
+   * in chunks, using a single native call per chunk.
    *
-   * <p>The returned iterator is a {@link ConfigurableRustIter}
+   * <p>The returned iterator is a {@link ChunkedRustIter}
    * wrapped in a {@link RustIterAdapter}.
    *
    * @param nativeHandle nativeHandle of this iterator
-   * @param nextFunction a function to call to get the next item
+   * @param nextChunkFunction a function to call to get the next chunk of items
+   * @param unpackFunction a function to unpack the items from the chunk
+   *                       (usually, into arrays of bytes)
+   * @param chunkSize the maximum number of items to fetch in a single chunk
    * @param disposeOperation an operation to call to destroy the corresponding native iterator
    * @param collectionAccess a database access of the collection over which to iterate
    * @param modificationCounter a modification counter of the collection
-   * @param transformingFunction a function to apply to elements returned by native iterator
-   *                             (usually, to an array of bytes)
+   * @param transformingFunction a function to apply to the unpacked items
    */
-  static <ElementT, NativeT> Iterator<ElementT> createIterator(
+  static <ElementT, NativeT> Iterator<ElementT> createChunkedIterator(
       long nativeHandle,
-      LongFunction<NativeT> nextFunction,
+      NextChunkFunction nextChunkFunction,
+      Function<byte[], List<NativeT>> unpackFunction,
+      int chunkSize,
       LongConsumer disposeOperation,
       AbstractAccess collectionAccess,
       ModificationCounter modificationCounter,
@@ -56,9 +90,11 @@ final class StorageIterators {
     cleaner.add(new ProxyDestructor(handle, RustIter.class, disposeOperation));
 
     Iterator<NativeT> iterator = new RustIterAdapter<>(
-        new ConfigurableRustIter<>(
+        new ChunkedRustIter<>(
             handle,
-            nextFunction,
+            nextChunkFunction,
+            unpackFunction,
+            chunkSize,
             modificationCounter
         )
     );
@@ -66,5 +102,27 @@ final class StorageIterators {
     return Iterators.transform(iterator, transformingFunction::apply);
   }
 
+  /**
+   * Returns a view of the given iterator that returns its elements while they satisfy
+   * the predicate, and ends at the first element that does not.
+   *
+   * @param iterator the source iterator
+   * @param predicate a predicate that the returned elements satisfy
+   */
+  static <E> Iterator<E> takeWhile(Iterator<E> iterator, Predicate<? super E> predicate) {
+    return new AbstractIterator<E>() {
+      @Override
+      protected E computeNext() {
+        if (iterator.hasNext()) {
+          E next = iterator.next();
+          if (predicate.test(next)) {
+            return next;
+          }
+        }
+        return endOfData();
+      }
+    };
+  }
+
   private StorageIterators() {}
 }
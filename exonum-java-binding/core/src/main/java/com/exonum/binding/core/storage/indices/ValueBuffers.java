@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.proxy.ProxyDestructor;
+import com.exonum.binding.core.storage.database.AbstractAccess;
+import com.exonum.binding.core.util.LibraryLoader;
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
+
+/**
+ * Provides access to the index values stored in native memory as direct byte buffers,
+ * without copying them into Java heap arrays.
+ *
+ * <p>A native value is kept alive till the cleaner, in which it is registered, is closed.
+ * That is either the {@linkplain AbstractAccess#getCleaner() cleaner} of the access,
+ * from which the value was read; or a cleaner passed by the caller to release the values
+ * early (e.g., when reading the values in a loop). The buffers <strong>must not</strong>
+ * be used after the cleaner is closed.
+ */
+final class ValueBuffers {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  /**
+   * Returns a read-only direct buffer with the contents of the native value.
+   *
+   * @param valueHandle a native handle of the value; or
+   *     {@link NativeHandle#INVALID_NATIVE_HANDLE} if there is no value
+   * @param cleaner a cleaner to register the value in; the value is destroyed
+   *     when this cleaner is closed
+   * @return a read-only direct buffer with the value; or {@code null} if there is no value
+   */
+  @Nullable
+  static ByteBuffer fromNativeValue(long valueHandle, Cleaner cleaner) {
+    if (valueHandle == NativeHandle.INVALID_NATIVE_HANDLE) {
+      return null;
+    }
+    // Register the destructor first.
+    NativeHandle handle = new NativeHandle(valueHandle);
+    ProxyDestructor.newRegistered(cleaner, handle, ValueBuffers.class, ValueBuffers::nativeFree);
+
+    return nativeNewDirectBuffer(handle.get())
+        .asReadOnlyBuffer();
+  }
+
+  private static native ByteBuffer nativeNewDirectBuffer(long valueHandle);
+
+  private static native void nativeFree(long valueHandle);
+
+  private ValueBuffers() {}
+}
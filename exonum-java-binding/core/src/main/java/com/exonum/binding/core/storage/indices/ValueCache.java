@@ -0,0 +1,277 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.exonum.binding.common.serialization.Serializer;
+import com.exonum.binding.core.storage.database.AbstractAccess;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache of the values read by map and entry indexes of a single database access.
+ * Keeps the deserialized values, so that repeated reads of the same key within a transaction
+ * or a read request do not cross the JNI boundary and decode the value again.
+ *
+ * <p>The cache is disabled by default; it is enabled per access with
+ * {@link AbstractAccess#enableValueCache(int)}. When the cache is full, the least recently
+ * used values are evicted.
+ *
+ * <p>The cached values are invalidated by the writes made through the indexes created with
+ * the same access, and by {@linkplain com.exonum.binding.core.storage.database.Fork#rollback()
+ * rollbacks}. The cache is not aware of the writes made through <em>other</em> accesses
+ * to the same database object (e.g., a prefixed access based on the same fork) — such
+ * indexes must not be modified while the cache is in use.
+ *
+ * <p>The cache is used only by the indexes created with the access in which it is enabled.
+ * In particular, the {@link com.exonum.binding.core.storage.database.Prefixed} accesses
+ * to the service data (e.g., {@code BlockchainData#getExecutingServiceData}) do not use
+ * the cache of the base fork or snapshot, as they resolve the index addresses differently.
+ * The cache may be enabled in such an access directly; but it is not invalidated
+ * by the rollbacks of the base fork.
+ *
+ * <p>The same value object is returned on each read of a cached value, therefore, the cache
+ * shall only be enabled when the stored values are immutable.
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class ValueCache {
+
+  private static final byte[] NO_KEY = new byte[0];
+
+  private final int maxSize;
+  private final Map<CacheKey, CachedValue> values;
+  private long hitCount;
+  private long missCount;
+
+  private ValueCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.values = new LinkedHashMap<CacheKey, CachedValue>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedValue> eldest) {
+        return size() > ValueCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * Creates a new empty cache.
+   *
+   * @param maxSize the maximum number of values to keep in the cache
+   * @throws IllegalArgumentException if maxSize is not positive
+   */
+  public static ValueCache newInstance(int maxSize) {
+    checkArgument(maxSize > 0, "maxSize must be positive: %s", maxSize);
+    return new ValueCache(maxSize);
+  }
+
+  /**
+   * Returns the number of reads that were served from this cache.
+   */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the number of reads that had to load the value from the database.
+   */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the number of values currently in this cache.
+   */
+  public int size() {
+    return values.size();
+  }
+
+  /**
+   * Returns the maximum number of values this cache may keep.
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Removes all values from this cache. The hit and miss counters are not reset.
+   */
+  public void invalidateAll() {
+    values.clear();
+  }
+
+  /**
+   * Returns the cached value of the entry index with the given address, loading it if needed.
+   */
+  CachedValue get(IndexAddress index, UnaryOperator<byte[]> loader) {
+    return get(index, NO_KEY, loader);
+  }
+
+  /**
+   * Returns the cached value of the given key, loading it if it is not in the cache.
+   *
+   * @param index the address of the index
+   * @param key the database key
+   * @param loader a function reading the database value of the key; it returns
+   *     {@code null} if there is no value
+   */
+  CachedValue get(IndexAddress index, byte[] key, UnaryOperator<byte[]> loader) {
+    CachedValue value = getIfPresent(index, key);
+    if (value != null) {
+      return value;
+    }
+    return put(index, key, loader.apply(key));
+  }
+
+  /**
+   * Returns the cached value of the given key; or {@code null} if it is not in the cache.
+   * A found value is counted as a hit; a value that is not found is counted as a miss
+   * when the caller {@linkplain #put(IndexAddress, byte[], byte[]) puts} it.
+   *
+   * @param index the address of the index
+   * @param key the database key
+   */
+  @Nullable
+  CachedValue getIfPresent(IndexAddress index, byte[] key) {
+    CachedValue value = values.get(new CacheKey(index, key));
+    if (value != null) {
+      hitCount++;
+    }
+    return value;
+  }
+
+  /**
+   * Puts the database value of the given key, which the caller has loaded because it was
+   * {@linkplain #getIfPresent(IndexAddress, byte[]) not found} in the cache.
+   *
+   * @param index the address of the index
+   * @param key the database key
+   * @param dbValue the database value of the key; or {@code null} if there is no value
+   * @return the cached value
+   */
+  CachedValue put(IndexAddress index, byte[] key, @Nullable byte[] dbValue) {
+    missCount++;
+    CachedValue value = new CachedValue(dbValue);
+    values.put(new CacheKey(index, key), value);
+    return value;
+  }
+
+  /**
+   * Removes the value of the entry index with the given address from this cache.
+   */
+  void invalidate(IndexAddress index) {
+    invalidate(index, NO_KEY);
+  }
+
+  /**
+   * Removes the value of the given key from this cache.
+   */
+  void invalidate(IndexAddress index, byte[] key) {
+    values.remove(new CacheKey(index, key));
+  }
+
+  /**
+   * Removes all values of the index with the given address from this cache.
+   */
+  void invalidateIndex(IndexAddress index) {
+    Iterator<CacheKey> keys = values.keySet().iterator();
+    while (keys.hasNext()) {
+      if (keys.next().index.equals(index)) {
+        keys.remove();
+      }
+    }
+  }
+
+  /**
+   * A database value of some key, which is decoded on the first request.
+   */
+  static final class CachedValue {
+
+    @Nullable
+    private final byte[] dbValue;
+    @Nullable
+    private Serializer<?> decodedWith;
+    @Nullable
+    private Object value;
+
+    private CachedValue(@Nullable byte[] dbValue) {
+      this.dbValue = dbValue;
+    }
+
+    /**
+     * Returns true if the database contains a value for the key.
+     */
+    boolean isPresent() {
+      return dbValue != null;
+    }
+
+    /**
+     * Returns the value decoded with the given serializer; or {@code null} if there is no value.
+     */
+    @SuppressWarnings("unchecked") // Decoded with the same serializer
+    @Nullable
+    <V> V getValue(Serializer<V> serializer) {
+      if (dbValue == null) {
+        return null;
+      }
+      // Indexes with the same address may be created with different serializers,
+      // hence the value must be decoded again if requested with another one.
+      if (decodedWith != serializer) {
+        value = serializer.fromBytes(dbValue);
+        decodedWith = serializer;
+      }
+      return (V) value;
+    }
+  }
+
+  private static final class CacheKey {
+
+    final IndexAddress index;
+    final byte[] key;
+    final int hash;
+
+    CacheKey(IndexAddress index, byte[] key) {
+      this.index = index;
+      this.key = key;
+      this.hash = 31 * index.hashCode() + Arrays.hashCode(key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey that = (CacheKey) o;
+      return hash == that.hash
+          && index.equals(that.index)
+          && Arrays.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
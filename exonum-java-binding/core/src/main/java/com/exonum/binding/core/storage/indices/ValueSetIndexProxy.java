@@ -17,6 +17,7 @@
 package com.exonum.binding.core.storage.indices;
 
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkStorageValue;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.exonum.binding.common.hash.HashCode;
@@ -31,7 +32,9 @@ import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
 import com.google.auto.value.AutoValue;
 import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Stream;
@@ -175,9 +178,10 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    * @throws IllegalStateException if this set is not valid
    */
   public Iterator<HashCode> hashes() {
-    return StorageIterators.createIterator(
+    return StorageIterators.createChunkedIterator(
         nativeCreateHashIterator(getNativeHandle()),
-        this::nativeHashIteratorNext,
+        this::nativeHashIteratorNextChunk,
+        PackedArrays::unpack,
         this::nativeHashIteratorFree,
         dbAccess,
         modCounter,
@@ -193,9 +197,10 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    */
   @Override
   public Iterator<Entry<E>> iterator() {
-    return StorageIterators.createIterator(
+    return StorageIterators.createChunkedIterator(
         nativeCreateIterator(getNativeHandle()),
-        this::nativeIteratorNext,
+        this::nativeIteratorNextChunk,
+        EntryInternal::unpackAll,
         this::nativeIteratorFree,
         dbAccess,
         modCounter,
@@ -204,7 +209,7 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
 
   private native long nativeCreateIterator(long nativeHandle);
 
-  private native EntryInternal nativeIteratorNext(long iterNativeHandle);
+  private native byte[] nativeIteratorNextChunk(long iterNativeHandle, int chunkSize);
 
   private native void nativeIteratorFree(long iterNativeHandle);
 
@@ -276,11 +281,26 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
     final byte[] hash;
     final byte[] value;
 
-    @SuppressWarnings("unused")  // native API
     private EntryInternal(byte[] hash, byte[] value) {
       this.hash = checkNotNull(hash);
       this.value = checkStorageValue(value);
     }
+
+    /**
+     * Unpacks the entries from the packed chunk, where each hash is followed by its value.
+     *
+     * @see PackedArrays
+     */
+    static List<EntryInternal> unpackAll(byte[] packedEntries) {
+      List<byte[]> arrays = PackedArrays.unpack(packedEntries);
+      checkArgument(arrays.size() % 2 == 0, "Each hash must be followed by a value, but got %s "
+          + "arrays", arrays.size());
+      List<EntryInternal> entries = new ArrayList<>(arrays.size() / 2);
+      for (int i = 0; i < arrays.size(); i += 2) {
+        entries.add(new EntryInternal(arrays.get(i), arrays.get(i + 1)));
+      }
+      return entries;
+    }
   }
 
   /**
@@ -322,8 +342,7 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
 
   private native long nativeCreateHashIterator(long nativeHandle);
 
-  @Nullable
-  private native byte[] nativeHashIteratorNext(long iterNativeHandle);
+  private native byte[] nativeHashIteratorNextChunk(long iterNativeHandle, int chunkSize);
 
   private native void nativeHashIteratorFree(long iterNativeHandle);
 
@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import com.google.common.testing.NullPointerTester;
@@ -178,4 +179,52 @@ class CleanerTest {
     assertThat(context.getNumRegisteredActions())
         .isZero();
   }
+
+  @Test
+  void closeNestedPerformsItsActionsOnly() throws Exception {
+    CleanAction parentAction = mock(CleanAction.class);
+    context.add(parentAction);
+    Cleaner nested = context.newNested("nested");
+    CleanAction nestedAction = mock(CleanAction.class);
+    nested.add(nestedAction);
+
+    nested.close();
+
+    verify(nestedAction).clean();
+    verify(parentAction, never()).clean();
+    assertThat(context.isClosed()).isFalse();
+    // The closed nested context must be removed from the parent
+    assertThat(context.getNumRegisteredActions()).isEqualTo(1);
+  }
+
+  @Test
+  void closeClosesNested() throws Exception {
+    Cleaner nested = context.newNested();
+    CleanAction nestedAction = mock(CleanAction.class);
+    nested.add(nestedAction);
+
+    context.close();
+
+    verify(nestedAction).clean();
+    assertThat(nested.isClosed()).isTrue();
+  }
+
+  @Test
+  void closeNestedAfterParentHasNoEffect() throws Exception {
+    Cleaner nested = context.newNested();
+    CleanAction nestedAction = mock(CleanAction.class);
+    nested.add(nestedAction);
+    context.close();
+
+    nested.close();
+
+    verify(nestedAction).clean();
+  }
+
+  @Test
+  void newNestedInClosedThrows() throws CloseFailuresException {
+    context.close();
+
+    assertThrows(IllegalStateException.class, () -> context.newNested());
+  }
 }
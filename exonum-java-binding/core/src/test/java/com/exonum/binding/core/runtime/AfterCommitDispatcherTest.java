@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.core.runtime;
+
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AfterCommitDispatcherTest {
+
+  private static final long HEIGHT = 1;
+
+  private Cleaner snapshotCleaner;
+  private Snapshot snapshot;
+  private Map<Snapshot, Thread> snapshotCopies;
+  private List<ServiceWrapper> services;
+  private AfterCommitDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    snapshotCleaner = new Cleaner("snapshot");
+    snapshot = mock(Snapshot.class);
+    when(snapshot.getCleaner()).thenReturn(snapshotCleaner);
+    snapshotCopies = new ConcurrentHashMap<>();
+    when(snapshot.newBorrowedCopy(any(Cleaner.class))).thenAnswer(invocation -> {
+      Cleaner copyCleaner = invocation.getArgument(0);
+      Snapshot copy = mock(Snapshot.class);
+      when(copy.getCleaner()).thenReturn(copyCleaner);
+      snapshotCopies.put(copy, Thread.currentThread());
+      return copy;
+    });
+    services = ImmutableList.of(service("a"), service("b"));
+  }
+
+  @AfterEach
+  void shutdown() throws InterruptedException {
+    if (dispatcher != null) {
+      dispatcher.shutdown();
+    }
+  }
+
+  @Test
+  void sequentialDispatch() {
+    dispatcher = new AfterCommitDispatcher(AfterCommitConfiguration.sequential());
+    List<String> notified = new CopyOnWriteArrayList<>();
+    List<Cleaner> scopes = new CopyOnWriteArrayList<>();
+    Thread caller = Thread.currentThread();
+
+    dispatcher.dispatch(services, snapshot, HEIGHT,
+        (service, serviceSnapshot, scope) -> {
+          assertThat(serviceSnapshot).isSameAs(snapshot);
+          assertThat(Thread.currentThread()).isSameAs(caller);
+          assertThat(scope.isClosed()).isFalse();
+          notified.add(service.getName());
+          scopes.add(scope);
+        });
+
+    assertThat(notified).containsExactly("a", "b");
+
+    // Check each service got its own nested scope, closed once it has processed the event
+    assertThat(scopes).doesNotHaveDuplicates()
+        .doesNotContain(snapshotCleaner)
+        .allMatch(Cleaner::isClosed);
+    assertThat(snapshotCleaner.isClosed()).isFalse();
+    assertThat(snapshotCleaner.getNumRegisteredActions()).isZero();
+  }
+
+  @Test
+  void sequentialDispatchWithFirstThrowing() {
+    dispatcher = new AfterCommitDispatcher(AfterCommitConfiguration.sequential());
+    List<String> notified = new CopyOnWriteArrayList<>();
+
+    dispatcher.dispatch(services, snapshot, HEIGHT, (service, serviceSnapshot, scope) -> {
+      notified.add(service.getName());
+      if (service.getName().equals("a")) {
+        throw new RuntimeException("Service exception");
+      }
+    });
+
+    // The exception must not disrupt the notification of the other services
+    assertThat(notified).containsExactly("a", "b");
+    AfterCommitMetrics metricsA = dispatcher.getMetrics("a");
+    assertThat(metricsA.getFailed()).isEqualTo(1);
+    assertThat(metricsA.getCompleted()).isZero();
+    AfterCommitMetrics metricsB = dispatcher.getMetrics("b");
+    assertThat(metricsB.getFailed()).isZero();
+    assertThat(metricsB.getCompleted()).isEqualTo(1);
+  }
+
+  @Test
+  void parallelDispatch() {
+    dispatcher = new AfterCommitDispatcher(AfterCommitConfiguration.newInstance(2,
+        Duration.ofMinutes(1)));
+    Map<String, Snapshot> notified = new ConcurrentHashMap<>();
+    Thread caller = Thread.currentThread();
+
+    dispatcher.dispatch(services, snapshot, HEIGHT,
+        (service, serviceSnapshot, scope) -> {
+          assertThat(serviceSnapshot.getCleaner()).isSameAs(scope);
+          notified.put(service.getName(), serviceSnapshot);
+        });
+
+    // Check each service got its own copy of the snapshot, created in the caller thread
+    assertThat(notified).containsOnlyKeys("a", "b");
+    Snapshot snapshotA = notified.get("a");
+    Snapshot snapshotB = notified.get("b");
+    assertThat(snapshotA).isNotSameAs(snapshot);
+    assertThat(snapshotB).isNotSameAs(snapshot)
+        .isNotSameAs(snapshotA);
+    assertThat(snapshotCopies).containsOnlyKeys(snapshotA, snapshotB);
+    assertThat(snapshotCopies.values()).containsOnly(caller);
+
+    // Check the proxies are destroyed once the services complete
+    assertThat(snapshotA.getCleaner().isClosed()).isTrue();
+    assertThat(snapshotB.getCleaner().isClosed()).isTrue();
+  }
+
+  @Test
+  void parallelDispatchWaitsForServicesAfterTimeout() throws Exception {
+    dispatcher = new AfterCommitDispatcher(AfterCommitConfiguration.newInstance(2,
+        Duration.ofMillis(10)));
+    CountDownLatch serviceMayComplete = new CountDownLatch(1);
+
+    ExecutorService caller = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> dispatched = caller.submit(() -> dispatcher.dispatch(services, snapshot, HEIGHT,
+          (service, serviceSnapshot, scope) -> {
+            if (service.getName().equals("a")) {
+              awaitUninterruptibly(serviceMayComplete);
+            }
+          }));
+
+      // Wait for the timeout of the service "a" to be recorded
+      while (dispatcher.getMetrics("a").getTimedOut() == 0) {
+        Thread.sleep(1);
+      }
+      // The dispatch must keep waiting for the service, as the snapshot is lent
+      // for the duration of the call
+      assertThat(dispatched).isNotDone();
+
+      serviceMayComplete.countDown();
+      dispatched.get(1, TimeUnit.MINUTES);
+      assertThat(dispatcher.getMetrics("a").getCompleted()).isEqualTo(1);
+      assertThat(dispatcher.getMetrics("b").getCompleted()).isEqualTo(1);
+    } finally {
+      caller.shutdown();
+    }
+  }
+
+  @Test
+  void parallelDispatchMoreServicesThanQueueCapacity() {
+    int parallelism = 2;
+    dispatcher = new AfterCommitDispatcher(AfterCommitConfiguration.newInstance(parallelism,
+        Duration.ofMinutes(1)));
+    int numServices = 2 * parallelism * AfterCommitDispatcher.MAX_QUEUED_EVENTS_PER_THREAD;
+    List<ServiceWrapper> manyServices = IntStream.range(0, numServices)
+        .mapToObj(i -> service("s" + i))
+        .collect(toList());
+    Set<String> notified = ConcurrentHashMap.newKeySet();
+
+    dispatcher.dispatch(manyServices, snapshot, HEIGHT,
+        (service, serviceSnapshot, scope) -> notified.add(service.getName()));
+
+    // The events that do not fit the queue are processed in the caller thread
+    assertThat(notified).hasSize(numServices);
+  }
+
+  private static ServiceWrapper service(String name) {
+    ServiceWrapper service = mock(ServiceWrapper.class, name);
+    when(service.getName()).thenReturn(name);
+    return service;
+  }
+}
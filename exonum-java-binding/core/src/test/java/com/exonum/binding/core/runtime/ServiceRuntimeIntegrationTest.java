@@ -58,6 +58,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -579,6 +584,43 @@ class ServiceRuntimeIntegrationTest {
       }
     }
 
+    @Test
+    void beforeTransactionsDuringArtifactDeployment() throws Exception {
+      // Block the deployment of an artifact in another thread
+      CountDownLatch deploymentStarted = new CountDownLatch(1);
+      CountDownLatch deploymentAllowedToFinish = new CountDownLatch(1);
+      ServiceArtifactId otherArtifactId = ServiceArtifactId
+          .newJavaId("com.acme/bar-service", "1.0.0");
+      String otherArtifactFilename = "bar-service.jar";
+      when(serviceLoader.loadService(ARTIFACTS_DIR.resolve(otherArtifactFilename)))
+          .thenAnswer(invocation -> {
+            deploymentStarted.countDown();
+            deploymentAllowedToFinish.await();
+            return LoadedServiceDefinition.newInstance(otherArtifactId, TestServiceModule::new);
+          });
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try (Database database = TemporaryDb.newInstance();
+          Cleaner cleaner = new Cleaner()) {
+        Future<?> deployment = executor.submit(() -> {
+          serviceRuntime.deployArtifact(otherArtifactId, otherArtifactFilename);
+          return null;
+        });
+        deploymentStarted.await();
+
+        // The active service must be accessible during the deployment
+        Fork fork = database.createFork(cleaner);
+        BlockchainData blockchainData = BlockchainData.fromRawAccess(fork, TEST_NAME);
+        serviceRuntime.beforeTransactions(TEST_ID, blockchainData);
+        verify(serviceWrapper).beforeTransactions(blockchainData);
+
+        deploymentAllowedToFinish.countDown();
+        deployment.get(1, TimeUnit.MINUTES);
+      } finally {
+        deploymentAllowedToFinish.countDown();
+        executor.shutdownNow();
+      }
+    }
+
     @Test
     void afterTransactionsSingleService() throws CloseFailuresException {
       try (Database database = TemporaryDb.newInstance();
@@ -612,10 +654,12 @@ class ServiceRuntimeIntegrationTest {
     @Test
     void afterCommitSingleService() {
       Snapshot snapshot = mock(Snapshot.class);
+      Cleaner snapshotCleaner = new Cleaner();
+      when(snapshot.getCleaner()).thenReturn(snapshotCleaner);
       OptionalInt validatorId = OptionalInt.of(1);
       long height = 2L;
       BlockchainData blockchainData = mock(BlockchainData.class);
-      when(blockchainDataFactory.fromRawAccess(snapshot, TEST_NAME))
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), eq(TEST_NAME)))
           .thenReturn(blockchainData);
 
       serviceRuntime.afterCommit(snapshot, validatorId, height);
@@ -627,15 +671,25 @@ class ServiceRuntimeIntegrationTest {
       assertThat(actual.getValidatorId()).isEqualTo(validatorId);
       assertThat(actual.getHeight()).isEqualTo(height);
       assertThat(actual.getSnapshot()).isEqualTo(blockchainData);
+
+      // Check the BlockchainData is created in a nested scope, closed after the service
+      // has processed the event
+      ArgumentCaptor<Cleaner> scope = ArgumentCaptor.forClass(Cleaner.class);
+      verify(blockchainDataFactory).fromRawAccess(eq(snapshot), scope.capture(), eq(TEST_NAME));
+      assertThat(scope.getValue()).isNotSameAs(snapshotCleaner);
+      assertThat(scope.getValue().isClosed()).isTrue();
+      assertThat(snapshotCleaner.isClosed()).isFalse();
     }
 
     @Test
     void afterCommitSingleServiceThrowingException() {
       Snapshot snapshot = mock(Snapshot.class);
+      Cleaner snapshotCleaner = new Cleaner();
+      when(snapshot.getCleaner()).thenReturn(snapshotCleaner);
       OptionalInt validatorId = OptionalInt.of(1);
       long height = 2L;
       BlockchainData blockchainData = mock(BlockchainData.class);
-      when(blockchainDataFactory.fromRawAccess(snapshot, TEST_NAME))
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), eq(TEST_NAME)))
           .thenReturn(blockchainData);
       doThrow(RuntimeException.class).when(serviceWrapper)
           .afterCommit(any(BlockCommittedEvent.class));
@@ -708,8 +762,9 @@ class ServiceRuntimeIntegrationTest {
       doThrow(RuntimeException.class).when(service1).afterCommit(any(BlockCommittedEvent.class));
 
       Snapshot snapshot = mock(Snapshot.class);
+      when(snapshot.getCleaner()).thenReturn(new Cleaner());
       BlockchainData blockchainData = mock(BlockchainData.class);
-      when(blockchainDataFactory.fromRawAccess(eq(snapshot), anyString()))
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), anyString()))
           .thenReturn(blockchainData);
       OptionalInt validatorId = OptionalInt.of(1);
       long height = 2L;
@@ -727,7 +782,8 @@ class ServiceRuntimeIntegrationTest {
       // Verify the blockchain data instantiation
       InOrder dataOrder = Mockito.inOrder(blockchainDataFactory);
       for (ServiceWrapper service : services) {
-        dataOrder.verify(blockchainDataFactory).fromRawAccess(snapshot, service.getName());
+        dataOrder.verify(blockchainDataFactory).fromRawAccess(eq(snapshot), any(Cleaner.class),
+            eq(service.getName()));
       }
     }
   }
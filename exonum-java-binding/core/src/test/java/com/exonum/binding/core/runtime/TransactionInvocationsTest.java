@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.core.runtime;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import com.exonum.binding.core.runtime.invocation.Invocation;
+import com.exonum.binding.core.runtime.isolated.IsolatedTxService;
+import com.exonum.binding.core.transaction.TransactionContext;
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.net.URL;
+import org.junit.jupiter.api.Test;
+
+class TransactionInvocationsTest {
+
+  private static final byte[] ARGUMENTS = new byte[0];
+
+  private final TransactionContext context = mock(TransactionContext.class);
+
+  @Test
+  void forMethodInvokesMethod() throws Throwable {
+    TxService service = spy(new TxService());
+    MethodHandle method = findMethod("transactionMethod", void.class);
+    Invocation invocation = TransactionInvocations.forMethod(TxService.class, method);
+
+    invocation.invoke(service, ARGUMENTS, context);
+
+    verify(service).transactionMethod(ARGUMENTS, context);
+  }
+
+  @Test
+  void generateInvocationInvokesMethod() throws Throwable {
+    TxService service = spy(new TxService());
+    MethodHandle method = findMethod("transactionMethod", void.class);
+    Invocation invocation = TransactionInvocations.generateInvocation(TxService.class,
+        method);
+
+    invocation.invoke(service, ARGUMENTS, context);
+
+    verify(service).transactionMethod(ARGUMENTS, context);
+  }
+
+  @Test
+  void forMethodGeneratesInvocationInServiceClassLoader() throws Throwable {
+    // Java 8 does not allow to look up the classes in other packages with private access
+    assumeTrue(hasPrivateLookupIn());
+    String serviceClassName = IsolatedTxService.class.getName();
+    ClassLoader serviceClassLoader = new IsolatingClassLoader(serviceClassName,
+        getClass().getClassLoader());
+    Class<?> serviceClass = serviceClassLoader.loadClass(serviceClassName);
+    MethodHandle method = MethodHandles.publicLookup().findVirtual(serviceClass,
+        "transactionMethod", methodType(void.class, byte[].class, TransactionContext.class));
+
+    Invocation invocation = TransactionInvocations.forMethod(serviceClass, method);
+
+    // The generated invocation is defined by the service class loader,
+    // unlike the method handle-based one
+    assertThat(invocation.getClass().getClassLoader()).isSameAs(serviceClassLoader);
+
+    Object service = serviceClass.getConstructor().newInstance();
+    invocation.invoke(service, ARGUMENTS, context);
+
+    verify(context).getServiceName();
+  }
+
+  @Test
+  void forMethodIgnoresReturnValue() throws Throwable {
+    TxService service = spy(new TxService());
+    MethodHandle method = findMethod("returningTransactionMethod", int.class);
+    Invocation invocation = TransactionInvocations.forMethod(TxService.class, method);
+
+    invocation.invoke(service, ARGUMENTS, context);
+
+    verify(service).returningTransactionMethod(ARGUMENTS, context);
+  }
+
+  @Test
+  void forMethodPropagatesExceptions() throws Throwable {
+    TxService service = new TxService();
+    MethodHandle method = findMethod("throwingTransactionMethod", void.class);
+    Invocation invocation = TransactionInvocations.forMethod(TxService.class, method);
+
+    assertThrows(IllegalStateException.class,
+        () -> invocation.invoke(service, ARGUMENTS, context));
+  }
+
+  @Test
+  void forMethodRejectsArgumentsOfWrongType() throws Throwable {
+    TxService service = new TxService();
+    MethodHandle method = findMethod("transactionMethod", void.class);
+    Invocation invocation = TransactionInvocations.forMethod(TxService.class, method);
+
+    assertThrows(ClassCastException.class,
+        () -> invocation.invoke(service, "Not a byte array", context));
+  }
+
+  @Test
+  void forMethodHandleInvokesMethod() throws Throwable {
+    TxService service = spy(new TxService());
+    MethodHandle method = findMethod("transactionMethod", void.class);
+    Invocation invocation = TransactionInvocations.forMethodHandle(method);
+
+    invocation.invoke(service, ARGUMENTS, context);
+
+    verify(service).transactionMethod(ARGUMENTS, context);
+  }
+
+  private static MethodHandle findMethod(String name, Class<?> returnType)
+      throws ReflectiveOperationException {
+    Lookup lookup = MethodHandles.lookup();
+    return lookup.findVirtual(TxService.class, name,
+        methodType(returnType, byte[].class, TransactionContext.class));
+  }
+
+  private static boolean hasPrivateLookupIn() {
+    try {
+      MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * A class loader that defines the given class itself, and delegates the loading
+   * of any other classes to the parent.
+   */
+  private static final class IsolatingClassLoader extends ClassLoader {
+
+    private final String isolatedClassName;
+
+    IsolatingClassLoader(String isolatedClassName, ClassLoader parent) {
+      super(parent);
+      this.isolatedClassName = isolatedClassName;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.equals(isolatedClassName)) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> loadedClass = findLoadedClass(name);
+        if (loadedClass == null) {
+          loadedClass = defineIsolatedClass(name);
+        }
+        return loadedClass;
+      }
+    }
+
+    private Class<?> defineIsolatedClass(String name) throws ClassNotFoundException {
+      URL classFile = getParent().getResource(name.replace('.', '/') + ".class");
+      if (classFile == null) {
+        throw new ClassNotFoundException(name);
+      }
+      try {
+        byte[] bytecode = Resources.toByteArray(classFile);
+        return defineClass(name, bytecode, 0, bytecode.length);
+      } catch (IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+  }
+
+  static class TxService {
+
+    void transactionMethod(byte[] arguments, TransactionContext context) {}
+
+    int returningTransactionMethod(byte[] arguments, TransactionContext context) {
+      return 1;
+    }
+
+    void throwingTransactionMethod(byte[] arguments, TransactionContext context) {
+      throw new IllegalStateException("Transaction failed");
+    }
+  }
+}
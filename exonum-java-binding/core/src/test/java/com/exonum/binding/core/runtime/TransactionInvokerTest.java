@@ -36,6 +36,8 @@ class TransactionInvokerTest {
 
   static final int TRANSACTION_ID = 1;
   static final int TRANSACTION_ID_2 = 2;
+  static final int SPARSE_TRANSACTION_ID = TransactionInvoker.MAX_DENSE_METHODS + 1;
+  static final int NEGATIVE_TRANSACTION_ID = -1;
 
   private static final byte[] ARGUMENTS = new byte[0];
   @Mock
@@ -62,6 +64,29 @@ class TransactionInvokerTest {
         .contains(String.format("No method with transaction id (%s)", invalidTransactionId));
   }
 
+  @Test
+  void invokeMissingTransactionIdBelowMax() {
+    TransactionInvoker invoker = new TransactionInvoker(new ValidService());
+    int missingTransactionId = 0;
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> invoker.invokeTransaction(missingTransactionId, ARGUMENTS, context));
+    assertThat(e.getMessage())
+        .contains(String.format("No method with transaction id (%s)", missingTransactionId));
+  }
+
+  @Test
+  void invokeSparseServiceTransactions() {
+    SparseIdsService service = spy(new SparseIdsService());
+    TransactionInvoker invoker = new TransactionInvoker(service);
+    invoker.invokeTransaction(TRANSACTION_ID, ARGUMENTS, context);
+    invoker.invokeTransaction(SPARSE_TRANSACTION_ID, ARGUMENTS, context);
+    invoker.invokeTransaction(NEGATIVE_TRANSACTION_ID, ARGUMENTS, context);
+
+    verify(service).transactionMethod(ARGUMENTS, context);
+    verify(service).sparseTransactionMethod(ARGUMENTS, context);
+    verify(service).negativeTransactionMethod(ARGUMENTS, context);
+  }
+
   @Test
   void invokeThrowingExecutionException() {
     ExecutionException e = new ExecutionException((byte) 0);
@@ -122,6 +147,21 @@ class TransactionInvokerTest {
     public void transactionMethod2(byte[] arguments, TransactionContext context) {}
   }
 
+  public static class SparseIdsService extends BasicService {
+
+    @Transaction(TRANSACTION_ID)
+    @SuppressWarnings("WeakerAccess") // Should be accessible
+    public void transactionMethod(byte[] arguments, TransactionContext context) {}
+
+    @Transaction(SPARSE_TRANSACTION_ID)
+    @SuppressWarnings("WeakerAccess") // Should be accessible
+    public void sparseTransactionMethod(byte[] arguments, TransactionContext context) {}
+
+    @Transaction(NEGATIVE_TRANSACTION_ID)
+    @SuppressWarnings("WeakerAccess") // Should be accessible
+    public void negativeTransactionMethod(byte[] arguments, TransactionContext context) {}
+  }
+
   public static class ThrowingAnyException extends BasicService {
     private final Exception exception;
 
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime.isolated;
+
+import com.exonum.binding.core.transaction.TransactionContext;
+
+/**
+ * A service in a package other than the runtime package, which the tests load
+ * with a separate class loader, like the plugin class loaders do.
+ */
+public class IsolatedTxService {
+
+  public void transactionMethod(byte[] arguments, TransactionContext context) {
+    context.getServiceName();
+  }
+}
@@ -19,7 +19,11 @@ package com.exonum.binding.core.storage.database;
 import static com.exonum.binding.common.serialization.StandardSerializers.string;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V1;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V2;
+import static com.exonum.binding.core.storage.indices.TestStorageItems.V3;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -27,8 +31,12 @@ import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
 import com.exonum.binding.core.storage.indices.IndexAddress;
 import com.exonum.binding.core.storage.indices.ListIndex;
+import com.exonum.binding.core.storage.indices.MapIndex;
+import com.exonum.binding.core.storage.indices.ValueCache;
 import com.exonum.binding.test.RequiresNativeLibrary;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -276,6 +284,180 @@ class ForkIntegrationTest {
     }
   }
 
+  @Test
+  void rollbackInvalidatesIndexesFoundByAddressInPrefixedAccess()
+      throws CloseFailuresException {
+    try (TemporaryDb db = TemporaryDb.newInstance();
+        Cleaner cleaner = new Cleaner("parent")) {
+      Fork fork = db.createFork(cleaner);
+      Prefixed prefixed = Prefixed.fromAccess("ns", fork);
+
+      ListIndex<String> l1 = newList("test_list", prefixed);
+      l1.add(V1);
+
+      // Rollback through the fork, which shares the open indexes with the prefixed access
+      fork.rollback();
+
+      // Check a new index is created by the prefixed access
+      ListIndex<String> l2 = newList("test_list", prefixed);
+      assertThat(l2).isNotSameAs(l1);
+      assertThat(l2).isEmpty();
+    }
+  }
+
+  @Test
+  void rollbackInvalidatesValueCache() throws CloseFailuresException {
+    try (TemporaryDb db = TemporaryDb.newInstance();
+        Cleaner cleaner = new Cleaner("parent")) {
+      Fork fork = db.createFork(cleaner);
+      ValueCache cache = fork.enableValueCache(16);
+      IndexAddress address = IndexAddress.valueOf("test_map");
+
+      // Put a value after a checkpoint and read it into the cache
+      fork.createCheckpoint();
+      MapIndex<String, String> m1 = fork.getMap(address, string(), string());
+      m1.put("k1", V1);
+      assertThat(m1.get("k1")).isEqualTo(V1);
+      assertThat(cache.size()).isEqualTo(1);
+
+      // Rollback the changes
+      fork.rollback();
+
+      // Check the cached value is no longer returned
+      assertThat(cache.size()).isZero();
+      MapIndex<String, String> m2 = fork.getMap(address, string(), string());
+      assertThat(m2.get("k1")).isNull();
+    }
+  }
+
+  @Test
+  void readsObserveBufferedWrites() throws CloseFailuresException {
+    try (TemporaryDb db = TemporaryDb.newInstance();
+        Cleaner cleaner = new Cleaner("parent")) {
+      Fork fork = db.createFork(cleaner);
+      fork.enableWriteBuffering();
+
+      ListIndex<String> list = newList("test_list", fork);
+      list.add(V1);
+      list.add(V2);
+      assertThat(list).containsExactly(V1, V2);
+
+      MapIndex<String, String> map = newMap("test_map", fork);
+      map.put("k1", V1);
+      map.put("k1", V2);
+      assertThat(map.get("k1")).isEqualTo(V2);
+      map.remove("k1");
+      assertThat(map.containsKey("k1")).isFalse();
+    }
+  }
+
+  @Test
+  void batchReadsObserveBufferedWrites() throws CloseFailuresException {
+    try (TemporaryDb db = TemporaryDb.newInstance();
+        Cleaner cleaner = new Cleaner("parent")) {
+      Fork fork = db.createFork(cleaner);
+      fork.enableWriteBuffering();
+
+      MapIndex<String, String> map = newMap("test_map", fork);
+      map.put("k1", V1);
+      map.put("k2", V2);
+      fork.flushWrites();
+      // Buffer the writes of some keys
+      map.remove("k1");
+      map.put("k3", V3);
+
+      assertThat(map.getAll(asList("k1", "k2", "k3", "k4")))
+          .containsExactly(entry("k2", V2), entry("k3", V3));
+      assertThat(map.containsAll(asList("k2", "k3"))).isTrue();
+      assertThat(map.containsAll(asList("k1", "k2"))).isFalse();
+    }
+  }
+
+  @Test
+  void parallelStreamObservesBufferedWrites() throws CloseFailuresException {
+    try (TemporaryDb db = TemporaryDb.newInstance();
+        Cleaner cleaner = new Cleaner("parent")) {
+      Fork fork = db.createFork(cleaner);
+      fork.enableWriteBuffering();
+
+      ListIndex<String> list = newList("test_list", fork);
+      List<String> elements = IntStream.range(0, 1000)
+          .mapToObj(Integer::toString)
+          .collect(toList());
+      list.addAll(elements);
+
+      List<String> streamed = list.stream()
+          .parallel()
+          .collect(toList());
+
+      assertThat(streamed).isEqualTo(elements);
+    }
+  }
+
+  @Test
+  void mergeWritesBufferedChanges() throws Exception {
+    try (TemporaryDb db = TemporaryDb.newInstance();
+        Cleaner cleaner = new Cleaner("parent")) {
+      Fork fork = db.createFork(cleaner);
+      fork.enableWriteBuffering();
+
+      ListIndex<String> list = newList("test_list", fork);
+      list.add(V1);
+      MapIndex<String, String> map = newMap("test_map", fork);
+      map.put("k1", V1);
+      map.put("k2", V2);
+      map.put("k1", V3);
+      map.remove("k2");
+
+      db.merge(fork);
+
+      Snapshot snapshot = db.createSnapshot(cleaner);
+      assertThat(newList("test_list", snapshot)).containsExactly(V1);
+      MapIndex<String, String> mergedMap = newMap("test_map", snapshot);
+      assertThat(mergedMap.get("k1")).isEqualTo(V3);
+      assertThat(mergedMap.containsKey("k2")).isFalse();
+    }
+  }
+
+  @Test
+  void createCheckpointWritesBufferedChanges() throws CloseFailuresException {
+    try (TemporaryDb db = TemporaryDb.newInstance();
+        Cleaner cleaner = new Cleaner("parent")) {
+      Fork fork = db.createFork(cleaner);
+      fork.enableWriteBuffering();
+
+      newMap("test_map", fork).put("k1", V1);
+
+      // Create a checkpoint and rollback to it
+      fork.createCheckpoint();
+      fork.rollback();
+
+      assertThat(newMap("test_map", fork).get("k1")).isEqualTo(V1);
+    }
+  }
+
+  @Test
+  void rollbackDiscardsBufferedChanges() throws CloseFailuresException {
+    try (TemporaryDb db = TemporaryDb.newInstance();
+        Cleaner cleaner = new Cleaner("parent")) {
+      Fork fork = db.createFork(cleaner);
+      fork.enableWriteBuffering();
+
+      fork.createCheckpoint();
+      newList("test_list", fork).add(V1);
+
+      fork.rollback();
+
+      // Check the buffered writes are not flushed later
+      fork.flushWrites();
+      assertThat(newList("test_list", fork)).isEmpty();
+    }
+  }
+
+  private static MapIndex<String, String> newMap(String name, Access access) {
+    return access.getMap(IndexAddress.valueOf(name), string(), string());
+  }
+
   private static ListIndex<String> newList(String name, Access access) {
     return access.getList(IndexAddress.valueOf(name), string());
   }
@@ -20,6 +20,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
 import com.exonum.binding.core.storage.indices.StorageIndex;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +31,7 @@ import org.junit.jupiter.api.Test;
 class OpenIndexRegistryTest {
 
   OpenIndexRegistry registry = new OpenIndexRegistry();
+  Cleaner scope = new Cleaner();
 
   @Nested
   class WithSingleIndex {
@@ -38,7 +41,7 @@ class OpenIndexRegistryTest {
 
     @BeforeEach
     void registerIndex() {
-      registry.registerIndex(id, index);
+      registry.registerIndex(id, index, scope);
     }
 
     @Test
@@ -48,12 +51,21 @@ class OpenIndexRegistryTest {
       assertThat(actual).hasValue(index);
     }
 
+    @Test
+    void findOpenIndexFromClosedScope() throws CloseFailuresException {
+      assertThat(registry.findOpenIndex(id).isClosed()).isFalse();
+
+      scope.close();
+
+      assertThat(registry.findOpenIndex(id)).isNull();
+    }
+
     @Test
     void registerThrowsIfAlreadyRegisteredSameId() {
       StorageIndex otherIndex = mock(StorageIndex.class, "other index");
 
       Exception e = assertThrows(IllegalArgumentException.class,
-          () -> registry.registerIndex(id, otherIndex));
+          () -> registry.registerIndex(id, otherIndex, scope));
 
       String message = e.getMessage();
       assertThat(message).contains(String.valueOf(id))
@@ -61,6 +73,34 @@ class OpenIndexRegistryTest {
           .contains(String.valueOf(otherIndex));
     }
 
+    @Test
+    void findIndexFromClosedScope() throws CloseFailuresException {
+      scope.close();
+
+      Optional<StorageIndex> actual = registry.findIndex(id);
+
+      assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void registerReplacesIndexFromClosedScope() throws CloseFailuresException {
+      scope.close();
+      StorageIndex otherIndex = mock(StorageIndex.class, "other index");
+
+      registry.registerIndex(id, otherIndex, new Cleaner());
+
+      assertThat(registry.findIndex(id)).hasValue(otherIndex);
+    }
+
+    @Test
+    void clearChangesGeneration() {
+      int generation = registry.getGeneration();
+
+      registry.clear();
+
+      assertThat(registry.getGeneration()).isNotEqualTo(generation);
+    }
+
     @Test
     void clearRemovesTheIndex() {
       registry.clear();
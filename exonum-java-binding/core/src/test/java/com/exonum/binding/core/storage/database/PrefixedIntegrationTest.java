@@ -150,6 +150,30 @@ class PrefixedIntegrationTest {
       assertThrows(IllegalStateException.class, index::get);
     }
 
+    @Test
+    void baseAccessReopensIndexOnceNestedScopeIsClosed() throws CloseFailuresException {
+      Fork fork = db.createFork(cleaner);
+      String fullName = namespace + "." + entryName;
+      ProofEntryIndex<String> e1;
+      try (Cleaner nestedScope = fork.getCleaner().newNested("prefixed")) {
+        // Create a Prefixed Access in the nested scope and an index with it
+        Prefixed prefixed = Prefixed.fromAccess(namespace, fork, nestedScope);
+        e1 = prefixed.getProofEntry(IndexAddress.valueOf(entryName), string());
+
+        // Check the base access finds the same index
+        ProofEntryIndex<String> e2 = fork
+            .getProofEntry(IndexAddress.valueOf(fullName), string());
+        assertThat(e2).isSameAs(e1);
+      }
+
+      // Check the base access re-opens the index once the nested scope is closed
+      ProofEntryIndex<String> e3 = fork
+          .getProofEntry(IndexAddress.valueOf(fullName), string());
+      assertThat(e3).isNotSameAs(e1);
+      assertThat(e3.get()).isEqualTo("V1");
+      assertThrows(IllegalStateException.class, e1::get);
+    }
+
     @AfterEach
     void dropDatabase() throws CloseFailuresException {
       cleaner.close();
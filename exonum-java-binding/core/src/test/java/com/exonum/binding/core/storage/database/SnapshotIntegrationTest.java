@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.database;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.storage.indices.IndexAddress;
+import com.exonum.binding.core.storage.indices.MapIndex;
+import com.exonum.binding.test.RequiresNativeLibrary;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@RequiresNativeLibrary
+class SnapshotIntegrationTest {
+
+  private static final IndexAddress MAP_ADDRESS = IndexAddress.valueOf("test_map");
+
+  private Cleaner cleaner;
+  private TemporaryDb db;
+  private Map<String, String> entries;
+
+  @BeforeEach
+  void setUp() throws CloseFailuresException {
+    cleaner = new Cleaner();
+    db = TemporaryDb.newInstance();
+    cleaner.add(db::close);
+
+    ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    IntStream.range(0, 100)
+        .forEach(i -> builder.put("k" + i, "v" + i));
+    entries = builder.build();
+    try (Cleaner forkCleaner = new Cleaner()) {
+      Fork fork = db.createFork(forkCleaner);
+      MapIndex<String, String> map = newMap(fork);
+      entries.forEach(map::put);
+      db.merge(fork);
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws CloseFailuresException {
+    cleaner.close();
+  }
+
+  @Test
+  void borrowedCopySeesSameState() throws CloseFailuresException {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+
+    try (Cleaner copyCleaner = new Cleaner()) {
+      Snapshot copy = snapshot.newBorrowedCopy(copyCleaner);
+
+      assertThat(copy).isNotSameAs(snapshot);
+      assertThat(copy.getAccessNativeHandle()).isNotEqualTo(snapshot.getAccessNativeHandle());
+      assertThat(copy.canModify()).isFalse();
+      assertThat(readEntries(copy)).isEqualTo(entries);
+    }
+
+    // The snapshot remains usable once the copy is destroyed
+    assertThat(readEntries(snapshot)).isEqualTo(entries);
+  }
+
+  @Test
+  void borrowedCopiesCanBeUsedConcurrently() throws Exception {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    int numThreads = 4;
+    int numReads = 50;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try (Cleaner copiesCleaner = new Cleaner("copies")) {
+      // Create the copies in the thread using the snapshot
+      List<Future<?>> reads = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        Snapshot copy = snapshot.newBorrowedCopy(copiesCleaner.newNested());
+        reads.add(executor.submit(() -> {
+          for (int i = 0; i < numReads; i++) {
+            // Each read opens the index anew, so that the threads open and close
+            // the native indexes concurrently
+            try (Cleaner readCleaner = new Cleaner()) {
+              Snapshot readCopy = copy.newBorrowedCopy(readCleaner);
+              assertThat(readEntries(readCopy)).isEqualTo(entries);
+            }
+          }
+          return null;
+        }));
+      }
+
+      for (Future<?> read : reads) {
+        read.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static Map<String, String> readEntries(Access access) {
+    MapIndex<String, String> map = newMap(access);
+    ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    map.entries().forEachRemaining(e -> builder.put(e.getKey(), e.getValue()));
+    return builder.build();
+  }
+
+  private static MapIndex<String, String> newMap(Access access) {
+    return access.getMap(MAP_ADDRESS, string(), string());
+  }
+}
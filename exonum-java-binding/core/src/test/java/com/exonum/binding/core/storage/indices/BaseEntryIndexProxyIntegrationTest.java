@@ -34,6 +34,7 @@ import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
 import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
 import com.exonum.binding.core.storage.database.Snapshot;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -101,6 +102,27 @@ abstract class BaseEntryIndexProxyIntegrationTest<IndexT extends EntryIndex<Stri
         (e) -> assertThrows(NoSuchElementException.class, e::get));
   }
 
+  @Test
+  void cachedValueIsInvalidatedByWrites() throws CloseFailuresException {
+    try (Cleaner c = new Cleaner()) {
+      Fork fork = database.createFork(c);
+      ValueCache cache = fork.enableValueCache(4);
+      IndexT e = create(ENTRY_NAME, fork);
+
+      assertFalse(e.isPresent());
+      e.set(V1);
+      assertTrue(e.isPresent());
+      assertThat(e.get(), equalTo(V1));
+      e.set(V2);
+      assertThat(e.get(), equalTo(V2));
+      e.remove();
+      assertThrows(NoSuchElementException.class, e::get);
+
+      assertThat(cache.getHitCount(), equalTo(1L));
+      assertThat(cache.getMissCount(), equalTo(4L));
+    }
+  }
+
   @Test
   void removeIfNoValue() {
     runTestWithView(database::createFork, (e) -> {
@@ -138,6 +138,21 @@ abstract class BaseIndexProxyTestable<IndexT extends StorageIndex> {
     }
   }
 
+  @Test
+  void indexConstructorReturnsSameInstanceOfNonExistingIndexFromSnapshot()
+      throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      String name = "test_index";
+      Snapshot snapshot = database.createSnapshot(cleaner);
+      // The index does not exist in the database, hence has no id,
+      // but must be de-duplicated by its address
+      IndexT i1 = create(name, snapshot);
+      IndexT i2 = create(name, snapshot);
+
+      assertThat(i2, sameInstance(i1));
+    }
+  }
+
   @Test
   void indexConstructorAllowsMultipleInstancesFromForkInGroup() throws CloseFailuresException {
     try (Cleaner cleaner = new Cleaner()) {
@@ -42,6 +42,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -206,6 +207,59 @@ abstract class BaseListIndexIntegrationTestable
     }
   }
 
+  @Test
+  void getRangeOfAllElements() {
+    runTestWithView(database::createFork, (l) -> {
+      List<String> elements = asList(V1, V2, V3);
+      l.addAll(elements);
+
+      List<String> range = l.getRange(0, elements.size());
+
+      assertThat(range, equalTo(elements));
+    });
+  }
+
+  @Test
+  void getRangeOfSomeElements() {
+    runTestWithView(database::createFork, (l) -> {
+      l.addAll(asList(V1, V2, V3));
+
+      List<String> range = l.getRange(1, 2);
+
+      assertThat(range, equalTo(ImmutableList.of(V2)));
+    });
+  }
+
+  @Test
+  void getEmptyRange() {
+    runTestWithView(database::createFork, (l) -> {
+      l.addAll(asList(V1, V2));
+
+      List<String> range = l.getRange(2, 2);
+
+      assertTrue(range.isEmpty());
+    });
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {-1, 3})
+  void getRangeThrowsIfInvalidRange(long from) {
+    runTestWithView(database::createFork, (l) -> {
+      l.addAll(asList(V1, V2));
+
+      assertThrows(IndexOutOfBoundsException.class, () -> l.getRange(from, 2));
+    });
+  }
+
+  @Test
+  void getRangeThrowsIfRangeExceedsSize() {
+    runTestWithView(database::createFork, (l) -> {
+      l.addAll(asList(V1, V2));
+
+      assertThrows(IndexOutOfBoundsException.class, () -> l.getRange(0, 3));
+    });
+  }
+
   @Test
   void getLastEmptyList() {
     runTestWithView(database::createFork, (l) -> {
@@ -416,6 +470,22 @@ abstract class BaseListIndexIntegrationTestable
     });
   }
 
+  @Test
+  void testIteratorSpanningSeveralChunks() {
+    runTestWithView(database::createFork, (l) -> {
+      int numElements = 2 * StorageIterators.DEFAULT_CHUNK_SIZE + 1;
+      List<String> elements = IntStream.range(0, numElements)
+          .mapToObj(i -> "e" + i)
+          .collect(toList());
+
+      l.addAll(elements);
+
+      List<String> iterElements = ImmutableList.copyOf(l.iterator());
+
+      assertThat(iterElements, equalTo(elements));
+    });
+  }
+
   @Test
   void structuralModificationsInvalidateTheIterator() {
     runTestWithView(database::createFork, l -> {
@@ -508,6 +578,23 @@ abstract class BaseListIndexIntegrationTestable
     });
   }
 
+  @Test
+  void testStreamSpanningSeveralChunks() {
+    runTestWithView(database::createFork, (l) -> {
+      int numElements = 2 * StorageIterators.DEFAULT_CHUNK_SIZE + 1;
+      List<String> elements = IntStream.range(0, numElements)
+          .mapToObj(i -> "e" + i)
+          .collect(toList());
+
+      l.addAll(elements);
+
+      List<String> streamElements = l.stream()
+          .collect(toList());
+
+      assertThat(streamElements, equalTo(elements));
+    });
+  }
+
   @Test
   void streamIsLateBinding() {
     runTestWithView(database::createFork, (l) -> {
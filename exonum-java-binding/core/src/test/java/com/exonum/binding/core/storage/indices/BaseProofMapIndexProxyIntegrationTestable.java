@@ -331,6 +331,47 @@ abstract class BaseProofMapIndexProxyIntegrationTestable
         (map) -> assertThrows(UnsupportedOperationException.class, () -> map.remove(key1)));
   }
 
+  @Test
+  void containsAll() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(key1, V1, key2, V2));
+
+      assertTrue(map.containsAll(ImmutableList.of(key1, key2)));
+      assertFalse(map.containsAll(ImmutableList.of(key1, key3)));
+    });
+  }
+
+  @Test
+  void getAll() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(key1, V1, key2, V2));
+
+      Map<HashCode, String> values = map.getAll(ImmutableList.of(key2, key3, key1));
+
+      assertThat(values, equalTo(ImmutableMap.of(key2, V2, key1, V1)));
+    });
+  }
+
+  @Test
+  void removeAll() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(key1, V1, key2, V2, key3, V3));
+
+      map.removeAll(ImmutableList.of(key1, key3));
+
+      assertThat(map.getAll(ImmutableList.of(key1, key2, key3)),
+          equalTo(ImmutableMap.of(key2, V2)));
+      assertThat(map, provesThatCorrect(absentEntry(key1), presentEntry(key2, V2),
+          absentEntry(key3)));
+    });
+  }
+
+  @Test
+  void removeAllFailsIfSnapshot() {
+    runTestWithView(database::createSnapshot, (map) -> assertThrows(
+        UnsupportedOperationException.class, () -> map.removeAll(ImmutableList.of(key1))));
+  }
+
   @Test
   void clearEmptyHasNoEffect() {
     runTestWithView(database::createFork, ProofMapIndexProxy::clear);
@@ -418,6 +459,51 @@ abstract class BaseProofMapIndexProxyIntegrationTestable
     });
   }
 
+  @Test
+  void keysFromTest() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<HashCode, String>> entries = createSortedMapEntries();
+
+      putAll(map, entries);
+
+      HashCode from = entries.get(1).getKey();
+      List<HashCode> keysFromIter = ImmutableList.copyOf(map.keys(from));
+      List<HashCode> expectedKeys = MapEntries.extractKeys(entries.subList(1, entries.size()));
+
+      assertThat(keysFromIter, equalTo(expectedKeys));
+    });
+  }
+
+  @Test
+  void valuesFromTest() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<HashCode, String>> entries = createSortedMapEntries();
+
+      putAll(map, entries);
+
+      HashCode from = entries.get(1).getKey();
+      List<String> valuesFromIter = ImmutableList.copyOf(map.values(from));
+      List<String> expectedValues =
+          MapEntries.extractValues(entries.subList(1, entries.size()));
+
+      assertThat(valuesFromIter, equalTo(expectedValues));
+    });
+  }
+
+  @Test
+  void entriesFromTest() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<HashCode, String>> entries = createSortedMapEntries();
+
+      putAll(map, entries);
+
+      HashCode from = entries.get(1).getKey();
+      List<MapEntry<HashCode, String>> entriesFromIter = ImmutableList.copyOf(map.entries(from));
+
+      assertThat(entriesFromIter, equalTo(entries.subList(1, entries.size())));
+    });
+  }
+
   @Test
   void getProofFromSingleKey() {
     runTestWithView(database::createFork, (map) -> {
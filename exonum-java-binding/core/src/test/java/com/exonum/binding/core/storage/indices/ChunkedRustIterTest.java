@@ -1,5 +1,5 @@
 /*
- * Copyright 2019 The Exonum Team
+ * Copyright 2020 The Exonum Team
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,21 +27,29 @@ import static org.mockito.Mockito.when;
 
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Bytes;
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
-class ConfigurableRustIterTest {
+class ChunkedRustIterTest {
 
   private static final int INITIAL_MOD_COUNT = 11;
 
   private static final long DEFAULT_NATIVE_HANDLE = 0x05;
 
+  private static final int CHUNK_SIZE = 2;
+
   private ModificationCounter modCounter;
 
-  private ConfigurableRustIter<Integer> iter;
+  private ChunkedRustIter<Byte> iter;
+
+  private int numChunkRequests;
 
   @BeforeEach
   void setUp() {
@@ -50,14 +58,21 @@ class ConfigurableRustIterTest {
         .thenReturn(INITIAL_MOD_COUNT);
   }
 
-  @Test
-  void nextGoesThroughAllElements() {
-    List<Integer> underlyingList = asList(1, 2, 3);
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 3, 4, 5})
+  void nextGoesThroughAllElements(int numElements) {
+    List<Byte> underlyingList = new ArrayList<>();
+    for (int i = 0; i < numElements; i++) {
+      underlyingList.add((byte) i);
+    }
     createFromIterable(underlyingList);
 
-    List<Integer> iterElements = ImmutableList.copyOf(new RustIterAdapter<>(iter));
+    List<Byte> iterElements = ImmutableList.copyOf(new RustIterAdapter<>(iter));
 
     assertThat(iterElements, equalTo(underlyingList));
+    // Check the iterator does not request a chunk after a partial one
+    int expectedChunkRequests = numElements / CHUNK_SIZE + 1;
+    assertThat(numChunkRequests, equalTo(expectedChunkRequests));
   }
 
   @Test
@@ -70,8 +85,8 @@ class ConfigurableRustIterTest {
   }
 
   @Test
-  void nextFailsIfModifiedAfterFirstNext() {
-    createFromIterable(asList(1, 2));
+  void nextFailsIfModifiedWithinChunk() {
+    createFromIterable(asList((byte) 1, (byte) 2));
 
     iter.next();  // 1st must succeed
 
@@ -83,7 +98,7 @@ class ConfigurableRustIterTest {
   @Test
   void nextFailsIfHandleClosed() {
     NativeHandle nh = new NativeHandle(DEFAULT_NATIVE_HANDLE);
-    createFromIterable(nh, asList(1, 2));
+    createFromIterable(nh, asList((byte) 1, (byte) 2));
 
     // Close the native handle.
     nh.close();
@@ -91,26 +106,25 @@ class ConfigurableRustIterTest {
     assertThrows(IllegalStateException.class, () -> iter.next());
   }
 
-  @Test
-  void accessModificationResultsInTerminalState() {
-    createFromIterable(asList(1, 2));
-
-    notifyModified();
-
-    // Any subsequent call to #next must throw
-    assertThrows(ConcurrentModificationException.class, () -> iter.next());
-    assertThrows(ConcurrentModificationException.class, () -> iter.next());
-  }
-
-  private void createFromIterable(Iterable<Integer> it) {
+  private void createFromIterable(Iterable<Byte> it) {
     NativeHandle nh = new NativeHandle(DEFAULT_NATIVE_HANDLE);
     createFromIterable(nh, it);
   }
 
-  private void createFromIterable(NativeHandle nativeHandle, Iterable<Integer> it) {
-    Iterator<Integer> iterator = it.iterator();
-    iter = new ConfigurableRustIter<>(nativeHandle,
-        (h) -> iterator.hasNext() ? iterator.next() : null,
+  private void createFromIterable(NativeHandle nativeHandle, Iterable<Byte> it) {
+    Iterator<Byte> iterator = it.iterator();
+    numChunkRequests = 0;
+    iter = new ChunkedRustIter<>(nativeHandle,
+        (h, chunkSize) -> {
+          numChunkRequests++;
+          List<Byte> chunk = new ArrayList<>();
+          while (iterator.hasNext() && chunk.size() < chunkSize) {
+            chunk.add(iterator.next());
+          }
+          return Bytes.toArray(chunk);
+        },
+        Bytes::asList,
+        CHUNK_SIZE,
         modCounter);
   }
 
@@ -118,5 +132,4 @@ class ConfigurableRustIterTest {
     when(modCounter.isModifiedSince(eq(INITIAL_MOD_COUNT)))
         .thenReturn(true);
   }
-
 }
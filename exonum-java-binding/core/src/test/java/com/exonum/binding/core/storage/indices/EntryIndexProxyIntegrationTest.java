@@ -17,14 +17,41 @@
 package com.exonum.binding.core.storage.indices;
 
 import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static com.exonum.binding.core.storage.indices.TestStorageItems.V1;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.exonum.binding.core.storage.database.Access;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
 
 class EntryIndexProxyIntegrationTest
-    extends BaseEntryIndexProxyIntegrationTest<EntryIndex<String>> {
+    extends BaseEntryIndexProxyIntegrationTest<EntryIndexProxy<String>> {
+
+  @Test
+  void getAsBuffer() {
+    runTestWithView(database::createFork, (e) -> {
+      e.set(V1);
+
+      ByteBuffer value = e.getAsBuffer();
+
+      assertTrue(value.isDirect());
+      assertTrue(value.isReadOnly());
+      assertThat(SERIALIZER.fromBuffer(value), equalTo(V1));
+    });
+  }
+
+  @Test
+  void getAsBufferFailsIfNotPresent() {
+    runTestWithView(database::createSnapshot,
+        (e) -> assertThrows(NoSuchElementException.class, e::getAsBuffer));
+  }
 
   @Override
-  EntryIndex<String> create(IndexAddress address, Access access) {
-    return access.getEntry(address, string());
+  EntryIndexProxy<String> create(IndexAddress address, Access access) {
+    return (EntryIndexProxy<String>) access.getEntry(address, string());
   }
 }
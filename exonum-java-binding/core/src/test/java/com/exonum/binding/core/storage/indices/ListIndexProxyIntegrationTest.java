@@ -18,9 +18,20 @@ package com.exonum.binding.core.storage.indices;
 
 import static com.exonum.binding.common.serialization.StandardSerializers.string;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V1;
+import static com.exonum.binding.core.storage.indices.TestStorageItems.V2;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.exonum.binding.common.serialization.StandardSerializers;
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
 import com.exonum.binding.core.storage.database.Access;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
 
 /**
  * Inherits base tests of ListIndex interface methods and may contain
@@ -28,6 +39,41 @@ import com.exonum.binding.core.storage.database.Access;
  */
 class ListIndexProxyIntegrationTest extends BaseListIndexIntegrationTestable {
 
+  @Test
+  void getAsBuffer() {
+    runTestWithView(database::createFork, (l) -> {
+      l.add(V1);
+      l.add(V2);
+
+      ByteBuffer element = l.getAsBuffer(1);
+
+      assertTrue(element.isDirect());
+      assertTrue(element.isReadOnly());
+      assertThat(string().fromBuffer(element), equalTo(V2));
+    });
+  }
+
+  @Test
+  void getAsBufferThrowsIfInvalidIndex() {
+    runTestWithView(database::createFork, (l) -> {
+      l.add(V1);
+
+      assertThrows(IndexOutOfBoundsException.class, () -> l.getAsBuffer(1));
+    });
+  }
+
+  private void runTestWithView(Function<Cleaner, Access> accessFactory,
+      Consumer<ListIndexProxy<String>> listTest) {
+    try (Cleaner cleaner = new Cleaner()) {
+      Access access = accessFactory.apply(cleaner);
+      ListIndexProxy<String> list = create("test_list", access);
+
+      listTest.accept(list);
+    } catch (CloseFailuresException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   ListIndexProxy<String> create(String name, Access access) {
     return access.getList(IndexAddress.valueOf(name), string());
@@ -26,6 +26,7 @@ import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.List;
@@ -284,6 +285,43 @@ class ListSpliteratorTest {
     assertThat(spliterator.estimateSize()).isEqualTo(0);
   }
 
+  @Test
+  void forEachRemainingReadsTheRemainingRangeAtOnce() {
+    int[] source = IntStream.range(0, 10).toArray();
+    ListIndex<Integer> list = createListMock();
+    when(list.size()).thenReturn((long) source.length);
+    List<long[]> readRanges = new ArrayList<>();
+    ListSpliterator.RangeReader<Integer> rangeReader = (from, to, action) -> {
+      readRanges.add(new long[] {from, to});
+      for (long i = from; i < to; i++) {
+        action.accept(source[Math.toIntExact(i)]);
+      }
+    };
+    ModificationCounter counter = mock(ModificationCounter.class);
+    Spliterator<Integer> spliterator = new ListSpliterator<>(list, rangeReader, counter, true);
+
+    // Split the spliterator, and consume the suffix
+    Spliterator<Integer> prefixSplit = spliterator.trySplit();
+    List<Integer> suffix = new ArrayList<>();
+    spliterator.forEachRemaining(suffix::add);
+
+    assertThat(prefixSplit).isNotNull();
+    assertThat(suffix).containsExactly(5, 6, 7, 8, 9);
+    assertThat(readRanges).containsExactly(new long[] {5, 10});
+    assertThat(spliterator.estimateSize()).isZero();
+  }
+
+  @Test
+  void forEachRemainingDetectsModificationsByTheAction() {
+    ListIndex<Integer> list = createListMock();
+    when(list.size()).thenReturn(3L);
+    ModificationCounter counter = new IncrementalModificationCounter();
+    Spliterator<Integer> spliterator = new ListSpliterator<>(list, counter, true);
+
+    assertThrows(ConcurrentModificationException.class,
+        () -> spliterator.forEachRemaining(e -> counter.notifyModified()));
+  }
+
   private static Spliterator<Integer> createSpliteratorOf(int[] source) {
     ListIndex<Integer> list = createListMock();
     lenient().when(list.get(anyLong())).thenAnswer((Answer<Integer>) invocation -> {
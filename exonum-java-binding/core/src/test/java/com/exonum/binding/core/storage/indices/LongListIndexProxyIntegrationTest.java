@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.fixed64;
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+class LongListIndexProxyIntegrationTest extends BaseIndexProxyTestable<LongListIndexProxy> {
+
+  private static final String LIST_NAME = "test_list";
+
+  @Test
+  void addLongAppendsValues() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongListIndexProxy list = create(LIST_NAME, database.createFork(cleaner));
+
+      list.addLong(1L);
+      list.addLong(Long.MIN_VALUE);
+      list.addLong(Long.MAX_VALUE);
+
+      assertThat(list.size()).isEqualTo(3L);
+      assertThat(list.getLong(0)).isEqualTo(1L);
+      assertThat(list.getLong(1)).isEqualTo(Long.MIN_VALUE);
+      assertThat(list.getLastLong()).isEqualTo(Long.MAX_VALUE);
+    }
+  }
+
+  @Test
+  void setLongReplacesValue() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongListIndexProxy list = create(LIST_NAME, database.createFork(cleaner));
+      list.addLong(1L);
+
+      list.setLong(0, 2L);
+
+      assertThat(list.getLong(0)).isEqualTo(2L);
+    }
+  }
+
+  @Test
+  void getLongFailsIfInvalidIndex() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongListIndexProxy list = create(LIST_NAME, database.createFork(cleaner));
+      list.addLong(1L);
+
+      assertThrows(IndexOutOfBoundsException.class, () -> list.getLong(1));
+      assertThrows(IndexOutOfBoundsException.class, () -> list.setLong(-1, 0L));
+    }
+  }
+
+  @Test
+  void getLastLongFailsIfEmpty() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongListIndexProxy list = create(LIST_NAME, database.createSnapshot(cleaner));
+
+      assertThat(list.isEmpty()).isTrue();
+      assertThrows(NoSuchElementException.class, list::getLastLong);
+    }
+  }
+
+  @Test
+  void clearRemovesValues() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongListIndexProxy list = create(LIST_NAME, database.createFork(cleaner));
+      list.addLong(1L);
+
+      list.clear();
+
+      assertThat(list.isEmpty()).isTrue();
+    }
+  }
+
+  @Test
+  void valuesAreStoredAsFixed64() throws Exception {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      create(LIST_NAME, fork).addLong(-10L);
+      database.merge(fork);
+
+      ListIndex<Long> list = database.createSnapshot(cleaner)
+          .getList(IndexAddress.valueOf(LIST_NAME), fixed64());
+      assertThat(list).containsExactly(-10L);
+    }
+  }
+
+  @Override
+  LongListIndexProxy create(String name, Access access) {
+    return access.getLongList(IndexAddress.valueOf(name));
+  }
+
+  @Override
+  LongListIndexProxy createInGroup(String groupName, byte[] idInGroup, Access access) {
+    return access.getLongList(IndexAddress.valueOf(groupName, idInGroup));
+  }
+
+  @Override
+  StorageIndex createOfOtherType(String name, Access access) {
+    return access.getMap(IndexAddress.valueOf(name), string(), string());
+  }
+
+  @Override
+  Object getAnyElement(LongListIndexProxy index) {
+    return index.getLastLong();
+  }
+
+  @Override
+  void update(LongListIndexProxy index) {
+    index.addLong(1L);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.fixed64;
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static com.exonum.binding.core.storage.indices.TestStorageItems.K1;
+import static com.exonum.binding.core.storage.indices.TestStorageItems.K2;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
+import org.junit.jupiter.api.Test;
+
+class LongMapIndexProxyIntegrationTest
+    extends BaseIndexProxyTestable<LongMapIndexProxy<String>> {
+
+  private static final String MAP_NAME = "test_map";
+
+  @Test
+  void getOrDefaultReturnsDefaultIfNoSuchKey() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongMapIndexProxy<String> map = create(MAP_NAME, database.createSnapshot(cleaner));
+
+      assertThat(map.containsKey(K1)).isFalse();
+      assertThat(map.getOrDefault(K1, -1L)).isEqualTo(-1L);
+    }
+  }
+
+  @Test
+  void putLongOverwritesValue() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongMapIndexProxy<String> map = create(MAP_NAME, database.createFork(cleaner));
+
+      map.putLong(K1, 1L);
+      map.putLong(K1, 2L);
+
+      assertThat(map.containsKey(K1)).isTrue();
+      assertThat(map.getOrDefault(K1, 0L)).isEqualTo(2L);
+    }
+  }
+
+  @Test
+  void addToTreatsMissingValueAsZero() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongMapIndexProxy<String> map = create(MAP_NAME, database.createFork(cleaner));
+
+      assertThat(map.addTo(K1, 10L)).isEqualTo(10L);
+      assertThat(map.addTo(K1, -3L)).isEqualTo(7L);
+      assertThat(map.getOrDefault(K1, 0L)).isEqualTo(7L);
+    }
+  }
+
+  @Test
+  void addToFailsOnOverflow() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongMapIndexProxy<String> map = create(MAP_NAME, database.createFork(cleaner));
+      map.putLong(K1, Long.MAX_VALUE);
+
+      assertThrows(ArithmeticException.class, () -> map.addTo(K1, 1L));
+      assertThat(map.getOrDefault(K1, 0L)).isEqualTo(Long.MAX_VALUE);
+    }
+  }
+
+  @Test
+  void removeAndClear() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      LongMapIndexProxy<String> map = create(MAP_NAME, database.createFork(cleaner));
+      map.putLong(K1, 1L);
+      map.putLong(K2, 2L);
+
+      map.remove(K1);
+      assertThat(map.containsKey(K1)).isFalse();
+      assertThat(map.containsKey(K2)).isTrue();
+
+      map.clear();
+      assertThat(map.containsKey(K2)).isFalse();
+    }
+  }
+
+  @Test
+  void valuesAreStoredAsFixed64() throws Exception {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      create(MAP_NAME, fork).putLong(K1, -10L);
+      database.merge(fork);
+
+      MapIndex<String, Long> map = database.createSnapshot(cleaner)
+          .getMap(IndexAddress.valueOf(MAP_NAME), string(), fixed64());
+      assertThat(map.get(K1)).isEqualTo(-10L);
+    }
+  }
+
+  @Override
+  LongMapIndexProxy<String> create(String name, Access access) {
+    return access.getLongMap(IndexAddress.valueOf(name), string());
+  }
+
+  @Override
+  LongMapIndexProxy<String> createInGroup(String groupName, byte[] idInGroup, Access access) {
+    return access.getLongMap(IndexAddress.valueOf(groupName, idInGroup), string());
+  }
+
+  @Override
+  StorageIndex createOfOtherType(String name, Access access) {
+    return access.getList(IndexAddress.valueOf(name), string());
+  }
+
+  @Override
+  Object getAnyElement(LongMapIndexProxy<String> index) {
+    return index.getOrDefault(K1, 0L);
+  }
+
+  @Override
+  void update(LongMapIndexProxy<String> index) {
+    index.putLong(K1, 1L);
+  }
+}
@@ -20,6 +20,7 @@ import static com.exonum.binding.common.serialization.StandardSerializers.string
 import static com.exonum.binding.core.storage.indices.MapEntries.putAll;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.K1;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.K2;
+import static com.exonum.binding.core.storage.indices.TestStorageItems.K3;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V1;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V2;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V3;
@@ -27,6 +28,7 @@ import static com.exonum.binding.core.storage.indices.TestStorageItems.V4;
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -37,9 +39,11 @@ import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
 import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
@@ -206,6 +210,121 @@ class MapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void getAsBufferShouldReturnSuccessfullyPutValue() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      ByteBuffer value = map.getAsBuffer(K1);
+
+      assertTrue(value.isDirect());
+      assertTrue(value.isReadOnly());
+      assertThat(string().fromBuffer(value), equalTo(V1));
+    });
+  }
+
+  @Test
+  void getAsBufferReleasesValuesInGivenCleaner() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      MapIndexProxy<String, String> map = createMap(MAP_NAME, fork);
+      map.put(K1, V1);
+      int numForkActions = cleaner.getNumRegisteredActions();
+
+      for (int i = 0; i < 3; i++) {
+        try (Cleaner valueCleaner = cleaner.newNested()) {
+          ByteBuffer value = map.getAsBuffer(K1, valueCleaner);
+
+          assertThat(string().fromBuffer(value), equalTo(V1));
+          assertThat(valueCleaner.getNumRegisteredActions(), equalTo(1));
+        }
+        // The values are destroyed with the nested cleaners and do not accumulate
+        assertThat(cleaner.getNumRegisteredActions(), equalTo(numForkActions));
+      }
+    }
+  }
+
+  @Test
+  void getAsBufferShouldReturnNullIfNoSuchValue() {
+    runTestWithView(database::createSnapshot, (map) -> {
+      ByteBuffer value = map.getAsBuffer(K1);
+
+      assertNull(value);
+    });
+  }
+
+  @Test
+  void getShouldUseValueCacheIfEnabled() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ValueCache cache = fork.enableValueCache(16);
+      MapIndexProxy<String, String> map = createMap(MAP_NAME, fork);
+      map.put(K1, V1);
+
+      assertTrue(map.containsKey(K1));
+      String value = map.get(K1);
+      assertThat(value, equalTo(V1));
+      assertThat(map.get(K1), sameInstance(value));
+      assertNull(map.get(K2));
+
+      assertThat(cache.getMissCount(), equalTo(2L));
+      assertThat(cache.getHitCount(), equalTo(2L));
+    }
+  }
+
+  @Test
+  void getAllShouldUseValueCacheIfEnabled() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ValueCache cache = fork.enableValueCache(16);
+      MapIndexProxy<String, String> map = createMap(MAP_NAME, fork);
+      map.putAll(ImmutableMap.of(K1, V1, K2, V2));
+      String v1 = map.get(K1);
+
+      Map<String, String> values = map.getAll(ImmutableList.of(K1, K2, K3));
+
+      assertThat(values, equalTo(ImmutableMap.of(K1, V1, K2, V2)));
+      assertThat(values.get(K1), sameInstance(v1));
+      // K1 is served from the cache; K2 and K3 are read and put in the cache
+      assertThat(cache.getMissCount(), equalTo(3L));
+      assertThat(cache.getHitCount(), equalTo(1L));
+
+      assertTrue(map.containsAll(ImmutableList.of(K1, K2)));
+      assertFalse(map.containsAll(ImmutableList.of(K2, K3)));
+      assertThat(cache.getMissCount(), equalTo(3L));
+      assertThat(cache.getHitCount(), equalTo(5L));
+    }
+  }
+
+  @Test
+  void writesShouldInvalidateCachedValues() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      fork.enableValueCache(16);
+      MapIndexProxy<String, String> map = createMap(MAP_NAME, fork);
+
+      assertNull(map.get(K1));
+      map.put(K1, V1);
+      assertThat(map.get(K1), equalTo(V1));
+
+      map.putAll(ImmutableMap.of(K1, V2));
+      assertThat(map.get(K1), equalTo(V2));
+
+      map.remove(K1);
+      assertFalse(map.containsKey(K1));
+
+      map.put(K1, V3);
+      assertThat(map.get(K1), equalTo(V3));
+      map.removeAll(ImmutableList.of(K1));
+      assertNull(map.get(K1));
+
+      map.put(K1, V4);
+      assertThat(map.get(K1), equalTo(V4));
+      map.clear();
+      assertNull(map.get(K1));
+    }
+  }
+
   @Test
   void getShouldReturnNullIfNoSuchValueInFork() {
     runTestWithView(database::createFork, (map) -> {
@@ -272,6 +391,51 @@ class MapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void containsAllShouldReturnTrueIfHasMappingsForAllKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(K1, V1, K2, V2));
+
+      assertTrue(map.containsAll(ImmutableList.of(K1, K2)));
+      assertFalse(map.containsAll(ImmutableList.of(K1, K3)));
+    });
+  }
+
+  @Test
+  void getAllShouldReturnPresentValues() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(K1, V1, K2, V2));
+
+      Map<String, String> values = map.getAll(ImmutableList.of(K2, K3, K1));
+
+      assertThat(values, equalTo(ImmutableMap.of(K2, V2, K1, V1)));
+    });
+  }
+
+  @Test
+  void getAllShouldReturnEmptyMapIfNoKeys() {
+    runTestWithView(database::createSnapshot,
+        (map) -> assertTrue(map.getAll(ImmutableList.of()).isEmpty())
+    );
+  }
+
+  @Test
+  void removeAllSuccessfullyPutValues() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(K1, V1, K2, V2, K3, V3));
+
+      map.removeAll(ImmutableList.of(K1, K3));
+
+      assertThat(map.getAll(ImmutableList.of(K1, K2, K3)), equalTo(ImmutableMap.of(K2, V2)));
+    });
+  }
+
+  @Test
+  void removeAllShouldFailWithSnapshot() {
+    runTestWithView(database::createSnapshot, (map) -> assertThrows(
+        UnsupportedOperationException.class, () -> map.removeAll(ImmutableList.of(K1))));
+  }
+
   @Test
   void keysShouldReturnEmptyIterIfNoEntries() {
     runTestWithView(database::createSnapshot, (map) -> {
@@ -356,6 +520,142 @@ class MapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void entriesShouldReturnIterWithAllValuesSpanningSeveralChunks() {
+    runTestWithView(database::createFork, (map) -> {
+      int numEntries = 2 * StorageIterators.DEFAULT_CHUNK_SIZE + 1;
+      List<MapEntry<String, String>> entries = IntStream.range(0, numEntries)
+          .mapToObj(i -> MapEntry.valueOf(String.format("k%05d", i), "v" + i))
+          .collect(Collectors.toList());
+      putAll(map, entries);
+
+      List<MapEntry<String, String>> iterEntries = ImmutableList.copyOf(map.entries());
+      List<String> iterKeys = ImmutableList.copyOf(map.keys());
+
+      assertThat(iterEntries, equalTo(entries));
+      assertThat(iterKeys, equalTo(MapEntries.extractKeys(entries)));
+    });
+  }
+
+  @Test
+  void keysFromShouldStartAtTheGivenKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(4);
+      putAll(map, entries);
+
+      List<String> keysFromIter = ImmutableList.copyOf(map.keys("b"));
+
+      assertThat(keysFromIter, equalTo(ImmutableList.of("b", "c", "d")));
+    });
+  }
+
+  @Test
+  void keysFromShouldStartAtTheNextKeyIfNoSuchKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(4);
+      putAll(map, entries);
+
+      List<String> keysFromIter = ImmutableList.copyOf(map.keys("bb"));
+
+      assertThat(keysFromIter, equalTo(ImmutableList.of("c", "d")));
+    });
+  }
+
+  @Test
+  void valuesFromShouldStartAtTheGivenKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(4);
+      putAll(map, entries);
+
+      List<String> valuesFromIter = ImmutableList.copyOf(map.values("c"));
+
+      assertThat(valuesFromIter, equalTo(ImmutableList.of("v3", "v4")));
+    });
+  }
+
+  @Test
+  void entriesFromShouldStartAtTheGivenKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(4);
+      putAll(map, entries);
+
+      List<MapEntry<String, String>> iterEntries = ImmutableList.copyOf(map.entries("c"));
+
+      assertThat(iterEntries, equalTo(entries.subList(2, 4)));
+    });
+  }
+
+  @Test
+  void entriesInRangeShouldExcludeTheUpperBound() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(5);
+      putAll(map, entries);
+
+      List<MapEntry<String, String>> iterEntries = ImmutableList.copyOf(map.entries("b", "d"));
+
+      assertThat(iterEntries, equalTo(entries.subList(1, 3)));
+    });
+  }
+
+  @Test
+  void entriesInEmptyRange() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(5);
+      putAll(map, entries);
+
+      Iterator<MapEntry<String, String>> iterator = map.entries("c", "c");
+
+      assertFalse(iterator.hasNext());
+    });
+  }
+
+  @Test
+  void entriesInRangeSpanningSeveralChunks() {
+    runTestWithView(database::createFork, (map) -> {
+      int numEntries = 3 * StorageIterators.DEFAULT_CHUNK_SIZE;
+      List<MapEntry<String, String>> entries = IntStream.range(0, numEntries)
+          .mapToObj(i -> MapEntry.valueOf(String.format("k%05d", i), "v" + i))
+          .collect(Collectors.toList());
+      putAll(map, entries);
+
+      int from = 10;
+      int to = 2 * StorageIterators.DEFAULT_CHUNK_SIZE + 10;
+      List<MapEntry<String, String>> iterEntries = ImmutableList.copyOf(
+          map.entries(entries.get(from).getKey(), entries.get(to).getKey()));
+
+      assertThat(iterEntries, equalTo(entries.subList(from, to)));
+    });
+  }
+
+  @Test
+  void entriesWithPrefix() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = ImmutableList.of(
+          MapEntry.valueOf("ab", V1),
+          MapEntry.valueOf("abc", V2),
+          MapEntry.valueOf("abd", V3),
+          MapEntry.valueOf("ac", V4));
+      putAll(map, entries);
+
+      List<MapEntry<String, String>> iterEntries =
+          ImmutableList.copyOf(map.entriesWithPrefix("ab"));
+
+      assertThat(iterEntries, equalTo(entries.subList(0, 3)));
+    });
+  }
+
+  @Test
+  void entriesWithPrefixShouldReturnEmptyIterIfNoSuchKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(3);
+      putAll(map, entries);
+
+      Iterator<MapEntry<String, String>> iterator = map.entriesWithPrefix("bb");
+
+      assertFalse(iterator.hasNext());
+    });
+  }
+
   @Test
   void clearEmptyFork() {
     runTestWithView(database::createFork, MapIndexProxy::clear);  // no-op
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapWriteBufferTest {
+
+  private MapWriteBuffer buffer;
+  private List<byte[]> puts;
+  private List<byte[]> removals;
+
+  @BeforeEach
+  void setUp() {
+    buffer = new MapWriteBuffer();
+    puts = new ArrayList<>();
+    removals = new ArrayList<>();
+  }
+
+  @Test
+  void flushEmpty() {
+    flush();
+
+    assertThat(puts).isEmpty();
+    assertThat(removals).isEmpty();
+  }
+
+  @Test
+  void flushCoalescesWritesOfSameKey() {
+    buffer.put(bytes(1), bytes(10));
+    buffer.put(bytes(2), bytes(20));
+    buffer.put(bytes(1), bytes(11));
+
+    flush();
+
+    assertThat(removals).isEmpty();
+    assertThat(puts).hasSize(1);
+    assertThat(PackedArrays.unpack(puts.get(0)))
+        .containsExactly(bytes(1), bytes(11), bytes(2), bytes(20));
+  }
+
+  @Test
+  void flushPassesRemovals() {
+    buffer.put(bytes(1), bytes(10));
+    buffer.remove(bytes(1));
+    buffer.remove(bytes(2));
+
+    flush();
+
+    assertThat(puts).isEmpty();
+    assertThat(removals).hasSize(1);
+    assertThat(PackedArrays.unpack(removals.get(0)))
+        .containsExactly(bytes(1), bytes(2));
+  }
+
+  @Test
+  void putEmptyValueIsNotRemoval() {
+    buffer.put(bytes(1), bytes());
+
+    flush();
+
+    assertThat(removals).isEmpty();
+    assertThat(PackedArrays.unpack(puts.get(0)))
+        .containsExactly(bytes(1), bytes());
+  }
+
+  @Test
+  void findWriteReturnsLatestWrite() {
+    buffer.put(bytes(1), bytes(10));
+    buffer.put(bytes(1), bytes(11));
+
+    assertThat(buffer.findWrite(bytes(1))).isEqualTo(bytes(11));
+    assertThat(buffer.findWrite(bytes(2))).isNull();
+  }
+
+  @Test
+  void findWriteReturnsRemoval() {
+    buffer.put(bytes(1), bytes(10));
+    buffer.remove(bytes(1));
+    buffer.put(bytes(2), bytes());
+
+    assertThat(MapWriteBuffer.isRemoval(buffer.findWrite(bytes(1)))).isTrue();
+    assertThat(MapWriteBuffer.isRemoval(buffer.findWrite(bytes(2)))).isFalse();
+  }
+
+  @Test
+  void flushClearsBuffer() {
+    buffer.put(bytes(1), bytes(10));
+
+    flush();
+    flush();
+
+    assertThat(buffer.isEmpty()).isTrue();
+    assertThat(puts).hasSize(1);
+  }
+
+  private void flush() {
+    buffer.flush(puts::add, removals::add);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PackedArraysTest {
+
+  @Test
+  void packEmpty() {
+    assertThat(PackedArrays.pack(ImmutableList.of())).isEmpty();
+  }
+
+  @Test
+  void packSeveralArrays() {
+    byte[] packed = PackedArrays.pack(ImmutableList.of(bytes(), bytes(1, 2)));
+
+    assertThat(packed).isEqualTo(bytes(0, 0, 0, 0, 2, 0, 0, 0, 1, 2));
+  }
+
+  @Test
+  void packRejectsNulls() {
+    List<byte[]> arrays = Arrays.asList(bytes(1), null);
+
+    assertThrows(NullPointerException.class, () -> PackedArrays.pack(arrays));
+  }
+
+  @Test
+  void unpackPacked() {
+    List<byte[]> arrays = ImmutableList.of(bytes(1), bytes(), bytes(2, 3, 4));
+
+    List<byte[]> unpacked = PackedArrays.unpack(PackedArrays.pack(arrays));
+
+    assertThat(unpacked).containsExactlyElementsOf(arrays);
+  }
+
+  @Test
+  void unpackAbsent() {
+    byte[] packed = bytes(0xFF, 0xFF, 0xFF, 0xFF, 1, 0, 0, 0, 5);
+
+    List<byte[]> unpacked = PackedArrays.unpack(packed);
+
+    assertThat(unpacked).containsExactly(null, bytes(5));
+  }
+
+  @Test
+  void unpackRejectsIncompleteLength() {
+    byte[] packed = bytes(1, 0, 0);
+
+    assertThrows(IllegalArgumentException.class, () -> PackedArrays.unpack(packed));
+  }
+
+  @Test
+  void unpackRejectsTruncatedArray() {
+    byte[] packed = bytes(2, 0, 0, 0, 1);
+
+    assertThrows(IllegalArgumentException.class, () -> PackedArrays.unpack(packed));
+  }
+}
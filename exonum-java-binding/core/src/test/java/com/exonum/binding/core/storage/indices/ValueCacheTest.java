@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.common.serialization.Serializer;
+import com.exonum.binding.core.storage.indices.ValueCache.CachedValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ValueCacheTest {
+
+  private static final IndexAddress MAP_1 = IndexAddress.valueOf("map_1");
+  private static final IndexAddress MAP_2 = IndexAddress.valueOf("map_2");
+  private static final Serializer<String> SERIALIZER = string();
+
+  private ValueCache cache;
+  private List<byte[]> loadedKeys;
+
+  @BeforeEach
+  void setUp() {
+    cache = ValueCache.newInstance(2);
+    loadedKeys = new ArrayList<>();
+  }
+
+  @Test
+  void newInstanceRejectsNonPositiveSize() {
+    assertThrows(IllegalArgumentException.class, () -> ValueCache.newInstance(0));
+  }
+
+  @Test
+  void getLoadsValueOnce() {
+    CachedValue v1 = cache.get(MAP_1, bytes(1), loader("v1"));
+    CachedValue v2 = cache.get(MAP_1, bytes(1), loader("v2"));
+
+    assertThat(v2).isSameAs(v1);
+    assertThat(v2.getValue(SERIALIZER)).isEqualTo("v1");
+    assertThat(loadedKeys).hasSize(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void getCachesAbsentValues() {
+    cache.get(MAP_1, bytes(1), loader(null));
+    CachedValue value = cache.get(MAP_1, bytes(1), loader("v1"));
+
+    assertThat(value.isPresent()).isFalse();
+    assertThat(value.getValue(SERIALIZER)).isNull();
+    assertThat(loadedKeys).hasSize(1);
+  }
+
+  @Test
+  void getDecodesValueOnce() {
+    CachedValue value = cache.get(MAP_1, bytes(1), loader("v1"));
+
+    String decoded = value.getValue(SERIALIZER);
+
+    assertThat(value.getValue(SERIALIZER)).isSameAs(decoded);
+  }
+
+  @Test
+  void getIfPresentReturnsPutValue() {
+    assertThat(cache.getIfPresent(MAP_1, bytes(1))).isNull();
+
+    CachedValue value = cache.put(MAP_1, bytes(1), SERIALIZER.toBytes("v1"));
+
+    assertThat(cache.getIfPresent(MAP_1, bytes(1))).isSameAs(value);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void getUsesPutValue() {
+    cache.put(MAP_1, bytes(1), null);
+
+    CachedValue value = cache.get(MAP_1, bytes(1), loader("v1"));
+
+    assertThat(value.isPresent()).isFalse();
+    assertThat(loadedKeys).isEmpty();
+  }
+
+  @Test
+  void getDistinguishesIndexes() {
+    cache.get(MAP_1, bytes(1), loader("v1"));
+    CachedValue value = cache.get(MAP_2, bytes(1), loader("v2"));
+
+    assertThat(value.getValue(SERIALIZER)).isEqualTo("v2");
+  }
+
+  @Test
+  void getEvictsLeastRecentlyUsed() {
+    cache.get(MAP_1, bytes(1), loader("v1"));
+    cache.get(MAP_1, bytes(2), loader("v2"));
+    // Access the first key, so that the second becomes the eldest
+    cache.get(MAP_1, bytes(1), loader("v1"));
+    cache.get(MAP_1, bytes(3), loader("v3"));
+
+    assertThat(cache.size()).isEqualTo(2);
+    cache.get(MAP_1, bytes(1), loader("v1"));
+    assertThat(loadedKeys).hasSize(3);
+    cache.get(MAP_1, bytes(2), loader("v2"));
+    assertThat(loadedKeys).hasSize(4);
+  }
+
+  @Test
+  void invalidateRemovesKey() {
+    cache.get(MAP_1, bytes(1), loader("v1"));
+
+    cache.invalidate(MAP_1, bytes(1));
+
+    CachedValue value = cache.get(MAP_1, bytes(1), loader("v2"));
+    assertThat(value.getValue(SERIALIZER)).isEqualTo("v2");
+  }
+
+  @Test
+  void invalidateIndexRemovesOnlyItsKeys() {
+    cache.get(MAP_1, bytes(1), loader("v1"));
+    cache.get(MAP_2, bytes(1), loader("v2"));
+
+    cache.invalidateIndex(MAP_1);
+
+    assertThat(cache.size()).isEqualTo(1);
+    cache.get(MAP_2, bytes(1), loader("v2"));
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void invalidateAllKeepsCounters() {
+    cache.get(MAP_1, bytes(1), loader("v1"));
+
+    cache.invalidateAll();
+
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getMissCount()).isEqualTo(1);
+  }
+
+  private UnaryOperator<byte[]> loader(String value) {
+    return key -> {
+      loadedKeys.add(key);
+      return (value == null) ? null : SERIALIZER.toBytes(value);
+    };
+  }
+}